@@ -0,0 +1,69 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.AltSearch;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link AltSearch} with more or fewer landmarks, chosen as the farthest apart buildings or as the
+ * farthest apart points on any path, between buildings close together, a median distance apart, and farthest apart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AltBenchmark {
+
+    @Param({"4", "8", "16"})
+    public int landmarks;
+
+    @Param({"BUILDINGS", "POINTS"})
+    public String candidates;
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private AltSearch<Point> alt;
+    private Point start;
+    private Point end;
+
+    @Setup
+    public void buildTables(CampusState campus) {
+        IndexedGraph<Point> graph = campus.indexedGraph;
+        int[] chosen;
+        if (candidates.equals("BUILDINGS")) {
+            // As CampusMap chooses them, among the distinct locations of buildings
+            List<Integer> locations = new ArrayList<>();
+            for (Point location : campus.buildings.values()) {
+                int id = graph.idOf(location);
+                if (id >= 0 && !locations.contains(id)) locations.add(id);
+            }
+            int[] buildingIds = new int[locations.size()];
+            for (int i = 0; i < buildingIds.length; i++) buildingIds[i] = locations.get(i);
+            chosen = AltSearch.farthestLandmarks(graph, buildingIds, landmarks);
+        } else {
+            chosen = AltSearch.farthestLandmarks(graph, landmarks);
+        }
+        alt = new AltSearch<>(graph, chosen);
+        Path<Point> route = campus.route(length);
+        start = route.getStart();
+        end = route.getEnd();
+    }
+
+    @Benchmark
+    public Path<Point> findPath() {
+        return alt.findPath(start, end);
+    }
+}
@@ -0,0 +1,49 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.KShortestPaths;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks finding the k shortest paths between two buildings with {@link KShortestPaths}, for more and more
+ * alternatives, between buildings close together, a median distance apart, and farthest apart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class AlternativesBenchmark {
+
+    @Param({"1", "3", "5"})
+    public int k;
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private KShortestPaths<Point> alternatives;
+    private Point start;
+    private Point end;
+
+    @Setup
+    public void chooseRoute(CampusState campus) {
+        alternatives = new KShortestPaths<>(campus.indexedGraph);
+        Path<Point> route = campus.route(length);
+        start = route.getStart();
+        end = route.getEnd();
+    }
+
+    @Benchmark
+    public List<Path<Point>> findPaths() {
+        return alternatives.findPaths(start, end, k);
+    }
+}
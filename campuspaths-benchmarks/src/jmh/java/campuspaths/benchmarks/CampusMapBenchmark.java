@@ -0,0 +1,53 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pathfinder.CampusMap;
+import pathfinder.parser.CompiledMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating the campus map the server answers requests from, either by parsing the data files or by
+ * loading a map compiled from them, and building every index needed up front.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CampusMapBenchmark {
+
+    @Param({"DATA_FILES", "COMPILED_MAP"})
+    public String source;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void compileMap() throws IOException {
+        if (!source.equals("COMPILED_MAP")) return;
+        file = Files.createTempFile("campus_map", ".bin");
+        CompiledMap.compile("campus_paths.csv", "campus_buildings.csv", file);
+        System.setProperty(CampusMap.COMPILED_MAP_PROPERTY, file.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteMap() throws IOException {
+        System.clearProperty(CampusMap.COMPILED_MAP_PROPERTY);
+        if (file != null) Files.delete(file);
+    }
+
+    @Benchmark
+    public CampusMap construct() {
+        return new CampusMap();
+    }
+}
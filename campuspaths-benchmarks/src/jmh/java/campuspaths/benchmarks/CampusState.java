@@ -0,0 +1,139 @@
+package campuspaths.benchmarks;
+
+import graph.Graph;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.DijkstraSearch;
+import pathfinder.EdgeNormalizer;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The campus graph, the buildings on it and a fixed set of routes between buildings, loaded once and shared by every
+ * benchmark that searches the campus or uses the paths found on it.
+ */
+@State(Scope.Benchmark)
+public class CampusState {
+
+    /**
+     * Graph of every path on campus, normalized as {@link pathfinder.CampusMap} does.
+     */
+    Graph<Point, Double> graph;
+
+    /**
+     * The campus graph with dense node IDs, as searched by every engine over arrays.
+     */
+    IndexedGraph<Point> indexedGraph;
+
+    /**
+     * The location of each building, by short name, sorted by short name.
+     */
+    Map<String, Point> buildings;
+
+    /**
+     * The shortest path of the shortest, median and longest route between two different buildings, indexed by
+     * {@link RouteLength#ordinal()}.
+     */
+    List<Path<Point>> routes;
+
+    /**
+     * The short names of the buildings each route starts and ends at, indexed as {@link #routes}.
+     */
+    List<String[]> routeNames;
+
+    /**
+     * Loads the campus graph and finds the routes between every pair of buildings, to choose the fixed routes from.
+     */
+    @Setup(Level.Trial)
+    public void load() {
+        Graph<Point, Double> loaded = new Graph<>();
+        CampusPathsParser.parseCampusPaths("campus_paths.csv", (x1, y1, x2, y2, distance) ->
+                loaded.addEdge(new Point(x1, y1), new Point(x2, y2), distance));
+        graph = new Graph<>();
+        EdgeNormalizer.normalize(loaded, graph);
+        indexedGraph = new IndexedGraph<>(graph);
+        // Sorted by short name, so the same routes are chosen on every run
+        buildings = new TreeMap<>();
+        for (CampusBuilding building : CampusPathsParser.parseCampusBuildings("campus_buildings.csv")) {
+            buildings.put(building.getShortName(), new Point(building.getX(), building.getY()));
+        }
+        List<Path<Point>> paths = new ArrayList<>();
+        List<String[]> names = new ArrayList<>();
+        for (Map.Entry<String, Point> start : buildings.entrySet()) {
+            for (Map.Entry<String, Point> end : buildings.entrySet()) {
+                if (start.getValue().equals(end.getValue())) continue;
+                Path<Point> path = DijkstraSearch.findPath(graph, start.getValue(), end.getValue());
+                if (path == null) continue;
+                paths.add(path);
+                names.add(new String[]{start.getKey(), end.getKey()});
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) order.add(i);
+        // Stable, so that of routes as long as each other the first in name order is chosen
+        order.sort(new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(paths.get(o1).getCost(), paths.get(o2).getCost());
+            }
+        });
+        routes = new ArrayList<>();
+        routeNames = new ArrayList<>();
+        for (int i : new int[]{order.get(0), order.get(order.size() / 2), order.get(order.size() - 1)}) {
+            routes.add(paths.get(i));
+            routeNames.add(names.get(i));
+        }
+        routes = Collections.unmodifiableList(routes);
+        routeNames = Collections.unmodifiableList(routeNames);
+    }
+
+    /**
+     * @param length Which of the fixed routes to return
+     * @return the shortest path of that route
+     */
+    Path<Point> route(RouteLength length) {
+        return routes.get(length.ordinal());
+    }
+
+    /**
+     * @param length Which of the fixed routes to return
+     * @return the short names of the buildings the route starts and ends at, in that order
+     */
+    String[] routeNames(RouteLength length) {
+        return routeNames.get(length.ordinal()).clone();
+    }
+
+    /**
+     * The fixed routes between buildings that benchmarks are run on.
+     */
+    public enum RouteLength {
+
+        /**
+         * The route between the two different buildings that are closest together
+         */
+        SHORT,
+
+        /**
+         * The route of median length between two different buildings
+         */
+        MEDIAN,
+
+        /**
+         * The route between the two buildings that are farthest apart
+         */
+        LONGEST
+
+    }
+}
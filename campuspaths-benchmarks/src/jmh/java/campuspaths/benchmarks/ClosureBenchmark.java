@@ -0,0 +1,54 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.CampusMap;
+import pathfinder.Closures;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the cost of checking every edge against closures: the same Dijkstra search between two buildings with
+ * nothing closed, and with an area closed off the map, which closes nothing but must still be checked.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ClosureBenchmark {
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private final Closures offMap =
+            new Closures(Collections.singletonList(Closures.Closure.area(-20, -20, -10, -10)));
+    private CampusMap map;
+    private String start;
+    private String end;
+
+    @Setup
+    public void createMap(CampusState campus) {
+        map = new CampusMap();
+        String[] names = campus.routeNames(length);
+        start = names[0];
+        end = names[1];
+    }
+
+    @Benchmark
+    public Path<Point> open() {
+        return map.findShortestPath(start, end);
+    }
+
+    @Benchmark
+    public Path<Point> closedOffMap() {
+        return map.findShortestPath(start, end, offMap);
+    }
+}
@@ -0,0 +1,64 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.CoordinateRouter;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.SegmentGrid;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link CoordinateRouter}: snapping random coordinates anywhere on the campus map onto the nearest path,
+ * and routing between the locations of buildings close together, a median distance apart, and farthest apart, given
+ * as coordinates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CoordinateBenchmark {
+
+    // Number of random coordinates snapped in turn, a power of two
+    private static final int COORDINATES = 1024;
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private CoordinateRouter router;
+    private Point[] coordinates;
+    private int next;
+    private Point start;
+    private Point end;
+
+    @Setup
+    public void createRouter(CampusState campus) {
+        router = new CoordinateRouter(campus.indexedGraph);
+        Random random = new Random(331);
+        // Anywhere on the campus map image, which is 4330 by 2964 pixels
+        coordinates = new Point[COORDINATES];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = new Point(random.nextDouble() * 4330, random.nextDouble() * 2964);
+        }
+        Path<Point> route = campus.route(length);
+        start = route.getStart();
+        end = route.getEnd();
+    }
+
+    @Benchmark
+    public SegmentGrid.Snap snap() {
+        return router.snap(coordinates[next++ & (COORDINATES - 1)]);
+    }
+
+    @Benchmark
+    public Path<Point> findPath() {
+        return router.findPath(start, end);
+    }
+}
@@ -0,0 +1,49 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.CampusMap;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks finding the shortest path between two buildings with each {@link SearchEngine} a {@link CampusMap} can
+ * use, between buildings close together, a median distance apart, and farthest apart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    @Param({"DIJKSTRA", "INDEXED_DIJKSTRA", "A_STAR", "BIDIRECTIONAL", "CONTRACTION_HIERARCHY", "ALT", "ROUTE_TABLE"})
+    public SearchEngine engine;
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private CampusMap map;
+    private String start;
+    private String end;
+
+    @Setup
+    public void createMap(CampusState campus) {
+        map = new CampusMap(engine);
+        String[] names = campus.routeNames(length);
+        start = names[0];
+        end = names[1];
+    }
+
+    @Benchmark
+    public Path<Point> findShortestPath() {
+        return map.findShortestPath(start, end);
+    }
+}
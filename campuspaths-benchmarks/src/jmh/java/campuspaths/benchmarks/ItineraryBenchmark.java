@@ -0,0 +1,45 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.CampusMap;
+import pathfinder.ItinerarySolver;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks planning an itinerary through more and more buildings, with no fixed start or end, both below and above
+ * the number of stops {@link ItinerarySolver} orders exactly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ItineraryBenchmark {
+
+    @Param({"5", "10", "15"})
+    public int stops;
+
+    private CampusMap map;
+    private List<String> stopShortNames;
+
+    @Setup
+    public void chooseStops(CampusState campus) {
+        map = new CampusMap();
+        stopShortNames = new ArrayList<>(campus.buildings.keySet()).subList(0, stops);
+    }
+
+    @Benchmark
+    public Path<Point> planItinerary() {
+        return map.planItinerary(stopShortNames, null, null);
+    }
+}
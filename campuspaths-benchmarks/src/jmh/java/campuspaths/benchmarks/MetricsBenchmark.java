@@ -0,0 +1,39 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.SearchEngine;
+import pathfinder.metrics.Histogram;
+import pathfinder.metrics.RateMeter;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks recording the metrics the server records for one search request: a latency between two clock readings,
+ * a mark in the request rate and the work done by the search. Compare with {@link EngineBenchmark} for the share of
+ * a query it adds.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private final Histogram latency = new Histogram();
+    private final RateMeter rate = new RateMeter();
+    private final SearchMetrics.Recorder recorder = SearchMetrics.recorder(SearchEngine.DIJKSTRA);
+    private int request;
+
+    @Benchmark
+    public void recordRequest() {
+        long requestStart = System.nanoTime();
+        int i = request++;
+        recorder.record(i & 1023, i & 2047);
+        latency.record(System.nanoTime() - requestStart);
+        rate.mark();
+    }
+}
@@ -0,0 +1,32 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing the campus paths file, both into a list and streamed into a handler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParserBenchmark {
+
+    @Benchmark
+    public List<CampusPath> parseToList() {
+        return CampusPathsParser.parseCampusPaths("campus_paths.csv");
+    }
+
+    @Benchmark
+    public double parseToHandler() {
+        // Sum the distances, so that the parsed values are used and the parsing cannot be optimized away
+        double[] total = new double[1];
+        CampusPathsParser.parseCampusPaths("campus_paths.csv", (x1, y1, x2, y2, distance) -> total[0] += distance);
+        return total[0];
+    }
+}
@@ -0,0 +1,61 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pathfinder.AltSearch;
+import pathfinder.RouteTable;
+import pathfinder.datastructures.Point;
+import pathfinder.hierarchy.ContractionHierarchy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the preprocessing done by the engines that answer queries from precomputed data: contracting the campus
+ * graph into a hierarchy, building landmark tables, and routing between every pair of buildings for a route table,
+ * in parallel and on one thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class PreprocessingBenchmark {
+
+    private ForkJoinPool oneThread;
+
+    @Setup(Level.Trial)
+    public void createPool() {
+        oneThread = new ForkJoinPool(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        oneThread.shutdown();
+    }
+
+    @Benchmark
+    public ContractionHierarchy<Point> contractionHierarchy(CampusState campus) {
+        return new ContractionHierarchy<>(campus.indexedGraph);
+    }
+
+    @Benchmark
+    public AltSearch<Point> landmarkTables(CampusState campus) {
+        return new AltSearch<>(campus.indexedGraph, AltSearch.farthestLandmarks(campus.indexedGraph, 16));
+    }
+
+    @Benchmark
+    public RouteTable<Point> routeTable(CampusState campus) {
+        return new RouteTable<>(campus.indexedGraph, campus.buildings);
+    }
+
+    @Benchmark
+    public RouteTable<Point> routeTableOneThread(CampusState campus) {
+        return new RouteTable<>(campus.indexedGraph, campus.buildings, oneThread);
+    }
+}
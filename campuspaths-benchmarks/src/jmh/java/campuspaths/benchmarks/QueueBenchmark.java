@@ -0,0 +1,77 @@
+package campuspaths.benchmarks;
+
+import graph.Graph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pathfinder.IndexedDijkstra;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.QueueKind;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link IndexedDijkstra} with each kind of priority queue on a synthetic square grid much larger than the
+ * campus, with random costs on its edges, between fixed random pairs of points.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class QueueBenchmark {
+
+    // Points along each side of the grid, and routes searched per invocation
+    private static final int SIDE = 300;
+    private static final int ROUTES = 200;
+
+    @Param({"BINARY_HEAP", "FOUR_ARY_HEAP", "PAIRING_HEAP", "RADIX_QUEUE"})
+    public QueueKind queue;
+
+    private IndexedDijkstra<Point> search;
+    private Point[][] routes;
+
+    @Setup(Level.Trial)
+    public void buildGrid() {
+        Random random = new Random(SIDE);
+        Point[][] points = new Point[SIDE][SIDE];
+        for (int row = 0; row < SIDE; row++) {
+            for (int column = 0; column < SIDE; column++) points[row][column] = new Point(column, row);
+        }
+        Graph<Point, Double> grid = new Graph<>();
+        for (int row = 0; row < SIDE; row++) {
+            for (int column = 0; column < SIDE; column++) {
+                if (column + 1 < SIDE) {
+                    double cost = 10 + random.nextInt(90) + random.nextDouble();
+                    grid.addEdge(points[row][column], points[row][column + 1], cost);
+                    grid.addEdge(points[row][column + 1], points[row][column], cost);
+                }
+                if (row + 1 < SIDE) {
+                    double cost = 10 + random.nextInt(90) + random.nextDouble();
+                    grid.addEdge(points[row][column], points[row + 1][column], cost);
+                    grid.addEdge(points[row + 1][column], points[row][column], cost);
+                }
+            }
+        }
+        search = new IndexedDijkstra<>(new IndexedGraph<>(grid), queue);
+        routes = new Point[ROUTES][];
+        for (int i = 0; i < ROUTES; i++) {
+            routes[i] = new Point[]{points[random.nextInt(SIDE)][random.nextInt(SIDE)],
+                                    points[random.nextInt(SIDE)][random.nextInt(SIDE)]};
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUTES)
+    public void findPaths(Blackhole blackhole) {
+        for (Point[] route : routes) blackhole.consume(search.findPath(route[0], route[1]));
+    }
+}
@@ -0,0 +1,42 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import pathfinder.DijkstraSearch;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DijkstraSearch} between buildings close together, a median distance apart, and farthest apart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private Point start;
+    private Point end;
+
+    @Setup
+    public void chooseRoute(CampusState campus) {
+        Path<Point> route = campus.route(length);
+        start = route.getStart();
+        end = route.getEnd();
+    }
+
+    @Benchmark
+    public Path<Point> dijkstra(CampusState campus) {
+        return DijkstraSearch.findPath(campus.graph, start, end);
+    }
+}
@@ -0,0 +1,53 @@
+package campuspaths.benchmarks;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.textInterface.CoordinateProperties;
+import pathfinder.textInterface.Direction;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks turning a path found on campus into a response: serializing it to JSON as the server does, and
+ * resolving the direction of each of its segments as the text interface does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ServingBenchmark {
+
+    @Param({"SHORT", "MEDIAN", "LONGEST"})
+    public CampusState.RouteLength length;
+
+    private final Gson gson = new Gson();
+    private Path<Point> route;
+
+    @Setup
+    public void chooseRoute(CampusState campus) {
+        route = campus.route(length);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return gson.toJson(route);
+    }
+
+    @Benchmark
+    public void resolveDirections(Blackhole blackhole) {
+        for (Path<Point>.Segment segment : route) {
+            blackhole.consume(Direction.resolveDirection(segment.getStart().getX(), segment.getStart().getY(),
+                                                         segment.getEnd().getX(), segment.getEnd().getY(),
+                                                         CoordinateProperties.INCREASING_DOWN_RIGHT));
+        }
+    }
+}
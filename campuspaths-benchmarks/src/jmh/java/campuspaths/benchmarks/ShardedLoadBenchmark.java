@@ -0,0 +1,79 @@
+package campuspaths.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import pathfinder.ShardedPathLoader;
+import pathfinder.parser.CampusPathsParser.PathShard;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks loading a synthetic paths file of about two million paths, a square grid of points joined both ways to
+ * their neighbours, with {@link ShardedPathLoader} on more and more threads. The speedup is bounded by the number of
+ * processors the benchmark runs on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ShardedLoadBenchmark {
+
+    // Points along each side of the grid
+    private static final int SIDE = 710;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Path file;
+    private ForkJoinPool pool;
+    private List<PathShard> shards;
+
+    @Setup(Level.Trial)
+    public void writeGrid() throws IOException {
+        file = Files.createTempFile("grid_paths", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int row = 0; row < SIDE; row++) {
+                for (int column = 0; column < SIDE; column++) {
+                    if (column + 1 < SIDE) writePaths(writer, column, row, column + 1, row);
+                    if (row + 1 < SIDE) writePaths(writer, column, row, column, row + 1);
+                }
+            }
+        }
+        pool = new ForkJoinPool(threads);
+        shards = PathShard.of(file).split(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteGrid() throws IOException {
+        pool.shutdown();
+        Files.delete(file);
+    }
+
+    /**
+     * Writes the two paths between neighbouring grid points, one each way, as lines of a campus paths file.
+     */
+    private static void writePaths(Writer writer, int x1, int y1, int x2, int y2) throws IOException {
+        double distance = 10 + (31 * x1 + 17 * y1) % 7 * 0.125;
+        writer.write((x1 * 10.5) + "," + (y1 * 10.5) + "," + (x2 * 10.5) + "," + (y2 * 10.5) + "," + distance + "\n");
+        writer.write((x2 * 10.5) + "," + (y2 * 10.5) + "," + (x1 * 10.5) + "," + (y1 * 10.5) + "," + distance + "\n");
+    }
+
+    @Benchmark
+    public ShardedPathLoader.LoadedPaths load() {
+        return ShardedPathLoader.load(shards, pool);
+    }
+}
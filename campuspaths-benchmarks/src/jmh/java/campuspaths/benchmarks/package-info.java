@@ -0,0 +1,6 @@
+/**
+ * JMH benchmarks of loading the campus map, preprocessing it for and searching it with each engine, and serving the
+ * paths found, one class per feature. Each benchmark is run with the GC profiler, so the time taken and the memory
+ * allocated by an operation can be compared across changes.
+ */
+package campuspaths.benchmarks;
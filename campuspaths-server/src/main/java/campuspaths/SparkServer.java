@@ -2,18 +2,42 @@
 package campuspaths;
 
 import campuspaths.utils.CORSFilter;
+import campuspaths.utils.RequestMetrics;
+import campuspaths.utils.ResponseCache;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import pathfinder.BuildingRoutes;
 import pathfinder.CampusMap;
+import pathfinder.Closures;
+import pathfinder.DistanceMatrix;
+import pathfinder.Isochrone;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
+import pathfinder.metrics.PrometheusWriter;
+import pathfinder.metrics.SearchMetrics;
 import spark.Request;
 import spark.Response;
 import spark.Route;
 import spark.Spark;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 
 public class SparkServer {
 
+    // Number of building pairs whose paths are kept serialized
+    private static final int PATH_CACHE_SIZE = 1024;
+
     public static void main(String[] args) {
         CORSFilter corsFilter = new CORSFilter();
         corsFilter.apply();
@@ -23,20 +47,350 @@ public class SparkServer {
         // You should leave these two lines at the very beginning of main().
         CampusMap campusMap = new CampusMap();
         Gson gson = new Gson();
-        Spark.get("/find-path", new Route(){
+        // Latency and rate of requests to every route but /metrics itself
+        RequestMetrics requests = new RequestMetrics();
+        // Serialized and gzipped responses, tagged with the version of the map data, and for paths also of the
+        // closures, they were made from. Buildings change only with the map data, so clients may reuse them for an
+        // hour without asking; paths change whenever a closure does, so clients must check their copy is current
+        String mapVersion = Long.toHexString(campusMap.getMapVersion());
+        ResponseCache buildingsCache = new ResponseCache("/get-valid-buildings", 1, "public, max-age=3600");
+        ResponseCache pathCache = new ResponseCache("/find-path", PATH_CACHE_SIZE, "no-cache");
+        // Shortest path between two buildings (?start=&end=) avoiding every closure in force, and for this query
+        // only the paths ?avoidPath=x1,y1,x2,y2 and areas ?avoidArea=minX,minY,maxX,maxY, each of which may repeat
+        Spark.get("/find-path", requests.timed("GET", "/find-path", new Route(){
             @Override
             public Object handle(Request request, Response response) throws Exception {
                 String startBuilding = request.queryParams("start");
                 String endBuilding = request.queryParams("end");
-                Path<Point> path = campusMap.findShortestPath(startBuilding, endBuilding);
+                Closures avoid = Closures.NONE;
+                try {
+                    avoid = parseAvoid(request);
+                } catch (IllegalArgumentException e) {
+                    Spark.halt(400, "avoidPath and avoidArea must each be four comma-separated numbers");
+                }
+                if (avoid.isEmpty() && campusMap.shortNameExists(startBuilding)
+                    && campusMap.shortNameExists(endBuilding)) {
+                    // The closures version is read before searching, so the path is never older than its tag
+                    String version = mapVersion + "-" + campusMap.closures().version();
+                    return pathCache.send(request, response, startBuilding + "\n" + endBuilding, version,
+                                          () -> gson.toJson(campusMap.findShortestPath(startBuilding, endBuilding)));
+                }
+                Path<Point> path = campusMap.findShortestPath(startBuilding, endBuilding, avoid);
                 return gson.toJson(path);
             }
-        });
-        Spark.get("/get-valid-buildings", new Route(){
+        }));
+        // The closures in force for every query, by name
+        Spark.get("/closures", requests.timed("GET", "/closures", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                return gson.toJson(campusMap.closures().byName());
+            }
+        }));
+        // Puts a closure in force under the name :name until it is deleted, replacing any closure of that name. The
+        // JSON request body gives either a closed "path": [x1, y1, x2, y2] or a closed "area": [minX, minY, maxX, maxY]
+        Spark.put("/closures/:name", requests.timed("PUT", "/closures/:name", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                ClosureRequest closure = null;
+                try {
+                    closure = gson.fromJson(request.body(), ClosureRequest.class);
+                } catch (JsonParseException | IllegalArgumentException e) {
+                    // Gson throws IllegalArgumentException for a null among the coordinates
+                    Spark.halt(400, "The request body must be a JSON object with numeric coordinates");
+                }
+                if (closure == null || (closure.path == null) == (closure.area == null)) {
+                    Spark.halt(400, "Exactly one of path or area must be given");
+                }
+                double[] coordinates = closure.path != null ? closure.path : closure.area;
+                if (coordinates.length != 4) {
+                    Spark.halt(400, "A path or area must have four coordinates");
+                }
+                try {
+                    campusMap.closures().put(request.params("name"), toClosure(closure.area != null, coordinates));
+                } catch (IllegalArgumentException e) {
+                    Spark.halt(400, "Invalid closure: " + e.getMessage());
+                }
+                return gson.toJson(campusMap.closures().byName());
+            }
+        }));
+        // Lifts the closure named :name
+        Spark.delete("/closures/:name", requests.timed("DELETE", "/closures/:name", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                if (!campusMap.closures().remove(request.params("name"))) {
+                    Spark.halt(404, "No closure named " + request.params("name"));
+                }
+                return gson.toJson(campusMap.closures().byName());
+            }
+        }));
+        // Up to k alternative paths between two buildings (?start=&end=&k=), shortest first
+        Spark.get("/find-paths", requests.timed("GET", "/find-paths", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String startBuilding = request.queryParams("start");
+                String endBuilding = request.queryParams("end");
+                if (!campusMap.shortNameExists(startBuilding) || !campusMap.shortNameExists(endBuilding)) {
+                    Spark.halt(400, "Unknown building");
+                }
+                int k = 0;
+                try {
+                    k = Integer.parseInt(request.queryParams("k"));
+                } catch (NumberFormatException e) {
+                    Spark.halt(400, "k must be a whole number");
+                }
+                if (k < 1) {
+                    Spark.halt(400, "k must be at least 1");
+                }
+                List<Path<Point>> paths = campusMap.findShortestPaths(startBuilding, endBuilding, k);
+                return gson.toJson(paths);
+            }
+        }));
+        // A short path visiting every building in the comma-separated ?stops=, optionally beginning at ?start= and
+        // finishing at ?end=, in whatever order is shortest
+        Spark.get("/itinerary", requests.timed("GET", "/itinerary", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String stops = request.queryParams("stops");
+                String startBuilding = request.queryParams("start");
+                String endBuilding = request.queryParams("end");
+                List<String> buildings = stops == null || stops.isEmpty() ? new ArrayList<>()
+                                                                           : Arrays.asList(stops.split(","));
+                if (buildings.isEmpty() && startBuilding == null && endBuilding == null) {
+                    Spark.halt(400, "No stops given");
+                }
+                List<String> named = new ArrayList<>(buildings);
+                if (startBuilding != null) named.add(startBuilding);
+                if (endBuilding != null) named.add(endBuilding);
+                for (String building : named) {
+                    if (!campusMap.shortNameExists(building)) {
+                        Spark.halt(400, "Unknown building: " + building);
+                    }
+                }
+                Path<Point> path = campusMap.planItinerary(buildings, startBuilding, endBuilding);
+                return gson.toJson(path);
+            }
+        }));
+        // Everything reachable by walking at most ?distance= feet from the building ?start=: the buildings and their
+        // distances, the reachable stretches of path as flat [x1, y1, x2, y2, ...] coordinates, and the outline
+        // polygon around them as flat [x, y, ...] coordinates
+        Spark.get("/reachable", requests.timed("GET", "/reachable", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String startBuilding = request.queryParams("start");
+                if (!campusMap.shortNameExists(startBuilding)) {
+                    Spark.halt(400, "Unknown building: " + startBuilding);
+                }
+                double distance = -1;
+                try {
+                    distance = Double.parseDouble(request.queryParams("distance"));
+                } catch (NullPointerException | NumberFormatException e) {
+                    Spark.halt(400, "distance must be a number");
+                }
+                if (!(distance >= 0)) {
+                    Spark.halt(400, "distance must not be negative");
+                }
+                Isochrone isochrone = campusMap.reachableWithin(startBuilding, distance);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("buildings", isochrone.buildings());
+                result.put("segments", isochrone.segments());
+                result.put("outline", isochrone.outline());
+                return gson.toJson(result);
+            }
+        }));
+        // The buildings and path points nearest to the map coordinate (?x=, ?y=): the ?k= nearest of each (1 if not
+        // given), or all of those within ?radius= if it is given
+        Spark.get("/nearest", requests.timed("GET", "/nearest", new Route(){
             @Override
             public Object handle(Request request, Response response) throws Exception {
-                return gson.toJson(campusMap.buildingNames());
+                double x = 0;
+                double y = 0;
+                int k = 1;
+                Double radius = null;
+                try {
+                    x = Double.parseDouble(request.queryParams("x"));
+                    y = Double.parseDouble(request.queryParams("y"));
+                    if (request.queryParams("k") != null) k = Integer.parseInt(request.queryParams("k"));
+                    String radiusParam = request.queryParams("radius");
+                    if (radiusParam != null) radius = Double.parseDouble(radiusParam);
+                } catch (NullPointerException | NumberFormatException e) {
+                    Spark.halt(400, "x and y must be numbers, k a whole number and radius a number");
+                }
+                if (k < 0 || (radius != null && !(radius >= 0))) {
+                    Spark.halt(400, "k and radius must not be negative");
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                if (radius != null) {
+                    result.put("buildings", campusMap.buildingsWithin(x, y, radius));
+                    result.put("points", campusMap.pointsWithin(x, y, radius));
+                } else {
+                    result.put("buildings", campusMap.nearestBuildings(x, y, k));
+                    result.put("points", campusMap.nearestPoints(x, y, k));
+                }
+                return gson.toJson(result);
+            }
+        }));
+        // Shortest path between two map coordinates (?x1=&y1= to ?x2=&y2=), each moved onto the nearest campus path
+        Spark.get("/find-path-between", requests.timed("GET", "/find-path-between", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                Point start = null;
+                Point end = null;
+                try {
+                    start = new Point(Double.parseDouble(request.queryParams("x1")),
+                                      Double.parseDouble(request.queryParams("y1")));
+                    end = new Point(Double.parseDouble(request.queryParams("x2")),
+                                    Double.parseDouble(request.queryParams("y2")));
+                } catch (NullPointerException | IllegalArgumentException e) {
+                    Spark.halt(400, "x1, y1, x2 and y2 must be finite numbers");
+                }
+                Path<Point> path = campusMap.findShortestPath(start, end);
+                return gson.toJson(path);
+            }
+        }));
+        Spark.get("/get-valid-buildings", requests.timed("GET", "/get-valid-buildings", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                return buildingsCache.send(request, response, "", mapVersion,
+                                           () -> gson.toJson(campusMap.buildingNames()));
+            }
+        }));
+        // Distances from one building to every building (?start=), or from every building to one (?end=). The path
+        // to or from one other building is included if it is named with ?path=
+        Spark.get("/distances", requests.timed("GET", "/distances", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                String startBuilding = request.queryParams("start");
+                String endBuilding = request.queryParams("end");
+                if ((startBuilding == null) == (endBuilding == null)) {
+                    Spark.halt(400, "Exactly one of start or end must be given");
+                }
+                String building = startBuilding != null ? startBuilding : endBuilding;
+                if (!campusMap.shortNameExists(building)) {
+                    Spark.halt(400, "Unknown building: " + building);
+                }
+                BuildingRoutes routes = startBuilding != null ? campusMap.routesFrom(startBuilding)
+                                                              : campusMap.routesTo(endBuilding);
+                Map<String, Object> result = new HashMap<>();
+                result.put("distances", routes.distances());
+                String pathBuilding = request.queryParams("path");
+                if (pathBuilding != null) {
+                    if (!campusMap.shortNameExists(pathBuilding)) {
+                        Spark.halt(400, "Unknown building: " + pathBuilding);
+                    }
+                    result.put("path", routes.pathFor(pathBuilding));
+                }
+                return gson.toJson(result);
+            }
+        }));
+        // Request, search and map metrics, in Prometheus text format
+        Spark.get("/metrics", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                PrometheusWriter out = new PrometheusWriter();
+                requests.write(out);
+                buildingsCache.write(out);
+                pathCache.write(out);
+                SearchMetrics.write(out);
+                campusMap.writeMetrics(out);
+                response.type(PrometheusWriter.CONTENT_TYPE);
+                return out.toString();
             }
         });
+        // Distances from every building in "starts" to every building in "ends", both given in a JSON request body.
+        // One JSON object is written per line for each starting building as soon as its row is done, mapping each
+        // reachable ending building to its distance
+        Spark.post("/distance-matrix", requests.timed("POST", "/distance-matrix", new Route(){
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                MatrixRequest body = null;
+                try {
+                    body = gson.fromJson(request.body(), MatrixRequest.class);
+                } catch (JsonParseException e) {
+                    Spark.halt(400, "The request body must be a JSON object");
+                }
+                MatrixRequest matrix = body;
+                if (matrix == null || matrix.starts == null || matrix.ends == null) {
+                    Spark.halt(400, "Both starts and ends must be given");
+                }
+                for (List<String> buildings : Arrays.asList(matrix.starts, matrix.ends)) {
+                    for (String building : buildings) {
+                        if (!campusMap.shortNameExists(building)) {
+                            Spark.halt(400, "Unknown building: " + building);
+                        }
+                    }
+                }
+                response.type("application/x-ndjson");
+                Writer out = new OutputStreamWriter(response.raw().getOutputStream(), StandardCharsets.UTF_8);
+                campusMap.distanceMatrix(matrix.starts, matrix.ends, new DistanceMatrix.RowHandler() {
+                    @Override
+                    public void handleRow(int index, double[] costs) {
+                        Map<String, Double> distances = new LinkedHashMap<>();
+                        for (int j = 0; j < costs.length; j++) {
+                            distances.put(matrix.ends.get(j), Double.isInfinite(costs[j]) ? null : costs[j]);
+                        }
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        row.put("start", matrix.starts.get(index));
+                        row.put("distances", distances);
+                        try {
+                            out.write(gson.toJson(row));
+                            out.write('\n');
+                            out.flush();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+                out.close();
+                return "";
+            }
+        }));
+    }
+
+    /**
+     * Reads the closures given in the repeatable ?avoidPath= and ?avoidArea= parameters of a request, each four
+     * comma-separated numbers.
+     *
+     * @throws IllegalArgumentException if any of them is not four numbers, or is not a valid closure.
+     */
+    private static Closures parseAvoid(Request request) {
+        List<Closures.Closure> avoid = new ArrayList<>();
+        for (String name : Arrays.asList("avoidPath", "avoidArea")) {
+            String[] values = request.queryParamsValues(name);
+            if (values == null) continue;
+            for (String value : values) {
+                String[] parts = value.split(",");
+                if (parts.length != 4) throw new IllegalArgumentException("Expected four numbers: " + value);
+                double[] coordinates = new double[4];
+                for (int i = 0; i < 4; i++) coordinates[i] = Double.parseDouble(parts[i].trim());
+                avoid.add(toClosure(name.equals("avoidArea"), coordinates));
+            }
+        }
+        return avoid.isEmpty() ? Closures.NONE : new Closures(avoid);
+    }
+
+    /**
+     * @return The closure of the area between the corners (c[0], c[1]) and (c[2], c[3]) if {@code area}, or of the
+     * path between those points otherwise.
+     * @throws IllegalArgumentException if the coordinates do not make a valid closure.
+     */
+    private static Closures.Closure toClosure(boolean area, double[] c) {
+        if (area) return Closures.Closure.area(c[0], c[1], c[2], c[3]);
+        return Closures.Closure.path(new Point(c[0], c[1]), new Point(c[2], c[3]));
+    }
+
+    /**
+     * The body of a request to /closures/:name.
+     */
+    private static class ClosureRequest {
+        private double[] path;
+        private double[] area;
+    }
+
+    /**
+     * The body of a request to /distance-matrix.
+     */
+    private static class MatrixRequest {
+        private List<String> starts;
+        private List<String> ends;
     }
 }
@@ -42,7 +42,8 @@ public class CORSFilter {
     /**
      * Applies the filter globally to all Spark responses. Anytime this Spark server responds
      * to a request following the invocation of this method, completely-permissive CORS headers
-     * will be added to the response headers.
+     * will be added to the response headers. The headers are added before each route runs as
+     * well as after, so that routes writing and committing their response themselves carry them too.
      */
     public void apply() {
         Filter filter = new Filter() {
@@ -51,6 +52,7 @@ public class CORSFilter {
                 corsHeaders.forEach(response::header);
             }
         };
+        Spark.before(filter); // Applies this filter before the response can be committed.
         Spark.afterAfter(filter); // Applies this filter even if there's a halt() or exception.
         //
         Logger logger = LoggerFactory.getLogger("CampusPaths Server");
@@ -0,0 +1,88 @@
+package campuspaths.utils;
+
+import pathfinder.metrics.Histogram;
+import pathfinder.metrics.PrometheusWriter;
+import pathfinder.metrics.RateMeter;
+import spark.HaltException;
+import spark.Request;
+import spark.Response;
+import spark.Route;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency of every request to the routes it wraps, by endpoint, and the rate of requests to all of them.
+ * Recording a request reads the clock twice and increments a few striped counters, without locking, so that it adds
+ * little to even the fastest route.
+ */
+public class RequestMetrics {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private final RateMeter rate = new RateMeter();
+
+    /**
+     * Wraps a route so that each request it handles is recorded under the given method and path.
+     *
+     * @param method The HTTP method the route is registered for.
+     * @param path   The path the route is registered at, with any parameters left as placeholders.
+     * @param route  The route to wrap.
+     * @return A route that handles requests as {@code route} does, recording each.
+     */
+    public Route timed(String method, String path, Route route) {
+        Endpoint endpoint = endpoints.computeIfAbsent(method + " " + path, key -> new Endpoint(method, path));
+        return new Route() {
+            @Override
+            public Object handle(Request request, Response response) throws Exception {
+                long startTime = System.nanoTime();
+                boolean failed = true;
+                try {
+                    Object body = route.handle(request, response);
+                    failed = false;
+                    return body;
+                } catch (HaltException e) {
+                    failed = e.statusCode() >= 400;
+                    throw e;
+                } finally {
+                    endpoint.latency.record(System.nanoTime() - startTime);
+                    if (failed) endpoint.errors.increment();
+                    rate.mark();
+                }
+            }
+        };
+    }
+
+    /**
+     * Writes the latency percentiles, request and error counts of every endpoint, and the recent request rate.
+     *
+     * @param out The page to write to.
+     */
+    public void write(PrometheusWriter out) {
+        for (Endpoint endpoint : endpoints.values()) {
+            out.summary("campuspaths_request_duration_seconds", "Time taken to handle requests, by endpoint",
+                        endpoint.latency, 1e-9, "method", endpoint.method, "path", endpoint.path);
+        }
+        for (Endpoint endpoint : endpoints.values()) {
+            out.counter("campuspaths_request_errors_total", "Requests that failed or were refused, by endpoint",
+                        endpoint.errors.sum(), "method", endpoint.method, "path", endpoint.path);
+        }
+        out.gauge("campuspaths_requests_per_second", "Requests handled per second over the last minute",
+                  rate.perSecond());
+    }
+
+    /**
+     * The requests recorded for one route.
+     */
+    private static class Endpoint {
+        private final String method;
+        private final String path;
+        private final Histogram latency = new Histogram();
+        private final LongAdder errors = new LongAdder();
+
+        private Endpoint(String method, String path) {
+            this.method = method;
+            this.path = path;
+        }
+    }
+}
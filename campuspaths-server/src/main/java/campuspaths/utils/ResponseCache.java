@@ -0,0 +1,199 @@
+package campuspaths.utils;
+
+import pathfinder.metrics.PrometheusWriter;
+import spark.Request;
+import spark.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds JSON response bodies already serialized, both as UTF-8 bytes and gzipped, for the most recently requested
+ * keys of one route, so that answering the same request again writes stored bytes instead of searching and
+ * serializing again. Each body is tagged with the version of the data it was made from, which is also sent in its
+ * ETag, suffixed with {@code -gz} for the gzipped body since the two bodies are not byte for byte the same: a body
+ * whose version is no longer current is made again when next requested, and a conditional GET naming the current
+ * version, in either encoding's tag, is answered with 304 Not Modified without making the body at all.
+ */
+public class ResponseCache {
+
+    private final String name;
+    private final int capacity;
+    private final String cacheControl;
+    // Least recently used first, guarded by itself
+    private final Map<String, Body> bodies;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param name         The name of the cache in metrics, such as the path of its route.
+     * @param capacity     The most bodies to hold. The least recently used body is dropped to make room for another.
+     * @param cacheControl The Cache-Control header to send with every response, such as {@code no-cache} to have
+     *                     clients revalidate their copy on every use.
+     */
+    public ResponseCache(String name, int capacity, String cacheControl) {
+        this.name = name;
+        this.capacity = capacity;
+        this.cacheControl = cacheControl;
+        this.bodies = new LinkedHashMap<String, Body>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Body> eldest) {
+                return size() > ResponseCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Answers a request with the body stored under a key, making and storing it first if it is missing or was made
+     * from another version of the data. The body is sent gzipped if the request accepts gzip, with an ETag of its own.
+     * If the request's If-None-Match header names the version, in the tag of either encoding, the response is 304 Not
+     * Modified with no body instead, since a client holding either body holds the current one.
+     *
+     * @param request  The request to answer.
+     * @param response The response to write to. Unless it is 304 Not Modified, it is committed on return.
+     * @param key      The key of the body among this cache's bodies, such as the request's query.
+     * @param version  The version of the data the body must be made from, which must change whenever the body
+     *                 would. Only letters, digits and hyphens may be used.
+     * @param json     Makes the body as JSON from the current version of the data.
+     * @return The body for Spark to send, which is always empty since the body has been written already or there is
+     * none.
+     * @throws IOException if the body cannot be written
+     */
+    public Object send(Request request, Response response, String key, String version, Supplier<String> json)
+            throws IOException {
+        boolean gzip = acceptsGzip(request.headers("Accept-Encoding"));
+        response.header("ETag", etag(version, gzip));
+        response.header("Cache-Control", cacheControl);
+        response.header("Vary", "Accept-Encoding");
+        if (matches(request.headers("If-None-Match"), version)) {
+            notModified.increment();
+            response.status(304);
+            return "";
+        }
+        Body body;
+        synchronized (bodies) {
+            body = bodies.get(key);
+        }
+        if (body != null && body.version.equals(version)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            body = new Body(version, json.get());
+            synchronized (bodies) {
+                bodies.put(key, body);
+            }
+        }
+        byte[] bytes = gzip ? body.gzipped : body.identity;
+        // Spark would gzip the body again if it saw the Content-Encoding header, so write it here and commit it
+        if (gzip) response.header("Content-Encoding", "gzip");
+        response.type("application/json; charset=utf-8");
+        response.raw().setContentLength(bytes.length);
+        OutputStream out = response.raw().getOutputStream();
+        out.write(bytes);
+        out.flush();
+        return "";
+    }
+
+    /**
+     * @return the ETag of the body made from the given version of the data, gzipped or not
+     */
+    private static String etag(String version, boolean gzip) {
+        return '"' + version + (gzip ? "-gz" : "") + '"';
+    }
+
+    /**
+     * @return whether an If-None-Match header, a comma-separated list of ETags or *, names the ETag of either body
+     * made from the given version of the data
+     */
+    private static boolean matches(String ifNoneMatch, String version) {
+        if (ifNoneMatch == null) return false;
+        String identity = etag(version, false);
+        String gzipped = etag(version, true);
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            // A weak tag matches a strong one of the same value
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(identity) || tag.equals(gzipped) || tag.equals("*")) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether an Accept-Encoding header, a comma-separated list of content codings or * each with an optional
+     * quality value, accepts gzip: gzip is listed with a quality above 0, or is not listed and * is. A quality that
+     * cannot be read is taken as 0, so that the body is sent as it is.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        Boolean gzip = null;
+        boolean any = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.length() < 2 || Character.toLowerCase(param.charAt(0)) != 'q' || param.charAt(1) != '=') {
+                    continue;
+                }
+                try {
+                    quality = Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    quality = 0;
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = quality > 0;
+            } else if (name.equals("*")) {
+                any = quality > 0;
+            }
+        }
+        return gzip != null ? gzip : any;
+    }
+
+    /**
+     * Writes the number of requests answered from a stored body, by making the body, and with 304 Not Modified.
+     *
+     * @param out The page to write to.
+     */
+    public void write(PrometheusWriter out) {
+        String help = "Responses answered from the response cache, made afresh, or not modified";
+        out.counter("campuspaths_response_cache_requests_total", help, hits.sum(), "cache", name, "result", "hit");
+        out.counter("campuspaths_response_cache_requests_total", help, misses.sum(), "cache", name, "result", "miss");
+        out.counter("campuspaths_response_cache_requests_total", help, notModified.sum(), "cache", name, "result",
+                    "not_modified");
+    }
+
+    /**
+     * One response body, made from one version of the data.
+     */
+    private static class Body {
+        private final String version;
+        private final byte[] identity;
+        private final byte[] gzipped;
+
+        private Body(String version, String json) {
+            this.version = version;
+            this.identity = json.getBytes(StandardCharsets.UTF_8);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(identity.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(identity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.gzipped = buffer.toByteArray();
+        }
+    }
+}
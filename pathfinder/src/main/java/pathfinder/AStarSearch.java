@@ -0,0 +1,295 @@
+package pathfinder;
+
+import graph.Graph;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.*;
+
+/**
+ * AStarSearch is a static class that allows a {@link Path} to be found between {@link Point}s on a {@link Graph}
+ * using a goal-directed least-cost algorithm (A*). The straight-line distance between two points, multiplied by a
+ * scale factor, is used as a lower bound on the cost of the remaining path to the destination.
+ */
+public class AStarSearch {
+
+    /**
+     * Safety margin applied to computed scale factors so that floating point rounding can never make the
+     * heuristic overestimate the cost of an edge.
+     */
+    private static final double SCALE_MARGIN = 1.0 - 1e-9;
+
+    /**
+     * Returns the least-cost {@link Path} between two given points on a given graph. Returns null if no such path
+     * exists. The returned path has the same cost as the one found by {@link DijkstraSearch#findPath}.
+     *
+     * @spec.requires graph, startNode, endNode != null
+     *                graph.contains(startNode)
+     *                graph.contains(endNode)
+     *                scale &ge; 0
+     *                isAdmissible(graph, scale)
+     * @param graph Graph to be searched on
+     * @param startNode Starting node of path
+     * @param endNode End node of path
+     * @param scale Factor the straight-line distance between two points is multiplied by to give a lower bound on
+     *              the cost of travelling between them
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes, and
+     * null if no such path exists.
+     */
+    public static Path<Point> findPath(Graph<Point, Double> graph, Point startNode, Point endNode, double scale) {
+        return findPath(graph, startNode, endNode, scale, null);
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given points on a given graph, recording the work done by the
+     * search. Returns null if no such path exists. The returned path has the same cost as the one found by
+     * {@link DijkstraSearch#findPath}.
+     *
+     * @spec.requires graph, startNode, endNode != null
+     *                graph.contains(startNode)
+     *                graph.contains(endNode)
+     *                scale &ge; 0
+     *                isAdmissible(graph, scale)
+     * @param graph Graph to be searched on
+     * @param startNode Starting node of path
+     * @param endNode End node of path
+     * @param scale Factor the straight-line distance between two points is multiplied by to give a lower bound on
+     *              the cost of travelling between them
+     * @param recorder Recorder to record the nodes settled and entries pushed by the search in, or null if the
+     *                 search is not to be recorded
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes, and
+     * null if no such path exists.
+     */
+    public static Path<Point> findPath(Graph<Point, Double> graph, Point startNode, Point endNode, double scale,
+                                      SearchMetrics.Recorder recorder) {
+        // Priority queue for A*, ordered by the cost so far plus the estimated cost to the end
+        Queue<Entry> active = new PriorityQueue<>(new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                return Double.compare(o1.estimate, o2.estimate);
+            }
+        });
+        Set<Point> finished = new HashSet<>();
+        // Work done, recorded when the search ends
+        int settled = 0;
+        int pushes = 1;
+        // Add starting node to queue
+        active.add(new Entry(startNode, null, 0, 0, scale * distance(startNode, endNode)));
+        while (!active.isEmpty()) {
+            // Take the entry with the lowest estimated total cost from queue
+            Entry min = active.remove();
+            Point minDest = min.node;
+            // End has been found, build the path to it by walking back through the entries it was reached from
+            if (minDest.equals(endNode)) {
+                if (recorder != null) recorder.record(settled + 1, pushes);
+                return min.path();
+            }
+            if (!finished.contains(minDest)) {
+                settled++;
+                Map<Point, List<Double>> childrenMap = graph.childrenOf(minDest);
+                for (Point child : childrenMap.keySet()) {
+                    if (!finished.contains(child)) {
+                        // Only the lowest-cost edge to this child can be on a shortest path
+                        double edgeCost = Collections.min(childrenMap.get(child));
+                        double cost = min.cost + edgeCost;
+                        active.add(new Entry(child, min, edgeCost, cost, cost + scale * distance(child, endNode)));
+                        pushes++;
+                    }
+                }
+                finished.add(minDest);
+            }
+        }
+        // No path was found
+        if (recorder != null) recorder.record(settled, pushes);
+        return null;
+    }
+
+    /**
+     * Returns the largest factor the straight-line distance between the ends of each edge in the given graph can be
+     * multiplied by while still never exceeding the cost of that edge. Using this scale makes the A* heuristic as
+     * tight as the data allows without overestimating.
+     *
+     * @spec.requires graph != null
+     *                All edge labels in graph must be greater or equal to 0
+     * @param graph Graph whose edges are examined
+     * @return the largest admissible scale factor for the given graph, or 0 if no such positive factor exists
+     */
+    public static double admissibleScale(Graph<Point, Double> graph) {
+        double scale = Double.POSITIVE_INFINITY;
+        Iterator<Point> nodes = graph.nodeIterator();
+        while (nodes.hasNext()) {
+            Point node = nodes.next();
+            Map<Point, List<Double>> childrenMap = graph.childrenOf(node);
+            for (Point child : childrenMap.keySet()) {
+                double length = distance(node, child);
+                if (length > 0) {
+                    for (double edgeCost : childrenMap.get(child)) {
+                        scale = Math.min(scale, edgeCost / length);
+                    }
+                }
+            }
+        }
+        if (Double.isInfinite(scale)) return 0;
+        return scale * SCALE_MARGIN;
+    }
+
+    /**
+     * Returns the largest admissible scale factor for the given indexed graph, as
+     * {@link #admissibleScale(Graph)} does for a graph, without creating a {@link Point} for each node.
+     *
+     * @spec.requires graph != null && graph.hasCoordinates()
+     * @param graph Graph whose edges are examined
+     * @return the largest admissible scale factor for the given graph, or 0 if no such positive factor exists
+     */
+    public static double admissibleScale(IndexedGraph<Point> graph) {
+        double scale = Double.POSITIVE_INFINITY;
+        for (int id = 0; id < graph.size(); id++) {
+            for (int index = 0; index < graph.degree(id); index++) {
+                double length = distance(graph, id, graph.target(id, index));
+                if (length > 0) scale = Math.min(scale, graph.weight(id, index) / length);
+            }
+        }
+        if (Double.isInfinite(scale)) return 0;
+        return scale * SCALE_MARGIN;
+    }
+
+    /**
+     * Returns whether the straight-line heuristic with the given scale is admissible on the given graph, which is
+     * the case if and only if no edge costs less than its scaled straight-line length. Since every path is made of
+     * edges, no path can then cost less than the scaled straight-line distance between its ends.
+     *
+     * @spec.requires graph != null
+     * @param graph Graph whose edges are examined
+     * @param scale Factor the straight-line distance is multiplied by
+     * @return true iff every edge in the graph costs at least {@code scale} times its straight-line length
+     */
+    public static boolean isAdmissible(Graph<Point, Double> graph, double scale) {
+        if (scale < 0) return false;
+        Iterator<Point> nodes = graph.nodeIterator();
+        while (nodes.hasNext()) {
+            Point node = nodes.next();
+            Map<Point, List<Double>> childrenMap = graph.childrenOf(node);
+            for (Point child : childrenMap.keySet()) {
+                double bound = scale * distance(node, child);
+                for (double edgeCost : childrenMap.get(child)) {
+                    if (edgeCost < bound) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns every edge of the given graph that costs less than the given scale times its straight-line length. An
+     * A* search with that scale may return a path that is not least-cost if any such edge exists.
+     *
+     * @spec.requires graph != null
+     * @param graph Graph whose edges are examined
+     * @param scale Factor the straight-line distance is multiplied by
+     * @return a {@link Path} of one segment for each edge costing less than {@code scale} times its straight-line
+     * length, in no particular order
+     */
+    public static List<Path<Point>> inadmissibleEdges(Graph<Point, Double> graph, double scale) {
+        List<Path<Point>> edges = new ArrayList<>();
+        Iterator<Point> nodes = graph.nodeIterator();
+        while (nodes.hasNext()) {
+            Point node = nodes.next();
+            Map<Point, List<Double>> childrenMap = graph.childrenOf(node);
+            for (Point child : childrenMap.keySet()) {
+                double bound = scale * distance(node, child);
+                for (double edgeCost : childrenMap.get(child)) {
+                    if (edgeCost < bound) edges.add(new Path<>(node).extend(child, edgeCost));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Returns every edge of the given indexed graph that costs less than the given scale times its straight-line
+     * length, as {@link #inadmissibleEdges(Graph, double)} does for a graph.
+     *
+     * @spec.requires graph != null && graph.hasCoordinates()
+     * @param graph Graph whose edges are examined
+     * @param scale Factor the straight-line distance is multiplied by
+     * @return a {@link Path} of one segment for each edge costing less than {@code scale} times its straight-line
+     * length, in no particular order
+     */
+    public static List<Path<Point>> inadmissibleEdges(IndexedGraph<Point> graph, double scale) {
+        List<Path<Point>> edges = new ArrayList<>();
+        for (int id = 0; id < graph.size(); id++) {
+            for (int index = 0; index < graph.degree(id); index++) {
+                int child = graph.target(id, index);
+                double cost = graph.weight(id, index);
+                if (cost < scale * distance(graph, id, child)) {
+                    edges.add(new Path<>(graph.nodeOf(id)).extend(graph.nodeOf(child), cost));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * @param a First point
+     * @param b Second point
+     * @return the straight-line distance between {@code a} and {@code b}
+     */
+    private static double distance(Point a, Point b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * @param graph Graph holding the coordinates of its nodes
+     * @param a ID of the first node
+     * @param b ID of the second node
+     * @return the straight-line distance between the nodes with IDs {@code a} and {@code b}
+     */
+    private static double distance(IndexedGraph<Point> graph, int a, int b) {
+        double dx = graph.x(a) - graph.x(b);
+        double dy = graph.y(a) - graph.y(b);
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * A node on the frontier of the search, along with the entry it was reached from, so that the path to it is only
+     * built once the end node is reached, and its estimated total cost to the end node.
+     */
+    private static class Entry {
+        private final Point node;
+        // Entry for the previous node on the path to node, and the cost of the edge from it, or null for the start
+        private final Entry parent;
+        private final double edgeCost;
+        // Cost of the path to node
+        private final double cost;
+        private final double estimate;
+
+        private Entry(Point node, Entry parent, double edgeCost, double cost, double estimate) {
+            this.node = node;
+            this.parent = parent;
+            this.edgeCost = edgeCost;
+            this.cost = cost;
+            this.estimate = estimate;
+        }
+
+        /**
+         * @return the path from the start node to this entry's node through the entries it was reached from
+         */
+        private Path<Point> path() {
+            int length = 0;
+            for (Entry entry = this; entry.parent != null; entry = entry.parent) length++;
+            Point[] nodes = new Point[length + 1];
+            double[] segmentCosts = new double[length];
+            Entry entry = this;
+            for (int i = length; i > 0; i--, entry = entry.parent) {
+                nodes[i] = entry.node;
+                segmentCosts[i - 1] = entry.edgeCost;
+            }
+            nodes[0] = entry.node;
+            return new Path<>(Arrays.asList(nodes), segmentCosts);
+        }
+    }
+}
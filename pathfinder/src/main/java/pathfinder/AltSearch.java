@@ -0,0 +1,354 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.*;
+
+/**
+ * AltSearch finds least-cost {@link Path}s on an {@link IndexedGraph} using A* search with landmarks and the
+ * triangle inequality (ALT). The least costs from a few landmark nodes to every node, and from every node to the
+ * landmarks, are computed once; for any node v and destination t, {@code d(L, t) - d(L, v)} and {@code d(v, L) -
+ * d(t, L)} are then lower bounds on {@code d(v, t)} for every landmark L, and their maximum guides the search.
+ * <p>
+ * The search takes its frontier from an {@link IndexedPriorityQueue} of the {@link QueueKind} chosen when it is
+ * created, reused by each thread from one query to the next.
+ *
+ * @param <N> Node type of the graph
+ */
+public class AltSearch<N> {
+
+    // AF(this) =
+    //      the graph searched on => graph
+    //      the IDs of the landmarks => landmarks
+    //      the least cost from landmark i to the node with ID v => fromLandmark[i][v]
+    //      the least cost from the node with ID v to landmark i => toLandmark[i][v]
+    //          (both infinite when there is no path)
+    //      the frontier reused by the queries on each thread => queue.get() on that thread
+
+    // Rep Invariant:
+    //      graph, landmarks, fromLandmark, toLandmark, queue != null &&
+    //      fromLandmark.length == toLandmark.length == landmarks.length &&
+    //      forall i, fromLandmark[i].length == toLandmark[i].length == graph.size()
+
+    /**
+     * The number of landmarks used when none is specified.
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    /**
+     * Factor applied to lower bounds so that floating point rounding in the subtraction of two table entries can
+     * never make the heuristic overestimate.
+     */
+    private static final double BOUND_MARGIN = 1.0 - 1e-9;
+
+    private final IndexedGraph<N> graph;
+    private final int[] landmarks;
+    private final double[][] fromLandmark;
+    private final double[][] toLandmark;
+    private final ThreadLocal<IndexedPriorityQueue> queue;
+
+    /**
+     * Creates a new ALT search over the given graph, precomputing distance tables for the given landmarks, using a
+     * {@link QueueKind#BINARY_HEAP}.
+     *
+     * @param graph     The graph to search on.
+     * @param landmarks The IDs of the nodes to use as landmarks.
+     * @spec.requires graph, landmarks != null && every ID in landmarks is a node of graph
+     */
+    public AltSearch(IndexedGraph<N> graph, int[] landmarks) {
+        this(graph, landmarks, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new ALT search over the given graph, precomputing distance tables for the given landmarks, using the
+     * given kind of priority queue.
+     *
+     * @param graph     The graph to search on.
+     * @param landmarks The IDs of the nodes to use as landmarks.
+     * @param queue     The kind of priority queue to use.
+     * @spec.requires graph, landmarks, queue != null && every ID in landmarks is a node of graph
+     */
+    public AltSearch(IndexedGraph<N> graph, int[] landmarks, QueueKind queue) {
+        this.graph = graph;
+        this.landmarks = landmarks.clone();
+        this.fromLandmark = new double[landmarks.length][];
+        this.toLandmark = new double[landmarks.length][];
+        IndexedGraph<N> reverse = graph.reverse();
+        for (int i = 0; i < landmarks.length; i++) {
+            fromLandmark[i] = distancesFrom(graph, landmarks[i]);
+            toLandmark[i] = distancesFrom(reverse, landmarks[i]);
+        }
+        this.queue = ThreadLocal.withInitial(() -> queue.create(graph.size()));
+        checkRep();
+    }
+
+    /**
+     * Chooses landmarks spread as far apart as possible: starting from the candidate farthest from the first
+     * candidate, each following landmark is the candidate farthest from all landmarks chosen so far.
+     *
+     * @param graph      The graph the landmarks are chosen in.
+     * @param candidates The IDs of the nodes that may be chosen.
+     * @param count      The number of landmarks to choose.
+     * @param <N>        Node type of the graph
+     * @return The IDs of at most {@code count} distinct landmarks.
+     * @spec.requires graph, candidates != null && count &ge; 0
+     */
+    public static <N> int[] farthestLandmarks(IndexedGraph<N> graph, int[] candidates, int count) {
+        List<Integer> chosen = new ArrayList<>();
+        if (candidates.length == 0 || count == 0) return new int[0];
+        // Distance from each candidate to its nearest chosen landmark, in either direction
+        double[] nearest = new double[candidates.length];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        IndexedGraph<N> reverse = graph.reverse();
+        // Start from the first candidate that can reach, or be reached from, any other candidate
+        int next = candidates[0];
+        for (int candidate : candidates) {
+            next = farthest(candidates, distancesFrom(graph, candidate), distancesFrom(reverse, candidate));
+            if (next != candidate) break;
+        }
+        while (next >= 0 && chosen.size() < count) {
+            chosen.add(next);
+            double[] from = distancesFrom(graph, next);
+            double[] to = distancesFrom(reverse, next);
+            int best = -1;
+            for (int i = 0; i < candidates.length; i++) {
+                nearest[i] = Math.min(nearest[i], reachableDistance(from[candidates[i]], to[candidates[i]]));
+                if (!chosen.contains(candidates[i]) && (best < 0 || isFarther(nearest[i], nearest[best]))) best = i;
+            }
+            next = best < 0 ? -1 : candidates[best];
+        }
+        int[] result = new int[chosen.size()];
+        for (int i = 0; i < result.length; i++) result[i] = chosen.get(i);
+        return result;
+    }
+
+    /**
+     * Chooses landmarks spread as far apart as possible among all nodes of the graph.
+     *
+     * @param graph The graph the landmarks are chosen in.
+     * @param count The number of landmarks to choose.
+     * @param <N>   Node type of the graph
+     * @return The IDs of at most {@code count} distinct landmarks.
+     * @spec.requires graph != null && count &ge; 0
+     * @see #farthestLandmarks(IndexedGraph, int[], int)
+     */
+    public static <N> int[] farthestLandmarks(IndexedGraph<N> graph, int count) {
+        int[] all = new int[graph.size()];
+        for (int id = 0; id < all.length; id++) all[id] = id;
+        return farthestLandmarks(graph, all, count);
+    }
+
+    /**
+     * @return The IDs of the landmarks this search uses.
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * @return The number of bytes taken by the landmark distance tables.
+     */
+    public long tableBytes() {
+        return 2L * landmarks.length * graph.size() * Double.BYTES;
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes. Returns null if no such path exists. The
+     * returned path has the same cost as the one found by {@link DijkstraSearch#findPath}.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes,
+     * and null if no such path exists.
+     * @throws IllegalArgumentException if either node is not in the graph.
+     */
+    public Path<N> findPath(N startNode, N endNode) {
+        return findPath(startNode, endNode, null);
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes, recording the work done by the search. Returns
+     * null if no such path exists. The returned path has the same cost as the one found by
+     * {@link DijkstraSearch#findPath}.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @param recorder  Recorder to record the nodes settled and entries pushed by the search in, or null if the
+     *                  search is not to be recorded
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes,
+     * and null if no such path exists.
+     * @throws IllegalArgumentException if either node is not in the graph.
+     */
+    public Path<N> findPath(N startNode, N endNode, SearchMetrics.Recorder recorder) {
+        Search search = search(startNode, endNode);
+        if (recorder != null) recorder.record(search.settled, search.pushes);
+        int end = graph.idOf(endNode);
+        if (Double.isInfinite(search.cost[end])) return null;
+        Deque<Integer> ids = new ArrayDeque<>();
+        for (int id = end; id != search.start; id = search.parent[id]) ids.push(id);
+        List<N> nodes = new ArrayList<>(ids.size() + 1);
+        double[] segmentCosts = new double[ids.size()];
+        nodes.add(startNode);
+        int previous = search.start;
+        for (int id : ids) {
+            segmentCosts[nodes.size() - 1] = graph.weight(previous, search.parentEdge[id]);
+            nodes.add(graph.nodeOf(id));
+            previous = id;
+        }
+        return new Path<>(nodes, segmentCosts);
+    }
+
+    /**
+     * Returns the number of nodes settled while searching for the least-cost path between two nodes. This is the
+     * measure of how much of the graph the landmarks save the search from exploring.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @return The number of nodes whose least cost from {@code startNode} was finalized during the search.
+     * @throws IllegalArgumentException if either node is not in the graph.
+     */
+    public int settledCount(N startNode, N endNode) {
+        return search(startNode, endNode).settled;
+    }
+
+    /**
+     * Runs A* from one node to another, stopping once the end is settled.
+     */
+    private Search search(N startNode, N endNode) {
+        int start = graph.idOf(startNode);
+        int end = graph.idOf(endNode);
+        if (start < 0 || end < 0) throw new IllegalArgumentException("Node is not in the graph");
+        Search search = new Search(graph.size(), start);
+        boolean[] finished = new boolean[graph.size()];
+        IndexedPriorityQueue active = queue.get();
+        active.offer(start, lowerBound(start, end));
+        search.pushes++;
+        while (!active.isEmpty()) {
+            int node = active.poll();
+            double nodeKey = active.keyOf(node);
+            finished[node] = true;
+            search.settled++;
+            if (node == end) break;
+            for (int i = 0; i < graph.degree(node); i++) {
+                int child = graph.target(node, i);
+                double cost = search.cost[node] + graph.weight(node, i);
+                if (!finished[child] && cost < search.cost[child]) {
+                    search.cost[child] = cost;
+                    search.parent[child] = node;
+                    search.parentEdge[child] = i;
+                    // The bounds are consistent, so a child's key is never below its parent's but for rounding, which a
+                    // monotone queue would refuse
+                    active.offer(child, Math.max(cost + lowerBound(child, end), nodeKey));
+                    search.pushes++;
+                }
+            }
+        }
+        active.clear();
+        return search;
+    }
+
+    /**
+     * @return A lower bound on the least cost from the node with ID {@code from} to the node with ID {@code to},
+     * the largest one given by any landmark.
+     */
+    private double lowerBound(int from, int to) {
+        double bound = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] fromL = fromLandmark[i];
+            double[] toL = toLandmark[i];
+            // Skip landmarks that cannot reach (or be reached from) both nodes, where the bounds are undefined
+            if (!Double.isInfinite(fromL[to]) && !Double.isInfinite(fromL[from])) {
+                bound = Math.max(bound, fromL[to] - fromL[from]);
+            }
+            if (!Double.isInfinite(toL[from]) && !Double.isInfinite(toL[to])) {
+                bound = Math.max(bound, toL[from] - toL[to]);
+            }
+        }
+        return bound * BOUND_MARGIN;
+    }
+
+    /**
+     * @return The least cost from {@code source} to each node of a graph, indexed by ID, infinite for unreachable
+     * nodes.
+     */
+    private static double[] distancesFrom(IndexedGraph<?> graph, int source) {
+        ShortestPathTree<?> tree = new ShortestPathTree<>(graph, source);
+        double[] cost = new double[graph.size()];
+        for (int id = 0; id < cost.length; id++) cost[id] = tree.costTo(id);
+        return cost;
+    }
+
+    /**
+     * @return The position of the candidate farthest from a node, by the larger of the costs to and from it, or the
+     * first candidate if none is reachable.
+     */
+    private static int farthest(int[] candidates, double[] from, double[] to) {
+        int best = candidates[0];
+        double bestDistance = -1;
+        for (int candidate : candidates) {
+            double distance = reachableDistance(from[candidate], to[candidate]);
+            if (!Double.isInfinite(distance) && distance > bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return Whether a candidate at distance {@code a} from the chosen landmarks should be preferred over one at
+     * distance {@code b}. Candidates no landmark is connected to come last, since they only help searches within
+     * their own disconnected part of the graph.
+     */
+    private static boolean isFarther(double a, double b) {
+        if (Double.isInfinite(b)) return !Double.isInfinite(a);
+        return !Double.isInfinite(a) && a > b;
+    }
+
+    /**
+     * @return The larger of two costs, ignoring an infinite one unless both are.
+     */
+    private static double reachableDistance(double from, double to) {
+        if (Double.isInfinite(from)) return to;
+        if (Double.isInfinite(to)) return from;
+        return Math.max(from, to);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && landmarks != null && fromLandmark != null && toLandmark != null && queue != null;
+        assert fromLandmark.length == landmarks.length && toLandmark.length == landmarks.length;
+        for (int i = 0; i < landmarks.length; i++) {
+            assert fromLandmark[i].length == graph.size() && toLandmark[i].length == graph.size();
+        }
+    }
+
+    /**
+     * The state left behind by one search: the least known cost to each node, the last edge on that path, and the
+     * number of nodes settled and queue entries pushed.
+     */
+    private static class Search {
+        private final int start;
+        private final double[] cost;
+        private final int[] parent;
+        private final int[] parentEdge;
+        private int settled;
+        private int pushes;
+
+        private Search(int size, int start) {
+            this.start = start;
+            this.cost = new double[size];
+            this.parent = new int[size];
+            this.parentEdge = new int[size];
+            Arrays.fill(cost, Double.POSITIVE_INFINITY);
+            cost[start] = 0;
+        }
+    }
+}
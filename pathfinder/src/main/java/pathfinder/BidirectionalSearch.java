@@ -0,0 +1,229 @@
+package pathfinder;
+
+import graph.Graph;
+import pathfinder.datastructures.Path;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.*;
+
+/**
+ * BidirectionalSearch is a static class that allows a {@link Path} to be found between nodes on a {@link Graph} by
+ * running Dijkstra's algorithm forward from the start and backward from the end at the same time, stopping once the
+ * two searches meet and no shorter meeting point can exist.
+ */
+public class BidirectionalSearch {
+
+    /**
+     * Returns a new graph containing the same nodes as the given graph, with every edge reversed. This is the
+     * inbound adjacency of {@code graph}: the children of a node in the returned graph are its parents in
+     * {@code graph}.
+     *
+     * @spec.requires graph != null
+     * @param graph Graph to be reversed
+     * @param <N> Node type of the graph
+     * @return a new graph where every edge from a to b with label l in {@code graph} is an edge from b to a with
+     * label l
+     */
+    public static <N> Graph<N, Double> reverse(Graph<N, Double> graph) {
+        Graph<N, Double> reversed = new Graph<>();
+        Iterator<N> nodes = graph.nodeIterator();
+        while (nodes.hasNext()) {
+            N node = nodes.next();
+            reversed.addNode(node);
+            Map<N, List<Double>> childrenMap = graph.childrenOf(node);
+            for (N child : childrenMap.keySet()) {
+                for (Double edgeCost : childrenMap.get(child)) {
+                    reversed.addEdge(child, node, edgeCost);
+                }
+            }
+        }
+        return reversed;
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes on a given graph. Returns null if no such path
+     * exists. The returned path has the same cost as the one found by {@link DijkstraSearch#findPath}.
+     *
+     * @spec.requires graph, reverse, startNode, endNode != null
+     *                reverse is equal to reverse(graph)
+     *                graph.contains(startNode)
+     *                graph.contains(endNode)
+     *                All edge labels in graph must be greater or equal to 0
+     * @param graph Graph to be searched on
+     * @param reverse Inbound adjacency of {@code graph}, as built by {@link #reverse(Graph)}
+     * @param startNode Starting node of path
+     * @param endNode End node of path
+     * @param <N> Node type of graph to be searched
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes, and
+     * null if no such path exists.
+     */
+    public static <N> Path<N> findPath(Graph<N, Double> graph, Graph<N, Double> reverse, N startNode, N endNode) {
+        return findPath(graph, reverse, startNode, endNode, null);
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes on a given graph, recording the work done by the
+     * search. Returns null if no such path exists. The returned path has the same cost as the one found by
+     * {@link DijkstraSearch#findPath}.
+     *
+     * @spec.requires graph, reverse, startNode, endNode != null
+     *                reverse is equal to reverse(graph)
+     *                graph.contains(startNode)
+     *                graph.contains(endNode)
+     *                All edge labels in graph must be greater or equal to 0
+     * @param graph Graph to be searched on
+     * @param reverse Inbound adjacency of {@code graph}, as built by {@link #reverse(Graph)}
+     * @param startNode Starting node of path
+     * @param endNode End node of path
+     * @param recorder Recorder to record the nodes settled and entries pushed by both sides of the search in, or
+     *                 null if the search is not to be recorded
+     * @param <N> Node type of graph to be searched
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes, and
+     * null if no such path exists.
+     */
+    public static <N> Path<N> findPath(Graph<N, Double> graph, Graph<N, Double> reverse, N startNode, N endNode,
+                                       SearchMetrics.Recorder recorder) {
+        if (startNode.equals(endNode)) {
+            if (recorder != null) recorder.record(0, 0);
+            return new Path<>(startNode);
+        }
+        Frontier<N> forward = new Frontier<>(graph, startNode);
+        Frontier<N> backward = new Frontier<>(reverse, endNode);
+        // Cost of the best path found so far, and the node where its two halves meet
+        double best = Double.POSITIVE_INFINITY;
+        N meeting = null;
+        while (!forward.isEmpty() && !backward.isEmpty()) {
+            // Any path not yet found must cost at least the sum of the two frontiers' smallest costs
+            if (forward.peekCost() + backward.peekCost() >= best) break;
+            // Advance whichever side has the cheaper frontier, which keeps the two searches balanced
+            Frontier<N> side = forward.peekCost() <= backward.peekCost() ? forward : backward;
+            Frontier<N> other = side == forward ? backward : forward;
+            N settled = side.settleNext();
+            if (settled == null) continue;
+            // Every node the settled node reaches may join a path through the other side's labels
+            for (N child : side.relax(settled)) {
+                Double otherCost = other.cost.get(child);
+                if (otherCost != null) {
+                    double total = side.cost.get(child) + otherCost;
+                    if (total < best) {
+                        best = total;
+                        meeting = child;
+                    }
+                }
+            }
+            Double otherCost = other.cost.get(settled);
+            if (otherCost != null && side.cost.get(settled) + otherCost < best) {
+                best = side.cost.get(settled) + otherCost;
+                meeting = settled;
+            }
+        }
+        if (recorder != null) {
+            recorder.record(forward.settled + backward.settled, forward.pushes + backward.pushes);
+        }
+        // No path was found
+        if (meeting == null) return null;
+        // Walk the forward parents back to the start, then the backward parents on to the end
+        List<N> nodes = new ArrayList<>();
+        for (N node = meeting; node != null; node = forward.parent.get(node)) nodes.add(node);
+        Collections.reverse(nodes);
+        for (N node = backward.parent.get(meeting); node != null; node = backward.parent.get(node)) nodes.add(node);
+        double[] segmentCosts = new double[nodes.size() - 1];
+        for (int i = 1; i < nodes.size(); i++) {
+            segmentCosts[i - 1] = Collections.min(graph.childrenOf(nodes.get(i - 1)).get(nodes.get(i)));
+        }
+        return new Path<>(nodes, segmentCosts);
+    }
+
+    /**
+     * One direction of a bidirectional search: a single-source Dijkstra's search over a graph that is advanced one
+     * settled node at a time.
+     *
+     * @param <N> Node type of graph to be searched
+     */
+    private static class Frontier<N> {
+        // Graph this side of the search follows edges in
+        private final Graph<N, Double> graph;
+        // Least known cost from this side's source to each reached node
+        private final Map<N, Double> cost = new HashMap<>();
+        // Previous node on the least-cost path to each reached node, absent for the source
+        private final Map<N, N> parent = new HashMap<>();
+        // Nodes whose least cost is final
+        private final Set<N> finished = new HashSet<>();
+        // Reached nodes ordered by cost, possibly containing stale entries for already finished nodes
+        private final Queue<Entry<N>> active = new PriorityQueue<>(new Comparator<Entry<N>>() {
+            @Override
+            public int compare(Entry<N> o1, Entry<N> o2) {
+                return Double.compare(o1.cost, o2.cost);
+            }
+        });
+        // Nodes finished and entries added to the queue so far
+        private int settled;
+        private int pushes = 1;
+
+        private Frontier(Graph<N, Double> graph, N source) {
+            this.graph = graph;
+            cost.put(source, 0.0);
+            active.add(new Entry<>(source, 0.0));
+        }
+
+        private boolean isEmpty() {
+            return active.isEmpty();
+        }
+
+        private double peekCost() {
+            return active.peek().cost;
+        }
+
+        /**
+         * Removes the cheapest entry from the queue and marks its node finished.
+         *
+         * @return the newly finished node, or null if the entry was stale
+         */
+        private N settleNext() {
+            Entry<N> min = active.remove();
+            if (!finished.add(min.node)) return null;
+            settled++;
+            return min.node;
+        }
+
+        /**
+         * Lowers the cost of every unfinished child of the given node that can be reached more cheaply through it.
+         *
+         * @param node A finished node
+         * @return the children whose cost was lowered
+         */
+        private List<N> relax(N node) {
+            List<N> improved = new ArrayList<>();
+            double base = cost.get(node);
+            Map<N, List<Double>> childrenMap = graph.childrenOf(node);
+            for (N child : childrenMap.keySet()) {
+                if (finished.contains(child)) continue;
+                double newCost = base + Collections.min(childrenMap.get(child));
+                Double oldCost = cost.get(child);
+                if (oldCost == null || newCost < oldCost) {
+                    cost.put(child, newCost);
+                    parent.put(child, node);
+                    active.add(new Entry<>(child, newCost));
+                    pushes++;
+                    improved.add(child);
+                }
+            }
+            return improved;
+        }
+    }
+
+    /**
+     * A node on the frontier of one side of the search, along with the cost it was queued with.
+     *
+     * @param <N> Node type of graph to be searched
+     */
+    private static class Entry<N> {
+        private final N node;
+        private final double cost;
+
+        private Entry(N node, double cost) {
+            this.node = node;
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.QueueKind;
+
+import java.util.Arrays;
+
+/**
+ * This represents a cost-bounded run of Dijkstra's algorithm from one source node of an {@link IndexedGraph}, which
+ * finds the least cost of every node that can be reached within a limit and explores nothing beyond it. The frontier
+ * is kept between calls, so raising the limit later continues the search where it stopped instead of starting over.
+ * <p>
+ * Nodes are settled in order of increasing cost, so the nodes within any limit up to the largest one searched are
+ * always a prefix of that order. The frontier is an {@link IndexedPriorityQueue} of the {@link QueueKind} chosen when
+ * the search is started.
+ *
+ * @param <N> Node type of the graph
+ */
+public class BoundedSearch<N> {
+
+    // AF(this) =
+    //      the graph searched on => graph
+    //      the node the search starts at => the node with ID source
+    //      the largest limit searched to so far => limit
+    //      the nodes settled so far, in order of cost => order[0] up to order[settledCount - 1]
+    //      the least cost from the source to the node with ID v => cost[v] if settled[v], and unknown otherwise
+    //      the nodes reached but not yet settled => frontier
+
+    // Rep Invariant:
+    //      graph, cost, settled, order, frontier != null &&
+    //      cost.length == settled.length == order.length == graph.size() &&
+    //      0 <= settledCount <= graph.size() &&
+    //      forall 0 <= i < settledCount, settled[order[i]] && cost[order[i]] <= limit &&
+    //      forall 0 < i < settledCount, cost[order[i - 1]] <= cost[order[i]]
+
+    private final IndexedGraph<N> graph;
+    private final int source;
+    private final double[] cost;
+    private final boolean[] settled;
+    private final int[] order;
+    private final IndexedPriorityQueue frontier;
+    private int settledCount;
+    private double limit;
+
+    /**
+     * Starts a new search from the given node, using a {@link QueueKind#BINARY_HEAP}. No node is settled until
+     * {@link #expandTo} is called.
+     *
+     * @param graph  The graph to search on.
+     * @param source The ID of the node the search starts at.
+     * @spec.requires graph != null && 0 &le; source &lt; graph.size()
+     */
+    public BoundedSearch(IndexedGraph<N> graph, int source) {
+        this(graph, source, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Starts a new search from the given node, using the given kind of priority queue. No node is settled until
+     * {@link #expandTo} is called.
+     *
+     * @param graph  The graph to search on.
+     * @param source The ID of the node the search starts at.
+     * @param queue  The kind of priority queue to use.
+     * @spec.requires graph, queue != null && 0 &le; source &lt; graph.size()
+     */
+    public BoundedSearch(IndexedGraph<N> graph, int source, QueueKind queue) {
+        this.graph = graph;
+        this.source = source;
+        this.cost = new double[graph.size()];
+        this.settled = new boolean[graph.size()];
+        this.order = new int[graph.size()];
+        this.frontier = queue.create(graph.size());
+        this.limit = Double.NEGATIVE_INFINITY;
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        cost[source] = 0;
+        frontier.offer(source, 0);
+        checkRep();
+    }
+
+    /**
+     * Settles every node whose least cost from the source is at most {@code limit}, continuing from the frontier
+     * left by earlier calls. Does nothing if the search has already reached that far.
+     *
+     * @param limit The largest cost of a node to settle.
+     * @spec.modifies this
+     * @spec.effects every node with least cost &le; {@code limit} is settled
+     */
+    public void expandTo(double limit) {
+        while (!frontier.isEmpty() && frontier.peekKey() <= limit) {
+            int node = frontier.poll();
+            settled[node] = true;
+            order[settledCount++] = node;
+            for (int i = 0; i < graph.degree(node); i++) {
+                int child = graph.target(node, i);
+                double childCost = cost[node] + graph.weight(node, i);
+                if (!settled[child] && childCost < cost[child]) {
+                    cost[child] = childCost;
+                    frontier.offer(child, childCost);
+                }
+            }
+        }
+        this.limit = Math.max(this.limit, limit);
+        checkRep();
+    }
+
+    /**
+     * @return The ID of the node the search starts at.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @return The largest limit this search has been expanded to, or negative infinity if it has not been expanded.
+     */
+    public double getLimit() {
+        return limit;
+    }
+
+    /**
+     * @param limit A cost no larger than {@link #getLimit()}.
+     * @return The number of settled nodes whose least cost is at most {@code limit}. These are the nodes {@code
+     * settledNode(0)} up to {@code settledNode(settledWithin(limit) - 1)}.
+     */
+    public int settledWithin(double limit) {
+        int low = 0;
+        int high = settledCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cost[order[middle]] <= limit) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @param index A position between 0 and the number of settled nodes - 1.
+     * @return The ID of the {@code index}-th node settled, in order of increasing cost.
+     */
+    public int settledNode(int index) {
+        return order[index];
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The least cost from the source to that node if it has been settled, and infinity otherwise.
+     */
+    public double costTo(int id) {
+        return settled[id] ? cost[id] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && cost != null && settled != null && order != null && frontier != null;
+        assert cost.length == graph.size() && settled.length == graph.size() && order.length == graph.size();
+        assert settledCount >= 0 && settledCount <= graph.size();
+    }
+}
@@ -0,0 +1,98 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BuildingRoutes represents the shortest paths between one building and every building on campus, in one direction:
+ * either from the building to every other, or from every other to the building. All distances are found by a single
+ * search; the {@link Path} to or from a particular building is only rebuilt when asked for.
+ */
+public class BuildingRoutes {
+    /*  AF:
+        String origin is the short name of the building every path starts at (if reversed is false) or ends at (if
+        reversed is true). ShortestPathTree<Point> tree holds the least-cost paths from origin's location over graph,
+        which is the campus map itself if reversed is false or the campus map with every edge reversed otherwise.
+        Map<String, Double> distances maps the short name of every building connected to origin to the length of the
+        shortest path between them.
+     */
+    /*  RI:
+        origin, tree, graph, shortNameToPoint, distances != null &&
+        forall i such that i is a key in distances, i is a key in shortNameToPoint
+     */
+
+    private final String origin;
+    private final boolean reversed;
+    private final IndexedGraph<Point> graph;
+    private final ShortestPathTree<Point> tree;
+    // Map of short names of buildings to Points of those buildings
+    private final Map<String, Point> shortNameToPoint;
+    // Map of short names of buildings to their distance from or to origin
+    private final Map<String, Double> distances;
+
+    /**
+     * Finds the shortest paths between a building and every building.
+     *
+     * @param origin The short name of the building every path starts or ends at
+     * @param reversed {@literal true} if paths end at {@code origin}, in which case {@code graph} must be the
+     *                 campus map with every edge reversed
+     * @param graph The graph searched on
+     * @param shortNameToPoint Map of short names of buildings to the Points of those buildings
+     * @spec.requires origin, graph, shortNameToPoint != null && origin is a key in shortNameToPoint
+     */
+    BuildingRoutes(String origin, boolean reversed, IndexedGraph<Point> graph, Map<String, Point> shortNameToPoint) {
+        this.origin = origin;
+        this.reversed = reversed;
+        this.graph = graph;
+        this.shortNameToPoint = shortNameToPoint;
+        this.tree = new ShortestPathTree<>(graph, graph.idOf(shortNameToPoint.get(origin)));
+        Map<String, Double> distances = new HashMap<>();
+        for (Map.Entry<String, Point> building : shortNameToPoint.entrySet()) {
+            double cost = tree.costTo(graph.idOf(building.getValue()));
+            if (!Double.isInfinite(cost)) distances.put(building.getKey(), cost);
+        }
+        this.distances = Collections.unmodifiableMap(distances);
+    }
+
+    /**
+     * @return The short name of the building every path starts at, or ends at if {@link #isReversed()}.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return {@literal true} iff these are paths from every building to the origin, rather than from the origin.
+     */
+    public boolean isReversed() {
+        return reversed;
+    }
+
+    /**
+     * @return An unmodifiable mapping from the short name of every building connected to the origin to the length
+     * of the shortest path between them.
+     */
+    public Map<String, Double> distances() {
+        return distances;
+    }
+
+    /**
+     * Rebuilds the shortest path between the origin and another building.
+     *
+     * @param shortName The short name of the other building.
+     * @return The shortest path from the origin to the building, or from the building to the origin if {@link
+     * #isReversed()}, or {@literal null} if there is none.
+     * @throws IllegalArgumentException if {@code shortName} is null or not a valid short name of a building.
+     */
+    public Path<Point> pathFor(String shortName) {
+        if (shortName == null || !shortNameToPoint.containsKey(shortName))
+            throw new IllegalArgumentException("Short name does not exist");
+        int id = graph.idOf(shortNameToPoint.get(shortName));
+        return reversed ? tree.pathFrom(id) : tree.pathTo(id);
+    }
+}
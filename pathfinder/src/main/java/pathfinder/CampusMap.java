@@ -2,15 +2,36 @@
 package pathfinder;
 
 import graph.Graph;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.KdTree;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.hierarchy.ContractionHierarchy;
+import pathfinder.metrics.PrometheusWriter;
+import pathfinder.metrics.SearchMetrics;
 import pathfinder.parser.CampusBuilding;
-import pathfinder.parser.CampusPath;
 import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.PathShard;
+import pathfinder.parser.CompiledMap;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 /**
  * CampusMap holds a map of buildings on the University of Washington campus and allows for {@link Path}s to be
@@ -18,43 +39,296 @@ import java.util.Map;
  */
 public class CampusMap implements ModelAPI {
     /*  AF:
-        Graph<Point, Double> map represents a directed labeled map of the University of Washington Campus where
+        IndexedGraph<Point> indexedMap represents a directed labeled map of the University of Washington Campus where
         the nodes are the locations of specific coordinates on campus (using Points) with edges having Double values
-        representing the length of the edge. Map<String, Point> shortNameToPoint maps the "short name" (i.e. CSE) of
-        buildings to the coordinate location of that building on the UW campus (using Points). Map<String, String>
-        shortToLongName represents the mapping of these "short names" to the longer, official name of the building on
-        the UW campus.
+        representing the length of the edge, with dense node IDs shared by the engines that search over arrays. When
+        loaded from a compiled map it is a view over the mapped file. Map<String, Point> shortNameToPoint maps the
+        "short name" (i.e. CSE) of buildings to the coordinate location of that building on the UW campus (using
+        Points). Map<String, String> shortToLongName represents the mapping of these "short names" to the longer,
+        official name of the building on the UW campus.
+        Lazy<Graph<Point, Double>> map holds indexedMap as a Graph, for the searches that follow edges by Point; it is
+        built when the map is created if engine is one of them, and otherwise the first time it is needed. Graph<Point,
+        Double> reverseMap is map with the direction of every edge reversed, so the children of a Point in reverseMap
+        are the Points with edges to it in map, present only when engine is BIDIRECTIONAL. Lazy<IndexedGraph<Point>>
+        indexedReverseMap holds indexedMap with every edge reversed.
+        SearchEngine engine is the algorithm used to answer shortest path queries, and double heuristicScale is the
+        factor straight-line distances between Points are multiplied by to give a lower bound on walking distance for
+        A* search, calibrated as the largest that no edge of indexedMap costs less than. List<Path<Point>> shortPaths
+        holds the edges of indexedMap costing less than their straight-line length in pixels, which no walking path
+        can. QueueKind queue is the kind of priority queue used by every search over indexedMap, while the searches
+        over map use binary heaps of their own.
+        IndexedDijkstra<Point> indexedDijkstra searches indexedMap, present only when engine is
+        INDEXED_DIJKSTRA. ContractionHierarchy<Point> hierarchy is a contraction hierarchy built over indexedMap,
+        present only when engine is CONTRACTION_HIERARCHY. AltSearch<Point> alt holds landmark distance tables over
+        indexedMap, present only when engine is ALT. RouteTable<Point> routeTable holds the shortest path between every
+        pair of buildings, present only when engine is ROUTE_TABLE. Lazy<KShortestPaths<Point>> alternatives finds
+        ranked alternative paths over indexedMap. Map<Point, BoundedSearch<Point>> reachability holds the cost-bounded
+        searches from the most recently used building locations, so a later query from the same building with a larger
+        limit continues where the last one stopped, and LongAdder reachabilityHits and reachabilityMisses count the
+        queries that found a search there and those that had to start one. Lazy<KdTree<String>> buildingIndex holds
+        the short name of every building at its location, and Lazy<KdTree<Point>> pointIndex holds every Point in
+        indexedMap, for finding what is near a coordinate. Lazy<CoordinateRouter> coordinateRouter routes between
+        arbitrary coordinates over indexedMap. Each Lazy is built the first time it is needed, since most are never
+        needed by a server answering queries between buildings.
+        ClosureRegistry closures holds the paths and areas closed for every shortest path query between buildings.
+        double loadMillis is the time taken to load indexedMap, shortNameToPoint and shortToLongName, and boolean
+        loadedCompiled is whether they were loaded from a compiled map rather than parsed from the data files.
+        EdgeNormalizer.Stats edgeStats counts the paths loaded and those left out of indexedMap because a path between
+        the same Points, in the same direction, was no longer, or because they led from a Point to itself. long
+        mapVersion is a fingerprint of the paths in indexedMap and the buildings in shortNameToPoint and
+        shortToLongName.
      */
     /*  RI:
-        map != null &&
+        map != null && (reverseMap != null iff engine == SearchEngine.BIDIRECTIONAL) &&
+        indexedMap != null && indexedReverseMap != null &&
         shortNameToPoint != null &&
         shortToLongName != null &&
-        forall i such that i is a node in map, i is one of the points from "campus_paths.csv" &&
+        engine != null && queue != null &&
+        heuristicScale >= 0 && (engine != SearchEngine.A_STAR || heuristicScale > 0) &&
+        shortPaths != null &&
+        (indexedDijkstra != null iff engine == SearchEngine.INDEXED_DIJKSTRA) &&
+        (hierarchy != null iff engine == SearchEngine.CONTRACTION_HIERARCHY) &&
+        (alt != null iff engine == SearchEngine.ALT) &&
+        (routeTable != null iff engine == SearchEngine.ROUTE_TABLE) &&
+        alternatives != null &&
+        reachability != null && reachability.size() <= REACHABILITY_CACHE_SIZE &&
+        reachabilityHits != null && reachabilityMisses != null &&
+        buildingIndex != null && pointIndex != null &&
+        coordinateRouter != null &&
+        closures != null &&
+        loadMillis >= 0 &&
+        edgeStats != null &&
+        mapVersion == indexedMap.fingerprint() + buildingsFingerprint() &&
+        forall i such that i is a node in indexedMap, the edges from i to each of its children are a single edge, and
+        none of them leads back to i &&
+        forall i such that i is a node in indexedMap, i is one of the points from the paths files &&
         forall i such that i is a key in shortNameToPoint and shortToLongName, i is one of the short names contained in
-        "campus_buildings.csv" and i's value in the map is either a valid point in "campus_paths.csv" or long building
-        name in "campus_buildings.csv" respectively
+        the buildings file and i's value in the map is either a valid point in the paths files or long building
+        name in the buildings file respectively
      */
 
     private static final boolean DEBUG = false;  // Debug variable
 
-    private Graph<Point, Double> map;
+    /**
+     * System property naming a {@link CompiledMap} file to load the map from, instead of parsing the data files. The
+     * data files are parsed anyway if the compiled map is missing, out of date or damaged.
+     */
+    public static final String COMPILED_MAP_PROPERTY = "pathfinder.compiledMap";
+
+    /**
+     * System property which, when "true", has a {@link CompiledMap} checked against the full contents of the data
+     * files, rather than only against their lengths and last modified times.
+     */
+    public static final String VERIFY_COMPILED_MAP_PROPERTY = "pathfinder.compiledMap.verify";
+
+    // Data files the map is loaded from by default
+    private static final String PATHS_FILE = "campus_paths.csv";
+    private static final String BUILDINGS_FILE = "campus_buildings.csv";
+
+    // Number of cost-bounded searches kept for reachability queries
+    private static final int REACHABILITY_CACHE_SIZE = 16;
+
+    // Paths with dense node IDs, searched by every engine but those following edges by Point
+    private IndexedGraph<Point> indexedMap;
+    // indexedMap as a Graph, only built up front when the selected engine searches it
+    private final Lazy<Graph<Point, Double>> map;
+    // Inbound adjacency of map, used by searches running backward from the destination, only built when it is the
+    // selected engine
+    private final Graph<Point, Double> reverseMap;
+    // Inbound adjacency of indexedMap
+    private final Lazy<IndexedGraph<Point>> indexedReverseMap;
     // Map of short names of buildings to Points of those buildings
     private Map<String, Point> shortNameToPoint;
     // Map of short names of buildings to long names
     private Map<String, String> shortToLongName;
-
+    // Time taken by buildGraph, and whether it loaded a compiled map
+    private double loadMillis;
+    private boolean loadedCompiled;
+    // Counts of the paths loaded and of those dropped from map as duplicates or self-loops
+    private EdgeNormalizer.Stats edgeStats;
+    // Fingerprint of the paths and buildings loaded, the same however they were loaded
+    private long mapVersion;
+    // Algorithm used to find shortest paths
+    private final SearchEngine engine;
+    // Scale of the straight-line distance heuristic used by A* search
+    private final double heuristicScale;
+    // Paths shorter than the straight line between their ends, which point to errors in the data
+    private final List<Path<Point>> shortPaths;
+    // Dijkstra's algorithm over indexedMap, only created when it is the selected engine
+    private final IndexedDijkstra<Point> indexedDijkstra;
+    // Kind of priority queue used by the searches over indexedMap
+    private final QueueKind queue;
+    // Contraction hierarchy over indexedMap, only built when it is the selected engine, since preprocessing is
+    // costly
+    private final ContractionHierarchy<Point> hierarchy;
+    // Landmark tables over indexedMap, only built when it is the selected engine
+    private final AltSearch<Point> alt;
+    // Precomputed routes between every pair of buildings, only built when it is the selected engine
+    private final RouteTable<Point> routeTable;
+    // Finds alternative paths between buildings, whatever the selected engine
+    private final Lazy<KShortestPaths<Point>> alternatives;
+    // Cost-bounded searches from recently queried building locations, least recently used first
+    private final Map<Point, BoundedSearch<Point>> reachability;
+    private final LongAdder reachabilityHits;
+    private final LongAdder reachabilityMisses;
+    // Spatial indexes over building locations and over every Point in indexedMap
+    private final Lazy<KdTree<String>> buildingIndex;
+    private final Lazy<KdTree<Point>> pointIndex;
+    // Snaps coordinates onto the nearest campus path and routes between them
+    private final Lazy<CoordinateRouter> coordinateRouter;
+    // Paths and areas closed for every query until they are lifted
+    private final ClosureRegistry closures;
 
     /**
-     * Constructs a new {@link CampusMap} of data on the University of Washington campus.
+     * Constructs a new {@link CampusMap} of data on the University of Washington campus, which finds paths using
+     * Dijkstra's algorithm.
      * @spec.effects create a new {@link CampusMap}
      */
     public CampusMap() {
+        this(SearchEngine.DIJKSTRA);
+    }
+
+    /**
+     * Constructs a new {@link CampusMap} of data on the University of Washington campus, which finds paths using the
+     * given search engine.
+     * @param engine Algorithm used to find shortest paths
+     * @spec.requires engine != null
+     * @spec.effects create a new {@link CampusMap}
+     * @throws IllegalStateException if {@code engine} is {@link SearchEngine#A_STAR} and the straight-line heuristic
+     *                               can only be scaled to 0 for the loaded data, which would make A* search no
+     *                               different from Dijkstra's algorithm
+     */
+    public CampusMap(SearchEngine engine) {
+        this(engine, AltSearch.DEFAULT_LANDMARK_COUNT);
+    }
+
+    /**
+     * Constructs a new {@link CampusMap} of data on the University of Washington campus, which finds paths using the
+     * given search engine. If the engine is {@link SearchEngine#ALT}, the given number of buildings spread as far
+     * apart as possible are used as landmarks.
+     * @param engine Algorithm used to find shortest paths
+     * @param landmarkCount Number of landmarks to use for {@link SearchEngine#ALT}
+     * @spec.requires engine != null && landmarkCount &ge; 0
+     * @spec.effects create a new {@link CampusMap}
+     * @throws IllegalStateException if {@code engine} is {@link SearchEngine#A_STAR} and the straight-line heuristic
+     *                               can only be scaled to 0 for the loaded data, which would make A* search no
+     *                               different from Dijkstra's algorithm
+     */
+    public CampusMap(SearchEngine engine, int landmarkCount) {
+        this(engine, landmarkCount, QueueKind.BINARY_HEAP, Collections.singletonList(PathShard.of(PATHS_FILE)),
+             BUILDINGS_FILE);
+    }
+
+    /**
+     * Constructs a new {@link CampusMap} of data on the University of Washington campus, which finds paths using the
+     * given search engine. Searches over dense node IDs use the given kind of priority queue.
+     * @param engine Algorithm used to find shortest paths
+     * @param queue Kind of priority queue used by the searches over dense node IDs: every engine but
+     *              {@link SearchEngine#DIJKSTRA}, {@link SearchEngine#A_STAR} and {@link SearchEngine#BIDIRECTIONAL},
+     *              and the searches for alternatives, itineraries, reachable places and coordinates
+     * @spec.requires engine, queue != null
+     * @spec.effects create a new {@link CampusMap}
+     * @throws IllegalStateException if {@code engine} is {@link SearchEngine#A_STAR} and the straight-line heuristic
+     *                               can only be scaled to 0 for the loaded data, which would make A* search no
+     *                               different from Dijkstra's algorithm
+     */
+    public CampusMap(SearchEngine engine, QueueKind queue) {
+        this(engine, AltSearch.DEFAULT_LANDMARK_COUNT, queue, Collections.singletonList(PathShard.of(PATHS_FILE)),
+             BUILDINGS_FILE);
+    }
+
+    /**
+     * Constructs a new {@link CampusMap} of the paths in the given shards and the buildings in the given file, which
+     * finds paths using the given search engine. The shards are parsed in parallel, and a shard is split into byte
+     * ranges when there are fewer shards than threads to parse them. If the engine is {@link SearchEngine#ALT}, the
+     * given number of buildings spread as far apart as possible are used as landmarks.
+     * @param engine Algorithm used to find shortest paths
+     * @param landmarkCount Number of landmarks to use for {@link SearchEngine#ALT}
+     * @param pathShards Parts of campus paths files holding every path on the map
+     * @param buildingsFile File name of where graph data of buildings are located
+     * @spec.requires engine, pathShards, buildingsFile != null && landmarkCount &ge; 0
+     * @spec.effects create a new {@link CampusMap}
+     * @throws CampusPathsParser.ParserException if a shard or the buildings file cannot be found or parsed
+     * @throws IllegalStateException if {@code engine} is {@link SearchEngine#A_STAR} and the straight-line heuristic
+     *                               can only be scaled to 0 for the loaded data, which would make A* search no
+     *                               different from Dijkstra's algorithm
+     */
+    public CampusMap(SearchEngine engine, int landmarkCount, List<PathShard> pathShards, String buildingsFile) {
+        this(engine, landmarkCount, QueueKind.BINARY_HEAP, pathShards, buildingsFile);
+    }
+
+    /**
+     * Constructs a new {@link CampusMap} of the paths in the given shards and the buildings in the given file, which
+     * finds paths using the given search engine, as {@link #CampusMap(SearchEngine, int, List, String)} does.
+     * Searches over dense node IDs use the given kind of priority queue.
+     * @param engine Algorithm used to find shortest paths
+     * @param landmarkCount Number of landmarks to use for {@link SearchEngine#ALT}
+     * @param queue Kind of priority queue used by the searches over dense node IDs: every engine but
+     *              {@link SearchEngine#DIJKSTRA}, {@link SearchEngine#A_STAR} and {@link SearchEngine#BIDIRECTIONAL},
+     *              and the searches for alternatives, itineraries, reachable places and coordinates
+     * @param pathShards Parts of campus paths files holding every path on the map
+     * @param buildingsFile File name of where graph data of buildings are located
+     * @spec.requires engine, queue, pathShards, buildingsFile != null && landmarkCount &ge; 0
+     * @spec.effects create a new {@link CampusMap}
+     * @throws CampusPathsParser.ParserException if a shard or the buildings file cannot be found or parsed
+     * @throws IllegalStateException if {@code engine} is {@link SearchEngine#A_STAR} and the straight-line heuristic
+     *                               can only be scaled to 0 for the loaded data, which would make A* search no
+     *                               different from Dijkstra's algorithm
+     */
+    public CampusMap(SearchEngine engine, int landmarkCount, QueueKind queue, List<PathShard> pathShards,
+                     String buildingsFile) {
         // Initialize data structures
-        map = new Graph<>();
         shortNameToPoint = new HashMap<>();
         shortToLongName = new HashMap<>();
+        this.engine = engine;
+        this.queue = queue;
         // Build graph
-        buildGraph("campus_paths.csv", "campus_buildings.csv");
+        buildGraph(pathShards, buildingsFile);
+        // Only the engines following edges by Point need map up front; the searches skipping closed edges build it
+        // the first time they are needed
+        map = new Lazy<>(indexedMap::toGraph);
+        boolean searchesMap = engine == SearchEngine.DIJKSTRA || engine == SearchEngine.A_STAR
+                              || engine == SearchEngine.BIDIRECTIONAL;
+        if (searchesMap) map.get();
+        reverseMap = engine == SearchEngine.BIDIRECTIONAL ? BidirectionalSearch.reverse(map.get()) : null;
+        indexedReverseMap = new Lazy<>(indexedMap::reverse);
+        // A foot is longer than a pixel, so no path is shorter than the straight line between its ends measured in
+        // pixels unless the data is wrong
+        shortPaths = Collections.unmodifiableList(AStarSearch.inadmissibleEdges(indexedMap, 1));
+        if (!shortPaths.isEmpty()) {
+            System.err.println("Paths shorter than the straight line between their ends: " + shortPaths.size()
+                               + ", such as " + shortPaths.get(0).iterator().next());
+        }
+        // Calibrate the A* heuristic against the loaded edges, since distances (feet) and coordinates (pixels) are
+        // in different units. The scale is admissible by construction, including for the paths above.
+        heuristicScale = AStarSearch.admissibleScale(indexedMap);
+        if (engine == SearchEngine.A_STAR && heuristicScale == 0) {
+            throw new IllegalStateException("A path between two distinct points costs nothing, so the straight-line "
+                                            + "heuristic can only be scaled to 0");
+        }
+        indexedDijkstra = engine == SearchEngine.INDEXED_DIJKSTRA ? new IndexedDijkstra<>(indexedMap, queue) : null;
+        hierarchy = engine == SearchEngine.CONTRACTION_HIERARCHY ? new ContractionHierarchy<>(indexedMap, queue) : null;
+        alt = engine == SearchEngine.ALT ? buildAltSearch(landmarkCount) : null;
+        routeTable = engine == SearchEngine.ROUTE_TABLE
+                     ? new RouteTable<>(indexedMap, shortNameToPoint, ForkJoinPool.commonPool(), queue) : null;
+        alternatives = new Lazy<>(() -> new KShortestPaths<>(indexedMap, indexedReverseMap.get(),
+                                                             ForkJoinPool.commonPool(), queue));
+        reachability = new LinkedHashMap<Point, BoundedSearch<Point>>(REACHABILITY_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Point, BoundedSearch<Point>> eldest) {
+                return size() > REACHABILITY_CACHE_SIZE;
+            }
+        };
+        reachabilityHits = new LongAdder();
+        reachabilityMisses = new LongAdder();
+        buildingIndex = new Lazy<>(() -> new KdTree<>(shortNameToPoint.keySet(), shortNameToPoint::get));
+        pointIndex = new Lazy<>(() -> {
+            List<Point> points = new ArrayList<>(indexedMap.size());
+            for (int id = 0; id < indexedMap.size(); id++) points.add(indexedMap.nodeOf(id));
+            return new KdTree<>(points, point -> point);
+        });
+        coordinateRouter = new Lazy<>(() -> new CoordinateRouter(indexedMap, queue));
+        closures = new ClosureRegistry();
         checkRep();
     }
 
@@ -65,34 +339,223 @@ public class CampusMap implements ModelAPI {
     private void checkRep() {
         if (DEBUG) {
             assert ((map != null) && (shortNameToPoint != null) && (shortToLongName != null)) : "null fields.";
+            assert ((reverseMap != null) == (engine == SearchEngine.BIDIRECTIONAL)) : "missing reverse graph.";
+            assert ((indexedMap != null) && (indexedReverseMap != null)) : "null indexed graphs.";
+            assert (engine != null && queue != null) : "null search engine or queue.";
+            assert ((indexedDijkstra != null) == (engine == SearchEngine.INDEXED_DIJKSTRA)) : "missing search.";
+            assert ((hierarchy != null) == (engine == SearchEngine.CONTRACTION_HIERARCHY)) : "missing hierarchy.";
+            assert ((alt != null) == (engine == SearchEngine.ALT)) : "missing landmark tables.";
+            assert ((routeTable != null) == (engine == SearchEngine.ROUTE_TABLE)) : "missing route table.";
+            assert (alternatives != null) : "null alternative path search.";
+            assert (reachability != null && reachability.size() <= REACHABILITY_CACHE_SIZE) : "bad search cache.";
+            assert (reachabilityHits != null && reachabilityMisses != null) : "null cache counters.";
+            assert ((buildingIndex != null) && (pointIndex != null)) : "null spatial indexes.";
+            assert (coordinateRouter != null) : "null coordinate router.";
+            assert (closures != null) : "null closure registry.";
+            assert (loadMillis >= 0) : "negative load time.";
+            assert (edgeStats != null) : "null edge statistics.";
+            assert (mapVersion == indexedMap.fingerprint() + buildingsFingerprint()) : "stale map version.";
+            assert (shortPaths != null) : "null short paths.";
         }
     }
 
     /**
-     * Builds internal graph from the data at the files given
+     * Builds internal graph from the data in the shards and file given, or from the compiled map named by the
+     * {@link #COMPILED_MAP_PROPERTY} system property if the shards are the whole of one paths file and the map was
+     * compiled from the current contents of that file and the buildings file. Only the shortest path from each
+     * point to each other point is kept, so searches read a single distance for each neighbor of a point. A compiled
+     * map was normalized when it was compiled, and is searched straight from its mapped buffers.
      *
-     * @param pathsFile File name of where graph data of paths are located
+     * @param pathShards Parts of files where graph data of paths are located
      * @param buildingsFile File name of where graph data of buildings are located
-     * @spec.requires filename, buildingsFile != null
-     * @spec.modifies {@link Graph<String, String>} map
-     * @spec.effects Populates {@code map} with node and edge data from files given
+     * @spec.requires pathShards, buildingsFile != null
+     * @spec.modifies indexedMap, edgeStats, mapVersion
+     * @spec.effects Sets {@code indexedMap} to a graph of the node and edge data from files given, {@code edgeStats}
+     * to counts of the edges left out of it, and {@code mapVersion} to a fingerprint of it and the buildings
      *
      */
-    private void buildGraph(String pathsFile, String buildingsFile) {
-        // Parse paths and buildings data
-        List<CampusPath> campusPathsList = CampusPathsParser.parseCampusPaths(pathsFile);
-        List<CampusBuilding> campusBuildingList = CampusPathsParser.parseCampusBuildings(buildingsFile);
-        for (CampusPath path : campusPathsList) {
-            Point start = new Point(path.getX1(), path.getY1());
-            Point end = new Point(path.getX2(), path.getY2());
-            map.addEdge(start, end, path.getDistance());
+    private void buildGraph(List<PathShard> pathShards, String buildingsFile) {
+        long startTime = System.nanoTime();
+        CompiledMap compiled = pathShards.equals(Collections.singletonList(PathShard.of(PATHS_FILE)))
+                               ? loadCompiledMap(PATHS_FILE, buildingsFile) : null;
+        loadedCompiled = compiled != null;
+        List<CampusBuilding> campusBuildingList;
+        long pathsVersion;
+        if (compiled != null) {
+            // The compiled map was normalized and fingerprinted when it was compiled, so nothing is copied or
+            // recomputed here
+            indexedMap = compiled.graph();
+            edgeStats = compiled.edgeStats();
+            pathsVersion = compiled.pathsFingerprint();
+            campusBuildingList = compiled.buildings();
+        } else {
+            // Parse paths in parallel, splitting the shards if there are too few to keep every thread busy
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            List<PathShard> shards = new ArrayList<>();
+            int splits = (pool.getParallelism() + pathShards.size() - 1) / pathShards.size();
+            for (PathShard shard : pathShards) {
+                shards.addAll(splits > 1 ? shard.split(splits) : Collections.singletonList(shard));
+            }
+            // The loader collapses parallel paths as it builds the graph, rather than each search choosing the
+            // shortest one
+            ShardedPathLoader.LoadedPaths loaded = ShardedPathLoader.load(shards, pool);
+            indexedMap = loaded.getGraph();
+            edgeStats = loaded.getStats();
+            pathsVersion = indexedMap.fingerprint();
+            campusBuildingList = CampusPathsParser.parseCampusBuildings(buildingsFile);
         }
         for (CampusBuilding building : campusBuildingList) {
+            // Buildings on a path share the Point already in indexedMap if it keeps one, so that looking them up
+            // there is an identity check
             Point location = new Point(building.getX(), building.getY());
+            int id = indexedMap.idOf(location);
+            if (id >= 0) location = indexedMap.nodeOf(id);
             shortNameToPoint.put(building.getShortName(), location);
             shortToLongName.put(building.getShortName(), building.getLongName());
         }
+        mapVersion = pathsVersion + buildingsFingerprint();
+        loadMillis = (System.nanoTime() - startTime) / 1e6;
+    }
+
+    /**
+     * Loads the compiled map named by the {@link #COMPILED_MAP_PROPERTY} system property, if it is set and the map
+     * was compiled from the current contents of the given data files
+     *
+     * @param pathsFile File name of where graph data of paths are located
+     * @param buildingsFile File name of where graph data of buildings are located
+     * @return the compiled map, or null if there is none that can be used
+     */
+    private static CompiledMap loadCompiledMap(String pathsFile, String buildingsFile) {
+        String file = System.getProperty(COMPILED_MAP_PROPERTY);
+        if (file == null) return null;
+        try {
+            return CompiledMap.load(Paths.get(file), pathsFile, buildingsFile,
+                                    Boolean.getBoolean(VERIFY_COMPILED_MAP_PROPERTY));
+        } catch (CampusPathsParser.ParserException e) {
+            System.err.println("Parsing " + pathsFile + " and " + buildingsFile + " instead: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the time taken to load the paths and buildings when this map was created, in milliseconds
+     */
+    public double getLoadMillis() {
+        checkRep();
+        return loadMillis;
+    }
+
+    /**
+     * Returns the paths on this map that are shorter than the straight line between their ends, measured in the
+     * units of the map's coordinates, which are shorter than feet. No walking path can be, so each points to an error
+     * in the data. A* search stays exact regardless, since its heuristic is scaled down to fit the shortest of them.
+     *
+     * @return a path of one segment for each such path, in no particular order
+     */
+    public List<Path<Point>> getShortPaths() {
+        checkRep();
+        return shortPaths;
+    }
+
+    /**
+     * @return counts of the paths loaded when this map was created, and of those left out of it because a path
+     * between the same points, in the same direction, was no longer, or because they led from a point to itself
+     */
+    public EdgeNormalizer.Stats getEdgeStats() {
+        checkRep();
+        return edgeStats;
+    }
+
+    /**
+     * Returns a version of the data this map was loaded from, such as for telling whether an answer computed from an
+     * earlier map still holds. Maps of the same paths and buildings have the same version, whether they were parsed
+     * from data files, split into shards or loaded from a compiled map; maps of different paths or buildings have
+     * different versions, with high probability. Closures do not change the version.
+     *
+     * @return a fingerprint of the paths and buildings on this map
+     */
+    public long getMapVersion() {
+        checkRep();
+        return mapVersion;
+    }
+
+    /**
+     * Computes a fingerprint of the buildings, as the sum of a hash of each building, so that it does not depend on
+     * the order they were loaded in. Added to {@link IndexedGraph#fingerprint()} of indexedMap, it gives mapVersion.
+     *
+     * @return the fingerprint
+     */
+    private long buildingsFingerprint() {
+        long sum = 0;
+        for (Map.Entry<String, Point> building : shortNameToPoint.entrySet()) {
+            long hash = mix(mix(1, building.getKey().hashCode()), shortToLongName.get(building.getKey()).hashCode());
+            sum += mix(mix(hash, Double.doubleToLongBits(building.getValue().getX())),
+                       Double.doubleToLongBits(building.getValue().getY()));
+        }
+        return sum;
     }
+
+    /**
+     * @return a hash of the given hash and value, scrambling their bits as SplitMix64 does
+     */
+    private static long mix(long hash, long value) {
+        long z = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Writes metrics about this map: the time taken to load it and where it was loaded from, the size of its graph
+     * and the paths left out of it, and how often reachability queries found a search to continue.
+     *
+     * @param out The page to write the metrics to
+     * @spec.requires out != null
+     * @spec.modifies out
+     */
+    public void writeMetrics(PrometheusWriter out) {
+        checkRep();
+        out.gauge("pathfinder_map_load_seconds", "Time taken to load the campus map", loadMillis / 1e3);
+        out.gauge("pathfinder_map_compiled", "Whether the campus map was loaded from a compiled map",
+                  loadedCompiled ? 1 : 0);
+        out.gauge("pathfinder_map_nodes", "Points on the campus map", indexedMap.size());
+        out.gauge("pathfinder_map_edges", "Paths on the campus map", indexedMap.edgeCount());
+        out.gauge("pathfinder_map_dropped_paths", "Paths left out of the campus map when it was loaded",
+                  edgeStats.getDuplicates(), "reason", "duplicate");
+        out.gauge("pathfinder_map_dropped_paths", "Paths left out of the campus map when it was loaded",
+                  edgeStats.getSelfLoops(), "reason", "self_loop");
+        out.counter("pathfinder_cache_requests_total", "Cache lookups, by cache and result",
+                    reachabilityHits.sum(), "cache", "reachability", "result", "hit");
+        out.counter("pathfinder_cache_requests_total", "Cache lookups, by cache and result",
+                    reachabilityMisses.sum(), "cache", "reachability", "result", "miss");
+    }
+
+    /**
+     * @return whether the paths and buildings were loaded from a compiled map, rather than parsed from the data files
+     */
+    public boolean isLoadedFromCompiledMap() {
+        checkRep();
+        return loadedCompiled;
+    }
+
+    /**
+     * Builds landmark tables over indexedMap, choosing landmarks among the locations of buildings. Buildings lie
+     * around the edges of the walkable area, so the farthest-apart buildings make good landmarks.
+     *
+     * @param landmarkCount Number of landmarks to choose
+     * @return an {@link AltSearch} over indexedMap
+     */
+    private AltSearch<Point> buildAltSearch(int landmarkCount) {
+        List<Integer> candidates = new ArrayList<>();
+        for (Point location : shortNameToPoint.values()) {
+            int id = indexedMap.idOf(location);
+            if (id >= 0 && !candidates.contains(id)) candidates.add(id);
+        }
+        int[] candidateIds = new int[candidates.size()];
+        for (int i = 0; i < candidateIds.length; i++) candidateIds[i] = candidates.get(i);
+        return new AltSearch<>(indexedMap, AltSearch.farthestLandmarks(indexedMap, candidateIds, landmarkCount), queue);
+    }
+
     // Javadocs should be inherited
     @Override
     public boolean shortNameExists(String shortName) {
@@ -120,14 +583,349 @@ public class CampusMap implements ModelAPI {
 
     @Override
     public Path<Point> findShortestPath(String startShortName, String endShortName) {
+        return findShortestPath(startShortName, endShortName, Closures.NONE);
+    }
+
+    /**
+     * Finds the shortest path between two buildings that avoids the given closures, as well as every closure in
+     * {@link #closures()}. When nothing is closed the path is found by this map's search engine; otherwise it is
+     * found by {@link DijkstraSearch}, since no other engine can skip closed edges. The work done is recorded in
+     * {@link SearchMetrics} under the engine that did it, with searches skipping closed edges recorded apart.
+     *
+     * @param startShortName Short name of the building the path starts at
+     * @param endShortName Short name of the building the path ends at
+     * @param avoid Closures applying to this query only
+     * @return the shortest path between the buildings using no closed edge, or null if there is none
+     * @throws IllegalArgumentException if either short name is null or does not exist, or if {@code avoid} is null
+     */
+    public Path<Point> findShortestPath(String startShortName, String endShortName, Closures avoid) {
         checkRep();
         if (startShortName == null || endShortName == null ) throw new IllegalArgumentException("Short name is null");
         if (!shortNameToPoint.containsKey(startShortName) || !shortNameToPoint.containsKey(endShortName))
             throw new IllegalArgumentException("Short name does not exist");
+        if (avoid == null) throw new IllegalArgumentException("Closures are null");
         Point start = shortNameToPoint.get(startShortName);
         Point end = shortNameToPoint.get(endShortName);
         checkRep();
-        return DijkstraSearch.findPath(map, start, end);
+        Closures closed = closures.current().with(avoid);
+        if (!closed.isEmpty()) {
+            return DijkstraSearch.findPath(map.get(), start, end, closed, SearchMetrics.closureFallback());
+        }
+        SearchMetrics.Recorder recorder = SearchMetrics.recorder(engine);
+        switch (engine) {
+            case INDEXED_DIJKSTRA:
+                return indexedDijkstra.findPath(start, end, recorder);
+            case A_STAR:
+                return AStarSearch.findPath(map.get(), start, end, heuristicScale, recorder);
+            case BIDIRECTIONAL:
+                return BidirectionalSearch.findPath(map.get(), reverseMap, start, end, recorder);
+            case CONTRACTION_HIERARCHY:
+                return hierarchy.findPath(start, end, recorder);
+            case ALT:
+                return alt.findPath(start, end, recorder);
+            case ROUTE_TABLE:
+                return routeTable.findPath(startShortName, endShortName, recorder);
+            default:
+                return DijkstraSearch.findPath(map.get(), start, end, null, recorder);
+        }
+    }
+
+    /**
+     * Returns the closures applying to every shortest path query between buildings on this map. Changes to the
+     * returned registry take effect for queries that begin after them.
+     *
+     * @return the registry of closures in force on this map
+     */
+    public ClosureRegistry closures() {
+        checkRep();
+        return closures;
+    }
+
+    @Override
+    public Path<Point> findShortestPath(Point start, Point end) {
+        checkRep();
+        if (start == null || end == null) throw new IllegalArgumentException("Coordinate is null");
+        return coordinateRouter.get().findPath(start, end);
+    }
+
+    /**
+     * Finds up to k of the shortest paths between two buildings that never visit the same point twice, ranked from
+     * shortest to longest. The first path is as short as the one found by {@link #findShortestPath}.
+     *
+     * @param startShortName Short name of the building the paths start at
+     * @param endShortName Short name of the building the paths end at
+     * @param k Largest number of paths to find
+     * @return a list of at most {@code k} distinct paths, in order of increasing length, which is empty if there is no
+     * path between the buildings
+     * @throws IllegalArgumentException if either short name is null or does not exist, or if {@code k} is less
+     * than 1
+     */
+    public List<Path<Point>> findShortestPaths(String startShortName, String endShortName, int k) {
+        checkRep();
+        if (startShortName == null || endShortName == null ) throw new IllegalArgumentException("Short name is null");
+        if (!shortNameToPoint.containsKey(startShortName) || !shortNameToPoint.containsKey(endShortName))
+            throw new IllegalArgumentException("Short name does not exist");
+        return alternatives.get().findPaths(shortNameToPoint.get(startShortName), shortNameToPoint.get(endShortName),
+                                            k);
+    }
+
+    @Override
+    public BuildingRoutes routesFrom(String startShortName) {
+        checkRep();
+        if (startShortName == null) throw new IllegalArgumentException("Short name is null");
+        if (!shortNameToPoint.containsKey(startShortName))
+            throw new IllegalArgumentException("Short name does not exist");
+        return new BuildingRoutes(startShortName, false, indexedMap, shortNameToPoint);
+    }
+
+    @Override
+    public BuildingRoutes routesTo(String endShortName) {
+        checkRep();
+        if (endShortName == null) throw new IllegalArgumentException("Short name is null");
+        if (!shortNameToPoint.containsKey(endShortName))
+            throw new IllegalArgumentException("Short name does not exist");
+        return new BuildingRoutes(endShortName, true, indexedReverseMap.get(), shortNameToPoint);
+    }
+
+    /**
+     * Finds the length of the shortest path from each of the starting buildings to each of the ending buildings,
+     * one row per starting building. Rows are searched in parallel and passed to {@code handler} on the calling
+     * thread as each one completes, in no particular order, so the whole matrix is never held at once.
+     *
+     * @param startShortNames Short names of the buildings each row starts from
+     * @param endShortNames Short names of the buildings each row ends at, in the order of each row's lengths
+     * @param handler Receives each row with the position of its starting building in {@code startShortNames}
+     * @spec.requires handler != null
+     * @throws IllegalArgumentException if either list is null or contains a short name that does not exist. No row
+     * is handled in that case.
+     */
+    public void distanceMatrix(List<String> startShortNames, List<String> endShortNames,
+                               DistanceMatrix.RowHandler handler) {
+        checkRep();
+        int[] sources = buildingIds(startShortNames);
+        int[] targets = buildingIds(endShortNames);
+        DistanceMatrix.compute(indexedMap, sources, targets, handler);
+    }
+
+    /**
+     * @return The IDs in {@code indexedMap} of the given buildings, in order.
+     * @throws IllegalArgumentException if {@code shortNames} is null or contains a short name that does not exist.
+     */
+    private int[] buildingIds(List<String> shortNames) {
+        if (shortNames == null) throw new IllegalArgumentException("Short names are null");
+        int[] ids = new int[shortNames.size()];
+        for (int i = 0; i < ids.length; i++) {
+            String shortName = shortNames.get(i);
+            if (shortName == null) throw new IllegalArgumentException("Short name is null");
+            if (!shortNameToPoint.containsKey(shortName))
+                throw new IllegalArgumentException("Short name does not exist");
+            ids[i] = indexedMap.idOf(shortNameToPoint.get(shortName));
+        }
+        return ids;
+    }
+
+    /**
+     * Finds a short path that visits every given building, choosing the order of the visits. The length of the
+     * shortest path between every pair of stops is found first, with one search per stop run in parallel; the order
+     * is then chosen by {@link ItinerarySolver}, exactly for small sets of stops and within
+     * {@link ItinerarySolver#DEFAULT_BUDGET_MILLIS} milliseconds for larger ones.
+     *
+     * @param stopShortNames Short names of the buildings to visit, in any order
+     * @param startShortName Short name of the building the path must start at, or null to let any stop come first
+     * @param endShortName Short name of the building the path must end at, or null to let any stop come last
+     * @return the shortest paths between consecutive stops in the chosen order, joined into one {@link Path}, or null
+     * if some stop cannot be reached from the others
+     * @throws IllegalArgumentException if {@code stopShortNames} is null or empty with no start or end, or if any
+     * short name is null or does not exist
+     */
+    public Path<Point> planItinerary(Collection<String> stopShortNames, String startShortName, String endShortName) {
+        checkRep();
+        if (stopShortNames == null) throw new IllegalArgumentException("Short names are null");
+        // The fixed start comes first and the fixed end last, which may be the same building for a round trip
+        List<String> stops = new ArrayList<>();
+        if (startShortName != null) stops.add(startShortName);
+        for (String shortName : new LinkedHashSet<>(stopShortNames)) {
+            if (shortName == null || !shortName.equals(startShortName) && !shortName.equals(endShortName))
+                stops.add(shortName);
+        }
+        if (endShortName != null) stops.add(endShortName);
+        if (stops.isEmpty()) throw new IllegalArgumentException("No stops given");
+        int[] ids = buildingIds(stops);
+        // One search per stop, stopping once every other stop is reached, gives both the costs and the legs
+        List<Callable<ShortestPathTree<Point>>> searches = new ArrayList<>();
+        for (int id : ids) searches.add(() -> new ShortestPathTree<>(indexedMap, id, ids, queue));
+        List<ShortestPathTree<Point>> trees = new ArrayList<>();
+        try {
+            for (Future<ShortestPathTree<Point>> tree : ForkJoinPool.commonPool().invokeAll(searches)) {
+                trees.add(tree.get());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not search between stops", e);
+        }
+        double[][] costs = new double[ids.length][ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            for (int j = 0; j < ids.length; j++) costs[i][j] = trees.get(i).costTo(ids[j]);
+        }
+        int[] order = ItinerarySolver.solve(costs, startShortName != null, endShortName != null,
+                                            ItinerarySolver.DEFAULT_BUDGET_MILLIS * 1_000_000);
+        if (Double.isInfinite(ItinerarySolver.cost(costs, order))) return null;
+        // Join the legs into one path, built once
+        int[][] legs = new int[order.length - 1][];
+        double[][] legCosts = new double[order.length - 1][];
+        int segments = 0;
+        for (int i = 1; i < order.length; i++) {
+            legs[i - 1] = trees.get(order[i - 1]).routeTo(ids[order[i]]);
+            legCosts[i - 1] = trees.get(order[i - 1]).segmentCostsTo(ids[order[i]]);
+            segments += legCosts[i - 1].length;
+        }
+        List<Point> nodes = new ArrayList<>(segments + 1);
+        double[] segmentCosts = new double[segments];
+        nodes.add(indexedMap.nodeOf(ids[order[0]]));
+        for (int i = 0; i < legs.length; i++) {
+            System.arraycopy(legCosts[i], 0, segmentCosts, nodes.size() - 1, legCosts[i].length);
+            for (int n = 1; n < legs[i].length; n++) nodes.add(indexedMap.nodeOf(legs[i][n]));
+        }
+        return new Path<>(nodes, segmentCosts);
+    }
+
+    /**
+     * Finds everything that can be reached by walking no farther than a given distance from a building. The search
+     * stops at the limit rather than exploring the whole campus, and is kept for later queries from the same
+     * building, so that asking again with a larger limit only explores the difference.
+     *
+     * @param startShortName Short name of the building walks start at
+     * @param limit Farthest distance walked, in feet
+     * @return the buildings, stretches of path and outline reachable within {@code limit}
+     * @throws IllegalArgumentException if the short name is null or does not exist, or if {@code limit} is negative
+     * or not a number
+     */
+    public Isochrone reachableWithin(String startShortName, double limit) {
+        checkRep();
+        if (startShortName == null) throw new IllegalArgumentException("Short name is null");
+        if (!shortNameToPoint.containsKey(startShortName))
+            throw new IllegalArgumentException("Short name does not exist");
+        if (!(limit >= 0)) throw new IllegalArgumentException("Limit must not be negative");
+        Point start = shortNameToPoint.get(startShortName);
+        BoundedSearch<Point> search;
+        synchronized (reachability) {
+            search = reachability.get(start);
+            if (search == null) {
+                reachabilityMisses.increment();
+                search = new BoundedSearch<>(indexedMap, indexedMap.idOf(start), queue);
+                reachability.put(start, search);
+            } else {
+                reachabilityHits.increment();
+            }
+        }
+        synchronized (search) {
+            search.expandTo(limit);
+            return new Isochrone(startShortName, limit, search, indexedMap, shortNameToPoint);
+        }
+    }
+
+    /**
+     * Finds the buildings nearest to a coordinate on the campus map, by straight-line distance.
+     *
+     * @param x X coordinate on the campus map
+     * @param y Y coordinate on the campus map
+     * @param k Largest number of buildings to return
+     * @return the short names of the {@code k} buildings nearest to (x, y), or of every building if there are fewer,
+     * nearest first
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public List<String> nearestBuildings(double x, double y, int k) {
+        checkRep();
+        return buildingIndex.get().nearest(x, y, k);
+    }
+
+    /**
+     * Finds the points on campus paths nearest to a coordinate on the campus map, by straight-line distance.
+     *
+     * @param x X coordinate on the campus map
+     * @param y Y coordinate on the campus map
+     * @param k Largest number of points to return
+     * @return the {@code k} Points of the map nearest to (x, y), or every Point if there are fewer, nearest first
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public List<Point> nearestPoints(double x, double y, int k) {
+        checkRep();
+        return pointIndex.get().nearest(x, y, k);
+    }
+
+    /**
+     * Finds the buildings within a straight-line distance of a coordinate on the campus map.
+     *
+     * @param x X coordinate on the campus map
+     * @param y Y coordinate on the campus map
+     * @param radius Largest distance of a building from (x, y), in the units of the map's coordinates
+     * @return the short names of every building within {@code radius} of (x, y), in no particular order
+     */
+    public List<String> buildingsWithin(double x, double y, double radius) {
+        checkRep();
+        return buildingIndex.get().withinRadius(x, y, radius);
+    }
+
+    /**
+     * Finds the points on campus paths within a straight-line distance of a coordinate on the campus map.
+     *
+     * @param x X coordinate on the campus map
+     * @param y Y coordinate on the campus map
+     * @param radius Largest distance of a point from (x, y), in the units of the map's coordinates
+     * @return every Point of the map within {@code radius} of (x, y), in no particular order
+     */
+    public List<Point> pointsWithin(double x, double y, double radius) {
+        checkRep();
+        return pointIndex.get().withinRadius(x, y, radius);
+    }
+
+    /**
+     * Writes the shortest path between every pair of buildings as comma-separated values, one path per line: the
+     * starting building's short name, the ending building's short name, the length of the path, then the x and y
+     * coordinates of every point along it. If this map does not keep a route table, one is built for the export.
+     *
+     * @param out Destination the paths are written to
+     * @spec.requires out != null
+     * @throws IOException if {@code out} cannot be written to
+     */
+    public void exportRoutes(Writer out) throws IOException {
+        checkRep();
+        RouteTable<Point> table = routeTable != null ? routeTable : new RouteTable<>(indexedMap, shortNameToPoint);
+        table.export(out, point -> point.getX() + "," + point.getY());
+    }
+
+    /**
+     * A value built the first time it is asked for, by a single thread, and shared by every thread after.
+     *
+     * @param <T> Type of the value
+     */
+    private static final class Lazy<T> {
+        private final Supplier<T> supplier;
+        private volatile T value;
+
+        /**
+         * @param supplier Builds the value, once
+         * @spec.requires supplier != null and never returns null
+         */
+        private Lazy(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        /**
+         * @return the value, built by this call if no call has built it yet
+         */
+        private T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = supplier.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
     }
 
 }
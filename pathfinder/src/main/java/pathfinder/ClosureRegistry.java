@@ -0,0 +1,120 @@
+package pathfinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ClosureRegistry holds the named {@link Closures.Closure}s currently in force, such as paths closed for
+ * construction. It may be changed at any time by any thread. Each change publishes a new immutable {@link Closures},
+ * so reading the closures in force is a single volatile read, and searches already using an older set of closures
+ * are not disturbed. Each change also advances a version number, so answers computed under older closures can be
+ * recognized as stale.
+ */
+public class ClosureRegistry {
+
+    // AF(this) =
+    //      the closure named n => byName.get(n)
+    //      the closures in force => current, which holds exactly the values of byName
+    //      the number of changes made => version
+
+    // Rep Invariant:
+    //      byName, current != null && byName contains no null keys or values &&
+    //      current.closures() holds the values of byName, in the same order && version >= 0
+
+    private final Map<String, Closures.Closure> byName;
+    private volatile Closures current;
+    // Written after current, so whoever reads a version then reads current sees closures at least that new
+    private volatile long version;
+
+    /**
+     * Creates a registry with no closures in force.
+     */
+    public ClosureRegistry() {
+        this.byName = new LinkedHashMap<>();
+        this.current = Closures.NONE;
+        checkRep();
+    }
+
+    /**
+     * @return The closures in force when this is called. Later changes to this registry are not reflected in it.
+     */
+    public Closures current() {
+        return current;
+    }
+
+    /**
+     * Returns the version of the closures in force: 0 until the first change, and one more after each change. The
+     * closures returned by a later call to {@link #current()} are at least as new as this version.
+     *
+     * @return The number of changes made to this registry.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return A copy of the closures in force, by name, in the order they were first put.
+     */
+    public synchronized Map<String, Closures.Closure> byName() {
+        return new LinkedHashMap<>(byName);
+    }
+
+    /**
+     * Puts a closure in force under a name, replacing any closure already under it.
+     *
+     * @param name    The name of the closure.
+     * @param closure The closure.
+     * @throws IllegalArgumentException if {@code name} or {@code closure} is null.
+     * @spec.modifies this
+     * @spec.effects the closure named {@code name} is {@code closure}
+     */
+    public synchronized void put(String name, Closures.Closure closure) {
+        if (name == null || closure == null) throw new IllegalArgumentException("Closure or its name is null");
+        byName.put(name, closure);
+        publish();
+    }
+
+    /**
+     * Lifts the closure under a name, if there is one.
+     *
+     * @param name The name of the closure.
+     * @return Whether there was a closure under {@code name}.
+     * @spec.modifies this
+     * @spec.effects no closure is named {@code name}
+     */
+    public synchronized boolean remove(String name) {
+        boolean removed = byName.remove(name) != null;
+        if (removed) publish();
+        return removed;
+    }
+
+    /**
+     * Lifts every closure.
+     *
+     * @spec.modifies this
+     * @spec.effects no closure is in force
+     */
+    public synchronized void clear() {
+        byName.clear();
+        publish();
+    }
+
+    /**
+     * Replaces the closures in force with the ones now named.
+     */
+    private void publish() {
+        current = byName.isEmpty() ? Closures.NONE : new Closures(byName.values());
+        version++;
+        checkRep();
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert byName != null && current != null;
+        assert current.closures().size() == byName.size();
+        assert version >= 0;
+    }
+}
@@ -0,0 +1,259 @@
+package pathfinder;
+
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Closures is an immutable set of closed paths and closed areas on a map whose nodes are {@link Point}s. An edge is
+ * closed if it is one of the closed paths, in either direction, or if the straight segment between its ends touches
+ * any closed area. Searches given a Closures as their {@link DijkstraSearch.EdgeFilter} never use closed edges.
+ */
+public class Closures implements DijkstraSearch.EdgeFilter<Point> {
+
+    // AF(this) =
+    //      the closures in this set => closures
+    //      the closed paths => the pairs (a, b) where closedPaths.get(a) contains b
+    //      the closed areas => the boxes from (areas[4i], areas[4i + 1]) to (areas[4i + 2], areas[4i + 3])
+    //      the smallest box containing every closed area => (minX, minY) to (maxX, maxY)
+
+    // Rep Invariant:
+    //      closures, closedPaths, areas != null && areas.length % 4 == 0 &&
+    //      b is in closedPaths.get(a) iff a is in closedPaths.get(b) iff a path closure between a and b is in closures
+    //      areas holds the box of every area closure in closures
+
+    /**
+     * The empty set of closures, which closes nothing.
+     */
+    public static final Closures NONE = new Closures(Collections.<Closure>emptyList());
+
+    private final List<Closure> closures;
+    private final Map<Point, Set<Point>> closedPaths;
+    private final double[] areas;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+
+    /**
+     * Creates a set of the given closures.
+     *
+     * @param closures The closures in the set.
+     * @spec.requires closures != null and contains no null elements
+     */
+    public Closures(Collection<Closure> closures) {
+        this.closures = Collections.unmodifiableList(new ArrayList<>(closures));
+        this.closedPaths = new HashMap<>();
+        int areaCount = 0;
+        for (Closure closure : closures) {
+            if (closure.isArea()) {
+                areaCount++;
+            } else {
+                closedPaths.computeIfAbsent(closure.getStart(), point -> new HashSet<>()).add(closure.getEnd());
+                closedPaths.computeIfAbsent(closure.getEnd(), point -> new HashSet<>()).add(closure.getStart());
+            }
+        }
+        this.areas = new double[4 * areaCount];
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        int i = 0;
+        for (Closure closure : closures) {
+            if (closure.isArea()) {
+                areas[i++] = closure.getStart().getX();
+                areas[i++] = closure.getStart().getY();
+                areas[i++] = closure.getEnd().getX();
+                areas[i++] = closure.getEnd().getY();
+                minX = Math.min(minX, closure.getStart().getX());
+                minY = Math.min(minY, closure.getStart().getY());
+                maxX = Math.max(maxX, closure.getEnd().getX());
+                maxY = Math.max(maxY, closure.getEnd().getY());
+            }
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        checkRep();
+    }
+
+    /**
+     * @return Whether this set closes nothing.
+     */
+    public boolean isEmpty() {
+        return closures.isEmpty();
+    }
+
+    /**
+     * @return An unmodifiable list of the closures in this set.
+     */
+    public List<Closure> closures() {
+        return closures;
+    }
+
+    /**
+     * Returns the set of closures in either this set or another. Returns one of the sets itself if the other is
+     * empty, so combining with an empty set costs nothing.
+     *
+     * @param other The other set of closures.
+     * @return A set closing everything either set closes.
+     * @spec.requires other != null
+     */
+    public Closures with(Closures other) {
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+        List<Closure> both = new ArrayList<>(closures);
+        both.addAll(other.closures);
+        return new Closures(both);
+    }
+
+    @Override
+    public boolean isClosed(Point from, Point to) {
+        if (!closedPaths.isEmpty()) {
+            Set<Point> closedTo = closedPaths.get(from);
+            if (closedTo != null && closedTo.contains(to)) return true;
+        }
+        // Most edges lie entirely to one side of every area
+        if (Math.max(from.getX(), to.getX()) < minX || Math.min(from.getX(), to.getX()) > maxX
+            || Math.max(from.getY(), to.getY()) < minY || Math.min(from.getY(), to.getY()) > maxY) {
+            return false;
+        }
+        for (int i = 0; i < areas.length; i += 4) {
+            if (touches(from, to, areas[i], areas[i + 1], areas[i + 2], areas[i + 3])) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether the segment between two points touches a box, found by clipping the segment to the box one
+     * side at a time (the Liang-Barsky algorithm).
+     */
+    private static boolean touches(Point from, Point to, double minX, double minY, double maxX, double maxY) {
+        double dx = to.getX() - from.getX();
+        double dy = to.getY() - from.getY();
+        // The part of the segment inside the box, as fractions of the way along it
+        double[] range = {0, 1};
+        return clip(-dx, from.getX() - minX, range) && clip(dx, maxX - from.getX(), range)
+               && clip(-dy, from.getY() - minY, range) && clip(dy, maxY - from.getY(), range);
+    }
+
+    /**
+     * Narrows the range of fractions along a segment to those on the inside of one side of a box, where the point
+     * at fraction t is inside if {@code t * p <= q}.
+     *
+     * @return Whether any of the range is left.
+     */
+    private static boolean clip(double p, double q, double[] range) {
+        if (p == 0) return q >= 0;
+        double t = q / p;
+        if (p < 0) {
+            range[0] = Math.max(range[0], t);
+        } else {
+            range[1] = Math.min(range[1], t);
+        }
+        return range[0] <= range[1];
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert closures != null && closedPaths != null && areas != null;
+        assert areas.length % 4 == 0;
+    }
+
+    /**
+     * This represents one immutable closure: either a closed path between two points, or a closed axis-aligned
+     * area between two corners.
+     */
+    public static class Closure {
+
+        // AF(this) =
+        //      a closed area from corner start to corner end, if area
+        //      a closed path between start and end, otherwise
+
+        // Rep Invariant:
+        //      start, end != null &&
+        //      if area, start.getX() <= end.getX() && start.getY() <= end.getY()
+
+        private final boolean area;
+        private final Point start;
+        private final Point end;
+
+        private Closure(boolean area, Point start, Point end) {
+            this.area = area;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Closes the edges between two points, in both directions.
+         *
+         * @param start The point at one end of the closed path.
+         * @param end   The point at the other end.
+         * @return A closure of the path between {@code start} and {@code end}.
+         * @throws IllegalArgumentException if {@code start} or {@code end} is null.
+         */
+        public static Closure path(Point start, Point end) {
+            if (start == null || end == null) throw new IllegalArgumentException("Path end is null");
+            return new Closure(false, start, end);
+        }
+
+        /**
+         * Closes every edge touching an axis-aligned box, including its sides.
+         *
+         * @param minX The smallest x coordinate of the box.
+         * @param minY The smallest y coordinate of the box.
+         * @param maxX The largest x coordinate of the box.
+         * @param maxY The largest y coordinate of the box.
+         * @return A closure of the box.
+         * @throws IllegalArgumentException if {@code minX > maxX} or {@code minY > maxY}, or any coordinate is not
+         *                                  finite.
+         */
+        public static Closure area(double minX, double minY, double maxX, double maxY) {
+            if (!isFinite(minX, minY, maxX, maxY)) throw new IllegalArgumentException("Area is not finite");
+            if (!(minX <= maxX && minY <= maxY)) throw new IllegalArgumentException("Area is empty");
+            return new Closure(true, new Point(minX, minY), new Point(maxX, maxY));
+        }
+
+        /**
+         * @return Whether every one of the given coordinates is finite.
+         */
+        private static boolean isFinite(double... coordinates) {
+            for (double coordinate : coordinates) {
+                if (!Double.isFinite(coordinate)) return false;
+            }
+            return true;
+        }
+
+        /**
+         * @return Whether this closes an area, rather than a path.
+         */
+        public boolean isArea() {
+            return area;
+        }
+
+        /**
+         * @return One end of the closed path, or the corner of the closed area with the smallest coordinates.
+         */
+        public Point getStart() {
+            return start;
+        }
+
+        /**
+         * @return The other end of the closed path, or the corner of the closed area with the largest coordinates.
+         */
+        public Point getEnd() {
+            return end;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.datastructures.SegmentGrid;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * CoordinateRouter finds least-cost {@link Path}s between arbitrary coordinates on a map whose nodes are {@link
+ * Point}s. Each coordinate is snapped to the nearest point on any path segment, found with a {@link SegmentGrid}.
+ * <p>
+ * The snapped points act as virtual nodes splitting their segments, but the graph itself is never changed: the split
+ * only exists inside one query, as the cost of walking from the start point to each end of its segment and from each
+ * end of the end point's segment to the end point. Dijkstra's algorithm then runs from both ends of the start's
+ * segment at once. As in {@link IndexedDijkstra}, each thread reuses its own arrays and queue, of the {@link
+ * QueueKind} chosen when the router is created, from one query to the next, so concurrent queries share nothing but
+ * the immutable graph and grid.
+ */
+public class CoordinateRouter {
+
+    // AF(this) =
+    //      the map routed over => graph, with each edge taken as the straight segment between its ends
+    //      the index used to snap coordinates onto segments => grid
+    //      the arrays reused by the queries on each thread => scratch.get() on that thread
+
+    // Rep Invariant:
+    //      graph, grid, scratch != null && grid indexes the edges of graph
+
+    private final IndexedGraph<Point> graph;
+    private final SegmentGrid grid;
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * Creates a router over the given map, indexing its segments, using a {@link QueueKind#BINARY_HEAP}.
+     *
+     * @param graph The map to route over.
+     * @spec.requires graph != null
+     */
+    public CoordinateRouter(IndexedGraph<Point> graph) {
+        this(graph, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a router over the given map, indexing its segments, using the given kind of priority queue.
+     *
+     * @param graph The map to route over.
+     * @param queue The kind of priority queue to use.
+     * @spec.requires graph, queue != null
+     */
+    public CoordinateRouter(IndexedGraph<Point> graph, QueueKind queue) {
+        this.graph = graph;
+        this.grid = new SegmentGrid(graph);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(queue.create(graph.size())));
+        checkRep();
+    }
+
+    /**
+     * Snaps a coordinate onto the nearest point of any segment.
+     *
+     * @param coordinate The coordinate to snap.
+     * @return The nearest point on any segment and the segment it is on, or null if the map has no edges.
+     * @spec.requires coordinate != null
+     */
+    public SegmentGrid.Snap snap(Point coordinate) {
+        return grid.nearest(coordinate.getX(), coordinate.getY());
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between the points on the map's segments nearest to two coordinates.
+     * Walking part of a segment costs the same fraction of its edge's cost.
+     *
+     * @param start The coordinate the path starts near.
+     * @param end   The coordinate the path ends near.
+     * @return The least-cost path from the point nearest to {@code start} to the point nearest to {@code end}, or
+     * null if there is no such path or the map has no edges.
+     * @spec.requires start, end != null
+     */
+    public Path<Point> findPath(Point start, Point end) {
+        SegmentGrid.Snap from = snap(start);
+        SegmentGrid.Snap to = snap(end);
+        if (from == null || to == null) return null;
+        // The virtual start node leads to the ends of its segment it can walk to, at a fraction of each edge's cost
+        int[] sources = {from.getTo(), from.getFrom()};
+        double[] sourceCosts = {partialCost(from.getFrom(), from.getTo(), 1 - from.getFraction()),
+                                partialCost(from.getTo(), from.getFrom(), from.getFraction())};
+        int[] targets = {to.getFrom(), to.getTo()};
+        double[] targetCosts = {partialCost(to.getFrom(), to.getTo(), to.getFraction()),
+                                partialCost(to.getTo(), to.getFrom(), 1 - to.getFraction())};
+        // A point snapped onto an end of its segment is that node, even if the segment is one-way away from it
+        if (from.getFraction() == 0) sourceCosts[1] = 0;
+        if (from.getFraction() == 1) sourceCosts[0] = 0;
+        if (to.getFraction() == 0) targetCosts[0] = 0;
+        if (to.getFraction() == 1) targetCosts[1] = 0;
+        // Both points on one segment may be joined directly along it
+        double best = Double.POSITIVE_INFINITY;
+        if (from.getFrom() == to.getFrom() && from.getTo() == to.getTo()) {
+            double between = to.getFraction() - from.getFraction();
+            best = between >= 0 ? partialCost(from.getFrom(), from.getTo(), between)
+                                : partialCost(from.getTo(), from.getFrom(), -between);
+        }
+        Scratch s = scratch.get();
+        s.reset();
+        IndexedPriorityQueue active = s.heap;
+        for (int i = 0; i < sources.length; i++) {
+            if (sourceCosts[i] < s.costTo(sources[i])) {
+                s.reach(sources[i], sourceCosts[i], -1, -1);
+                active.offer(sources[i], sourceCosts[i]);
+            }
+        }
+        int bestTarget = -1;
+        while (!active.isEmpty() && active.peekKey() < best) {
+            int node = active.poll();
+            double nodeCost = active.keyOf(node);
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] == node && nodeCost + targetCosts[i] < best) {
+                    best = nodeCost + targetCosts[i];
+                    bestTarget = i;
+                }
+            }
+            for (int i = 0; i < graph.degree(node); i++) {
+                int child = graph.target(node, i);
+                double childCost = nodeCost + graph.weight(node, i);
+                if (childCost < s.costTo(child)) {
+                    s.reach(child, childCost, node, i);
+                    active.offer(child, childCost);
+                }
+            }
+        }
+        active.clear();
+        if (Double.isInfinite(best)) return null;
+        if (bestTarget < 0) {
+            if (from.getPoint().equals(to.getPoint())) return new Path<>(from.getPoint());
+            return new Path<>(Arrays.asList(from.getPoint(), to.getPoint()), new double[]{best});
+        }
+        // Walk back from the target node to the source node it was reached from
+        Deque<Integer> ids = new ArrayDeque<>();
+        for (int id = targets[bestTarget]; id >= 0; id = s.parent[id]) ids.push(id);
+        // Partial segments may be added at either end
+        List<Point> points = new ArrayList<>(ids.size() + 2);
+        double[] segmentCosts = new double[ids.size() + 1];
+        points.add(from.getPoint());
+        int first = ids.pop();
+        if (!from.getPoint().equals(graph.nodeOf(first))) {
+            segmentCosts[points.size() - 1] = s.cost[first];
+            points.add(graph.nodeOf(first));
+        }
+        int previous = first;
+        for (int id : ids) {
+            segmentCosts[points.size() - 1] = graph.weight(previous, s.parentEdge[id]);
+            points.add(graph.nodeOf(id));
+            previous = id;
+        }
+        if (!to.getPoint().equals(graph.nodeOf(previous))) {
+            segmentCosts[points.size() - 1] = targetCosts[bestTarget];
+            points.add(to.getPoint());
+        }
+        return new Path<>(points, Arrays.copyOf(segmentCosts, points.size() - 1));
+    }
+
+    /**
+     * @return The cost of walking the given fraction of the edge from {@code from} to {@code to}, or infinity if
+     * there is no such edge.
+     */
+    private double partialCost(int from, int to, double fraction) {
+        int edge = graph.edgeTo(from, to);
+        if (edge < 0) return Double.POSITIVE_INFINITY;
+        return fraction * graph.weight(from, edge);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && grid != null && scratch != null;
+    }
+
+    /**
+     * The least known cost of reaching each node in one query, the node before it on that path and the index of the
+     * edge from there among that node's edges, and the queue of nodes yet to be settled. Entries are only valid when
+     * stamped with the current query, so starting a new query takes constant time.
+     */
+    private static class Scratch {
+        private final double[] cost;
+        private final int[] parent;
+        private final int[] parentEdge;
+        private final int[] stamp;
+        private final IndexedPriorityQueue heap;
+        private int current;
+
+        private Scratch(IndexedPriorityQueue heap) {
+            int size = heap.capacity();
+            this.cost = new double[size];
+            this.parent = new int[size];
+            this.parentEdge = new int[size];
+            this.stamp = new int[size];
+            this.heap = heap;
+        }
+
+        /**
+         * Forgets every cost, starting a new query.
+         */
+        private void reset() {
+            current++;
+        }
+
+        /**
+         * @return The least known cost of reaching a node in the current query, infinite if it has not been reached.
+         */
+        private double costTo(int node) {
+            return stamp[node] == current ? cost[node] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Records a cheaper path to a node in the current query, over the given edge of its parent, or from the start
+         * point if the parent is -1.
+         */
+        private void reach(int node, double nodeCost, int nodeParent, int edge) {
+            stamp[node] = current;
+            cost[node] = nodeCost;
+            parent[node] = nodeParent;
+            parentEdge[node] = edge;
+        }
+    }
+}
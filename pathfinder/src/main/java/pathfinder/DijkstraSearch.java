@@ -2,6 +2,7 @@ package pathfinder;
 
 import graph.Graph;
 import pathfinder.datastructures.Path;
+import pathfinder.metrics.SearchMetrics;
 
 import java.util.*;
 
@@ -26,45 +27,91 @@ public class DijkstraSearch {
      * null if no such path exists.
      */
     public static <N> Path<N> findPath (Graph<N, Double> graph, N startNode, N endNode) { // Assume graph has edge values
-        N start = startNode;                                                              // of doubles
+        return findPath(graph, startNode, endNode, null);                                 // of doubles
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes on a given graph that uses no edge closed by a
+     * given filter. Returns null if no such path exists.
+     *
+     * @spec.requires graph, startNode, endNode != null
+     *                graph.contains(startNode)
+     *                graph.contains(endNode)
+     *                All edge labels in graph must be greater or equal to 0
+     * @param graph Graph to be searched on
+     * @param startNode Starting node of path
+     * @param endNode End node of path
+     * @param closed Filter deciding which edges may not be used, or null if every edge may be used
+     * @param <N> Node type of graph to be searched
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes
+     * avoiding closed edges, and null if no such path exists.
+     */
+    public static <N> Path<N> findPath (Graph<N, Double> graph, N startNode, N endNode, EdgeFilter<N> closed) {
+        return findPath(graph, startNode, endNode, closed, null);
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes on a given graph that uses no edge closed by a
+     * given filter, recording the work done by the search. Returns null if no such path exists.
+     *
+     * @spec.requires graph, startNode, endNode != null
+     *                graph.contains(startNode)
+     *                graph.contains(endNode)
+     *                All edge labels in graph must be greater or equal to 0
+     * @param graph Graph to be searched on
+     * @param startNode Starting node of path
+     * @param endNode End node of path
+     * @param closed Filter deciding which edges may not be used, or null if every edge may be used
+     * @param recorder Recorder to record the nodes settled and entries pushed by the search in, or null if the
+     *                 search is not to be recorded
+     * @param <N> Node type of graph to be searched
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes
+     * avoiding closed edges, and null if no such path exists.
+     */
+    public static <N> Path<N> findPath (Graph<N, Double> graph, N startNode, N endNode, EdgeFilter<N> closed,
+                                        SearchMetrics.Recorder recorder) {
+        N start = startNode;
         N end = endNode;
-        // Priority queue for Dijkstra's, implements an in-line comparator for the costs of the paths
-        Queue<Path<N>> active = new PriorityQueue<>(new Comparator<Path<N>>() {
+        // Priority queue for Dijkstra's, implements an in-line comparator for the costs of the paths to the entries
+        Queue<Entry<N>> active = new PriorityQueue<>(new Comparator<Entry<N>>() {
             @Override
-            public int compare(Path<N> o1, Path<N> o2) {
-                Double a = (Double) o1.getCost();
-                Double b = (Double) o2.getCost();
-                return a.compareTo(b);
+            public int compare(Entry<N> o1, Entry<N> o2) {
+                return Double.compare(o1.cost, o2.cost);
             }
         });
         Set<N> finished = new HashSet<>();
+        // Work done, recorded when the search ends
+        int settled = 0;
+        int pushes = 1;
         // Add starting node to queue
-        active.add(new Path<>(start));
+        active.add(new Entry<>(start, null, 0, 0));
         while (!active.isEmpty()) {
-            // Take lowest-cost path from queue
-            Path<N> minPath = active.remove();
-            // Take ending node of this lowest-cost path
-            N minDest = minPath.getEnd();
-            // End has been found, return path to it
-            if (minDest.equals(end)) return minPath;
+            // Take lowest-cost entry from queue
+            Entry<N> min = active.remove();
+            // Take ending node of the path to this entry
+            N minDest = min.node;
+            // End has been found, build the path to it by walking back through the entries it was reached from
+            if (minDest.equals(end)) {
+                if (recorder != null) recorder.record(settled + 1, pushes);
+                return min.path();
+            }
             // If there's a path to minDest, continue
             if (!finished.contains(minDest)) {
+                settled++;
                 // Children of minDest
                 Map<N, List<Double>> childrenMap = graph.childrenOf(minDest);
                 // Children nodes of minDest
                 List<N> nodeChildren = new ArrayList<>(childrenMap.keySet());
                 for (N child : nodeChildren) {
-                    // If node has not already been encountered
-                    if (!finished.contains(child)) {
-                        // Get all edges that get to this child
+                    // If node has not already been encountered, and the edge to it is open
+                    if (!finished.contains(child) && (closed == null || !closed.isClosed(minDest, child))) {
+                        // Get all edges that get to this child, without changing the graph's own list
                         List<Double> allEdges = childrenMap.get(child);
-                        // Sort so we only use the lowest-cost edge to get to this child
-                        Collections.sort(allEdges);
-                        // Get lowest-cost edge, which should be at index 0
-                        double edgeCost = allEdges.get(0);
-                        // Extend path and add to active
-                        Path<N> newPath = minPath.extend(child, edgeCost);
-                        active.add(newPath);
+                        // Only the lowest-cost edge to this child is used; a normalized graph has no other
+                        double edgeCost = allEdges.size() == 1 ? allEdges.get(0) : Collections.min(allEdges);
+                        // Add an entry for the child, reached from this one, to active
+                        active.add(new Entry<>(child, min, edgeCost, min.cost + edgeCost));
+                        pushes++;
                     }
                 }
                 // Add node to finished
@@ -72,6 +119,63 @@ public class DijkstraSearch {
             }
         }
         // No path was found
+        if (recorder != null) recorder.record(settled, pushes);
         return null;
     }
+
+    /**
+     * A node on the frontier of the search, along with the entry it was reached from, so that the path to it is only
+     * built once the end node is reached.
+     *
+     * @param <N> Node type of graph being searched
+     */
+    private static class Entry<N> {
+        private final N node;
+        // Entry for the previous node on the path to node, and the cost of the edge from it, or null for the start
+        private final Entry<N> parent;
+        private final double edgeCost;
+        // Cost of the path to node
+        private final double cost;
+
+        private Entry(N node, Entry<N> parent, double edgeCost, double cost) {
+            this.node = node;
+            this.parent = parent;
+            this.edgeCost = edgeCost;
+            this.cost = cost;
+        }
+
+        /**
+         * @return the path from the start node to this entry's node through the entries it was reached from
+         */
+        private Path<N> path() {
+            int length = 0;
+            for (Entry<N> entry = this; entry.parent != null; entry = entry.parent) length++;
+            List<N> nodes = new ArrayList<>(length + 1);
+            double[] segmentCosts = new double[length];
+            Entry<N> entry = this;
+            for (int i = length - 1; i >= 0; i--, entry = entry.parent) {
+                nodes.add(entry.node);
+                segmentCosts[i] = entry.edgeCost;
+            }
+            nodes.add(entry.node);
+            Collections.reverse(nodes);
+            return new Path<>(nodes, segmentCosts);
+        }
+    }
+
+    /**
+     * Decides which edges a search may not use, without changing the graph being searched.
+     *
+     * @param <N> Node type of the graph
+     */
+    public interface EdgeFilter<N> {
+
+        /**
+         * @param from The node an edge leaves.
+         * @param to   The node the edge leads to.
+         * @return Whether the edges from {@code from} to {@code to} are closed.
+         */
+        boolean isClosed(N from, N to);
+
+    }
 }
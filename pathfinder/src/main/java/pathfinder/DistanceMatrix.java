@@ -0,0 +1,127 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * DistanceMatrix is a static class that computes the least costs from each of a list of source nodes to each of a
+ * list of target nodes on an {@link IndexedGraph}. Instead of one point-to-point search per pair, each row is filled
+ * by a single one-to-many Dijkstra's search from its source that stops once every target is settled. Rows are
+ * searched in parallel and handed over one at a time as they complete, so a caller can stream them out without ever
+ * holding the whole matrix or any {@link pathfinder.datastructures.Path} objects.
+ */
+public class DistanceMatrix {
+
+    /**
+     * Computes every row of the distance matrix between the given sources and targets on the common {@link
+     * ForkJoinPool}, passing each row to {@code handler} on the calling thread as soon as it is complete. Rows are
+     * handed over in the order they complete, which need not be the order of {@code sources}.
+     *
+     * @spec.requires graph, sources, targets, handler != null
+     *                every ID in sources and targets is a node of graph
+     * @param graph Graph to be searched on
+     * @param sources IDs of the nodes each row starts from
+     * @param targets IDs of the nodes each column ends at
+     * @param handler Receives each completed row
+     * @param <N> Node type of graph to be searched
+     * @throws IllegalStateException if a search fails or the calling thread is interrupted
+     */
+    public static <N> void compute(IndexedGraph<N> graph, int[] sources, int[] targets, RowHandler handler) {
+        compute(graph, sources, targets, handler, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes every row of the distance matrix between the given sources and targets on the given pool, passing
+     * each row to {@code handler} on the calling thread as soon as it is complete. Rows are handed over in the order
+     * they complete, which need not be the order of {@code sources}. If this returns early, such as when
+     * {@code handler} throws because the client reading the rows has gone, the rows not yet started are cancelled
+     * rather than left to occupy the pool.
+     *
+     * @spec.requires graph, sources, targets, handler, pool != null
+     *                every ID in sources and targets is a node of graph
+     * @param graph Graph to be searched on
+     * @param sources IDs of the nodes each row starts from
+     * @param targets IDs of the nodes each column ends at
+     * @param handler Receives each completed row
+     * @param pool The pool the rows are searched on
+     * @param <N> Node type of graph to be searched
+     * @throws IllegalStateException if a search fails or the calling thread is interrupted
+     */
+    public static <N> void compute(IndexedGraph<N> graph, int[] sources, int[] targets, RowHandler handler,
+                                   ForkJoinPool pool) {
+        CompletionService<Row> rows = new ExecutorCompletionService<>(pool);
+        List<Future<Row>> searches = new ArrayList<>(sources.length);
+        try {
+            for (int i = 0; i < sources.length; i++) {
+                int row = i;
+                searches.add(rows.submit(() -> new Row(row, oneToMany(graph, sources[row], targets))));
+            }
+            for (int i = 0; i < sources.length; i++) {
+                Row row = rows.take().get();
+                handler.handleRow(row.index, row.costs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing distance matrix", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not compute distance matrix", e.getCause());
+        } finally {
+            // Does nothing to rows already done; a row being searched runs to completion, since searches do not
+            // check for interruption
+            for (Future<Row> search : searches) search.cancel(false);
+        }
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from a source until every target has been settled.
+     *
+     * @spec.requires graph, targets != null
+     * @param graph Graph to be searched on
+     * @param source ID of the node to search from
+     * @param targets IDs of the nodes to find costs to
+     * @return The least cost from {@code source} to each target, in the order of {@code targets}, infinite for
+     * unreachable targets
+     */
+    static double[] oneToMany(IndexedGraph<?> graph, int source, int[] targets) {
+        ShortestPathTree<?> tree = new ShortestPathTree<>(graph, source, targets);
+        double[] row = new double[targets.length];
+        for (int j = 0; j < targets.length; j++) row[j] = tree.costTo(targets[j]);
+        return row;
+    }
+
+    /**
+     * Receives the rows of a distance matrix as they are completed.
+     */
+    public interface RowHandler {
+
+        /**
+         * Handles one completed row of the matrix.
+         *
+         * @param index The position of the row's source in the list of sources.
+         * @param costs The least cost from the row's source to each target, in the order of the targets, infinite
+         *              for unreachable targets.
+         */
+        void handleRow(int index, double[] costs);
+
+    }
+
+    /**
+     * A completed row of the matrix.
+     */
+    private static class Row {
+        private final int index;
+        private final double[] costs;
+
+        private Row(int index, double[] costs) {
+            this.index = index;
+            this.costs = costs;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package pathfinder;
+
+import graph.Graph;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EdgeNormalizer is a static class that copies a graph with {@code Double} edge labels into a graph holding only the
+ * edges that can be part of a least-cost path: the least-cost edge between each ordered pair of distinct nodes. Since
+ * edge costs are never negative, a parallel edge of higher cost or an edge from a node to itself never shortens a
+ * path, so searches over the normalized graph find paths of the same cost while reading exactly one edge cost for
+ * each child of a node. Graphs already held in compressed sparse row arrays are normalized in place, row by row.
+ */
+public class EdgeNormalizer {
+
+    /**
+     * Adds every node of a graph to another graph, along with the least-cost edge from each node to each of its
+     * children other than itself.
+     *
+     * @spec.requires source, target != null && source != target && all edge labels in source are non-null and
+     * &ge; 0
+     * @spec.modifies target
+     * @spec.effects adds every node of source to target, and for every node n and child c != n of n in source, adds
+     * one edge from n to c labeled with the least label of the edges from n to c in source
+     * @param source The graph to normalize
+     * @param target The graph to add the normalized nodes and edges to
+     * @param <N> Node type of the graphs
+     * @return Counts of the edges of source that were kept and dropped
+     */
+    public static <N> Stats normalize(Graph<N, Double> source, Graph<N, Double> target) {
+        int edges = 0;
+        int duplicates = 0;
+        int selfLoops = 0;
+        Iterator<N> nodes = source.nodeIterator();
+        while (nodes.hasNext()) {
+            N node = nodes.next();
+            target.addNode(node);
+            for (Map.Entry<N, List<Double>> child : source.childrenOf(node).entrySet()) {
+                List<Double> costs = child.getValue();
+                edges += costs.size();
+                if (child.getKey().equals(node)) {
+                    selfLoops += costs.size();
+                    continue;
+                }
+                double cost = Double.POSITIVE_INFINITY;
+                for (double edgeCost : costs) cost = Math.min(cost, edgeCost);
+                target.addEdge(node, child.getKey(), cost);
+                duplicates += costs.size() - 1;
+            }
+        }
+        return new Stats(edges, duplicates, selfLoops);
+    }
+
+    /**
+     * Normalizes a range of the rows of a graph in compressed sparse row form in place: the edges left at the start
+     * of each row are its first edge to each other node, each with the least cost of any edge from the row's node to
+     * that node, in the order the nodes first appear in the row. Rows outside the range are not touched, so ranges
+     * that do not overlap can be normalized at the same time.
+     *
+     * @spec.requires offsets, targets, weights, kept != null && 0 &le; firstRow &le; endRow &le; kept.length &&
+     * offsets.length == kept.length + 1 && every edge leaves and leads to a node with an ID below kept.length
+     * @spec.modifies targets, weights, kept
+     * @spec.effects for every row id in [firstRow, endRow), sets kept[id] to the number of edges kept and moves them
+     * to the start of the row, leaving the rest of the row unspecified
+     * @param offsets  The ID of the first edge leaving each node, indexed by the ID of the node, followed by the
+     *                 number of edges
+     * @param targets  The ID of the node each edge leads to, indexed by the ID of the edge
+     * @param weights  The cost of each edge, indexed by the ID of the edge
+     * @param firstRow The ID of the first node whose row is normalized
+     * @param endRow   One past the ID of the last node whose row is normalized
+     * @param kept     The number of edges kept in each row, indexed by the ID of the node
+     * @return Counts of the edges in the range that were kept and dropped
+     */
+    public static Stats normalizeRows(int[] offsets, int[] targets, double[] weights, int firstRow, int endRow,
+                                      int[] kept) {
+        int duplicates = 0;
+        int selfLoops = 0;
+        // Slot in the row being normalized of the edge kept to each node, if it is within the row's kept edges
+        int[] keptSlots = new int[kept.length];
+        for (int id = firstRow; id < endRow; id++) {
+            int end = offsets[id];
+            for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+                int target = targets[e];
+                int slot = keptSlots[target];
+                if (target == id) {
+                    selfLoops++;
+                } else if (slot >= offsets[id] && slot < end && targets[slot] == target) {
+                    duplicates++;
+                    weights[slot] = Math.min(weights[slot], weights[e]);
+                } else {
+                    keptSlots[target] = end;
+                    targets[end] = target;
+                    weights[end] = weights[e];
+                    end++;
+                }
+            }
+            kept[id] = end - offsets[id];
+        }
+        return new Stats(offsets[endRow] - offsets[firstRow], duplicates, selfLoops);
+    }
+
+    /**
+     * This represents the counts of edges found while normalizing a graph. Stats are immutable.
+     */
+    public static final class Stats {
+
+        // AF(this) =
+        //      a normalized graph with edges edges, of which duplicates were parallel to a cheaper or equal edge and
+        //      selfLoops led from a node to itself, and the rest were kept
+        //
+        // Rep Invariant:
+        //      0 <= duplicates, selfLoops && duplicates + selfLoops <= edges
+
+        private final int edges;
+        private final int duplicates;
+        private final int selfLoops;
+
+        /**
+         * Creates counts of the edges found while normalizing a graph, such as counts stored when it was normalized.
+         *
+         * @param edges      The number of edges in the graph before it was normalized.
+         * @param duplicates The number of edges dropped as parallel to a cheaper or equal edge.
+         * @param selfLoops  The number of edges dropped as leading from a node to itself.
+         * @spec.requires 0 &le; duplicates, selfLoops && duplicates + selfLoops &le; edges
+         */
+        public Stats(int edges, int duplicates, int selfLoops) {
+            this.edges = edges;
+            this.duplicates = duplicates;
+            this.selfLoops = selfLoops;
+            checkRep();
+        }
+
+        /**
+         * @return The number of edges in the graph before it was normalized.
+         */
+        public int getEdges() {
+            return edges;
+        }
+
+        /**
+         * @return The number of edges dropped because another edge between the same nodes, in the same direction,
+         * cost no more.
+         */
+        public int getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * @return The number of edges dropped because they led from a node to itself.
+         */
+        public int getSelfLoops() {
+            return selfLoops;
+        }
+
+        /**
+         * @return The number of edges kept in the normalized graph.
+         */
+        public int getKept() {
+            return edges - duplicates - selfLoops;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Stats)) {
+                return false;
+            }
+            Stats other = (Stats) obj;
+            return edges == other.edges && duplicates == other.duplicates && selfLoops == other.selfLoops;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * edges + duplicates) * 31 + selfLoops;
+        }
+
+        @Override
+        public String toString() {
+            return edges + " edges: kept " + getKept() + ", dropped " + duplicates + " duplicates and " + selfLoops
+                   + " self-loops";
+        }
+
+        /**
+         * Ensures that the representation invariant has not been violated. Returns normally if
+         * there is no violation.
+         */
+        private void checkRep() {
+            assert 0 <= duplicates && 0 <= selfLoops;
+            assert duplicates + selfLoops <= edges;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * IndexedDijkstra finds least-cost {@link Path}s on an {@link IndexedGraph} using Dijkstra's algorithm, finding
+ * paths with the same costs as {@link DijkstraSearch}.
+ * <p>
+ * Unlike {@link DijkstraSearch}, it keeps only the least known cost of reaching each node and the node before it,
+ * in primitive arrays indexed by node ID, with an {@link IndexedPriorityQueue} whose keys are lowered in place, of
+ * the {@link QueueKind} chosen when the search is created. The path is built once, by walking back from the end,
+ * after the search. Each thread reuses its own arrays from one query to the next, so a query allocates nothing but
+ * the path it returns.
+ *
+ * @param <N> Node type of the graph
+ */
+public class IndexedDijkstra<N> {
+
+    // AF(this) =
+    //      the graph searched on => graph
+    //      the arrays reused by the queries on each thread => scratch.get() on that thread
+
+    // Rep Invariant:
+    //      graph, scratch != null
+
+    private final IndexedGraph<N> graph;
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * Creates a new search over the given graph, using a {@link QueueKind#BINARY_HEAP}.
+     *
+     * @param graph The graph to search on.
+     * @spec.requires graph != null
+     */
+    public IndexedDijkstra(IndexedGraph<N> graph) {
+        this(graph, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new search over the given graph, using the given kind of priority queue.
+     *
+     * @param graph The graph to search on.
+     * @param queue The kind of priority queue to use.
+     * @spec.requires graph, queue != null
+     */
+    public IndexedDijkstra(IndexedGraph<N> graph, QueueKind queue) {
+        this.graph = graph;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(queue.create(graph.size())));
+        checkRep();
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes. Returns null if no such path exists.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes,
+     * and null if no such path exists.
+     * @spec.requires startNode, endNode != null and are nodes of the graph
+     */
+    public Path<N> findPath(N startNode, N endNode) {
+        return findPath(startNode, endNode, null);
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes, recording the work done by the search. Returns
+     * null if no such path exists.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @param recorder  Recorder to record the nodes settled and entries pushed by the search in, or null if the
+     *                  search is not to be recorded
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes,
+     * and null if no such path exists.
+     * @spec.requires startNode, endNode != null and are nodes of the graph
+     */
+    public Path<N> findPath(N startNode, N endNode, SearchMetrics.Recorder recorder) {
+        int start = graph.idOf(startNode);
+        int end = graph.idOf(endNode);
+        Scratch s = scratch.get();
+        s.reset();
+        IndexedPriorityQueue active = s.heap;
+        s.reach(start, 0, -1, 0);
+        active.offer(start, 0);
+        boolean found = false;
+        // Work done, recorded when the search ends
+        int settled = 0;
+        int pushes = 1;
+        while (!active.isEmpty()) {
+            int node = active.poll();
+            settled++;
+            if (node == end) {
+                found = true;
+                break;
+            }
+            double nodeCost = active.keyOf(node);
+            for (int i = 0; i < graph.degree(node); i++) {
+                int child = graph.target(node, i);
+                double weight = graph.weight(node, i);
+                double childCost = nodeCost + weight;
+                // Settled nodes can never be reached more cheaply, so they are never offered again
+                if (childCost < s.costTo(child)) {
+                    s.reach(child, childCost, node, weight);
+                    active.offer(child, childCost);
+                    pushes++;
+                }
+            }
+        }
+        active.clear();
+        if (recorder != null) recorder.record(settled, pushes);
+        if (!found) return null;
+        // Walk back from the end to the start, then build the path in one step
+        int length = 0;
+        for (int id = end; id != start; id = s.parent[id]) length++;
+        List<N> nodes = new ArrayList<>(length + 1);
+        double[] segmentCosts = new double[length];
+        int id = end;
+        for (int i = length - 1; i >= 0; i--) {
+            nodes.add(graph.nodeOf(id));
+            segmentCosts[i] = s.parentCost[id];
+            id = s.parent[id];
+        }
+        nodes.add(graph.nodeOf(start));
+        Collections.reverse(nodes);
+        return new Path<>(nodes, segmentCosts);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && scratch != null;
+    }
+
+    /**
+     * The least known cost of reaching each node in one search, the node before it on that path and the cost of the
+     * edge from there, and the queue of nodes yet to be settled. Entries are only valid when stamped with the current
+     * search, so starting a new search takes constant time.
+     */
+    private static class Scratch {
+        private final double[] cost;
+        private final int[] parent;
+        private final double[] parentCost;
+        private final int[] stamp;
+        private final IndexedPriorityQueue heap;
+        private int current;
+
+        private Scratch(IndexedPriorityQueue heap) {
+            int size = heap.capacity();
+            this.cost = new double[size];
+            this.parent = new int[size];
+            this.parentCost = new double[size];
+            this.stamp = new int[size];
+            this.heap = heap;
+        }
+
+        /**
+         * Forgets every cost, starting a new search.
+         */
+        private void reset() {
+            current++;
+        }
+
+        /**
+         * @return The least known cost of reaching a node in the current search, infinite if it has not been reached.
+         */
+        private double costTo(int node) {
+            return stamp[node] == current ? cost[node] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Records a cheaper path to a node in the current search, over an edge of the given cost from its parent.
+         */
+        private void reach(int node, double nodeCost, int nodeParent, double edgeCost) {
+            stamp[node] = current;
+            cost[node] = nodeCost;
+            parent[node] = nodeParent;
+            parentCost[node] = edgeCost;
+        }
+    }
+}
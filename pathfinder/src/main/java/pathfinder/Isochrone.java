@@ -0,0 +1,188 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Isochrone represents everything on campus that can be reached from one building by walking no farther than a
+ * given distance: the reachable buildings with their distances, every reachable stretch of path, and the outline
+ * around them. Paths that can only be walked part of the way are cut off where the distance runs out.
+ */
+public class Isochrone {
+    /*  AF:
+        String center is the short name of the building walks start at, and double limit is the farthest any walk
+        goes. Map<String, Double> buildings maps the short name of every building within limit of center to the
+        length of the shortest path to it. Every four consecutive values (x1, y1, x2, y2) of double[] segments are
+        the ends of one stretch of path that can be walked, in the direction it is walked. double[] outline lists the
+        x and y coordinates of the corners of the smallest convex polygon around every segment, counterclockwise.
+     */
+    /*  RI:
+        center, buildings, segments, outline != null &&
+        limit >= 0 &&
+        segments.length % 4 == 0 && outline.length % 2 == 0 &&
+        forall i such that i is a value in buildings, 0 <= i <= limit
+     */
+
+    private final String center;
+    private final double limit;
+    private final Map<String, Double> buildings;
+    private final double[] segments;
+    private final double[] outline;
+
+    /**
+     * Collects everything reached by a search from a building within a limit.
+     *
+     * @param center The short name of the building the search starts at
+     * @param limit The farthest distance walked
+     * @param search A search from center's location over graph, already expanded to at least {@code limit}
+     * @param graph The graph searched on
+     * @param shortNameToPoint Map of short names of buildings to the Points of those buildings
+     * @spec.requires center, search, graph, shortNameToPoint != null && limit &ge; 0 &&
+     *                search.getLimit() &ge; limit
+     */
+    Isochrone(String center, double limit, BoundedSearch<Point> search, IndexedGraph<Point> graph,
+              Map<String, Point> shortNameToPoint) {
+        this.center = center;
+        this.limit = limit;
+        Map<String, Double> buildings = new TreeMap<>();
+        for (Map.Entry<String, Point> building : shortNameToPoint.entrySet()) {
+            double cost = search.costTo(graph.idOf(building.getValue()));
+            if (cost <= limit) buildings.put(building.getKey(), cost);
+        }
+        this.buildings = Collections.unmodifiableMap(buildings);
+        List<Double> segments = new ArrayList<>();
+        int reached = search.settledWithin(limit);
+        for (int i = 0; i < reached; i++) {
+            int node = search.settledNode(i);
+            Point from = graph.nodeOf(node);
+            for (int e = 0; e < graph.degree(node); e++) {
+                int child = graph.target(node, e);
+                double weight = graph.weight(node, e);
+                double remaining = limit - search.costTo(node);
+                if (weight <= remaining) {
+                    // A path walked in full both ways is only listed once, from the end with the smaller ID
+                    int back = graph.edgeTo(child, node);
+                    if (child < node && back >= 0 && search.costTo(child) + graph.weight(child, back) <= limit)
+                        continue;
+                    addSegment(segments, from, graph.nodeOf(child), 1);
+                } else if (remaining > 0) {
+                    addSegment(segments, from, graph.nodeOf(child), remaining / weight);
+                }
+            }
+        }
+        this.segments = new double[segments.size()];
+        for (int i = 0; i < this.segments.length; i++) this.segments[i] = segments.get(i);
+        this.outline = convexHull(this.segments, graph.nodeOf(search.getSource()));
+        checkRep();
+    }
+
+    /**
+     * @return The short name of the building every walk starts at.
+     */
+    public String getCenter() {
+        return center;
+    }
+
+    /**
+     * @return The farthest distance walked.
+     */
+    public double getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return An unmodifiable mapping from the short name of every building within the limit of the center to the
+     * length of the shortest path to it.
+     */
+    public Map<String, Double> buildings() {
+        return buildings;
+    }
+
+    /**
+     * @return The ends of every stretch of path that can be walked, as four values (x1, y1, x2, y2) per stretch in
+     * the direction it is walked. Stretches cut off by the limit end partway along a path.
+     */
+    public double[] segments() {
+        return segments.clone();
+    }
+
+    /**
+     * @return The x and y coordinates of the corners of the smallest convex polygon around every reachable stretch of
+     * path, counterclockwise, as two values per corner.
+     */
+    public double[] outline() {
+        return outline.clone();
+    }
+
+    /**
+     * Adds the stretch of the path from {@code from} to {@code to} that ends a given fraction of the way along it.
+     */
+    private static void addSegment(List<Double> segments, Point from, Point to, double fraction) {
+        segments.add(from.getX());
+        segments.add(from.getY());
+        segments.add(from.getX() + (to.getX() - from.getX()) * fraction);
+        segments.add(from.getY() + (to.getY() - from.getY()) * fraction);
+    }
+
+    /**
+     * Finds the convex hull of every segment end and the center by Andrew's monotone chain algorithm.
+     *
+     * @return The corners of the hull, counterclockwise, as two values per corner.
+     */
+    private static double[] convexHull(double[] segments, Point center) {
+        int count = segments.length / 2 + 1;
+        double[][] points = new double[count][];
+        for (int i = 0; i < count - 1; i++) points[i] = new double[]{segments[2 * i], segments[2 * i + 1]};
+        points[count - 1] = new double[]{center.getX(), center.getY()};
+        Arrays.sort(points, new Comparator<double[]>() {
+            @Override
+            public int compare(double[] o1, double[] o2) {
+                return o1[0] != o2[0] ? Double.compare(o1[0], o2[0]) : Double.compare(o1[1], o2[1]);
+            }
+        });
+        double[][] hull = new double[2 * count][];
+        int size = 0;
+        // Lower hull from left to right, then upper hull from right to left
+        for (int i = 0; i < count; i++) {
+            while (size >= 2 && turn(hull[size - 2], hull[size - 1], points[i]) <= 0) size--;
+            hull[size++] = points[i];
+        }
+        for (int i = count - 2, lower = size + 1; i >= 0; i--) {
+            while (size >= lower && turn(hull[size - 2], hull[size - 1], points[i]) <= 0) size--;
+            hull[size++] = points[i];
+        }
+        // The last corner repeats the first, unless the hull is a single point
+        int corners = Math.max(1, size - 1);
+        double[] outline = new double[2 * corners];
+        for (int i = 0; i < corners; i++) {
+            outline[2 * i] = hull[i][0];
+            outline[2 * i + 1] = hull[i][1];
+        }
+        return outline;
+    }
+
+    /**
+     * @return A positive value if a, b, c turn counterclockwise, negative if clockwise, and 0 if they are in line.
+     */
+    private static double turn(double[] a, double[] b, double[] c) {
+        return (b[0] - a[0]) * (c[1] - a[1]) - (b[1] - a[1]) * (c[0] - a[0]);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert center != null && buildings != null && segments != null && outline != null;
+        assert limit >= 0;
+        assert segments.length % 4 == 0 && outline.length % 2 == 0;
+    }
+}
@@ -0,0 +1,244 @@
+package pathfinder;
+
+import java.util.Arrays;
+
+/**
+ * ItinerarySolver is a static class that chooses the order in which to visit a set of stops so that the total cost
+ * of travelling between consecutive stops is as low as possible, given the least cost between every ordered pair of
+ * stops. The first and last stops of the order may be fixed.
+ * <p>
+ * Orders of up to {@link #EXACT_LIMIT} stops are found exactly by Held-Karp dynamic programming. Larger orders start
+ * from a nearest-neighbor order and are improved by 2-opt and Or-opt moves until no move helps or a time budget runs
+ * out. Costs need not be symmetric.
+ */
+public class ItinerarySolver {
+
+    /**
+     * The largest number of stops whose best order is found exactly. Held-Karp takes time and memory exponential in
+     * the number of stops.
+     */
+    public static final int EXACT_LIMIT = 12;
+
+    /**
+     * Time allowed for improving a heuristic order when none is specified, in milliseconds.
+     */
+    public static final long DEFAULT_BUDGET_MILLIS = 100;
+
+    /**
+     * The longest run of consecutive stops an Or-opt move relocates.
+     */
+    private static final int OR_OPT_LENGTH = 3;
+
+    /**
+     * The least amount a heuristic move must save to be applied, so that rounding cannot make moves undo each other.
+     */
+    private static final double MIN_SAVING = 1e-9;
+
+    /**
+     * Chooses the order in which to visit every stop. Stop i is numbered by its position in {@code costs}.
+     *
+     * @spec.requires costs != null && costs is square && every entry of costs is non-negative
+     *                if fixedStart and fixedEnd, costs.length &ge; 2
+     * @param costs The least cost of travelling from stop i to stop j at {@code costs[i][j]}, infinite if there is no
+     *              way to travel between them
+     * @param fixedStart Whether the order must begin at stop 0
+     * @param fixedEnd Whether the order must end at the last stop
+     * @param budgetNanos Time allowed for improving a heuristic order, ignored for exact orders
+     * @return The stops in the order they are visited, each appearing exactly once. The order costs less than or the
+     * same as any other order when there are at most {@link #EXACT_LIMIT} stops.
+     */
+    public static int[] solve(double[][] costs, boolean fixedStart, boolean fixedEnd, long budgetNanos) {
+        if (costs.length <= 1) return costs.length == 0 ? new int[0] : new int[]{0};
+        if (costs.length <= EXACT_LIMIT) return heldKarp(costs, fixedStart, fixedEnd);
+        long deadline = System.nanoTime() + budgetNanos;
+        int[] order = nearestNeighbor(costs, fixedStart, fixedEnd);
+        // Fixed ends never move, so moves are confined to the stops between them
+        int first = fixedStart ? 1 : 0;
+        int last = fixedEnd ? order.length - 2 : order.length - 1;
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(costs, order, first, last) | orOpt(costs, order, first, last);
+        }
+        return order;
+    }
+
+    /**
+     * @return The total cost of visiting stops in the given order.
+     */
+    public static double cost(double[][] costs, int[] order) {
+        double total = 0;
+        for (int i = 1; i < order.length; i++) total += costs[order[i - 1]][order[i]];
+        return total;
+    }
+
+    /**
+     * Finds the best order exactly. best[visited][j] is the least cost of visiting exactly the stops in the bit set
+     * {@code visited}, ending at stop j.
+     */
+    private static int[] heldKarp(double[][] costs, boolean fixedStart, boolean fixedEnd) {
+        int n = costs.length;
+        int full = (1 << n) - 1;
+        double[][] best = new double[1 << n][n];
+        int[][] previous = new int[1 << n][n];
+        for (double[] row : best) Arrays.fill(row, Double.POSITIVE_INFINITY);
+        for (int j = 0; j < n; j++) {
+            if ((j == 0 || !fixedStart) && (j != n - 1 || !fixedEnd)) best[1 << j][j] = 0;
+        }
+        for (int visited = 1; visited <= full; visited++) {
+            for (int j = 0; j < n; j++) {
+                if ((visited & (1 << j)) == 0 || best[visited][j] == Double.POSITIVE_INFINITY) continue;
+                for (int next = 0; next < n; next++) {
+                    if ((visited & (1 << next)) != 0) continue;
+                    // The fixed end can only be visited last
+                    if (fixedEnd && next == n - 1 && (visited | (1 << next)) != full) continue;
+                    double nextCost = best[visited][j] + costs[j][next];
+                    if (nextCost < best[visited | (1 << next)][next]) {
+                        best[visited | (1 << next)][next] = nextCost;
+                        previous[visited | (1 << next)][next] = j;
+                    }
+                }
+            }
+        }
+        int end = fixedEnd ? n - 1 : 0;
+        for (int j = 0; j < n; j++) {
+            if (!fixedEnd && best[full][j] < best[full][end]) end = j;
+        }
+        // With no finite order, any order will do
+        if (best[full][end] == Double.POSITIVE_INFINITY) return nearestNeighbor(costs, fixedStart, fixedEnd);
+        int[] order = new int[n];
+        for (int i = n - 1, visited = full, j = end; i >= 0; i--) {
+            order[i] = j;
+            int before = previous[visited][j];
+            visited &= ~(1 << j);
+            j = before;
+        }
+        return order;
+    }
+
+    /**
+     * @return An order built by always travelling to the cheapest stop not yet visited, starting from stop 0 when it
+     * is fixed and otherwise from the stop with the cheapest way out.
+     */
+    private static int[] nearestNeighbor(double[][] costs, boolean fixedStart, boolean fixedEnd) {
+        int n = costs.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int free = fixedEnd ? n - 1 : n;
+        int current = 0;
+        if (!fixedStart) {
+            double cheapest = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < free; i++) {
+                for (int j = 0; j < free; j++) {
+                    if (i != j && costs[i][j] < cheapest) {
+                        cheapest = costs[i][j];
+                        current = i;
+                    }
+                }
+            }
+        }
+        order[0] = current;
+        visited[current] = true;
+        for (int i = 1; i < free; i++) {
+            int next = -1;
+            for (int j = 0; j < free; j++) {
+                if (!visited[j] && (next < 0 || costs[current][j] < costs[current][next])) next = j;
+            }
+            order[i] = next;
+            visited[next] = true;
+            current = next;
+        }
+        if (fixedEnd) order[n - 1] = n - 1;
+        return order;
+    }
+
+    /**
+     * Applies every improving 2-opt move found in one pass: the stops between positions i and j are visited in
+     * reverse. Since costs may be asymmetric, the reversed run is costed in full.
+     *
+     * @return Whether any move was applied.
+     */
+    private static boolean twoOpt(double[][] costs, int[] order, int first, int last) {
+        boolean improved = false;
+        for (int i = first; i < last; i++) {
+            for (int j = i + 1; j <= last; j++) {
+                double before = 0;
+                double after = 0;
+                if (i > 0) {
+                    before += costs[order[i - 1]][order[i]];
+                    after += costs[order[i - 1]][order[j]];
+                }
+                if (j < order.length - 1) {
+                    before += costs[order[j]][order[j + 1]];
+                    after += costs[order[i]][order[j + 1]];
+                }
+                for (int k = i; k < j; k++) {
+                    before += costs[order[k]][order[k + 1]];
+                    after += costs[order[k + 1]][order[k]];
+                }
+                if (after < before - MIN_SAVING) {
+                    for (int a = i, b = j; a < b; a++, b--) {
+                        int swap = order[a];
+                        order[a] = order[b];
+                        order[b] = swap;
+                    }
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Applies every improving Or-opt move found in one pass: a run of up to {@link #OR_OPT_LENGTH} consecutive stops
+     * is moved, in the same direction, to between two other consecutive stops.
+     *
+     * @return Whether any move was applied.
+     */
+    private static boolean orOpt(double[][] costs, int[] order, int first, int last) {
+        boolean improved = false;
+        for (int length = 1; length <= OR_OPT_LENGTH; length++) {
+            for (int i = first; i + length - 1 <= last; i++) {
+                int j = i + length - 1;
+                // Cost saved by taking the run out, joining its neighbors
+                double removed = link(costs, order, i - 1, i) + link(costs, order, j, j + 1)
+                                 - link(costs, order, i - 1, j + 1);
+                // Try inserting the run between positions p - 1 and p, for positions outside the run
+                for (int p = first; p <= last + 1; p++) {
+                    if (p >= i && p <= j + 1) continue;
+                    double added = link(costs, order, p - 1, i) + link(costs, order, j, p)
+                                   - link(costs, order, p - 1, p);
+                    if (added < removed - MIN_SAVING) {
+                        moveRun(order, i, length, p);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * @return The cost of travelling from the stop at position a to the stop at position b, or 0 if either position
+     * is outside the order.
+     */
+    private static double link(double[][] costs, int[] order, int a, int b) {
+        if (a < 0 || b >= order.length) return 0;
+        return costs[order[a]][order[b]];
+    }
+
+    /**
+     * Moves the run of {@code length} stops starting at position {@code from} so that it starts just before the
+     * stop currently at position {@code to}.
+     */
+    private static void moveRun(int[] order, int from, int length, int to) {
+        int[] run = Arrays.copyOfRange(order, from, from + length);
+        if (to < from) {
+            System.arraycopy(order, to, order, to + length, from - to);
+            System.arraycopy(run, 0, order, to, length);
+        } else {
+            System.arraycopy(order, from + length, order, from, to - from - length);
+            System.arraycopy(run, 0, order, to - length, length);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * KShortestPaths finds the k least-cost loopless {@link Path}s between two nodes of an {@link IndexedGraph}, in
+ * order of cost, using Yen's algorithm. Each path after the first is the cheapest deviation from one already found:
+ * for every node of the previous path (the spur node), the route from the start to that node is kept and the rest is
+ * replaced by the least-cost route that avoids the kept nodes and every edge already taken from the same root.
+ * <p>
+ * Three pieces of state are shared so that asking for more paths stays cheap. The least costs from every node to the
+ * end, found once per query on the reverse graph, guide every spur search as an exact A* heuristic, since removing
+ * nodes and edges can only make paths longer. The root of each spur is a prefix of the previous path, so blocked
+ * nodes are looked up by their position on that path instead of being copied per spur. And, following Lawler, spurs
+ * are only taken from the point where the previous path left its own parent, since earlier spurs would repeat
+ * candidates already found. The spur searches of each round are independent and run in parallel. The tree to the end
+ * and the spur searches take their frontiers from {@link IndexedPriorityQueue}s of the {@link QueueKind} chosen when
+ * the search is created.
+ *
+ * @param <N> Node type of the graph
+ */
+public class KShortestPaths<N> {
+
+    // AF(this) =
+    //      the graph searched on => graph
+    //      the graph with every edge reversed => reverse
+    //      the pool spur searches run on => pool
+    //      the working arrays of the spur searches on each thread => scratch
+    //      the kind of priority queue the searches use => queue
+
+    // Rep Invariant:
+    //      graph, reverse, pool, queue, scratch != null && reverse.size() == graph.size()
+
+    private final IndexedGraph<N> graph;
+    private final IndexedGraph<N> reverse;
+    private final ForkJoinPool pool;
+    private final QueueKind queue;
+
+    /**
+     * Working arrays for spur searches, kept per thread so that a search does not allocate or clear arrays the size
+     * of the graph.
+     */
+    private final ThreadLocal<Scratch> scratch;
+
+    /**
+     * Creates a new search over the given graph, running spur searches on the common {@link ForkJoinPool}.
+     *
+     * @param graph The graph to search on.
+     * @spec.requires graph != null
+     */
+    public KShortestPaths(IndexedGraph<N> graph) {
+        this(graph, graph.reverse(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new search over the given graph, running spur searches on the given pool with
+     * {@link QueueKind#BINARY_HEAP}s.
+     *
+     * @param graph   The graph to search on.
+     * @param reverse The result of {@code graph.reverse()}.
+     * @param pool    The pool spur searches are run on.
+     * @spec.requires graph, reverse, pool != null
+     */
+    public KShortestPaths(IndexedGraph<N> graph, IndexedGraph<N> reverse, ForkJoinPool pool) {
+        this(graph, reverse, pool, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Creates a new search over the given graph, running spur searches on the given pool with the given kind of
+     * priority queue.
+     *
+     * @param graph   The graph to search on.
+     * @param reverse The result of {@code graph.reverse()}.
+     * @param pool    The pool spur searches are run on.
+     * @param queue   The kind of priority queue to use.
+     * @spec.requires graph, reverse, pool, queue != null
+     */
+    public KShortestPaths(IndexedGraph<N> graph, IndexedGraph<N> reverse, ForkJoinPool pool, QueueKind queue) {
+        this.graph = graph;
+        this.reverse = reverse;
+        this.pool = pool;
+        this.queue = queue;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(queue.create(graph.size())));
+        checkRep();
+    }
+
+    /**
+     * Returns up to k least-cost loopless paths between two given nodes, in order of increasing cost. Fewer than k
+     * paths are returned if fewer exist, and none if the end cannot be reached. The first path has the same cost as
+     * the one found by {@link DijkstraSearch#findPath}.
+     *
+     * @param startNode Starting node of the paths
+     * @param endNode   End node of the paths
+     * @param k         The largest number of paths to return
+     * @return a list of at most {@code k} distinct loopless paths from {@code startNode} to {@code endNode}, such that
+     * no loopless path missing from the list costs less than the last one in it.
+     * @throws IllegalArgumentException if either node is not in the graph, or if {@code k} is less than 1.
+     */
+    public List<Path<N>> findPaths(N startNode, N endNode, int k) {
+        int start = graph.idOf(startNode);
+        int end = graph.idOf(endNode);
+        if (start < 0 || end < 0) throw new IllegalArgumentException("Node is not in the graph");
+        if (k < 1) throw new IllegalArgumentException("At least one path must be requested");
+        ShortestPathTree<N> toEnd = new ShortestPathTree<>(reverse, end, null, queue);
+        List<Route> found = new ArrayList<>();
+        int[] first = toEnd.routeTo(start);
+        if (first != null) {
+            // The reverse tree lists the route from the end back to the start
+            int[] nodes = new int[first.length];
+            for (int i = 0; i < nodes.length; i++) nodes[i] = first[first.length - 1 - i];
+            found.add(new Route(nodes, edgeWeights(nodes), 0));
+        }
+        Queue<Route> candidates = new PriorityQueue<>(new Comparator<Route>() {
+            @Override
+            public int compare(Route o1, Route o2) {
+                int byCost = Double.compare(o1.cost, o2.cost);
+                return byCost != 0 ? byCost : Integer.compare(o1.nodes.length, o2.nodes.length);
+            }
+        });
+        Set<Route> seen = new HashSet<>(found);
+        while (!found.isEmpty() && found.size() < k) {
+            for (Route candidate : spurRoutes(found, end, toEnd)) {
+                if (seen.add(candidate)) candidates.add(candidate);
+            }
+            if (candidates.isEmpty()) break;
+            found.add(candidates.remove());
+        }
+        List<Path<N>> paths = new ArrayList<>();
+        for (Route route : found) {
+            List<N> nodes = new ArrayList<>(route.nodes.length);
+            for (int id : route.nodes) nodes.add(graph.nodeOf(id));
+            paths.add(new Path<>(nodes, Arrays.copyOfRange(route.weights, 1, route.weights.length)));
+        }
+        return paths;
+    }
+
+    /**
+     * Runs one round of Yen's algorithm, searching in parallel for the cheapest deviation at every spur node of the
+     * last route found.
+     *
+     * @return The deviations that exist, in no particular order.
+     */
+    private List<Route> spurRoutes(List<Route> found, int end, ShortestPathTree<N> toEnd) {
+        Route previous = found.get(found.size() - 1);
+        // Position of each node on the previous route; a spur at position i may not pass any node before it
+        int[] position = new int[graph.size()];
+        Arrays.fill(position, Integer.MAX_VALUE);
+        for (int i = 0; i < previous.nodes.length; i++) position[previous.nodes[i]] = i;
+        // Number of leading nodes each route found so far shares with the previous one
+        int[] shared = new int[found.size()];
+        for (int r = 0; r < found.size(); r++) {
+            int[] nodes = found.get(r).nodes;
+            while (shared[r] < nodes.length && shared[r] < previous.nodes.length
+                   && nodes[shared[r]] == previous.nodes[shared[r]]) {
+                shared[r]++;
+            }
+        }
+        List<Callable<Route>> spurs = new ArrayList<>();
+        for (int i = previous.deviation; i < previous.nodes.length - 1; i++) {
+            int spur = i;
+            spurs.add(() -> {
+                // Routes with the same root have already left the spur node along these edges
+                List<Integer> taken = new ArrayList<>();
+                for (int r = 0; r < found.size(); r++) {
+                    if (shared[r] > spur) taken.add(found.get(r).nodes[spur + 1]);
+                }
+                int[] tail = spurSearch(previous.nodes[spur], spur, end, position, taken, toEnd);
+                if (tail == null) return null;
+                int[] nodes = new int[spur + tail.length];
+                System.arraycopy(previous.nodes, 0, nodes, 0, spur);
+                System.arraycopy(tail, 0, nodes, spur, tail.length);
+                return new Route(nodes, edgeWeights(nodes), spur);
+            });
+        }
+        List<Route> routes = new ArrayList<>();
+        try {
+            for (Future<Route> route : pool.invokeAll(spurs)) {
+                if (route.get() != null) routes.add(route.get());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not search for alternative paths", e);
+        }
+        return routes;
+    }
+
+    /**
+     * Runs A* from a spur node to the end, guided by the exact least costs to the end in the unmodified graph.
+     *
+     * @param spur     The ID of the spur node.
+     * @param index    The position of the spur node on the previous route.
+     * @param end      The ID of the end node.
+     * @param position The position of each node on the previous route; nodes before {@code index} are not entered.
+     * @param taken    The IDs of the nodes the search may not move to directly from the spur node.
+     * @param toEnd    The least-cost tree to the end over the reverse graph.
+     * @return The IDs of the nodes on the least-cost allowed route from the spur node to the end, or null if there
+     * is none.
+     */
+    private int[] spurSearch(int spur, int index, int end, int[] position, List<Integer> taken,
+                             ShortestPathTree<N> toEnd) {
+        Scratch search = scratch.get();
+        search.reset();
+        search.reach(spur, 0, -1);
+        IndexedPriorityQueue active = search.heap;
+        active.offer(spur, toEnd.costTo(spur));
+        while (!active.isEmpty()) {
+            int node = active.poll();
+            double nodeKey = active.keyOf(node);
+            if (node == end) {
+                active.clear();
+                int length = 1;
+                for (int id = end; id != spur; id = search.parent[id]) length++;
+                int[] route = new int[length];
+                for (int id = end, i = length - 1; i >= 0; id = search.parent[id], i--) route[i] = id;
+                return route;
+            }
+            for (int i = 0; i < graph.degree(node); i++) {
+                int child = graph.target(node, i);
+                if (position[child] < index || Double.isInfinite(toEnd.costTo(child))) continue;
+                if (node == spur && taken.contains(child)) continue;
+                double childCost = search.costTo(node) + graph.weight(node, i);
+                if (childCost < search.costTo(child)) {
+                    search.reach(child, childCost, node);
+                    // The heuristic is exact, so a child's key is never below its parent's but for rounding, which a
+                    // monotone queue would refuse
+                    active.offer(child, Math.max(childCost + toEnd.costTo(child), nodeKey));
+                }
+            }
+        }
+        // A monotone queue emptied by removal still refuses keys below its last one until it is cleared
+        active.clear();
+        return null;
+    }
+
+    /**
+     * @return The cost of the edge into each node of a route, 0 for the first node.
+     */
+    private double[] edgeWeights(int[] nodes) {
+        double[] weights = new double[nodes.length];
+        for (int i = 1; i < nodes.length; i++) {
+            weights[i] = graph.weight(nodes[i - 1], graph.edgeTo(nodes[i - 1], nodes[i]));
+        }
+        return weights;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && reverse != null && pool != null && queue != null && scratch != null;
+        assert reverse.size() == graph.size();
+    }
+
+    /**
+     * The least known cost of reaching each node in one spur search, the node before it on that path, and the queue
+     * of nodes yet to be settled. Entries are only valid when stamped with the current search, so starting a new
+     * search takes constant time.
+     */
+    private static class Scratch {
+        private final double[] cost;
+        private final int[] parent;
+        private final int[] stamp;
+        private final IndexedPriorityQueue heap;
+        private int current;
+
+        private Scratch(IndexedPriorityQueue heap) {
+            int size = heap.capacity();
+            this.cost = new double[size];
+            this.parent = new int[size];
+            this.stamp = new int[size];
+            this.heap = heap;
+        }
+
+        /**
+         * Forgets every cost, starting a new search.
+         */
+        private void reset() {
+            current++;
+        }
+
+        /**
+         * @return The least known cost of reaching a node in the current search, infinite if it has not been reached.
+         */
+        private double costTo(int node) {
+            return stamp[node] == current ? cost[node] : Double.POSITIVE_INFINITY;
+        }
+
+        /**
+         * Records a cheaper path to a node in the current search.
+         */
+        private void reach(int node, double nodeCost, int nodeParent) {
+            stamp[node] = current;
+            cost[node] = nodeCost;
+            parent[node] = nodeParent;
+        }
+    }
+
+    /**
+     * A loopless route found by the search, with the position of the spur node it was found from.
+     */
+    private static class Route {
+        private final int[] nodes;
+        private final double[] weights;
+        private final double cost;
+        private final int deviation;
+
+        private Route(int[] nodes, double[] weights, int deviation) {
+            this.nodes = nodes;
+            this.weights = weights;
+            this.deviation = deviation;
+            double cost = 0;
+            for (double weight : weights) cost += weight;
+            this.cost = cost;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Route && Arrays.equals(nodes, ((Route) obj).nodes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(nodes);
+        }
+    }
+}
@@ -49,4 +49,38 @@ public interface ModelAPI {
      */
     public Path<Point> findShortestPath(String startShortName, String endShortName);
 
+    /**
+     * Finds the shortest path, by distance, between two coordinates on the campus map. Each coordinate is first
+     * moved to the nearest point on any campus path, which may lie partway along a path.
+     *
+     * @param start The coordinate near the beginning of this path.
+     * @param end   The coordinate near the end of this path.
+     * @return A path between the points on campus paths nearest to {@code start} and {@code end}, or {@literal null}
+     * if none exists.
+     * @throws IllegalArgumentException if {@code start} or {@code end} are {@literal null}.
+     */
+    public Path<Point> findShortestPath(Point start, Point end);
+
+    /**
+     * Finds the shortest paths, by distance, from the provided building to every building, using a single search.
+     *
+     * @param startShortName The short name of the building at the beginning of every path.
+     * @return The distances from {@code startBuilding} to every building it is connected to, with the paths
+     * themselves available on request.
+     * @throws IllegalArgumentException if {@code startBuilding} is {@literal null}, or not a valid short name of a
+     *                                  building in this campus map.
+     */
+    public BuildingRoutes routesFrom(String startShortName);
+
+    /**
+     * Finds the shortest paths, by distance, from every building to the provided building, using a single search.
+     *
+     * @param endShortName The short name of the building at the end of every path.
+     * @return The distances to {@code endBuilding} from every building connected to it, with the paths themselves
+     * available on request.
+     * @throws IllegalArgumentException if {@code endBuilding} is {@literal null}, or not a valid short name of a
+     *                                  building in this campus map.
+     */
+    public BuildingRoutes routesTo(String endShortName);
+
 }
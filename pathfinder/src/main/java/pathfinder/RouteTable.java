@@ -0,0 +1,273 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.metrics.SearchMetrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This represents an immutable table of the least-cost route between every ordered pair of a set of named places on
+ * an {@link IndexedGraph}. The table is filled by one {@link ShortestPathTree} per place, built in parallel, after
+ * which every route is answered by lookup.
+ * <p>
+ * Routes are stored compactly as runs of node IDs in a single array, alongside the cost of the edge into each node,
+ * and turned back into {@link Path}s on request in one pass.
+ *
+ * @param <N> Node type of the graph
+ */
+public class RouteTable<N> {
+
+    // AF(this) =
+    //      the graph the routes run over => graph
+    //      the named places, in order => names
+    //      the position of each name in names => index
+    //      the cost of the route from names[i] to names[j] => costs[i * names.length + j] (infinite if none)
+    //      the node IDs along the route from names[i] to names[j] => routeNodes[routeStarts[k]] up to
+    //          routeNodes[routeStarts[k + 1] - 1], where k = i * names.length + j (empty if none)
+    //      the cost of the edge into the node at routeNodes[n] along its route => segmentCosts[n], for every n that
+    //          is not the start of a route
+
+    // Rep Invariant:
+    //      graph, names, index, costs, routeStarts, routeNodes, segmentCosts != null &&
+    //      costs.length == names.length * names.length &&
+    //      routeStarts.length == costs.length + 1 &&
+    //      routeStarts is non-decreasing && routeStarts[routeStarts.length - 1] == routeNodes.length &&
+    //      segmentCosts.length == routeNodes.length
+
+    private final IndexedGraph<N> graph;
+    private final String[] names;
+    private final Map<String, Integer> index;
+    private final double[] costs;
+    private final int[] routeStarts;
+    private final int[] routeNodes;
+    private final double[] segmentCosts;
+
+    /**
+     * The time spent building this table, in nanoseconds.
+     */
+    private final long buildNanos;
+
+    /**
+     * Builds the table of routes between every pair of the given places, using the common {@link ForkJoinPool}.
+     *
+     * @param graph     The graph routes run over.
+     * @param locations The node each named place is at.
+     * @spec.requires graph, locations != null && every value in locations is a node of graph
+     */
+    public RouteTable(IndexedGraph<N> graph, Map<String, N> locations) {
+        this(graph, locations, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the table of routes between every pair of the given places, running one search per place on the given
+     * pool with a {@link QueueKind#BINARY_HEAP}.
+     *
+     * @param graph     The graph routes run over.
+     * @param locations The node each named place is at.
+     * @param pool      The pool the searches are run on.
+     * @spec.requires graph, locations, pool != null && every value in locations is a node of graph
+     */
+    public RouteTable(IndexedGraph<N> graph, Map<String, N> locations, ForkJoinPool pool) {
+        this(graph, locations, pool, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Builds the table of routes between every pair of the given places, running one search per place on the given
+     * pool with the given kind of priority queue.
+     *
+     * @param graph     The graph routes run over.
+     * @param locations The node each named place is at.
+     * @param pool      The pool the searches are run on.
+     * @param queue     The kind of priority queue the searches use.
+     * @spec.requires graph, locations, pool, queue != null && every value in locations is a node of graph
+     */
+    public RouteTable(IndexedGraph<N> graph, Map<String, N> locations, ForkJoinPool pool, QueueKind queue) {
+        long startTime = System.nanoTime();
+        this.graph = graph;
+        this.names = new TreeSet<>(locations.keySet()).toArray(new String[0]);
+        this.index = new HashMap<>();
+        for (int i = 0; i < names.length; i++) index.put(names[i], i);
+        int[] ids = new int[names.length];
+        for (int i = 0; i < names.length; i++) ids[i] = graph.idOf(locations.get(names[i]));
+        // Each search fills in one row of the table
+        List<Callable<Void>> rows = new ArrayList<>();
+        double[] costs = new double[names.length * names.length];
+        int[][] routes = new int[costs.length][];
+        double[][] routeCosts = new double[costs.length][];
+        for (int i = 0; i < names.length; i++) {
+            int row = i;
+            rows.add(() -> {
+                ShortestPathTree<N> tree = new ShortestPathTree<>(graph, ids[row], null, queue);
+                for (int j = 0; j < names.length; j++) {
+                    costs[row * names.length + j] = tree.costTo(ids[j]);
+                    routes[row * names.length + j] = tree.routeTo(ids[j]);
+                    routeCosts[row * names.length + j] = tree.segmentCostsTo(ids[j]);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> row : pool.invokeAll(rows)) row.get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not build route table", e);
+        }
+        // Pack every route into one array
+        this.costs = costs;
+        this.routeStarts = new int[costs.length + 1];
+        int total = 0;
+        for (int k = 0; k < costs.length; k++) {
+            total += routes[k] == null ? 0 : routes[k].length;
+            routeStarts[k + 1] = total;
+        }
+        this.routeNodes = new int[total];
+        this.segmentCosts = new double[total];
+        for (int k = 0; k < costs.length; k++) {
+            if (routes[k] == null) continue;
+            System.arraycopy(routes[k], 0, routeNodes, routeStarts[k], routes[k].length);
+            System.arraycopy(routeCosts[k], 0, segmentCosts, routeStarts[k] + 1, routeCosts[k].length);
+        }
+        this.buildNanos = System.nanoTime() - startTime;
+        checkRep();
+    }
+
+    /**
+     * @param name A name to look up.
+     * @return {@literal true} iff routes to and from {@code name} are in this table.
+     */
+    public boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * @param start The name of the place the route begins at.
+     * @param end   The name of the place the route ends at.
+     * @return The cost of the least-cost route between the places, or infinity if there is none.
+     * @throws IllegalArgumentException if either name is not in this table.
+     */
+    public double costOf(String start, String end) {
+        return costs[slot(start, end)];
+    }
+
+    /**
+     * @param start The name of the place the route begins at.
+     * @param end   The name of the place the route ends at.
+     * @return The least-cost {@link Path} between the places, or null if there is none. The returned path has the
+     * same cost as the one found by {@link DijkstraSearch#findPath}.
+     * @throws IllegalArgumentException if either name is not in this table.
+     */
+    public Path<N> findPath(String start, String end) {
+        return findPath(start, end, null);
+    }
+
+    /**
+     * @param start    The name of the place the route begins at.
+     * @param end      The name of the place the route ends at.
+     * @param recorder Recorder to record the lookup in, as a search that settled no nodes and pushed no entries, or
+     *                 null if the lookup is not to be recorded.
+     * @return The least-cost {@link Path} between the places, or null if there is none. The returned path has the
+     * same cost as the one found by {@link DijkstraSearch#findPath}.
+     * @throws IllegalArgumentException if either name is not in this table.
+     */
+    public Path<N> findPath(String start, String end, SearchMetrics.Recorder recorder) {
+        int k = slot(start, end);
+        if (recorder != null) recorder.record(0, 0);
+        if (routeStarts[k] == routeStarts[k + 1]) return null;
+        List<N> nodes = new ArrayList<>(routeStarts[k + 1] - routeStarts[k]);
+        for (int n = routeStarts[k]; n < routeStarts[k + 1]; n++) nodes.add(graph.nodeOf(routeNodes[n]));
+        return new Path<>(nodes, Arrays.copyOfRange(segmentCosts, routeStarts[k] + 1, routeStarts[k + 1]));
+    }
+
+    /**
+     * Writes every route in this table as comma-separated values, one route per line: the start name, the end name,
+     * the cost, then the x and y coordinates of each node along the route as given by {@code coordinates}. Pairs
+     * with no route are written with an infinite cost and no coordinates.
+     *
+     * @param out         The destination to write to.
+     * @param coordinates Converts a node to the text written for it.
+     * @throws IOException if {@code out} cannot be written to.
+     */
+    public void export(Writer out, NodeFormatter<N> coordinates) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            for (int j = 0; j < names.length; j++) {
+                int k = i * names.length + j;
+                out.write(names[i]);
+                out.write(',');
+                out.write(names[j]);
+                out.write(',');
+                out.write(Double.toString(costs[k]));
+                for (int n = routeStarts[k]; n < routeStarts[k + 1]; n++) {
+                    out.write(',');
+                    out.write(coordinates.format(graph.nodeOf(routeNodes[n])));
+                }
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * @return The number of bytes taken by the cost and route arrays of this table.
+     */
+    public long memoryBytes() {
+        return (long) (costs.length + segmentCosts.length) * Double.BYTES
+               + (long) (routeStarts.length + routeNodes.length) * Integer.BYTES;
+    }
+
+    /**
+     * @return The number of routes in this table, including routes from each place to itself.
+     */
+    public int routeCount() {
+        return costs.length;
+    }
+
+    /**
+     * @return The time spent building this table, in milliseconds.
+     */
+    public double getBuildMillis() {
+        return buildNanos / 1e6;
+    }
+
+    /**
+     * @return The position in {@code costs} of the route between two names.
+     */
+    private int slot(String start, String end) {
+        Integer i = index.get(start);
+        Integer j = index.get(end);
+        if (i == null || j == null) throw new IllegalArgumentException("Name is not in this route table");
+        return i * names.length + j;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && names != null && index != null;
+        assert costs.length == names.length * names.length;
+        assert routeStarts.length == costs.length + 1;
+        assert routeStarts[routeStarts.length - 1] == routeNodes.length;
+        assert segmentCosts.length == routeNodes.length;
+    }
+
+    /**
+     * Converts nodes to text when a table is exported.
+     *
+     * @param <N> Node type of the graph
+     */
+    public interface NodeFormatter<N> {
+
+        /**
+         * @param node A node along an exported route.
+         * @return The text written for the node, which must not contain newlines.
+         */
+        String format(N node);
+
+    }
+}
@@ -0,0 +1,50 @@
+package pathfinder;
+
+/**
+ * Represents the different search algorithms a {@link CampusMap} can use to answer
+ * {@link CampusMap#findShortestPath(String, String)} queries. Every engine returns a path with the
+ * same cost as {@link DijkstraSearch}; they differ only in how much of the map they explore.
+ */
+public enum SearchEngine {
+
+    /**
+     * Plain Dijkstra's algorithm, exploring outward from the start in all directions.
+     */
+    DIJKSTRA,
+
+    /**
+     * Dijkstra's algorithm over dense node IDs, keeping costs in primitive arrays reused between queries and building
+     * the path only once the destination is reached.
+     */
+    INDEXED_DIJKSTRA,
+
+    /**
+     * A* search, guided towards the destination by a straight-line distance lower bound.
+     */
+    A_STAR,
+
+    /**
+     * Bidirectional Dijkstra's algorithm, searching forward from the start and backward from the end until the two
+     * searches meet.
+     */
+    BIDIRECTIONAL,
+
+    /**
+     * A contraction hierarchy query, which searches upward from both ends through shortcuts added while the map is
+     * loaded. Loading takes longer, but queries explore only a handful of nodes.
+     */
+    CONTRACTION_HIERARCHY,
+
+    /**
+     * A* search guided by landmarks and the triangle inequality, using distance tables to and from a few landmark
+     * buildings computed while the map is loaded.
+     */
+    ALT,
+
+    /**
+     * Lookup in a table of the shortest path between every pair of buildings, computed in parallel while the map is
+     * loaded.
+     */
+    ROUTE_TABLE
+
+}
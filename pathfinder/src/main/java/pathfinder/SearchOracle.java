@@ -0,0 +1,272 @@
+package pathfinder;
+
+import graph.Graph;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.hierarchy.ContractionHierarchy;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.PathShard;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * SearchOracle checks search engines against {@link DijkstraSearch} on a fixed set of routes over one graph. The
+ * least costs of the routes are found once with {@link DijkstraSearch}; an engine agrees with it when, for every
+ * route, it finds a path exactly when one exists, and the path it finds starts and ends at the ends of the route,
+ * follows edges of the graph, and costs the same up to rounding. Run on a large synthetic map, it validates faster
+ * engines at a scale the campus cannot reach.
+ */
+public class SearchOracle {
+
+    // AF(this) =
+    //      the routes from routes.get(i)[0] to routes.get(i)[1] on graph, with least cost costs[i], or no path if
+    //      costs[i] is NaN
+    //
+    // Rep Invariant:
+    //      graph, routes, costs != null && routes.size() == costs.length &&
+    //      forall i, routes.get(i) holds two nodes of graph
+
+    // Costs differing by no more than this, relative to the larger, are the same up to rounding
+    private static final double TOLERANCE = 1e-9;
+
+    // Number of random routes checked by main unless another number is given
+    private static final int DEFAULT_ROUTES = 200;
+
+    private final Graph<Point, Double> graph;
+    private final List<Point[]> routes;
+    private final double[] costs;
+
+    /**
+     * Creates an oracle for the given routes over the given graph, finding the least cost of each with
+     * {@link DijkstraSearch}.
+     *
+     * @param graph  The graph to search.
+     * @param routes The routes to check, each the start and end of a path.
+     * @spec.requires graph, routes != null && every route holds two nodes of graph && all edge labels in graph are
+     * non-null and &ge; 0
+     */
+    public SearchOracle(Graph<Point, Double> graph, List<Point[]> routes) {
+        this.graph = graph;
+        this.routes = new ArrayList<>(routes);
+        this.costs = new double[routes.size()];
+        for (int i = 0; i < costs.length; i++) {
+            Path<Point> path = DijkstraSearch.findPath(graph, routes.get(i)[0], routes.get(i)[1]);
+            costs[i] = path == null ? Double.NaN : path.getCost();
+        }
+        checkRep();
+    }
+
+    /**
+     * Chooses routes between random pairs of different locations.
+     *
+     * @param locations The locations to choose from.
+     * @param count     The number of routes to choose.
+     * @param seed      The seed of the random choices, so the same seed chooses the same routes.
+     * @return The routes, each the start and end of a path.
+     * @spec.requires locations != null && locations holds at least two different points && count &ge; 0
+     */
+    public static List<Point[]> randomRoutes(List<Point> locations, int count, long seed) {
+        Random random = new Random(seed);
+        List<Point[]> routes = new ArrayList<>();
+        while (routes.size() < count) {
+            Point start = locations.get(random.nextInt(locations.size()));
+            Point end = locations.get(random.nextInt(locations.size()));
+            if (!start.equals(end)) routes.add(new Point[]{start, end});
+        }
+        return routes;
+    }
+
+    /**
+     * @return the number of routes this oracle checks
+     */
+    public int routeCount() {
+        return routes.size();
+    }
+
+    /**
+     * Runs an engine on every route and compares what it finds with {@link DijkstraSearch}.
+     *
+     * @param engine The engine to check.
+     * @return A description of each route the engine disagrees on, in order, or an empty list if it agrees on all.
+     * @spec.requires engine != null
+     */
+    public List<String> check(Engine engine) {
+        List<String> mismatches = new ArrayList<>();
+        for (int i = 0; i < routes.size(); i++) {
+            Point start = routes.get(i)[0];
+            Point end = routes.get(i)[1];
+            Path<Point> path = engine.findPath(start, end);
+            String problem = problemWith(path, start, end, costs[i]);
+            if (problem != null) mismatches.add(start + " to " + end + ": " + problem);
+        }
+        return mismatches;
+    }
+
+    /**
+     * Checks an engine as {@link #check(Engine)} does, and fails if it disagrees with {@link DijkstraSearch}.
+     *
+     * @param name   The name of the engine, for the failure message.
+     * @param engine The engine to check.
+     * @throws AssertionError if the engine disagrees with {@link DijkstraSearch} on any route
+     * @spec.requires name, engine != null
+     */
+    public void verify(String name, Engine engine) {
+        List<String> mismatches = check(engine);
+        if (!mismatches.isEmpty()) {
+            throw new AssertionError(name + " disagrees with DijkstraSearch on " + mismatches.size() + " of "
+                                     + routes.size() + " routes, first " + mismatches.get(0));
+        }
+    }
+
+    /**
+     * @return why the given path is not a least-cost path from start to end, or null if it is one
+     */
+    private String problemWith(Path<Point> path, Point start, Point end, double cost) {
+        if (path == null) return Double.isNaN(cost) ? null : "no path found, expected cost " + cost;
+        if (Double.isNaN(cost)) return "found a path costing " + path.getCost() + " where there is none";
+        if (!path.getStart().equals(start) || !path.getEnd().equals(end)) {
+            return "path runs from " + path.getStart() + " to " + path.getEnd();
+        }
+        double total = 0;
+        for (Path<Point>.Segment segment : path) {
+            List<Double> edges = graph.containsNode(segment.getStart())
+                                 ? graph.childrenOf(segment.getStart()).get(segment.getEnd()) : null;
+            if (edges == null || !edges.contains(segment.getCost())) {
+                return "segment " + segment + " is not an edge of the graph";
+            }
+            total += segment.getCost();
+        }
+        if (!sameCost(total, path.getCost())) return "segments cost " + total + " but path costs " + path.getCost();
+        if (!sameCost(cost, path.getCost())) return "path costs " + path.getCost() + ", expected " + cost;
+        return null;
+    }
+
+    private static boolean sameCost(double a, double b) {
+        return Math.abs(a - b) <= TOLERANCE * Math.max(1, Math.max(Math.abs(a), Math.abs(b)));
+    }
+
+    /**
+     * Builds every search engine over a graph and its buildings, in the configurations {@link CampusMap} uses, by
+     * name.
+     *
+     * @param graph     The graph to search, with at most one edge between each ordered pair of nodes.
+     * @param buildings The location of each building by short name, each a node of graph.
+     * @return An engine for each {@link SearchEngine} other than {@link SearchEngine#DIJKSTRA}, with each
+     * {@link QueueKind} for the engines that take one but the route table. A* search is left out if the straight-line
+     * heuristic can only be scaled to 0 for the graph.
+     * @spec.requires graph, buildings != null && all edge labels in graph are non-null and &ge; 0
+     */
+    public static Map<String, Engine> engines(Graph<Point, Double> graph, Map<String, Point> buildings) {
+        Map<String, Engine> engines = new LinkedHashMap<>();
+        IndexedGraph<Point> indexedGraph = new IndexedGraph<>(graph);
+        for (QueueKind queue : QueueKind.values()) {
+            engines.put(SearchEngine.INDEXED_DIJKSTRA + " (" + queue + ")",
+                        new IndexedDijkstra<>(indexedGraph, queue)::findPath);
+        }
+        double scale = AStarSearch.admissibleScale(graph);
+        if (scale > 0) {
+            engines.put(SearchEngine.A_STAR.toString(), (start, end) -> AStarSearch.findPath(graph, start, end, scale));
+        }
+        Graph<Point, Double> reverse = BidirectionalSearch.reverse(graph);
+        engines.put(SearchEngine.BIDIRECTIONAL.toString(),
+                    (start, end) -> BidirectionalSearch.findPath(graph, reverse, start, end));
+        List<Integer> candidates = new ArrayList<>();
+        for (Point location : buildings.values()) {
+            int id = indexedGraph.idOf(location);
+            if (!candidates.contains(id)) candidates.add(id);
+        }
+        int[] candidateIds = new int[candidates.size()];
+        for (int i = 0; i < candidateIds.length; i++) candidateIds[i] = candidates.get(i);
+        int[] landmarks = AltSearch.farthestLandmarks(indexedGraph, candidateIds, AltSearch.DEFAULT_LANDMARK_COUNT);
+        for (QueueKind queue : QueueKind.values()) {
+            engines.put(SearchEngine.CONTRACTION_HIERARCHY + " (" + queue + ")",
+                        new ContractionHierarchy<>(indexedGraph, queue)::findPath);
+            engines.put(SearchEngine.ALT + " (" + queue + ")",
+                        new AltSearch<>(indexedGraph, landmarks, queue)::findPath);
+        }
+        // The route table is looked up by building, so find a building at each end of a route
+        RouteTable<Point> routeTable = new RouteTable<>(indexedGraph, buildings);
+        Map<Point, String> names = new HashMap<>();
+        for (Map.Entry<String, Point> building : buildings.entrySet()) {
+            names.put(building.getValue(), building.getKey());
+        }
+        engines.put(SearchEngine.ROUTE_TABLE.toString(),
+                    (start, end) -> routeTable.findPath(names.get(start), names.get(end)));
+        return engines;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && routes != null && costs != null;
+        assert routes.size() == costs.length;
+    }
+
+    /**
+     * Loads a campus paths file and a campus buildings file from anywhere on the file system, such as those written
+     * by {@link pathfinder.parser.SyntheticMapGenerator}, and checks every search engine against
+     * {@link DijkstraSearch} on random routes between buildings. Prints the result for each engine.
+     *
+     * @param args The campus paths file and campus buildings file, and optionally the number of routes and the
+     *             random seed.
+     * @throws AssertionError if any engine disagrees with {@link DijkstraSearch}
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Arguments: pathsFile buildingsFile [routes] [seed]");
+            System.exit(1);
+        }
+        int routeCount = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ROUTES;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        long startTime = System.nanoTime();
+        PathShard pathsFile = PathShard.of(Paths.get(args[0]));
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        ShardedPathLoader.LoadedPaths loaded = ShardedPathLoader.load(pathsFile.split(pool.getParallelism()), pool);
+        Graph<Point, Double> graph = loaded.getGraph().toGraph();
+        System.out.println("Paths: " + loaded.getStats());
+        // Sorted by short name, so the same seed chooses the same routes
+        Map<String, Point> buildings = new TreeMap<>();
+        for (CampusBuilding building : CampusPathsParser.parseCampusBuildings(Paths.get(args[1]))) {
+            buildings.put(building.getShortName(), new Point(building.getX(), building.getY()));
+        }
+        List<Point> locations = new ArrayList<>(buildings.values());
+        SearchOracle oracle = new SearchOracle(graph, randomRoutes(locations, routeCount, seed));
+        System.out.printf("Loaded and found %d routes with DijkstraSearch in %.1f ms%n", oracle.routeCount(),
+                          (System.nanoTime() - startTime) / 1e6);
+        boolean agreed = true;
+        for (Map.Entry<String, Engine> engine : engines(graph, buildings).entrySet()) {
+            List<String> mismatches = oracle.check(engine.getValue());
+            System.out.println(engine.getKey() + ": " + (mismatches.isEmpty() ? "agrees"
+                               : mismatches.size() + " mismatches, first " + mismatches.get(0)));
+            agreed &= mismatches.isEmpty();
+        }
+        if (!agreed) throw new AssertionError("Some engines disagree with DijkstraSearch");
+    }
+
+    /**
+     * A search engine finding least-cost paths between points.
+     */
+    public interface Engine {
+
+        /**
+         * @param start The point the path starts at.
+         * @param end   The point the path ends at.
+         * @return a least-cost path from start to end, or null if there is none
+         */
+        Path<Point> findPath(Point start, Point end);
+
+    }
+}
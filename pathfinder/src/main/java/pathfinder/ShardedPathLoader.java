@@ -0,0 +1,269 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.StripedPointTable;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.ParserException;
+import pathfinder.parser.CampusPathsParser.PathShard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * ShardedPathLoader is a static class that loads campus paths split across several {@link PathShard}s into an
+ * {@link IndexedGraph}. The shards are parsed in parallel, each into its own list of edges between point IDs, with
+ * every point looked up in one shared {@link StripedPointTable} so that each distinct point is created once.
+ * <p>
+ * The lists are then merged into the compressed sparse row arrays of the graph in parallel as well, rather than
+ * added to a {@link graph.Graph} one at a time: the edges leaving each point are counted for each group of shards,
+ * which gives every group its own slots in every row of the arrays to fill, and the rows are then normalized as
+ * {@link EdgeNormalizer} does, a range of points at a time. Points are numbered in the order they first appear, and
+ * the edges leaving a point are kept in the order they appear, shard by shard in the order given, so the graph is
+ * exactly the one parsing the shards one after the other would give, whatever order the parsing finished in.
+ */
+public class ShardedPathLoader {
+
+    /**
+     * Loads every path in the given shards into a graph, parsing the shards and building the graph in parallel on
+     * the given pool. Only the least-cost path from each point to each other point is kept.
+     *
+     * @spec.requires shards, pool != null
+     * @param shards The shards to load, in order
+     * @param pool The pool to parse the shards and build the graph on
+     * @return The graph of the points at the ends of the paths in the shards, with the least-cost path from each
+     * point to each other point as an edge, and counts of the paths loaded and left out of it
+     * @throws ParserException if a shard cannot be found or parsed as expected
+     * @throws IllegalStateException if the calling thread is interrupted
+     */
+    public static LoadedPaths load(List<PathShard> shards, ForkJoinPool pool) {
+        StripedPointTable table = new StripedPointTable(4 * pool.getParallelism());
+        List<Callable<EdgeList>> tasks = new ArrayList<>();
+        for (PathShard shard : shards) {
+            tasks.add(() -> {
+                EdgeList edges = new EdgeList();
+                CampusPathsParser.parseCampusPaths(shard, (x1, y1, x2, y2, distance) ->
+                        edges.add(table.idOf(x1, y1), table.idOf(x2, y2), distance));
+                return edges;
+            });
+        }
+        List<EdgeList> parsed = invokeAll(pool, tasks);
+        // Number the points in the order they first appear, so the numbering does not depend on which shard reached
+        // the table first. This is the one pass over every path on the calling thread, and it only touches ints.
+        int[] denseIds = new int[table.idLimit()];
+        Arrays.fill(denseIds, -1);
+        int[] tableIds = new int[table.size()];
+        int nodeCount = 0;
+        for (EdgeList edges : parsed) {
+            for (int e = 0; e < edges.size; e++) {
+                if (denseIds[edges.from[e]] < 0) {
+                    denseIds[edges.from[e]] = nodeCount;
+                    tableIds[nodeCount++] = edges.from[e];
+                }
+                if (denseIds[edges.to[e]] < 0) {
+                    denseIds[edges.to[e]] = nodeCount;
+                    tableIds[nodeCount++] = edges.to[e];
+                }
+            }
+        }
+        final int size = nodeCount;
+        // Consecutive shards are grouped so that there are no more per-point counts than threads
+        int groups = Math.max(1, Math.min(parsed.size(), pool.getParallelism()));
+        int parts = Math.max(1, Math.min(size, pool.getParallelism()));
+        // Count the edges leaving each point in each group, renumbering their ends on the way
+        int[][] slots = new int[groups][];
+        inParallel(pool, groups, group -> {
+            int[] counts = new int[size];
+            for (int s = bound(group, groups, parsed.size()); s < bound(group + 1, groups, parsed.size()); s++) {
+                EdgeList edges = parsed.get(s);
+                for (int e = 0; e < edges.size; e++) {
+                    edges.from[e] = denseIds[edges.from[e]];
+                    edges.to[e] = denseIds[edges.to[e]];
+                    counts[edges.from[e]]++;
+                }
+            }
+            slots[group] = counts;
+        });
+        // Turn the counts into the position of each group's first edge within the row of each point
+        int[] offsets = new int[size + 1];
+        inParallel(pool, parts, part -> {
+            for (int id = bound(part, parts, size); id < bound(part + 1, parts, size); id++) {
+                int row = 0;
+                for (int[] counts : slots) {
+                    int count = counts[id];
+                    counts[id] = row;
+                    row += count;
+                }
+                offsets[id + 1] = row;
+            }
+        });
+        for (int id = 0; id < size; id++) offsets[id + 1] += offsets[id];
+        // Fill each group's slots in the rows, in the order its edges were parsed
+        int[] targets = new int[offsets[size]];
+        double[] weights = new double[offsets[size]];
+        inParallel(pool, groups, group -> {
+            int[] next = slots[group];
+            for (int s = bound(group, groups, parsed.size()); s < bound(group + 1, groups, parsed.size()); s++) {
+                EdgeList edges = parsed.get(s);
+                for (int e = 0; e < edges.size; e++) {
+                    int slot = offsets[edges.from[e]] + next[edges.from[e]]++;
+                    targets[slot] = edges.to[e];
+                    weights[slot] = edges.distances[e];
+                }
+            }
+        });
+        // Normalize each row in place, keeping the first edge to each other point with the least cost of any
+        int[] kept = new int[size];
+        EdgeNormalizer.Stats[] partStats = new EdgeNormalizer.Stats[parts];
+        inParallel(pool, parts, part -> partStats[part] =
+                EdgeNormalizer.normalizeRows(offsets, targets, weights, bound(part, parts, size),
+                                             bound(part + 1, parts, size), kept));
+        // Pack the kept edges of every row together, and look every point up once, numbering it as it is found
+        int[] keptOffsets = new int[size + 1];
+        for (int id = 0; id < size; id++) keptOffsets[id + 1] = keptOffsets[id] + kept[id];
+        int[] keptTargets = new int[keptOffsets[size]];
+        double[] keptWeights = new double[keptOffsets[size]];
+        Point[] points = new Point[size];
+        Map<Point, Integer> ids = new ConcurrentHashMap<>(size);
+        inParallel(pool, parts, part -> {
+            for (int id = bound(part, parts, size); id < bound(part + 1, parts, size); id++) {
+                System.arraycopy(targets, offsets[id], keptTargets, keptOffsets[id], kept[id]);
+                System.arraycopy(weights, offsets[id], keptWeights, keptOffsets[id], kept[id]);
+                points[id] = table.pointOf(tableIds[id]);
+                ids.put(points[id], id);
+            }
+        });
+        int duplicateCount = 0;
+        int selfLoopCount = 0;
+        for (EdgeNormalizer.Stats stats : partStats) {
+            duplicateCount += stats.getDuplicates();
+            selfLoopCount += stats.getSelfLoops();
+        }
+        return new LoadedPaths(IndexedGraph.fromRows(Arrays.asList(points), ids, keptOffsets, keptTargets,
+                                                     keptWeights),
+                               new EdgeNormalizer.Stats(offsets[size], duplicateCount, selfLoopCount));
+    }
+
+    /**
+     * @return The first of {@code count} items in the given part, when they are split into {@code parts} parts of
+     * as near equal size as possible
+     */
+    private static int bound(int part, int parts, int count) {
+        return (int) ((long) count * part / parts);
+    }
+
+    /**
+     * Runs a task for each of the numbers from 0 to {@code count - 1} on the given pool, and waits for them all.
+     */
+    private static void inParallel(ForkJoinPool pool, int count, IntConsumer task) {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+        invokeAll(pool, tasks);
+    }
+
+    /**
+     * Runs the given tasks on the given pool, and waits for them all.
+     *
+     * @return The result of each task, in order
+     * @throws ParserException if a task threw one
+     * @throws IllegalStateException if a task threw anything else, or the calling thread is interrupted
+     */
+    private static <T> List<T> invokeAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> result : pool.invokeAll(tasks)) results.add(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading paths", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ParserException) throw (ParserException) e.getCause();
+            throw new IllegalStateException("Could not load paths", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * The paths parsed from one shard, as the IDs of the points at their ends and their distances, in primitive
+     * arrays that grow as paths are added.
+     */
+    private static class EdgeList {
+        private int[] from = new int[1024];
+        private int[] to = new int[1024];
+        private double[] distances = new double[1024];
+        private int size;
+
+        private void add(int fromId, int toId, double distance) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, 2 * size);
+                to = Arrays.copyOf(to, 2 * size);
+                distances = Arrays.copyOf(distances, 2 * size);
+            }
+            from[size] = fromId;
+            to[size] = toId;
+            distances[size] = distance;
+            size++;
+        }
+    }
+
+    /**
+     * This represents the graph of the paths loaded from some shards, and the counts of the paths left out of it.
+     * LoadedPaths are immutable.
+     */
+    public static final class LoadedPaths {
+
+        // AF(this) =
+        //      the least-cost path from each point to each other point in the shards => graph
+        //      the paths in the shards, and those left out of graph => stats
+        //
+        // Rep Invariant:
+        //      graph, stats != null && graph.edgeCount() == stats.getKept()
+
+        private final IndexedGraph<Point> graph;
+        private final EdgeNormalizer.Stats stats;
+
+        private LoadedPaths(IndexedGraph<Point> graph, EdgeNormalizer.Stats stats) {
+            this.graph = graph;
+            this.stats = stats;
+            checkRep();
+        }
+
+        /**
+         * @return The graph of the points at the ends of the paths, with the least-cost path from each point to each
+         * other point as an edge.
+         */
+        public IndexedGraph<Point> getGraph() {
+            return graph;
+        }
+
+        /**
+         * @return Counts of the paths loaded, and of those left out of the graph because another path between the
+         * same points, in the same direction, cost no more, or because they led from a point to itself.
+         */
+        public EdgeNormalizer.Stats getStats() {
+            return stats;
+        }
+
+        /**
+         * Ensures that the representation invariant has not been violated. Returns normally if
+         * there is no violation.
+         */
+        private void checkRep() {
+            assert graph != null && stats != null;
+            assert graph.edgeCount() == stats.getKept();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package pathfinder;
+
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This represents an immutable tree of least-cost paths from one source node to every node of an {@link
+ * IndexedGraph}, found by running Dijkstra's algorithm to completion once. The cost of reaching any node is then
+ * available immediately, and the {@link Path} to it is rebuilt from parent pointers only when asked for.
+ * <p>
+ * A tree may instead be grown only until a given set of target nodes is reached, in which case only the costs and
+ * paths of the targets are guaranteed to be least.
+ *
+ * @param <N> Node type of the graph
+ */
+public class ShortestPathTree<N> {
+
+    // AF(this) =
+    //      the graph the tree spans => graph
+    //      the root of the tree => the node with ID source
+    //      the least cost from the source to the node with ID v => cost[v] (infinite if unreachable), for every
+    //          node if the tree was grown to completion and for every target otherwise
+    //      the node before the node with ID v on its least-cost path => the node with ID parent[v] (-1 for the
+    //          source and for unreachable nodes), reached through edge parentEdge[v] of that node
+
+    // Rep Invariant:
+    //      graph, cost, parent, parentEdge != null &&
+    //      cost.length == parent.length == parentEdge.length == graph.size() &&
+    //      cost[source] == 0 && parent[source] == -1
+
+    private final IndexedGraph<N> graph;
+    private final int source;
+    private final double[] cost;
+    private final int[] parent;
+    private final int[] parentEdge;
+
+    /**
+     * Finds the least-cost paths from a source node to every node of a graph.
+     *
+     * @param graph  The graph to search on.
+     * @param source The ID of the node the paths start at.
+     * @spec.requires graph != null && 0 &le; source &lt; graph.size()
+     */
+    public ShortestPathTree(IndexedGraph<N> graph, int source) {
+        this(graph, source, null);
+    }
+
+    /**
+     * Finds the least-cost paths from a source node to each of the given target nodes, stopping as soon as all of
+     * them have been reached. Costs and paths to other nodes may be missing or not least.
+     *
+     * @param graph   The graph to search on.
+     * @param source  The ID of the node the paths start at.
+     * @param targets The IDs of the nodes the paths end at, or null to find paths to every node.
+     * @spec.requires graph != null && 0 &le; source &lt; graph.size() && every ID in targets is a node of graph
+     */
+    public ShortestPathTree(IndexedGraph<N> graph, int source, int[] targets) {
+        this(graph, source, targets, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Finds the least-cost paths from a source node to each of the given target nodes, stopping as soon as all of
+     * them have been reached, using the given kind of priority queue. Costs and paths to other nodes may be missing
+     * or not least.
+     *
+     * @param graph   The graph to search on.
+     * @param source  The ID of the node the paths start at.
+     * @param targets The IDs of the nodes the paths end at, or null to find paths to every node.
+     * @param queue   The kind of priority queue to use.
+     * @spec.requires graph, queue != null && 0 &le; source &lt; graph.size() && every ID in targets is a node of
+     * graph
+     */
+    public ShortestPathTree(IndexedGraph<N> graph, int source, int[] targets, QueueKind queue) {
+        this.graph = graph;
+        this.source = source;
+        int n = graph.size();
+        this.cost = new double[n];
+        this.parent = new int[n];
+        this.parentEdge = new int[n];
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        cost[source] = 0;
+        // Targets not yet settled, or -1 when every node is a target
+        boolean[] isTarget = new boolean[targets == null ? 0 : n];
+        int remaining = -1;
+        if (targets != null) {
+            remaining = 0;
+            for (int target : targets) {
+                if (!isTarget[target]) remaining++;
+                isTarget[target] = true;
+            }
+        }
+        IndexedPriorityQueue active = queue.create(n);
+        active.offer(source, 0);
+        while (!active.isEmpty() && remaining != 0) {
+            int node = active.poll();
+            double nodeCost = cost[node];
+            if (remaining > 0 && isTarget[node]) {
+                isTarget[node] = false;
+                remaining--;
+            }
+            for (int i = 0; i < graph.degree(node); i++) {
+                int child = graph.target(node, i);
+                double childCost = nodeCost + graph.weight(node, i);
+                if (childCost < cost[child]) {
+                    cost[child] = childCost;
+                    parent[child] = node;
+                    parentEdge[child] = i;
+                    active.offer(child, childCost);
+                }
+            }
+        }
+        checkRep();
+    }
+
+    /**
+     * @return The ID of the node every path in this tree starts at.
+     */
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The least cost of a path from the source to that node, or infinity if there is no path.
+     */
+    public double costTo(int id) {
+        return cost[id];
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The IDs of the nodes on the least-cost path from the source to that node, in order and including
+     * both ends, or null if there is no path.
+     */
+    public int[] routeTo(int id) {
+        if (Double.isInfinite(cost[id])) return null;
+        int length = 1;
+        for (int node = id; node != source; node = parent[node]) length++;
+        int[] route = new int[length];
+        for (int node = id, i = length - 1; i >= 0; node = parent[node], i--) route[i] = node;
+        return route;
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The cost of each edge on the least-cost path from the source to that node, in order, so that element
+     * {@code i} is the cost of the edge from element {@code i} to element {@code i + 1} of {@link #routeTo(int)}, or
+     * null if there is no path.
+     */
+    public double[] segmentCostsTo(int id) {
+        if (Double.isInfinite(cost[id])) return null;
+        int length = 0;
+        for (int node = id; node != source; node = parent[node]) length++;
+        double[] segmentCosts = new double[length];
+        for (int node = id, i = length - 1; i >= 0; node = parent[node], i--) {
+            segmentCosts[i] = graph.weight(parent[node], parentEdge[node]);
+        }
+        return segmentCosts;
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The least-cost {@link Path} from the source to that node, or null if there is no path. The returned
+     * path has the same cost as the one found by {@link DijkstraSearch#findPath}.
+     */
+    public Path<N> pathTo(int id) {
+        int[] route = routeTo(id);
+        if (route == null) return null;
+        List<N> nodes = new ArrayList<>(route.length);
+        for (int node : route) nodes.add(graph.nodeOf(node));
+        return new Path<>(nodes, segmentCostsTo(id));
+    }
+
+    /**
+     * Returns the least-cost path from a node to the source, for a tree built over the reverse of a graph (see {@link
+     * IndexedGraph#reverse()}). Every edge of this tree is followed back in its original direction, so the returned
+     * path is a path in the original graph.
+     *
+     * @param id The ID of a node.
+     * @return The least-cost {@link Path} from that node to the source in the original graph, or null if there is
+     * no path.
+     */
+    public Path<N> pathFrom(int id) {
+        if (Double.isInfinite(cost[id])) return null;
+        int length = 0;
+        for (int node = id; node != source; node = parent[node]) length++;
+        List<N> nodes = new ArrayList<>(length + 1);
+        double[] segmentCosts = new double[length];
+        nodes.add(graph.nodeOf(id));
+        for (int node = id, i = 0; node != source; node = parent[node], i++) {
+            nodes.add(graph.nodeOf(parent[node]));
+            segmentCosts[i] = graph.weight(parent[node], parentEdge[node]);
+        }
+        return new Path<>(nodes, segmentCosts);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && cost != null && parent != null && parentEdge != null;
+        assert cost.length == graph.size() && parent.length == graph.size() && parentEdge.length == graph.size();
+        assert cost[source] == 0 && parent[source] == -1;
+    }
+}
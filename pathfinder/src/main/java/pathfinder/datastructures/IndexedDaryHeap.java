@@ -0,0 +1,176 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable {@link IndexedPriorityQueue} kept as a d-ary heap in primitive arrays, in which every
+ * entry has up to d children. A wider heap is shallower, so adding an ID or lowering its key moves it through fewer
+ * levels, at the cost of comparing more children per level when the smallest is removed. Adding, lowering and
+ * removing IDs allocate nothing.
+ */
+public class IndexedDaryHeap implements IndexedPriorityQueue {
+
+    // AF(this) =
+    //      the IDs in the queue => heap[0] up to heap[size - 1]
+    //      the key of ID i, if it is in the queue => keys[i]
+
+    // Rep Invariant:
+    //      heap, keys, positions != null && keys.length == positions.length == heap.length &&
+    //      arity >= 2 && 0 <= size <= heap.length &&
+    //      forall 0 <= j < size, positions[heap[j]] == j &&
+    //      positions[i] == -1 for every ID i not in the queue &&
+    //      forall 0 < j < size, keys[heap[(j - 1) / arity]] <= keys[heap[j]]
+
+    private final int arity;
+    private final int[] heap;
+    private final double[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty queue for the IDs from 0 to {@code capacity - 1}.
+     *
+     * @param capacity One more than the largest ID the queue can hold.
+     * @param arity    The most children of each entry in the heap.
+     * @spec.requires capacity &ge; 0 && arity &ge; 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+        checkRep();
+    }
+
+    @Override
+    public int capacity() {
+        return positions.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    @Override
+    public boolean offer(int id, double key) {
+        int position = positions[id];
+        if(position < 0) {
+            position = size++;
+        } else if(key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(position, id);
+        return true;
+    }
+
+    @Override
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        return keys[heap[0]];
+    }
+
+    @Override
+    public double keyOf(int id) {
+        return keys[id];
+    }
+
+    @Override
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if(size > 0) {
+            siftDown(0, heap[size]);
+        }
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        for(int j = 0; j < size; j++) {
+            positions[heap[j]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves an ID up from a position in the heap until its parent's key is no larger than its own.
+     */
+    private void siftUp(int position, int id) {
+        double key = keys[id];
+        while(position > 0) {
+            int parent = (position - 1) / arity;
+            int parentId = heap[parent];
+            if(keys[parentId] <= key) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Moves an ID down from a position in the heap until none of its children's keys is smaller than its own.
+     */
+    private void siftDown(int position, int id) {
+        double key = keys[id];
+        while(true) {
+            int first = arity * position + 1;
+            if(first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int child = first;
+            double childKey = keys[heap[first]];
+            for(int c = first + 1; c < last; c++) {
+                double k = keys[heap[c]];
+                if(k < childKey) {
+                    child = c;
+                    childKey = k;
+                }
+            }
+            if(key <= childKey) {
+                break;
+            }
+            int childId = heap[child];
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert heap != null && keys != null && positions != null && arity >= 2;
+        assert keys.length == positions.length && heap.length == positions.length;
+        assert size >= 0 && size <= heap.length;
+    }
+}
@@ -0,0 +1,510 @@
+package pathfinder.datastructures;
+
+import graph.Graph;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This represents an immutable snapshot of a {@link Graph} with {@code Double} edge labels, in which every node is
+ * assigned a dense integer ID between 0 and {@code size() - 1}. Search algorithms that need per-node tables can
+ * index plain arrays by these IDs instead of keeping maps of nodes.
+ * <p>
+ * Edges are stored in compressed sparse row form: the edges leaving each node are consecutive in flat buffers of
+ * targets and costs, found from the node's offset into them, so following an edge never chases a pointer or unboxes
+ * a cost. Each edge also has a dense ID between 0 and {@code edgeCount() - 1}. When every node is a {@link Point},
+ * the coordinates of the nodes are kept in flat buffers as well.
+ * <p>
+ * The buffers usually wrap arrays, but a graph of {@link Point}s can also be a view over buffers it does not own,
+ * such as those of a memory-mapped file (see {@link #mapped}). Such a graph keeps no object per node: its nodes are
+ * created from their coordinates when asked for, and their IDs are looked up in a hash table held in a buffer too.
+ * <p>
+ * Only the least-cost edge between each ordered pair of nodes is kept, since no other parallel edge can be part of
+ * a least-cost path.
+ *
+ * @param <N> Node type of the graph
+ */
+public class IndexedGraph<N> {
+
+    // AF(this) =
+    //      the node with ID i => nodes.get(i), or the Point (xs.get(i), ys.get(i)) if nodes == null
+    //      the ID of node n => ids.get(n), or if ids == null, i such that table.get(s) == i + 1 for the first slot s
+    //          probed from the hash of n whose entry is 0 or has the coordinates of n
+    //      the j-th edge leaving the node with ID i => the edge with ID offsets.get(i) + j, for j <
+    //          offsets.get(i + 1) - offsets.get(i)
+    //      the edge with ID e => an edge to the node with ID targets.get(e) with cost weights.get(e)
+    //      the coordinates of the node with ID i => (xs.get(i), ys.get(i)), if xs != null
+
+    // Rep Invariant:
+    //      offsets, targets, weights != null && offsets.limit() >= 1 &&
+    //      (nodes == null) == (ids == null) && (nodes == null) != (table == null) &&
+    //      (nodes == null || nodes.size() == ids.size() == size()) && (table == null || xs != null) &&
+    //      forall i, ids.get(nodes.get(i)) == i &&
+    //      table.limit() is a power of two > size() && table holds i + 1 for every i once, and 0 elsewhere &&
+    //      offsets.get(0) == 0 && offsets is non-decreasing &&
+    //      offsets.get(size()) == targets.limit() == weights.limit() &&
+    //      forall e, 0 <= targets.get(e) < size() && weights.get(e) >= 0 &&
+    //      forall i, the targets of the edges leaving i contain no duplicates &&
+    //      (xs == null) == (ys == null) && (xs == null || xs.limit() == ys.limit() == size())
+    //      where size() == offsets.limit() - 1
+
+    /**
+     * The nodes of this graph, indexed by ID, or null if they are created from their coordinates.
+     */
+    private final List<N> nodes;
+
+    /**
+     * The ID of each node of this graph, or null if they are looked up in {@link #table}.
+     */
+    private final Map<N, Integer> ids;
+
+    /**
+     * An open-addressing hash table of the IDs of the nodes, each stored plus one so that 0 marks an empty slot, or
+     * null if they are looked up in {@link #ids}.
+     */
+    private final IntBuffer table;
+
+    /**
+     * The ID of the first edge leaving each node, indexed by the ID of the node, followed by the number of edges.
+     */
+    private final IntBuffer offsets;
+
+    /**
+     * The ID of the node each edge leads to, indexed by the ID of the edge.
+     */
+    private final IntBuffer targets;
+
+    /**
+     * The cost of each edge, indexed by the ID of the edge.
+     */
+    private final DoubleBuffer weights;
+
+    /**
+     * The x and y coordinates of each node, indexed by ID, or null if the nodes are not all {@link Point}s.
+     */
+    private final DoubleBuffer xs;
+    private final DoubleBuffer ys;
+
+    /**
+     * Creates a new indexed snapshot of the given graph. Later changes to {@code graph} are not reflected in the
+     * snapshot.
+     *
+     * @param graph The graph to take a snapshot of.
+     * @spec.requires graph != null && all edge labels in graph are non-null and &ge; 0
+     */
+    public IndexedGraph(Graph<N, Double> graph) {
+        this.nodes = new ArrayList<>();
+        this.ids = new HashMap<>();
+        this.table = null;
+        Iterator<N> iterator = graph.nodeIterator();
+        while(iterator.hasNext()) {
+            N node = iterator.next();
+            ids.put(node, nodes.size());
+            nodes.add(node);
+        }
+        int[] offsets = new int[nodes.size() + 1];
+        List<Map<N, List<Double>>> children = new ArrayList<>(nodes.size());
+        for(int id = 0; id < nodes.size(); id++) {
+            Map<N, List<Double>> childrenMap = graph.childrenOf(nodes.get(id));
+            children.add(childrenMap);
+            offsets[id + 1] = offsets[id] + childrenMap.size();
+        }
+        int[] targets = new int[offsets[nodes.size()]];
+        double[] weights = new double[offsets[nodes.size()]];
+        for(int id = 0; id < nodes.size(); id++) {
+            int e = offsets[id];
+            for(Map.Entry<N, List<Double>> child : children.get(id).entrySet()) {
+                double cost = Double.POSITIVE_INFINITY;
+                for(double edgeCost : child.getValue()) {
+                    cost = Math.min(cost, edgeCost);
+                }
+                targets[e] = ids.get(child.getKey());
+                weights[e] = cost;
+                e++;
+            }
+        }
+        this.offsets = IntBuffer.wrap(offsets);
+        this.targets = IntBuffer.wrap(targets);
+        this.weights = DoubleBuffer.wrap(weights);
+        this.xs = coordinatesOf(nodes, true);
+        this.ys = coordinatesOf(nodes, false);
+        checkRep();
+    }
+
+    /**
+     * Creates a new indexed graph from the edges leaving each of its nodes, in compressed sparse row form. The
+     * arrays become part of the graph rather than being copied, so they must not be changed afterwards.
+     *
+     * @param nodes   The nodes of the graph, indexed by ID.
+     * @param offsets The ID of the first edge leaving each node, indexed by the ID of the node, followed by the
+     *                number of edges.
+     * @param targets The ID of the node each edge leads to, indexed by the ID of the edge.
+     * @param weights The cost of each edge, indexed by the ID of the edge.
+     * @param <N>     Node type of the graph
+     * @return The graph with the given nodes and edges.
+     * @spec.requires nodes, offsets, targets, weights != null && no two nodes are equal &&
+     * offsets.length == nodes.size() + 1 && offsets[0] == 0 && offsets is non-decreasing &&
+     * offsets[nodes.size()] == targets.length == weights.length && every target is between 0 and
+     * {@code nodes.size() - 1} && every weight is &ge; 0 && no two edges leaving a node lead to the same node
+     */
+    public static <N> IndexedGraph<N> fromRows(List<N> nodes, int[] offsets, int[] targets, double[] weights) {
+        Map<N, Integer> ids = new HashMap<>(2 * nodes.size());
+        for(int id = 0; id < nodes.size(); id++) {
+            ids.put(nodes.get(id), id);
+        }
+        return fromRows(nodes, ids, offsets, targets, weights);
+    }
+
+    /**
+     * Creates a new indexed graph from the edges leaving each of its nodes, in compressed sparse row form, and the
+     * ID of each node, such as a map filled by many threads at once. The map and arrays become part of the graph
+     * rather than being copied, so they must not be changed afterwards.
+     *
+     * @param nodes   The nodes of the graph, indexed by ID.
+     * @param ids     The ID of each node of the graph.
+     * @param offsets The ID of the first edge leaving each node, indexed by the ID of the node, followed by the
+     *                number of edges.
+     * @param targets The ID of the node each edge leads to, indexed by the ID of the edge.
+     * @param weights The cost of each edge, indexed by the ID of the edge.
+     * @param <N>     Node type of the graph
+     * @return The graph with the given nodes and edges.
+     * @spec.requires as for {@link #fromRows(List, int[], int[], double[])}, and ids != null &&
+     * ids.size() == nodes.size() && forall i, ids.get(nodes.get(i)) == i
+     */
+    public static <N> IndexedGraph<N> fromRows(List<N> nodes, Map<N, Integer> ids, int[] offsets, int[] targets,
+                                               double[] weights) {
+        return new IndexedGraph<>(nodes, ids, null, IntBuffer.wrap(offsets), IntBuffer.wrap(targets),
+                                  DoubleBuffer.wrap(weights), coordinatesOf(nodes, true), coordinatesOf(nodes, false));
+    }
+
+    /**
+     * Creates a new indexed graph of {@link Point}s that is a view over buffers holding its coordinates and edges, in
+     * compressed sparse row form, and a hash table of the IDs of its nodes, such as the views of a memory-mapped
+     * file. The buffers are read from index 0 up to their limits, and become part of the graph rather than being
+     * copied, so they must not be changed afterwards. Each call to {@link #nodeOf(int)} creates a new Point.
+     *
+     * @param xs      The x coordinate of each node, indexed by ID.
+     * @param ys      The y coordinate of each node, indexed by ID.
+     * @param offsets The ID of the first edge leaving each node, indexed by the ID of the node, followed by the
+     *                number of edges.
+     * @param targets The ID of the node each edge leads to, indexed by the ID of the edge.
+     * @param weights The cost of each edge, indexed by the ID of the edge.
+     * @param table   The hash table of the IDs of the nodes, as built by {@link #pointTable(double[], double[])} from
+     *                the same coordinates.
+     * @return The graph with the given nodes and edges.
+     * @spec.requires xs, ys, offsets, targets, weights, table != null && no two nodes have the same coordinates &&
+     * xs.limit() == ys.limit() == offsets.limit() - 1 && the edges are as for
+     * {@link #fromRows(List, int[], int[], double[])}
+     */
+    public static IndexedGraph<Point> mapped(DoubleBuffer xs, DoubleBuffer ys, IntBuffer offsets, IntBuffer targets,
+                                             DoubleBuffer weights, IntBuffer table) {
+        return new IndexedGraph<>(null, null, table, offsets, targets, weights, xs, ys);
+    }
+
+    /**
+     * Builds the hash table of the IDs of the points with the given coordinates that {@link #mapped} looks them up
+     * in, so that it can be stored along with them.
+     *
+     * @param xs The x coordinate of each point, indexed by ID.
+     * @param ys The y coordinate of each point, indexed by ID.
+     * @return The hash table, whose length is a power of two at least twice the number of points.
+     * @spec.requires xs, ys != null && xs.length == ys.length && every coordinate is finite && no two points have
+     * the same coordinates
+     */
+    public static int[] pointTable(double[] xs, double[] ys) {
+        int[] table = new int[Integer.highestOneBit(Math.max(1, 2 * xs.length - 1)) << 1];
+        int mask = table.length - 1;
+        for(int id = 0; id < xs.length; id++) {
+            int slot = spread(new Point(xs[id], ys[id]).hashCode()) & mask;
+            while(table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+        return table;
+    }
+
+    /**
+     * @return The given hash code with its high bits folded into its low bits, which pick the slot.
+     */
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Creates a new indexed graph directly from its representation.
+     */
+    private IndexedGraph(List<N> nodes, Map<N, Integer> ids, IntBuffer table, IntBuffer offsets, IntBuffer targets,
+                         DoubleBuffer weights, DoubleBuffer xs, DoubleBuffer ys) {
+        this.nodes = nodes;
+        this.ids = ids;
+        this.table = table;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+        checkRep();
+    }
+
+    /**
+     * @return The number of nodes in this graph.
+     */
+    public int size() {
+        return offsets.limit() - 1;
+    }
+
+    /**
+     * @param node The node to look up.
+     * @return The ID of {@code node}, or -1 if it is not in this graph.
+     */
+    public int idOf(N node) {
+        if(ids == null) {
+            return node instanceof Point ? lookUp((Point) node) : -1;
+        }
+        Integer id = ids.get(node);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return The ID of the node at the coordinates of {@code point}, found in table, or -1 if there is none.
+     */
+    private int lookUp(Point point) {
+        int mask = table.limit() - 1;
+        for(int slot = spread(point.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table.get(slot);
+            if(entry == 0) {
+                return -1;
+            }
+            if(Double.compare(xs.get(entry - 1), point.getX()) == 0
+               && Double.compare(ys.get(entry - 1), point.getY()) == 0) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The node with the given ID.
+     * @throws IndexOutOfBoundsException if {@code id} is not between 0 and {@code size() - 1}.
+     */
+    @SuppressWarnings("unchecked")
+    public N nodeOf(int id) {
+        if(nodes == null) {
+            // Only graphs of Points are views without a list of nodes
+            return (N) new Point(xs.get(id), ys.get(id));
+        }
+        return nodes.get(id);
+    }
+
+    /**
+     * @return The number of edges in this graph.
+     */
+    public int edgeCount() {
+        return targets.limit();
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The number of edges leaving the node with the given ID.
+     */
+    public int degree(int id) {
+        return offsets.get(id + 1) - offsets.get(id);
+    }
+
+    /**
+     * @param id    The ID of a node.
+     * @param index The position of an edge leaving that node, between 0 and {@code degree(id) - 1}.
+     * @return The ID of the edge, between 0 and {@code edgeCount() - 1}. The edges leaving a node have consecutive
+     * IDs.
+     */
+    public int edgeId(int id, int index) {
+        return offsets.get(id) + index;
+    }
+
+    /**
+     * @param id    The ID of a node.
+     * @param index The position of an edge leaving that node, between 0 and {@code degree(id) - 1}.
+     * @return The ID of the node the edge leads to.
+     */
+    public int target(int id, int index) {
+        return targets.get(offsets.get(id) + index);
+    }
+
+    /**
+     * @param id    The ID of a node.
+     * @param index The position of an edge leaving that node, between 0 and {@code degree(id) - 1}.
+     * @return The cost of the edge.
+     */
+    public double weight(int id, int index) {
+        return weights.get(offsets.get(id) + index);
+    }
+
+    /**
+     * @param id     The ID of a node.
+     * @param target The ID of another node.
+     * @return The position of the edge from the node with ID {@code id} to the node with ID {@code target} among
+     * the edges leaving {@code id}, or -1 if there is no such edge.
+     */
+    public int edgeTo(int id, int target) {
+        int first = offsets.get(id);
+        int end = offsets.get(id + 1);
+        for(int e = first; e < end; e++) {
+            if(targets.get(e) == target) {
+                return e - first;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Whether every node of this graph is a {@link Point}, so that {@link #x(int)} and {@link #y(int)}
+     * give its coordinates.
+     */
+    public boolean hasCoordinates() {
+        return xs != null;
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The x coordinate of the node with the given ID.
+     * @throws IllegalStateException if the nodes of this graph are not all {@link Point}s.
+     */
+    public double x(int id) {
+        if(xs == null) {
+            throw new IllegalStateException("Nodes have no coordinates.");
+        }
+        return xs.get(id);
+    }
+
+    /**
+     * @param id The ID of a node.
+     * @return The y coordinate of the node with the given ID.
+     * @throws IllegalStateException if the nodes of this graph are not all {@link Point}s.
+     */
+    public double y(int id) {
+        if(ys == null) {
+            throw new IllegalStateException("Nodes have no coordinates.");
+        }
+        return ys.get(id);
+    }
+
+    /**
+     * @return A new indexed graph with the same nodes and IDs as this one, in which every edge is reversed. The
+     * children of a node in the returned graph are its parents in this graph.
+     */
+    public IndexedGraph<N> reverse() {
+        int[] reverseOffsets = new int[size() + 1];
+        for(int e = 0; e < edgeCount(); e++) {
+            reverseOffsets[targets.get(e) + 1]++;
+        }
+        for(int id = 0; id < size(); id++) {
+            reverseOffsets[id + 1] += reverseOffsets[id];
+        }
+        int[] reverseTargets = new int[edgeCount()];
+        double[] reverseWeights = new double[edgeCount()];
+        int[] filled = new int[size()];
+        for(int id = 0; id < size(); id++) {
+            for(int e = offsets.get(id); e < offsets.get(id + 1); e++) {
+                int child = targets.get(e);
+                int r = reverseOffsets[child] + filled[child]++;
+                reverseTargets[r] = id;
+                reverseWeights[r] = weights.get(e);
+            }
+        }
+        return new IndexedGraph<>(nodes, ids, table, IntBuffer.wrap(reverseOffsets), IntBuffer.wrap(reverseTargets),
+                                  DoubleBuffer.wrap(reverseWeights), xs, ys);
+    }
+
+    /**
+     * @return A new {@link Graph} with the nodes of this graph and an edge labeled with its cost for every edge of
+     * this graph. Later changes to the returned graph are not reflected in this one.
+     */
+    public Graph<N, Double> toGraph() {
+        Graph<N, Double> graph = new Graph<>();
+        // Create each node once, for graphs whose nodes are created when asked for
+        List<N> all = new ArrayList<>(size());
+        for(int id = 0; id < size(); id++) {
+            all.add(nodeOf(id));
+            graph.addNode(all.get(id));
+        }
+        for(int id = 0; id < size(); id++) {
+            for(int e = offsets.get(id); e < offsets.get(id + 1); e++) {
+                graph.addEdge(all.get(id), all.get(targets.get(e)), weights.get(e));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Computes a fingerprint of the edges of this graph, as the sum of a hash of the coordinates of the ends and the
+     * cost of each edge, so that it does not depend on the IDs given to the nodes or the order of the edges.
+     *
+     * @return The fingerprint.
+     * @throws IllegalStateException if the nodes of this graph are not all {@link Point}s.
+     */
+    public long fingerprint() {
+        if(xs == null) {
+            throw new IllegalStateException("Nodes have no coordinates.");
+        }
+        long sum = 0;
+        for(int id = 0; id < size(); id++) {
+            long start = mix(mix(0, Double.doubleToLongBits(xs.get(id))), Double.doubleToLongBits(ys.get(id)));
+            for(int e = offsets.get(id); e < offsets.get(id + 1); e++) {
+                int child = targets.get(e);
+                long end = mix(mix(start, Double.doubleToLongBits(xs.get(child))),
+                               Double.doubleToLongBits(ys.get(child)));
+                sum += mix(end, Double.doubleToLongBits(weights.get(e)));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return A hash of the given hash and value, scrambling their bits as SplitMix64 does.
+     */
+    private static long mix(long hash, long value) {
+        long z = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return The x or y coordinate of each of the given nodes, in order, or null if they are not all
+     * {@link Point}s.
+     */
+    private static DoubleBuffer coordinatesOf(List<?> nodes, boolean x) {
+        double[] coordinates = new double[nodes.size()];
+        for(int id = 0; id < nodes.size(); id++) {
+            if(!(nodes.get(id) instanceof Point)) {
+                return null;
+            }
+            Point point = (Point) nodes.get(id);
+            coordinates[id] = x ? point.getX() : point.getY();
+        }
+        return DoubleBuffer.wrap(coordinates);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert offsets != null && targets != null && weights != null && offsets.limit() >= 1;
+        assert (nodes == null) == (ids == null) && (nodes == null) != (table == null);
+        assert nodes == null || (nodes.size() == ids.size() && nodes.size() == size());
+        assert table == null || (xs != null && Integer.bitCount(table.limit()) == 1 && table.limit() > size());
+        assert offsets.get(0) == 0 && offsets.get(size()) == targets.limit() && targets.limit() == weights.limit();
+        for(int id = 0; id < size(); id++) {
+            assert offsets.get(id) <= offsets.get(id + 1);
+        }
+        assert (xs == null) == (ys == null);
+        assert xs == null || (xs.limit() == size() && ys.limit() == size());
+    }
+}
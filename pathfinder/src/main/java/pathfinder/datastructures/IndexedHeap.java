@@ -0,0 +1,202 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable priority queue of integer IDs between 0 and {@code capacity() - 1}, each with a
+ * {@code double} key, that removes the ID with the smallest key first. Each ID is in the queue at most once, and its
+ * key can be lowered in place, so a least-cost search never needs to leave stale entries behind.
+ * <p>
+ * The queue is a binary heap kept in primitive arrays, so adding, lowering and removing IDs allocate nothing.
+ */
+public class IndexedHeap implements IndexedPriorityQueue {
+
+    // AF(this) =
+    //      the IDs in the queue => heap[0] up to heap[size - 1]
+    //      the key of ID i, if it is in the queue => keys[i]
+
+    // Rep Invariant:
+    //      heap, keys, positions != null && keys.length == positions.length &&
+    //      0 <= size <= heap.length == positions.length &&
+    //      forall 0 <= j < size, positions[heap[j]] == j &&
+    //      positions[i] == -1 for every ID i not in the queue &&
+    //      forall 0 < j < size, keys[heap[(j - 1) / 2]] <= keys[heap[j]]
+
+    private final int[] heap;
+    private final double[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty queue for the IDs from 0 to {@code capacity - 1}.
+     *
+     * @param capacity One more than the largest ID the queue can hold.
+     * @spec.requires capacity &ge; 0
+     */
+    public IndexedHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * @return One more than the largest ID this queue can hold.
+     */
+    public int capacity() {
+        return positions.length;
+    }
+
+    /**
+     * @return The number of IDs in this queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Whether this queue holds no IDs.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param id An ID between 0 and {@code capacity() - 1}.
+     * @return Whether {@code id} is in this queue.
+     */
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Adds an ID with a key, or lowers its key if it is already in this queue with a larger one.
+     *
+     * @param id  An ID between 0 and {@code capacity() - 1}.
+     * @param key The key of the ID.
+     * @return Whether the ID was added or its key lowered.
+     * @spec.requires key is not NaN
+     * @spec.modifies this
+     */
+    public boolean offer(int id, double key) {
+        int position = positions[id];
+        if(position < 0) {
+            position = size++;
+        } else if(key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(position, id);
+        return true;
+    }
+
+    /**
+     * @return The smallest key of any ID in this queue.
+     * @throws NoSuchElementException if this queue is empty.
+     */
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * @param id An ID in this queue, or that was last removed from it.
+     * @return The key of the ID when it was last in this queue.
+     */
+    public double keyOf(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Removes the ID with the smallest key from this queue. Its key stays available from {@link #keyOf(int)}.
+     *
+     * @return The removed ID.
+     * @throws NoSuchElementException if this queue is empty.
+     * @spec.modifies this
+     */
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        size--;
+        if(size > 0) {
+            siftDown(0, heap[size]);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every ID from this queue, taking time proportional to the number of IDs in it rather than to its
+     * capacity.
+     *
+     * @spec.modifies this
+     * @spec.effects this queue is empty
+     */
+    public void clear() {
+        for(int j = 0; j < size; j++) {
+            positions[heap[j]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves an ID up from a position in the heap until its parent's key is no larger than its own.
+     */
+    private void siftUp(int position, int id) {
+        double key = keys[id];
+        while(position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if(keys[parentId] <= key) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Moves an ID down from a position in the heap until neither child's key is smaller than its own.
+     */
+    private void siftDown(int position, int id) {
+        double key = keys[id];
+        while(true) {
+            int child = 2 * position + 1;
+            if(child >= size) {
+                break;
+            }
+            if(child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int childId = heap[child];
+            if(key <= keys[childId]) {
+                break;
+            }
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert heap != null && keys != null && positions != null;
+        assert keys.length == positions.length && heap.length == positions.length;
+        assert size >= 0 && size <= heap.length;
+    }
+}
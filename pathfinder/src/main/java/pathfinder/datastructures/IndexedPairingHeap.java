@@ -0,0 +1,215 @@
+package pathfinder.datastructures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable {@link IndexedPriorityQueue} kept as a pairing heap: a tree in which every ID's key is
+ * no smaller than its parent's, and each ID's children are kept in a list. Adding an ID or lowering its key cuts it
+ * out of the tree and links it with the root in constant time. Removing the smallest pairs up the root's children
+ * from left to right and then links the pairs from right to left. The tree is kept in primitive arrays indexed by
+ * ID, so no operation allocates anything.
+ */
+public class IndexedPairingHeap implements IndexedPriorityQueue {
+
+    // AF(this) =
+    //      the IDs in the queue => the tree rooted at root, or none if root == -1
+    //      the key of ID i, if it is in the queue => keys[i]
+    //      the children of ID i => child[i], next[child[i]], next[next[child[i]]], ... up to -1
+
+    // Rep Invariant:
+    //      keys, child, next, prev, queued, stack != null &&
+    //      all arrays have length capacity &&
+    //      (root == -1) == (size == 0) && (root == -1 || prev[root] == -1 && next[root] == -1) &&
+    //      for every ID i in the tree other than root, prev[i] is its left sibling, or its parent if it has none, and
+    //          keys[parent of i] <= keys[i] &&
+    //      queued[i] iff i is in the tree
+
+    private final double[] keys;
+    private final int[] child;
+    private final int[] next;
+    private final int[] prev;
+    private final boolean[] queued;
+
+    /**
+     * Room to pair up the children of the root, or to walk the tree when clearing it.
+     */
+    private final int[] stack;
+
+    private int root;
+    private int size;
+
+    /**
+     * Creates an empty queue for the IDs from 0 to {@code capacity - 1}.
+     *
+     * @param capacity One more than the largest ID the queue can hold.
+     * @spec.requires capacity &ge; 0
+     */
+    public IndexedPairingHeap(int capacity) {
+        this.keys = new double[capacity];
+        this.child = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.queued = new boolean[capacity];
+        this.stack = new int[capacity];
+        this.root = -1;
+        this.size = 0;
+        checkRep();
+    }
+
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return queued[id];
+    }
+
+    @Override
+    public boolean offer(int id, double key) {
+        if(!queued[id]) {
+            queued[id] = true;
+            size++;
+            keys[id] = key;
+            child[id] = -1;
+            next[id] = -1;
+            prev[id] = -1;
+            root = root < 0 ? id : link(root, id);
+            return true;
+        }
+        if(key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        if(id != root) {
+            cut(id);
+            root = link(root, id);
+        }
+        return true;
+    }
+
+    @Override
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        return keys[root];
+    }
+
+    @Override
+    public double keyOf(int id) {
+        return keys[id];
+    }
+
+    @Override
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        int min = root;
+        queued[min] = false;
+        size--;
+        // Link the children in pairs from left to right, then link the pairs from right to left
+        int pairs = 0;
+        int c = child[min];
+        while(c >= 0) {
+            int a = c;
+            int b = next[a];
+            c = b < 0 ? -1 : next[b];
+            next[a] = -1;
+            prev[a] = -1;
+            if(b >= 0) {
+                next[b] = -1;
+                prev[b] = -1;
+                a = link(a, b);
+            }
+            stack[pairs++] = a;
+        }
+        int merged = -1;
+        for(int i = pairs - 1; i >= 0; i--) {
+            merged = merged < 0 ? stack[i] : link(stack[i], merged);
+        }
+        child[min] = -1;
+        root = merged;
+        return min;
+    }
+
+    @Override
+    public void clear() {
+        if(root < 0) {
+            return;
+        }
+        int top = 0;
+        stack[top++] = root;
+        while(top > 0) {
+            int id = stack[--top];
+            queued[id] = false;
+            for(int c = child[id]; c >= 0; c = next[c]) {
+                stack[top++] = c;
+            }
+        }
+        root = -1;
+        size = 0;
+    }
+
+    /**
+     * Links two trees whose roots have no siblings, making the root with the larger key the leftmost child of the
+     * other.
+     *
+     * @return The root of the linked tree.
+     */
+    private int link(int a, int b) {
+        if(keys[b] < keys[a]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        int first = child[a];
+        next[b] = first;
+        if(first >= 0) {
+            prev[first] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    /**
+     * Removes the subtree rooted at an ID other than the root from its parent's list of children.
+     */
+    private void cut(int id) {
+        int before = prev[id];
+        int after = next[id];
+        if(after >= 0) {
+            prev[after] = before;
+        }
+        if(child[before] == id) {
+            child[before] = after;
+        } else {
+            next[before] = after;
+        }
+        next[id] = -1;
+        prev[id] = -1;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert keys != null && child != null && next != null && prev != null && queued != null && stack != null;
+        assert (root == -1) == (size == 0);
+        assert root == -1 || (prev[root] == -1 && next[root] == -1);
+    }
+}
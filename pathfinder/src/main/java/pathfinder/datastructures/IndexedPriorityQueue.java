@@ -0,0 +1,76 @@
+package pathfinder.datastructures;
+
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable priority queue of integer IDs between 0 and {@code capacity() - 1}, each with a
+ * {@code double} key, that removes the ID with the smallest key first. Each ID is in the queue at most once, and its
+ * key can be lowered in place, so a least-cost search never needs to leave stale entries behind.
+ * <p>
+ * Searches over an {@link IndexedGraph} take their queue through this interface, so that the implementation can be
+ * chosen with a {@link QueueKind} to suit the graph.
+ */
+public interface IndexedPriorityQueue {
+
+    /**
+     * @return One more than the largest ID this queue can hold.
+     */
+    int capacity();
+
+    /**
+     * @return The number of IDs in this queue.
+     */
+    int size();
+
+    /**
+     * @return Whether this queue holds no IDs.
+     */
+    boolean isEmpty();
+
+    /**
+     * @param id An ID between 0 and {@code capacity() - 1}.
+     * @return Whether {@code id} is in this queue.
+     */
+    boolean contains(int id);
+
+    /**
+     * Adds an ID with a key, or lowers its key if it is already in this queue with a larger one.
+     *
+     * @param id  An ID between 0 and {@code capacity() - 1}.
+     * @param key The key of the ID.
+     * @return Whether the ID was added or its key lowered.
+     * @spec.requires key is not NaN
+     * @spec.modifies this
+     */
+    boolean offer(int id, double key);
+
+    /**
+     * @return The smallest key of any ID in this queue.
+     * @throws NoSuchElementException if this queue is empty.
+     */
+    double peekKey();
+
+    /**
+     * @param id An ID in this queue, or that was last removed from it.
+     * @return The key of the ID when it was last in this queue.
+     */
+    double keyOf(int id);
+
+    /**
+     * Removes the ID with the smallest key from this queue. Its key stays available from {@link #keyOf(int)}.
+     *
+     * @return The removed ID.
+     * @throws NoSuchElementException if this queue is empty.
+     * @spec.modifies this
+     */
+    int poll();
+
+    /**
+     * Removes every ID from this queue, taking time proportional to the number of IDs in it rather than to its
+     * capacity.
+     *
+     * @spec.modifies this
+     * @spec.effects this queue is empty
+     */
+    void clear();
+}
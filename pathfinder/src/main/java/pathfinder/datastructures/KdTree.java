@@ -0,0 +1,314 @@
+package pathfinder.datastructures;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This represents an immutable two-dimensional k-d tree over a collection of items, each located at a {@link Point}.
+ * It answers which items are nearest to a coordinate, and which lie within a radius or an axis-aligned box, without
+ * looking at every item.
+ * <p>
+ * The tree is stored implicitly in arrays: the items of any subtree occupy a contiguous range, with the median item
+ * of the range at its middle, splitting on x at even depths and on y at odd depths.
+ *
+ * @param <T> Type of the items in the tree
+ */
+public class KdTree<T> {
+
+    // AF(this) =
+    //      the items in the tree => items[0] up to items[items.length - 1]
+    //      the location of items[i] => (xs[i], ys[i])
+    //      the subtree over the range [low, high) at depth d => the item at middle = (low + high) / 2, with the
+    //          subtrees over [low, middle) and [middle + 1, high) at depth d + 1
+    //      the coordinate compared at depth d => x if d is even, y otherwise
+
+    // Rep Invariant:
+    //      items, xs, ys != null && items.length == xs.length == ys.length &&
+    //      for every subtree, every item before the middle has a coordinate &le; the middle's, and every item after
+    //      it a coordinate &ge; the middle's, for the coordinate compared at its depth
+
+    /**
+     * The items of this tree, in tree order.
+     */
+    private final Object[] items;
+
+    /**
+     * The x coordinates of the items, at the same positions.
+     */
+    private final double[] xs;
+
+    /**
+     * The y coordinates of the items, at the same positions.
+     */
+    private final double[] ys;
+
+    /**
+     * Builds a balanced tree over the given items.
+     *
+     * @param items   The items to index. Items may share a location.
+     * @param locator Gives the location of each item.
+     * @spec.requires items, locator != null && locator gives a non-null location for every item
+     */
+    public KdTree(Collection<T> items, Locator<T> locator) {
+        this.items = items.toArray();
+        this.xs = new double[this.items.length];
+        this.ys = new double[this.items.length];
+        for(int i = 0; i < this.items.length; i++) {
+            @SuppressWarnings("unchecked")
+            Point location = locator.locate((T) this.items[i]);
+            xs[i] = location.getX();
+            ys[i] = location.getY();
+        }
+        build(0, this.items.length, 0);
+        checkRep();
+    }
+
+    /**
+     * @return The number of items in this tree.
+     */
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Finds the items nearest to a coordinate, by straight-line distance.
+     *
+     * @param x     The x coordinate to search around.
+     * @param y     The y coordinate to search around.
+     * @param count The largest number of items to return.
+     * @return The {@code count} items nearest to (x, y), or every item if there are fewer, nearest first. Items at
+     * the same distance are returned in no particular order.
+     * @throws IllegalArgumentException if {@code count} is negative.
+     */
+    public List<T> nearest(double x, double y, int count) {
+        if(count < 0) {
+            throw new IllegalArgumentException("count cannot be negative.");
+        }
+        // The best items found so far, farthest first, as {squared distance, position}
+        PriorityQueue<double[]> best = new PriorityQueue<>(new Comparator<double[]>() {
+            @Override
+            public int compare(double[] o1, double[] o2) {
+                return Double.compare(o2[0], o1[0]);
+            }
+        });
+        if(count > 0) {
+            nearest(0, items.length, 0, x, y, count, best);
+        }
+        List<T> result = new ArrayList<>();
+        while(!best.isEmpty()) {
+            result.add(0, itemAt((int) best.remove()[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the items within a distance of a coordinate.
+     *
+     * @param x      The x coordinate to search around.
+     * @param y      The y coordinate to search around.
+     * @param radius The largest straight-line distance of an item from (x, y).
+     * @return Every item at distance at most {@code radius} from (x, y), in no particular order.
+     */
+    public List<T> withinRadius(double x, double y, double radius) {
+        List<T> result = new ArrayList<>();
+        if(radius >= 0) {
+            withinRadius(0, items.length, 0, x, y, radius, result);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the items inside an axis-aligned box, including its edges.
+     *
+     * @param minX The smallest x coordinate of the box.
+     * @param minY The smallest y coordinate of the box.
+     * @param maxX The largest x coordinate of the box.
+     * @param maxY The largest y coordinate of the box.
+     * @return Every item inside the box, in no particular order. The result is empty if the box is empty.
+     */
+    public List<T> withinBox(double minX, double minY, double maxX, double maxY) {
+        List<T> result = new ArrayList<>();
+        withinBox(0, items.length, 0, minX, minY, maxX, maxY, result);
+        return result;
+    }
+
+    /**
+     * Arranges the items in [low, high) into a subtree at the given depth.
+     */
+    private void build(int low, int high, int depth) {
+        if(high - low <= 1) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        select(low, high - 1, middle, depth % 2 == 0);
+        build(low, middle, depth + 1);
+        build(middle + 1, high, depth + 1);
+    }
+
+    /**
+     * Partially sorts [low, high] by one coordinate so that position k holds the item that would be there if the
+     * range were sorted, with no larger item before it and no smaller item after it (quickselect).
+     */
+    private void select(int low, int high, int k, boolean byX) {
+        while(low < high) {
+            double pivot = coordinate((low + high) >>> 1, byX);
+            int i = low;
+            int j = high;
+            while(i <= j) {
+                while(coordinate(i, byX) < pivot) {
+                    i++;
+                }
+                while(coordinate(j, byX) > pivot) {
+                    j--;
+                }
+                if(i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if(k <= j) {
+                high = j;
+            } else if(k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Searches the subtree over [low, high) for items nearer than the farthest of the best found so far.
+     */
+    private void nearest(int low, int high, int depth, double x, double y, int count, PriorityQueue<double[]> best) {
+        if(low >= high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        double dx = xs[middle] - x;
+        double dy = ys[middle] - y;
+        double distance = dx * dx + dy * dy;
+        if(best.size() < count) {
+            best.add(new double[]{distance, middle});
+        } else if(distance < best.peek()[0]) {
+            best.remove();
+            best.add(new double[]{distance, middle});
+        }
+        // Search the side of the split containing the coordinate first, then the other side only if it could hold
+        // something nearer
+        double split = depth % 2 == 0 ? dx : dy;
+        boolean lowFirst = split >= 0;
+        if(lowFirst) {
+            nearest(low, middle, depth + 1, x, y, count, best);
+        } else {
+            nearest(middle + 1, high, depth + 1, x, y, count, best);
+        }
+        if(best.size() < count || split * split < best.peek()[0]) {
+            if(lowFirst) {
+                nearest(middle + 1, high, depth + 1, x, y, count, best);
+            } else {
+                nearest(low, middle, depth + 1, x, y, count, best);
+            }
+        }
+    }
+
+    /**
+     * Adds the items of the subtree over [low, high) within a radius of a coordinate to a list.
+     */
+    private void withinRadius(int low, int high, int depth, double x, double y, double radius, List<T> result) {
+        if(low >= high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        double dx = xs[middle] - x;
+        double dy = ys[middle] - y;
+        if(dx * dx + dy * dy <= radius * radius) {
+            result.add(itemAt(middle));
+        }
+        double split = depth % 2 == 0 ? dx : dy;
+        if(split >= -radius) {
+            withinRadius(low, middle, depth + 1, x, y, radius, result);
+        }
+        if(split <= radius) {
+            withinRadius(middle + 1, high, depth + 1, x, y, radius, result);
+        }
+    }
+
+    /**
+     * Adds the items of the subtree over [low, high) inside a box to a list.
+     */
+    private void withinBox(int low, int high, int depth, double minX, double minY, double maxX, double maxY,
+                           List<T> result) {
+        if(low >= high) {
+            return;
+        }
+        int middle = (low + high) >>> 1;
+        if(xs[middle] >= minX && xs[middle] <= maxX && ys[middle] >= minY && ys[middle] <= maxY) {
+            result.add(itemAt(middle));
+        }
+        double split = depth % 2 == 0 ? xs[middle] : ys[middle];
+        double min = depth % 2 == 0 ? minX : minY;
+        double max = depth % 2 == 0 ? maxX : maxY;
+        if(split >= min) {
+            withinBox(low, middle, depth + 1, minX, minY, maxX, maxY, result);
+        }
+        if(split <= max) {
+            withinBox(middle + 1, high, depth + 1, minX, minY, maxX, maxY, result);
+        }
+    }
+
+    /**
+     * @return The x or y coordinate of the item at a position.
+     */
+    private double coordinate(int position, boolean byX) {
+        return byX ? xs[position] : ys[position];
+    }
+
+    /**
+     * Exchanges the items at two positions, with their coordinates.
+     */
+    private void swap(int i, int j) {
+        Object item = items[i];
+        items[i] = items[j];
+        items[j] = item;
+        double x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        double y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    /**
+     * @return The item at a position.
+     */
+    @SuppressWarnings("unchecked")
+    private T itemAt(int position) {
+        return (T) items[position];
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert items != null && xs != null && ys != null;
+        assert items.length == xs.length && items.length == ys.length;
+    }
+
+    /**
+     * Gives the location of items when a tree is built.
+     *
+     * @param <T> Type of the items
+     */
+    public interface Locator<T> {
+
+        /**
+         * @param item An item to be placed in the tree.
+         * @return The location of the item.
+         */
+        Point locate(T item);
+
+    }
+}
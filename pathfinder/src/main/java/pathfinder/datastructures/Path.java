@@ -55,6 +55,30 @@ public class Path<N> implements Iterable<Path<N>.Segment> {
         checkRep();
     }
 
+    /**
+     * Creates a new path through the given data nodes in order. This builds the whole path at once, where building
+     * it with {@link #extend(Object, double)} would copy every earlier segment for each segment added.
+     *
+     * @param nodes        The data nodes along the path, beginning with the start data node.
+     * @param segmentCosts The cost of each segment, where {@code segmentCosts[i]} is the cost of the segment from
+     *                     {@code nodes.get(i)} to {@code nodes.get(i + 1)}.
+     * @throws IllegalArgumentException if {@code nodes} is empty, or {@code segmentCosts} does not hold exactly one
+     *                                  cost per segment.
+     */
+    public Path(List<N> nodes, double[] segmentCosts) {
+        if(nodes.isEmpty() || segmentCosts.length != nodes.size() - 1) {
+            throw new IllegalArgumentException("Paths need a start and one cost per segment.");
+        }
+        this.start = nodes.get(0);
+        this.cost = 0;
+        this.path = new ArrayList<>(segmentCosts.length);
+        for(int i = 0; i < segmentCosts.length; i++) {
+            path.add(new Segment(nodes.get(i), nodes.get(i + 1), segmentCosts[i]));
+            cost += segmentCosts[i];
+        }
+        checkRep();
+    }
+
     /**
      * Appends a new single segment to the end of this path, originating at the current last data node
      * in this path and terminating at {@code newEnd}. The cost of adding this additional segment
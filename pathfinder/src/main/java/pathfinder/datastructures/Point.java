@@ -12,7 +12,8 @@ public class Point {
 
     // Rep Invariant:
     //      Double.isFinite(x) &&
-    //      Double.isFinite(y)
+    //      Double.isFinite(y) &&
+    //      hash == (31 * Double.hashCode(x)) + Double.hashCode(y)
     //   In other words, both x and y are not infinite and not NaN
 
     /**
@@ -25,6 +26,12 @@ public class Point {
      */
     private final double y;
 
+    /**
+     * The hash code of this point, computed once since points are used as keys on every step of a search. It fits
+     * in the padding after the coordinates, so it takes no extra memory.
+     */
+    private final int hash;
+
     /**
      * Constructs a new ordered pair using the provided coordinates. Neither coordinate
      * may be NaN or infinite.
@@ -39,6 +46,7 @@ public class Point {
         }
         this.x = x;
         this.y = y;
+        this.hash = (31 * Double.hashCode(x)) + Double.hashCode(y);
         // checkRep not necessary, the representation fields are final and immutable.
     }
 
@@ -63,11 +71,16 @@ public class Point {
      */
     @Override
     public boolean equals(Object obj) {
+        // Interned points are compared with themselves most of the time
+        if(this == obj) {
+            return true;
+        }
         if(!(obj instanceof Point)) {
             return false;
         }
         Point other = (Point) obj;
-        return (Double.compare(this.x, other.x) == 0) && (Double.compare(this.y, other.y) == 0);
+        return this.hash == other.hash
+               && (Double.compare(this.x, other.x) == 0) && (Double.compare(this.y, other.y) == 0);
     }
 
     @Override
@@ -77,6 +90,6 @@ public class Point {
 
     @Override
     public int hashCode() {
-        return (31 * Double.hashCode(x)) + Double.hashCode(y);
+        return hash;
     }
 }
@@ -0,0 +1,199 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * This represents a mutable table assigning a dense integer ID, from 0 up to {@code size() - 1} in the order they
+ * were added, to every distinct {@link Point} added to it. Each ID stands for exactly one Point object, so looking up
+ * the same coordinates again gives back the same object rather than an equal copy.
+ * <p>
+ * Coordinates are looked up by their bit patterns, as {@link Double#doubleToLongBits(double)} gives them, in an
+ * open-addressing table of primitive arrays, so looking up a point that is already there creates no objects. Two
+ * coordinates have the same bit patterns exactly when {@link Point#equals(Object)} considers them equal.
+ */
+public class PointInterner {
+
+    // AF(this) =
+    //      the point with ID i => points[i], for i < size
+    //      the coordinates of the point with ID i => the doubles with bits xBits[i] and yBits[i]
+    //      the ID of the point with coordinate bits (xb, yb) => slots[s] - 1, for the first s from
+    //          hash(xb, yb) & (slots.length - 1) onwards, wrapping around, with slots[s] == 0 or
+    //          (xBits[slots[s] - 1], yBits[slots[s] - 1]) == (xb, yb); or none if slots[s] == 0
+
+    // Rep Invariant:
+    //      slots, xBits, yBits, points != null && slots.length is a power of two &&
+    //      2 * size <= slots.length && size <= xBits.length == yBits.length == points.length &&
+    //      forall i < size, points[i] != null && points[i] has coordinate bits xBits[i], yBits[i] &&
+    //      each ID from 0 to size - 1 appears in slots exactly once, and no other nonzero value does
+
+    private int[] slots;
+    private long[] xBits;
+    private long[] yBits;
+    private Point[] points;
+    private int size;
+
+    /**
+     * Creates an empty table.
+     */
+    public PointInterner() {
+        this(16);
+    }
+
+    /**
+     * Creates an empty table with room for the given number of points before it grows.
+     *
+     * @param expectedSize The number of points expected to be added.
+     * @spec.requires 0 &le; expectedSize &le; 2<sup>29</sup>
+     */
+    public PointInterner(int expectedSize) {
+        int capacity = Math.max(Integer.highestOneBit(Math.max(expectedSize, 1)) << 2, 16);
+        this.slots = new int[capacity];
+        this.xBits = new long[capacity / 2];
+        this.yBits = new long[capacity / 2];
+        this.points = new Point[capacity / 2];
+        this.size = 0;
+        checkRep();
+    }
+
+    /**
+     * Returns the ID of the point at the given coordinates, adding a new point there first if there is none yet.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @return The ID of the point, between 0 and {@code size() - 1}.
+     * @throws IllegalArgumentException if x or y are NaN or infinite.
+     * @spec.modifies this
+     */
+    public int intern(double x, double y) {
+        long xb = Double.doubleToLongBits(x);
+        long yb = Double.doubleToLongBits(y);
+        int slot = find(xb, yb);
+        if(slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        return add(slot, new Point(x, y), xb, yb);
+    }
+
+    /**
+     * Returns the ID of the given point, adding that very object first if there is no equal point yet.
+     *
+     * @param point The point to look up.
+     * @return The ID of the point, between 0 and {@code size() - 1}.
+     * @spec.requires point != null
+     * @spec.modifies this
+     */
+    public int intern(Point point) {
+        long xb = Double.doubleToLongBits(point.getX());
+        long yb = Double.doubleToLongBits(point.getY());
+        int slot = find(xb, yb);
+        if(slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        return add(slot, point, xb, yb);
+    }
+
+    /**
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @return The ID of the point at the given coordinates, or -1 if there is none in this table.
+     */
+    public int idOf(double x, double y) {
+        return slots[find(Double.doubleToLongBits(x), Double.doubleToLongBits(y))] - 1;
+    }
+
+    /**
+     * @param id The ID of a point, between 0 and {@code size() - 1}.
+     * @return The point with the given ID.
+     * @throws IndexOutOfBoundsException if {@code id} is not between 0 and {@code size() - 1}.
+     */
+    public Point pointOf(int id) {
+        if(id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("No point with ID " + id);
+        }
+        return points[id];
+    }
+
+    /**
+     * @return The number of distinct points in this table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Mixes the bit patterns of a pair of coordinates into a hash whose low and high bits both depend on every bit
+     * of the coordinates, since the low bits of coordinates with few decimal digits are mostly equal.
+     *
+     * @param xBits The bits of the x coordinate.
+     * @param yBits The bits of the y coordinate.
+     * @return The hash of the coordinates.
+     */
+    static int hash(long xBits, long yBits) {
+        long h = xBits * 0x9E3779B97F4A7C15L + yBits;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+
+    /**
+     * @return The slot holding the point with the given coordinate bits, or the empty slot where it would be added.
+     */
+    private int find(long xb, long yb) {
+        int mask = slots.length - 1;
+        int slot = hash(xb, yb) & mask;
+        while(true) {
+            int entry = slots[slot];
+            if(entry == 0 || (xBits[entry - 1] == xb && yBits[entry - 1] == yb)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Adds a point in the given empty slot, growing the table first if it would become more than half full.
+     *
+     * @return The ID of the added point.
+     */
+    private int add(int slot, Point point, long xb, long yb) {
+        if(2 * (size + 1) > slots.length) {
+            grow();
+            slot = find(xb, yb);
+        }
+        int id = size++;
+        xBits[id] = xb;
+        yBits[id] = yb;
+        points[id] = point;
+        slots[slot] = id + 1;
+        return id;
+    }
+
+    /**
+     * Doubles the number of slots and the room for points, placing every point in the new slots.
+     */
+    private void grow() {
+        slots = new int[2 * slots.length];
+        xBits = Arrays.copyOf(xBits, slots.length / 2);
+        yBits = Arrays.copyOf(yBits, slots.length / 2);
+        points = Arrays.copyOf(points, slots.length / 2);
+        int mask = slots.length - 1;
+        for(int id = 0; id < size; id++) {
+            int slot = hash(xBits[id], yBits[id]) & mask;
+            while(slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert slots != null && xBits != null && yBits != null && points != null;
+        assert Integer.bitCount(slots.length) == 1 && 2 * size <= slots.length;
+        assert xBits.length == yBits.length && yBits.length == points.length && size <= points.length;
+    }
+}
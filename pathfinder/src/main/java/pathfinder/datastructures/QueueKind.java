@@ -0,0 +1,53 @@
+package pathfinder.datastructures;
+
+/**
+ * Represents the different {@link IndexedPriorityQueue} implementations a search over an {@link IndexedGraph} can
+ * use. Every kind removes IDs in the same order of keys; they differ in the cost of each operation.
+ * <p>
+ * Every search over dense node IDs takes a kind, defaulting to {@link #BINARY_HEAP}, which has measured fastest on a
+ * large synthetic grid. The searches over a {@code Graph}, which has no node IDs, keep their own binary heaps of
+ * entries instead.
+ */
+public enum QueueKind {
+
+    /**
+     * A binary heap, {@link IndexedHeap}.
+     */
+    BINARY_HEAP,
+
+    /**
+     * A 4-ary heap, {@link IndexedDaryHeap}, which is shallower than a binary heap, so lowering a key moves it
+     * through fewer levels, while removing the smallest compares more children per level.
+     */
+    FOUR_ARY_HEAP,
+
+    /**
+     * A pairing heap, {@link IndexedPairingHeap}, which adds IDs and lowers keys in constant time and does its work
+     * when the smallest is removed.
+     */
+    PAIRING_HEAP,
+
+    /**
+     * A monotone radix queue, {@link RadixQueue}, which buckets keys by their leading bits as fixed-point integers.
+     * It only accepts keys no smaller than the last one removed, as in a search with non-negative costs.
+     */
+    RADIX_QUEUE;
+
+    /**
+     * @param capacity One more than the largest ID the queue can hold.
+     * @return A new empty queue of this kind for the IDs from 0 to {@code capacity - 1}.
+     * @spec.requires capacity &ge; 0
+     */
+    public IndexedPriorityQueue create(int capacity) {
+        switch(this) {
+            case FOUR_ARY_HEAP:
+                return new IndexedDaryHeap(capacity, 4);
+            case PAIRING_HEAP:
+                return new IndexedPairingHeap(capacity);
+            case RADIX_QUEUE:
+                return new RadixQueue(capacity);
+            default:
+                return new IndexedHeap(capacity);
+        }
+    }
+}
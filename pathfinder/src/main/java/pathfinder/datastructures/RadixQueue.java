@@ -0,0 +1,270 @@
+package pathfinder.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This represents a mutable monotone {@link IndexedPriorityQueue}: no key may be smaller than the key of the ID last
+ * removed, or than 0 before any is removed. This always holds for the queue of a least-cost search on a graph with
+ * non-negative costs.
+ * <p>
+ * Keys are bucketed as fixed-point integers, by the highest bit in which they differ from the last key removed, so
+ * adding an ID or lowering its key only moves it between linked lists, and each ID moves to a lower bucket at most
+ * 64 times before it is removed. IDs whose fixed-point keys are equal are told apart by their exact keys, so IDs are
+ * removed in exactly the order of their keys, however coarse the fixed-point resolution. The buckets are linked
+ * lists kept in primitive arrays indexed by ID, so no operation allocates anything.
+ */
+public class RadixQueue implements IndexedPriorityQueue {
+
+    // AF(this) =
+    //      the IDs in the queue => every ID in the lists starting at heads[0] up to heads[BUCKETS - 1], linked
+    //          through next (and back through prev), ending at -1
+    //      the key of ID i, if it is in the queue => keys[i]
+
+    // Rep Invariant:
+    //      keys, fixed, bucket, next, prev, heads != null && heads.length == BUCKETS &&
+    //      keys, fixed, bucket, next, prev have length capacity && scale > 0 &&
+    //      bucket[i] == -1 for every ID i not in the queue &&
+    //      forall ID i in the list of bucket b, bucket[i] == b && fixed[i] == toFixed(keys[i]) &&
+    //          fixed[i] >= last && b == bucketOf(fixed[i]) && keys[i] >= lastKey
+
+    /**
+     * Fixed-point units per unit of cost used by {@link #RadixQueue(int)}. At this resolution a cost in feet is
+     * bucketed to the nearest sixteenth of a foot.
+     */
+    public static final double DEFAULT_SCALE = 16;
+
+    /**
+     * One bucket for keys equal to the last one removed, and one for each bit a key can first differ from it in.
+     */
+    private static final int BUCKETS = 65;
+
+    private final double scale;
+    private final double[] keys;
+    private final long[] fixed;
+    private final int[] bucket;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] heads;
+    private int size;
+    private long last;
+    private double lastKey;
+
+    /**
+     * Creates an empty queue for the IDs from 0 to {@code capacity - 1}, with {@link #DEFAULT_SCALE} fixed-point
+     * units per unit of cost.
+     *
+     * @param capacity One more than the largest ID the queue can hold.
+     * @spec.requires capacity &ge; 0
+     */
+    public RadixQueue(int capacity) {
+        this(capacity, DEFAULT_SCALE);
+    }
+
+    /**
+     * Creates an empty queue for the IDs from 0 to {@code capacity - 1}.
+     *
+     * @param capacity One more than the largest ID the queue can hold.
+     * @param scale    The fixed-point units per unit of cost. Finer scales separate more keys into buckets; coarser
+     *                 ones leave more to be compared exactly when they are removed.
+     * @spec.requires capacity &ge; 0 && scale &gt; 0
+     */
+    public RadixQueue(int capacity, double scale) {
+        this.scale = scale;
+        this.keys = new double[capacity];
+        this.fixed = new long[capacity];
+        this.bucket = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.heads = new int[BUCKETS];
+        Arrays.fill(bucket, -1);
+        Arrays.fill(heads, -1);
+        this.size = 0;
+        checkRep();
+    }
+
+    @Override
+    public int capacity() {
+        return keys.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return bucket[id] >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if {@code key} is smaller than the key of the ID last removed.
+     */
+    @Override
+    public boolean offer(int id, double key) {
+        if(key < lastKey) {
+            throw new IllegalArgumentException("Key " + key + " is below the last key removed, " + lastKey + ".");
+        }
+        if(bucket[id] >= 0) {
+            if(key >= keys[id]) {
+                return false;
+            }
+            unlink(id);
+        } else {
+            size++;
+        }
+        keys[id] = key;
+        fixed[id] = toFixed(key);
+        link(id, bucketOf(fixed[id]));
+        return true;
+    }
+
+    @Override
+    public double peekKey() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        // The lowest non-empty bucket holds the smallest keys, so it is enough to look there
+        int b = 0;
+        while(heads[b] < 0) {
+            b++;
+        }
+        double min = Double.POSITIVE_INFINITY;
+        for(int id = heads[b]; id >= 0; id = next[id]) {
+            min = Math.min(min, keys[id]);
+        }
+        return min;
+    }
+
+    @Override
+    public double keyOf(int id) {
+        return keys[id];
+    }
+
+    @Override
+    public int poll() {
+        if(size == 0) {
+            throw new NoSuchElementException("Queue is empty.");
+        }
+        int min = smallest();
+        unlink(min);
+        size--;
+        lastKey = keys[min];
+        return min;
+    }
+
+    /**
+     * {@inheritDoc} Once empty, the queue accepts keys of any size again.
+     */
+    @Override
+    public void clear() {
+        for(int b = 0; b < BUCKETS; b++) {
+            for(int id = heads[b]; id >= 0; id = next[id]) {
+                bucket[id] = -1;
+            }
+            heads[b] = -1;
+        }
+        size = 0;
+        last = 0;
+        lastKey = 0;
+    }
+
+    /**
+     * Finds the ID with the smallest key, first moving the IDs of the lowest non-empty bucket into bucket 0 and the
+     * buckets below it if bucket 0 is empty.
+     *
+     * @return The ID with the smallest key, which is in bucket 0.
+     * @spec.requires size &gt; 0
+     */
+    private int smallest() {
+        if(heads[0] < 0) {
+            int b = 1;
+            while(heads[b] < 0) {
+                b++;
+            }
+            long min = Long.MAX_VALUE;
+            for(int id = heads[b]; id >= 0; id = next[id]) {
+                min = Math.min(min, fixed[id]);
+            }
+            last = min;
+            // Every ID in the bucket now differs from last in a lower bit than before, so moves to a lower bucket
+            int id = heads[b];
+            heads[b] = -1;
+            while(id >= 0) {
+                int following = next[id];
+                link(id, bucketOf(fixed[id]));
+                id = following;
+            }
+        }
+        int min = heads[0];
+        for(int id = next[min]; id >= 0; id = next[id]) {
+            if(keys[id] < keys[min]) {
+                min = id;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * @return The fixed-point integer for a key, rounded down, or the largest long if it is too large for one.
+     */
+    private long toFixed(double key) {
+        return (long) (key * scale);
+    }
+
+    /**
+     * @return The bucket for a fixed-point key: 0 if it equals the last one removed, or else one more than the
+     * position of the highest bit in which they differ.
+     */
+    private int bucketOf(long fixedKey) {
+        return fixedKey == last ? 0 : 64 - Long.numberOfLeadingZeros(fixedKey ^ last);
+    }
+
+    /**
+     * Adds an ID at the head of a bucket's list.
+     */
+    private void link(int id, int b) {
+        bucket[id] = b;
+        prev[id] = -1;
+        next[id] = heads[b];
+        if(heads[b] >= 0) {
+            prev[heads[b]] = id;
+        }
+        heads[b] = id;
+    }
+
+    /**
+     * Removes an ID from its bucket's list.
+     */
+    private void unlink(int id) {
+        int b = bucket[id];
+        if(prev[id] >= 0) {
+            next[prev[id]] = next[id];
+        } else {
+            heads[b] = next[id];
+        }
+        if(next[id] >= 0) {
+            prev[next[id]] = prev[id];
+        }
+        bucket[id] = -1;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert keys != null && fixed != null && bucket != null && next != null && prev != null && heads != null;
+        assert heads.length == BUCKETS && scale > 0;
+        assert fixed.length == keys.length && bucket.length == keys.length;
+        assert next.length == keys.length && prev.length == keys.length;
+    }
+}
@@ -0,0 +1,323 @@
+package pathfinder.datastructures;
+
+/**
+ * This represents an immutable uniform grid over the edges of an {@link IndexedGraph} of {@link Point}s, each edge
+ * seen as the straight segment between its ends. It finds the point on any segment nearest to a coordinate by
+ * looking only at the grid cells around the coordinate, rather than at every edge.
+ * <p>
+ * An edge and its reverse, when both exist, are indexed once as a single segment.
+ */
+public class SegmentGrid {
+
+    // AF(this) =
+    //      the graph whose edges are indexed => graph
+    //      the s-th segment => from the node with ID segmentFrom[s] to the node with ID segmentTo[s]
+    //      the grid => columns * rows square cells of side cellSize, the bottom left one with corner (minX, minY)
+    //      the segments passing near the cell in column c and row r => the segments cellSegments[i] for i from
+    //          cellStarts[k] to cellStarts[k + 1] - 1, where k = r * columns + c
+
+    // Rep Invariant:
+    //      graph, segmentFrom, segmentTo, cellStarts, cellSegments != null &&
+    //      segmentFrom.length == segmentTo.length &&
+    //      columns, rows >= 1 && cellSize > 0 &&
+    //      cellStarts.length == columns * rows + 1 && cellStarts[cellStarts.length - 1] == cellSegments.length &&
+    //      every segment is listed in every cell its bounding box overlaps
+
+    /**
+     * The most cells allowed per segment, bounding the memory the grid takes on sparse maps.
+     */
+    private static final int MAX_CELLS_PER_SEGMENT = 4;
+
+    private final IndexedGraph<Point> graph;
+    private final int[] segmentFrom;
+    private final int[] segmentTo;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStarts;
+    private final int[] cellSegments;
+
+    /**
+     * Builds a grid over every edge of the given graph, with cells about as wide as an average edge is long.
+     *
+     * @param graph The graph whose edges are indexed.
+     * @spec.requires graph != null
+     */
+    public SegmentGrid(IndexedGraph<Point> graph) {
+        this.graph = graph;
+        int count = 0;
+        for(int id = 0; id < graph.size(); id++) {
+            for(int i = 0; i < graph.degree(id); i++) {
+                if(isIndexed(id, graph.target(id, i))) {
+                    count++;
+                }
+            }
+        }
+        this.segmentFrom = new int[count];
+        this.segmentTo = new int[count];
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double totalLength = 0;
+        int s = 0;
+        for(int id = 0; id < graph.size(); id++) {
+            for(int i = 0; i < graph.degree(id); i++) {
+                int target = graph.target(id, i);
+                if(isIndexed(id, target)) {
+                    segmentFrom[s] = id;
+                    segmentTo[s] = target;
+                    Point a = graph.nodeOf(id);
+                    Point b = graph.nodeOf(target);
+                    minX = Math.min(minX, Math.min(a.getX(), b.getX()));
+                    minY = Math.min(minY, Math.min(a.getY(), b.getY()));
+                    maxX = Math.max(maxX, Math.max(a.getX(), b.getX()));
+                    maxY = Math.max(maxY, Math.max(a.getY(), b.getY()));
+                    totalLength += Math.hypot(b.getX() - a.getX(), b.getY() - a.getY());
+                    s++;
+                }
+            }
+        }
+        if(count == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        this.minX = minX;
+        this.minY = minY;
+        // Grow the cells past the average segment length if there would otherwise be too many of them
+        double size = Math.max(count == 0 ? 1 : totalLength / count, Double.MIN_NORMAL);
+        double area = (maxX - minX) * (maxY - minY);
+        size = Math.max(size, Math.sqrt(area / ((double) MAX_CELLS_PER_SEGMENT * Math.max(1, count))));
+        this.cellSize = size;
+        this.columns = (int) ((maxX - minX) / size) + 1;
+        this.rows = (int) ((maxY - minY) / size) + 1;
+        // Count the segments in each cell, then fill them in
+        this.cellStarts = new int[columns * rows + 1];
+        for(s = 0; s < count; s++) {
+            forEachCell(s, -1, null);
+        }
+        for(int k = 0; k < columns * rows; k++) {
+            cellStarts[k + 1] += cellStarts[k];
+        }
+        this.cellSegments = new int[cellStarts[columns * rows]];
+        int[] filled = new int[columns * rows];
+        for(s = 0; s < count; s++) {
+            forEachCell(s, s, filled);
+        }
+        checkRep();
+    }
+
+    /**
+     * @return The number of segments indexed.
+     */
+    public int size() {
+        return segmentFrom.length;
+    }
+
+    /**
+     * Finds the point on any segment nearest to a coordinate.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The nearest point on any segment and the segment it is on, or null if the graph has no edges.
+     */
+    public Snap nearest(double x, double y) {
+        if(segmentFrom.length == 0) {
+            return null;
+        }
+        // Coordinates off the grid are searched from the nearest cell on it, which only brings every cell closer
+        int column = cellOf(x - minX, columns);
+        int row = cellOf(y - minY, rows);
+        int lastRing = Math.max(Math.max(column, columns - 1 - column), Math.max(row, rows - 1 - row));
+        // The best point found so far, as {distance, segment, fraction}
+        double[] best = {Double.POSITIVE_INFINITY, -1, 0};
+        for(int ring = 0; ring <= lastRing; ring++) {
+            // Visit only the cells on the border of the ring, since the ones inside were visited before it
+            for(int c = column - ring; c <= column + ring; c++) {
+                scanCell(c, row - ring, x, y, best);
+                if(ring > 0) {
+                    scanCell(c, row + ring, x, y, best);
+                }
+            }
+            for(int r = row - ring + 1; r <= row + ring - 1; r++) {
+                scanCell(column - ring, r, x, y, best);
+                scanCell(column + ring, r, x, y, best);
+            }
+            // Every segment not yet seen is at least this far away
+            if(best[0] <= ring * cellSize) {
+                break;
+            }
+        }
+        int segment = (int) best[1];
+        return new Snap(segmentFrom[segment], segmentTo[segment], best[2], pointAlong(segment, best[2]), best[0]);
+    }
+
+    /**
+     * Checks every segment in the cell in column c and row r, if there is one, replacing {@code best} with the
+     * nearest point to (x, y) on any of them that is nearer than it.
+     */
+    private void scanCell(int c, int r, double x, double y, double[] best) {
+        if(c < 0 || c >= columns || r < 0 || r >= rows) {
+            return;
+        }
+        int k = r * columns + c;
+        for(int i = cellStarts[k]; i < cellStarts[k + 1]; i++) {
+            int segment = cellSegments[i];
+            double fraction = project(segment, x, y);
+            double distance = distance(segment, fraction, x, y);
+            if(distance < best[0]) {
+                best[0] = distance;
+                best[1] = segment;
+                best[2] = fraction;
+            }
+        }
+    }
+
+    /**
+     * @return Whether the edge from {@code from} to {@code to} is indexed: every edge is, except the one of a pair
+     * of opposite edges that starts at the larger ID.
+     */
+    private boolean isIndexed(int from, int to) {
+        return from <= to || graph.edgeTo(to, from) < 0;
+    }
+
+    /**
+     * Visits every cell the bounding box of a segment overlaps. If {@code filled} is null, counts the segment in
+     * each cell's start; otherwise records {@code value} in the next free place of each cell.
+     */
+    private void forEachCell(int s, int value, int[] filled) {
+        Point a = graph.nodeOf(segmentFrom[s]);
+        Point b = graph.nodeOf(segmentTo[s]);
+        int firstColumn = cellOf(Math.min(a.getX(), b.getX()) - minX, columns);
+        int lastColumn = cellOf(Math.max(a.getX(), b.getX()) - minX, columns);
+        int firstRow = cellOf(Math.min(a.getY(), b.getY()) - minY, rows);
+        int lastRow = cellOf(Math.max(a.getY(), b.getY()) - minY, rows);
+        for(int c = firstColumn; c <= lastColumn; c++) {
+            for(int r = firstRow; r <= lastRow; r++) {
+                int k = r * columns + c;
+                if(filled == null) {
+                    cellStarts[k + 1]++;
+                } else {
+                    cellSegments[cellStarts[k] + filled[k]++] = value;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The column or row containing an offset from the grid's corner, kept within the grid.
+     */
+    private int cellOf(double offset, int cells) {
+        return Math.min(cells - 1, Math.max(0, (int) (offset / cellSize)));
+    }
+
+    /**
+     * @return The fraction of the way along a segment of the point on it nearest to (x, y).
+     */
+    private double project(int s, double x, double y) {
+        double ax = graph.x(segmentFrom[s]);
+        double ay = graph.y(segmentFrom[s]);
+        double dx = graph.x(segmentTo[s]) - ax;
+        double dy = graph.y(segmentTo[s]) - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        if(lengthSquared == 0) {
+            return 0;
+        }
+        double fraction = ((x - ax) * dx + (y - ay) * dy) / lengthSquared;
+        return Math.min(1, Math.max(0, fraction));
+    }
+
+    /**
+     * @return The distance from (x, y) to the point a given fraction of the way along a segment.
+     */
+    private double distance(int s, double fraction, double x, double y) {
+        double ax = graph.x(segmentFrom[s]);
+        double ay = graph.y(segmentFrom[s]);
+        return Math.hypot(ax + (graph.x(segmentTo[s]) - ax) * fraction - x,
+                          ay + (graph.y(segmentTo[s]) - ay) * fraction - y);
+    }
+
+    /**
+     * @return The point a given fraction of the way along a segment, or exactly its end if the fraction is 0 or 1.
+     */
+    private Point pointAlong(int s, double fraction) {
+        Point a = graph.nodeOf(segmentFrom[s]);
+        Point b = graph.nodeOf(segmentTo[s]);
+        if(fraction == 0) {
+            return a;
+        }
+        if(fraction == 1) {
+            return b;
+        }
+        return new Point(a.getX() + (b.getX() - a.getX()) * fraction, a.getY() + (b.getY() - a.getY()) * fraction);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && segmentFrom != null && segmentTo != null;
+        assert cellStarts != null && cellSegments != null;
+        assert segmentFrom.length == segmentTo.length;
+        assert columns >= 1 && rows >= 1 && cellSize > 0;
+        assert cellStarts.length == columns * rows + 1 && cellStarts[columns * rows] == cellSegments.length;
+    }
+
+    /**
+     * This represents the result of snapping a coordinate onto the nearest segment: the segment between two nodes,
+     * how far along it the nearest point is, and the point itself.
+     */
+    public static class Snap {
+        private final int from;
+        private final int to;
+        private final double fraction;
+        private final Point point;
+        private final double distance;
+
+        private Snap(int from, int to, double fraction, Point point, double distance) {
+            this.from = from;
+            this.to = to;
+            this.fraction = fraction;
+            this.point = point;
+            this.distance = distance;
+        }
+
+        /**
+         * @return The ID of the node at one end of the segment.
+         */
+        public int getFrom() {
+            return from;
+        }
+
+        /**
+         * @return The ID of the node at the other end of the segment. There is an edge from {@link #getFrom()} to
+         * this node, an edge back, or both.
+         */
+        public int getTo() {
+            return to;
+        }
+
+        /**
+         * @return How far along the segment from {@link #getFrom()} the nearest point lies, between 0 and 1.
+         */
+        public double getFraction() {
+            return fraction;
+        }
+
+        /**
+         * @return The nearest point on the segment.
+         */
+        public Point getPoint() {
+            return point;
+        }
+
+        /**
+         * @return The straight-line distance from the coordinate to the nearest point.
+         */
+        public double getDistance() {
+            return distance;
+        }
+    }
+}
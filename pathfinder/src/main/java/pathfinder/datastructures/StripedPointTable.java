@@ -0,0 +1,121 @@
+package pathfinder.datastructures;
+
+/**
+ * This represents a mutable table assigning an integer ID to every distinct {@link Point} added to it, which many
+ * threads can add to at once. Each ID stands for a single shared Point, so equal coordinates found by different
+ * threads end up as the same object.
+ * <p>
+ * The table is split into stripes by the hash of the coordinates, each a {@link PointInterner} with its own lock, so
+ * threads adding points that fall in different stripes never wait for each other. IDs are handed out by each stripe
+ * in turn, so they are not dense: every ID is below {@link #idLimit()}, but not every ID below it is in use. Which ID
+ * a point gets depends on the order points are added in, but the set of points does not.
+ */
+public class StripedPointTable {
+
+    // AF(this) =
+    //      the point with ID local * stripes.length + s => stripes[s].pointOf(local)
+    //      the ID of the point at (x, y) => stripes[s].idOf(x, y) * stripes.length + s, where s = stripeOf(x, y)
+
+    // Rep Invariant:
+    //      stripes != null && stripes.length is a power of two &&
+    //      forall s, stripes[s] != null &&
+    //      every point in stripes[s] has coordinates (x, y) with stripeOf(x, y) == s
+
+    private final PointInterner[] stripes;
+
+    /**
+     * Creates an empty table with at least the given number of stripes.
+     *
+     * @param stripeCount The fewest stripes to split the table into. More stripes let more threads add points at
+     *                    once without waiting.
+     * @spec.requires 1 &le; stripeCount &le; 2<sup>30</sup>
+     */
+    public StripedPointTable(int stripeCount) {
+        int count = Integer.highestOneBit(stripeCount);
+        if(count < stripeCount) {
+            count <<= 1;
+        }
+        this.stripes = new PointInterner[count];
+        for(int s = 0; s < count; s++) {
+            stripes[s] = new PointInterner();
+        }
+        checkRep();
+    }
+
+    /**
+     * Returns the ID of the point at the given coordinates, adding it to this table first if it is not there yet.
+     * Safe to call from many threads at once.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @return The ID of the point, between 0 and {@code idLimit() - 1}.
+     * @spec.modifies this
+     */
+    public int idOf(double x, double y) {
+        int s = stripeOf(x, y);
+        PointInterner stripe = stripes[s];
+        synchronized(stripe) {
+            return stripe.intern(x, y) * stripes.length + s;
+        }
+    }
+
+    /**
+     * @param id An ID returned by {@link #idOf(double, double)}.
+     * @return The point with the given ID.
+     */
+    public Point pointOf(int id) {
+        PointInterner stripe = stripes[id & (stripes.length - 1)];
+        synchronized(stripe) {
+            return stripe.pointOf(id / stripes.length);
+        }
+    }
+
+    /**
+     * @return The number of distinct points in this table.
+     */
+    public int size() {
+        int size = 0;
+        for(PointInterner stripe : stripes) {
+            synchronized(stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return One more than the largest ID of any point in this table, or 0 if it is empty.
+     */
+    public int idLimit() {
+        int limit = 0;
+        for(int s = 0; s < stripes.length; s++) {
+            synchronized(stripes[s]) {
+                int count = stripes[s].size();
+                if(count > 0) {
+                    limit = Math.max(limit, (count - 1) * stripes.length + s + 1);
+                }
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * @return The stripe the point at the given coordinates belongs in, from the topmost bits of its hash. Each
+     * stripe places points by the low bits, which must not be the same for every point in a stripe.
+     */
+    private int stripeOf(double x, double y) {
+        int hash = PointInterner.hash(Double.doubleToLongBits(x), Double.doubleToLongBits(y));
+        return (int) ((hash & 0xFFFFFFFFL) >>> (32 - Integer.numberOfTrailingZeros(stripes.length)));
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert stripes != null && Integer.bitCount(stripes.length) == 1;
+        for(PointInterner stripe : stripes) {
+            assert stripe != null;
+        }
+    }
+}
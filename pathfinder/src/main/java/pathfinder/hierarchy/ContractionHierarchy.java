@@ -0,0 +1,620 @@
+package pathfinder.hierarchy;
+
+import graph.Graph;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.*;
+
+/**
+ * This represents an immutable contraction hierarchy built over a graph, which answers least-cost path queries by
+ * searching only "upward" through a small number of important nodes.
+ * <p>
+ * Preprocessing contracts every node of the graph one at a time, in order of increasing importance. When a node is
+ * contracted, a shortcut edge is added between each pair of its remaining neighbors whose least-cost path runs
+ * through it. A query is then a bidirectional Dijkstra's search where both sides only follow edges towards more
+ * important nodes. Shortcuts remember the node they bypass, so the original edges of a path can be recovered.
+ * <p>
+ * The witness searches of preprocessing and both sides of each query take their frontiers from {@link
+ * IndexedPriorityQueue}s of the {@link QueueKind} chosen when the hierarchy is built. The queues of a query are
+ * reused by each thread from one query to the next.
+ *
+ * @param <N> Node type of the graph
+ */
+public class ContractionHierarchy<N> {
+
+    // AF(this) =
+    //      the original graph => graph
+    //      the position of the node with ID i in the contraction order => rank[i]
+    //      the edges (original or shortcut) from the node with ID i to more important nodes => for each j, an edge to
+    //          upTargets[i][j] costing upWeights[i][j], bypassing the node upMiddles[i][j] (-1 if original)
+    //      the edges (original or shortcut) from more important nodes to the node with ID i => for each j, an edge
+    //          from downSources[i][j] costing downWeights[i][j], bypassing the node downMiddles[i][j] (-1 if
+    //          original)
+    //      the frontiers of the two sides of a query, reused by the queries on each thread => queues.get() on that
+    //          thread
+
+    // Rep Invariant:
+    //      graph, rank, queues, and all adjacency arrays != null &&
+    //      rank is a permutation of 0 ... graph.size() - 1 &&
+    //      forall i, j, rank[upTargets[i][j]] > rank[i] && rank[downSources[i][j]] > rank[i] &&
+    //      forall shortcuts, rank of the bypassed node < rank of both of its ends
+
+    /**
+     * The maximum number of nodes a witness search may settle before giving up and adding a shortcut. Limiting
+     * witness searches can only add unnecessary shortcuts, never produce wrong answers.
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * Marks an edge that is part of the original graph, rather than a shortcut.
+     */
+    private static final int NO_MIDDLE = -1;
+
+    private final IndexedGraph<N> graph;
+    private final int[] rank;
+    private final int[][] upTargets;
+    private final double[][] upWeights;
+    private final int[][] upMiddles;
+    private final int[][] downSources;
+    private final double[][] downWeights;
+    private final int[][] downMiddles;
+
+    /**
+     * The number of shortcut edges added during preprocessing.
+     */
+    private final int shortcutCount;
+
+    /**
+     * The time spent preprocessing, in nanoseconds.
+     */
+    private final long preprocessingNanos;
+
+    private final ThreadLocal<IndexedPriorityQueue[]> queues;
+
+    /**
+     * Builds a contraction hierarchy over the given graph.
+     *
+     * @param graph The graph to build a hierarchy for.
+     * @spec.requires graph != null && all edge labels in graph are &ge; 0
+     */
+    public ContractionHierarchy(Graph<N, Double> graph) {
+        this(new IndexedGraph<>(graph));
+    }
+
+    /**
+     * Builds a contraction hierarchy over the given indexed graph, using {@link QueueKind#BINARY_HEAP}s.
+     *
+     * @param graph The graph to build a hierarchy for.
+     * @spec.requires graph != null
+     */
+    public ContractionHierarchy(IndexedGraph<N> graph) {
+        this(graph, QueueKind.BINARY_HEAP);
+    }
+
+    /**
+     * Builds a contraction hierarchy over the given indexed graph, using the given kind of priority queue.
+     *
+     * @param graph The graph to build a hierarchy for.
+     * @param queue The kind of priority queue used by the searches of preprocessing and of queries.
+     * @spec.requires graph, queue != null
+     */
+    public ContractionHierarchy(IndexedGraph<N> graph, QueueKind queue) {
+        long startTime = System.nanoTime();
+        this.graph = graph;
+        Contractor contractor = new Contractor(graph, queue);
+        contractor.contractAll();
+        this.rank = contractor.rank;
+        this.shortcutCount = contractor.shortcutCount;
+        // Split every edge by whether it leads up or down the hierarchy
+        int n = graph.size();
+        List<List<Arc>> up = new ArrayList<>();
+        List<List<Arc>> down = new ArrayList<>();
+        for(int id = 0; id < n; id++) {
+            up.add(new ArrayList<>());
+            down.add(new ArrayList<>());
+        }
+        for(int id = 0; id < n; id++) {
+            for(Arc arc : contractor.out.get(id).values()) {
+                if(rank[arc.to] > rank[arc.from]) {
+                    up.get(arc.from).add(arc);
+                } else {
+                    down.get(arc.to).add(arc);
+                }
+            }
+        }
+        this.upTargets = new int[n][];
+        this.upWeights = new double[n][];
+        this.upMiddles = new int[n][];
+        this.downSources = new int[n][];
+        this.downWeights = new double[n][];
+        this.downMiddles = new int[n][];
+        for(int id = 0; id < n; id++) {
+            List<Arc> ups = up.get(id);
+            upTargets[id] = new int[ups.size()];
+            upWeights[id] = new double[ups.size()];
+            upMiddles[id] = new int[ups.size()];
+            for(int i = 0; i < ups.size(); i++) {
+                upTargets[id][i] = ups.get(i).to;
+                upWeights[id][i] = ups.get(i).weight;
+                upMiddles[id][i] = ups.get(i).middle;
+            }
+            List<Arc> downs = down.get(id);
+            downSources[id] = new int[downs.size()];
+            downWeights[id] = new double[downs.size()];
+            downMiddles[id] = new int[downs.size()];
+            for(int i = 0; i < downs.size(); i++) {
+                downSources[id][i] = downs.get(i).from;
+                downWeights[id][i] = downs.get(i).weight;
+                downMiddles[id][i] = downs.get(i).middle;
+            }
+        }
+        this.preprocessingNanos = System.nanoTime() - startTime;
+        this.queues = ThreadLocal.withInitial(() -> new IndexedPriorityQueue[]{queue.create(n), queue.create(n)});
+        checkRep();
+    }
+
+    /**
+     * @return The number of shortcut edges added during preprocessing.
+     */
+    public int getShortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * @return The number of edges, original and shortcut, stored by this hierarchy.
+     */
+    public int getEdgeCount() {
+        int count = 0;
+        for(int id = 0; id < upTargets.length; id++) {
+            count += upTargets[id].length + downSources[id].length;
+        }
+        return count;
+    }
+
+    /**
+     * @return The time spent building this hierarchy, in milliseconds.
+     */
+    public double getPreprocessingMillis() {
+        return preprocessingNanos / 1e6;
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes, made of edges of the original graph. Returns null
+     * if no such path exists. The returned path has the same cost as the one found by Dijkstra's algorithm on the
+     * original graph.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes,
+     * and null if no such path exists.
+     * @throws IllegalArgumentException if either node is not in the graph this hierarchy was built over.
+     */
+    public Path<N> findPath(N startNode, N endNode) {
+        return findPath(startNode, endNode, null);
+    }
+
+    /**
+     * Returns the least-cost {@link Path} between two given nodes, made of edges of the original graph, recording the
+     * work done by the search. Returns null if no such path exists. The returned path has the same cost as the one
+     * found by Dijkstra's algorithm on the original graph.
+     *
+     * @param startNode Starting node of path
+     * @param endNode   End node of path
+     * @param recorder  Recorder to record the nodes settled and entries pushed by both upward searches in, or null if
+     *                  the search is not to be recorded
+     * @return a {@link Path} object representing the least-cost path between the given starting and ending nodes,
+     * and null if no such path exists.
+     * @throws IllegalArgumentException if either node is not in the graph this hierarchy was built over.
+     */
+    public Path<N> findPath(N startNode, N endNode, SearchMetrics.Recorder recorder) {
+        int start = graph.idOf(startNode);
+        int end = graph.idOf(endNode);
+        if(start < 0 || end < 0) {
+            throw new IllegalArgumentException("Node is not in this hierarchy.");
+        }
+        if(start == end) {
+            if(recorder != null) {
+                recorder.record(0, 0);
+            }
+            return new Path<>(startNode);
+        }
+        IndexedPriorityQueue[] frontiers = queues.get();
+        UpwardSearch forward = new UpwardSearch(start, upTargets, upWeights, frontiers[0]);
+        UpwardSearch backward = new UpwardSearch(end, downSources, downWeights, frontiers[1]);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while(forward.peekCost() < best || backward.peekCost() < best) {
+            UpwardSearch side = forward.peekCost() <= backward.peekCost() ? forward : backward;
+            UpwardSearch other = side == forward ? backward : forward;
+            int settled = side.settleNext();
+            Label otherLabel = other.labels.get(settled);
+            if(otherLabel != null) {
+                double total = side.labels.get(settled).cost + otherLabel.cost;
+                if(total < best) {
+                    best = total;
+                    meeting = settled;
+                }
+            }
+        }
+        frontiers[0].clear();
+        frontiers[1].clear();
+        if(recorder != null) {
+            recorder.record(forward.settled + backward.settled, forward.pushes + backward.pushes);
+        }
+        if(meeting < 0) {
+            return null;
+        }
+        // Collect the hierarchy edges from the start up to the meeting node, then down to the end
+        Deque<int[]> upEdges = new ArrayDeque<>();
+        for(int id = meeting; id != start; ) {
+            Label label = forward.labels.get(id);
+            upEdges.push(new int[]{label.parent, label.edge});
+            id = label.parent;
+        }
+        List<N> nodes = new ArrayList<>();
+        List<Double> segmentCosts = new ArrayList<>();
+        nodes.add(startNode);
+        for(int[] edge : upEdges) {
+            int from = edge[0];
+            int i = edge[1];
+            unpack(nodes, segmentCosts, from, upTargets[from][i], upWeights[from][i], upMiddles[from][i]);
+        }
+        for(int id = meeting; id != end; ) {
+            Label label = backward.labels.get(id);
+            int to = label.parent;
+            int i = label.edge;
+            unpack(nodes, segmentCosts, id, to, downWeights[to][i], downMiddles[to][i]);
+            id = to;
+        }
+        double[] costs = new double[segmentCosts.size()];
+        for(int i = 0; i < costs.length; i++) {
+            costs[i] = segmentCosts.get(i);
+        }
+        return new Path<>(nodes, costs);
+    }
+
+    /**
+     * Appends the original edges making up the given hierarchy edge to the end of a path, given as its nodes and the
+     * costs of its segments.
+     *
+     * @param nodes        The nodes of the path to extend, which ends at {@code from}
+     * @param segmentCosts The cost of each segment of the path to extend
+     * @param from         The ID of the node the edge leaves
+     * @param to           The ID of the node the edge enters
+     * @param weight       The cost of the edge
+     * @param middle       The ID of the node the edge bypasses, or {@link #NO_MIDDLE} if it is an original edge
+     * @spec.modifies nodes, segmentCosts
+     * @spec.effects appends the node at the end of every original edge the given edge represents to nodes, and the
+     * cost of the edge to segmentCosts
+     */
+    private void unpack(List<N> nodes, List<Double> segmentCosts, int from, int to, double weight, int middle) {
+        if(middle == NO_MIDDLE) {
+            nodes.add(graph.nodeOf(to));
+            segmentCosts.add(weight);
+            return;
+        }
+        // The bypassed node was contracted before both ends, so the first half leads down into it and the second
+        // half leads up out of it
+        for(int i = 0; i < downSources[middle].length; i++) {
+            if(downSources[middle][i] == from) {
+                unpack(nodes, segmentCosts, from, middle, downWeights[middle][i], downMiddles[middle][i]);
+                break;
+            }
+        }
+        for(int i = 0; i < upTargets[middle].length; i++) {
+            if(upTargets[middle][i] == to) {
+                unpack(nodes, segmentCosts, middle, to, upWeights[middle][i], upMiddles[middle][i]);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert graph != null && rank != null && queues != null;
+        assert rank.length == graph.size();
+        for(int id = 0; id < upTargets.length; id++) {
+            for(int target : upTargets[id]) {
+                assert rank[target] > rank[id];
+            }
+            for(int source : downSources[id]) {
+                assert rank[source] > rank[id];
+            }
+        }
+    }
+
+    /**
+     * The search state of one node reached by one side of a query.
+     */
+    private static class Label {
+        private double cost;
+        private int parent;
+        private int edge;
+
+        private Label(double cost, int parent, int edge) {
+            this.cost = cost;
+            this.parent = parent;
+            this.edge = edge;
+        }
+    }
+
+    /**
+     * One side of a query: a Dijkstra's search from a single node that only follows edges leading up the
+     * hierarchy. Search spaces are small, so labels are kept in a map rather than arrays sized to the graph; the
+     * frontier, whose keys are lowered in place, is borrowed empty and takes time proportional to its contents to
+     * clear.
+     */
+    private static class UpwardSearch {
+        private final int[][] targets;
+        private final double[][] weights;
+        private final Map<Integer, Label> labels = new HashMap<>();
+        private final IndexedPriorityQueue active;
+        // Nodes settled and entries added to the frontier so far
+        private int settled;
+        private int pushes = 1;
+
+        private UpwardSearch(int source, int[][] targets, double[][] weights, IndexedPriorityQueue active) {
+            this.targets = targets;
+            this.weights = weights;
+            this.active = active;
+            labels.put(source, new Label(0, -1, -1));
+            active.offer(source, 0);
+        }
+
+        /**
+         * @return The smallest cost on the frontier, or infinity if the search is exhausted.
+         */
+        private double peekCost() {
+            return active.isEmpty() ? Double.POSITIVE_INFINITY : active.peekKey();
+        }
+
+        /**
+         * Settles the cheapest node on the frontier and relaxes the edges leaving it.
+         *
+         * @return The ID of the settled node.
+         */
+        private int settleNext() {
+            int node = active.poll();
+            Label label = labels.get(node);
+            settled++;
+            for(int i = 0; i < targets[node].length; i++) {
+                int child = targets[node][i];
+                double cost = label.cost + weights[node][i];
+                Label childLabel = labels.get(child);
+                if(childLabel == null) {
+                    labels.put(child, new Label(cost, node, i));
+                    active.offer(child, cost);
+                    pushes++;
+                } else if(cost < childLabel.cost) {
+                    // Settled nodes can never be reached more cheaply, so they are never offered again
+                    childLabel.cost = cost;
+                    childLabel.parent = node;
+                    childLabel.edge = i;
+                    active.offer(child, cost);
+                    pushes++;
+                }
+            }
+            return node;
+        }
+    }
+
+    /**
+     * An edge of the graph being contracted, either original or a shortcut.
+     */
+    private static class Arc {
+        private final int from;
+        private final int to;
+        private double weight;
+        private int middle;
+
+        private Arc(int from, int to, double weight, int middle) {
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.middle = middle;
+        }
+    }
+
+    /**
+     * The mutable state of the preprocessing phase, which contracts every node and records the shortcuts needed.
+     */
+    private static class Contractor {
+        // Edges leaving and entering each node, keyed by the node at the other end
+        private final List<Map<Integer, Arc>> out = new ArrayList<>();
+        private final List<Map<Integer, Arc>> in = new ArrayList<>();
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+        private final int[] rank;
+        private int shortcutCount;
+        // Witness search state, reused between searches and reset through the touched list
+        private final double[] witnessCost;
+        private final List<Integer> touched = new ArrayList<>();
+        private final IndexedPriorityQueue witnessQueue;
+
+        private Contractor(IndexedGraph<?> graph, QueueKind queue) {
+            int n = graph.size();
+            for(int id = 0; id < n; id++) {
+                out.add(new HashMap<>());
+                in.add(new HashMap<>());
+            }
+            for(int id = 0; id < n; id++) {
+                for(int i = 0; i < graph.degree(id); i++) {
+                    int child = graph.target(id, i);
+                    if(child != id) {
+                        addArc(id, child, graph.weight(id, i), NO_MIDDLE);
+                    }
+                }
+            }
+            this.contracted = new boolean[n];
+            this.contractedNeighbors = new int[n];
+            this.rank = new int[n];
+            this.witnessCost = new double[n];
+            Arrays.fill(witnessCost, Double.POSITIVE_INFINITY);
+            this.witnessQueue = queue.create(n);
+        }
+
+        /**
+         * Contracts every node, least important first, updating priorities lazily. Priorities can rise as well as
+         * fall and ties are broken by ID, so the order is kept in a {@link PriorityQueue} with re-queued entries
+         * rather than an {@link IndexedPriorityQueue}.
+         */
+        private void contractAll() {
+            Queue<double[]> order = new PriorityQueue<>(new Comparator<double[]>() {
+                @Override
+                public int compare(double[] o1, double[] o2) {
+                    // Break ties by ID so the contraction order is deterministic
+                    int byPriority = Double.compare(o1[0], o2[0]);
+                    return byPriority != 0 ? byPriority : Double.compare(o1[1], o2[1]);
+                }
+            });
+            for(int id = 0; id < contracted.length; id++) {
+                order.add(new double[]{priority(id), id});
+            }
+            int nextRank = 0;
+            while(!order.isEmpty()) {
+                int node = (int) order.remove()[1];
+                double current = priority(node);
+                if(!order.isEmpty() && current > order.peek()[0]) {
+                    // Priority went up since it was queued; try again later
+                    order.add(new double[]{current, node});
+                    continue;
+                }
+                for(Arc shortcut : shortcuts(node)) {
+                    addArc(shortcut.from, shortcut.to, shortcut.weight, node);
+                }
+                contracted[node] = true;
+                rank[node] = nextRank++;
+                for(int neighbor : out.get(node).keySet()) {
+                    contractedNeighbors[neighbor]++;
+                }
+                for(int neighbor : in.get(node).keySet()) {
+                    contractedNeighbors[neighbor]++;
+                }
+            }
+        }
+
+        /**
+         * @return The importance of a node: the number of edges contracting it would add minus the number it
+         * would remove, plus the number of already contracted neighbors to keep contraction spread evenly.
+         */
+        private double priority(int node) {
+            int removed = 0;
+            for(int neighbor : out.get(node).keySet()) {
+                if(!contracted[neighbor]) {
+                    removed++;
+                }
+            }
+            for(int neighbor : in.get(node).keySet()) {
+                if(!contracted[neighbor]) {
+                    removed++;
+                }
+            }
+            return shortcuts(node).size() - removed + contractedNeighbors[node];
+        }
+
+        /**
+         * Finds the shortcuts needed to preserve least-cost paths between the remaining neighbors of a node if it
+         * were contracted.
+         *
+         * @return The shortcuts, where each arc's weight is the cost of travelling through {@code node}.
+         */
+        private List<Arc> shortcuts(int node) {
+            List<Arc> shortcuts = new ArrayList<>();
+            for(Arc inArc : in.get(node).values()) {
+                int source = inArc.from;
+                if(contracted[source]) {
+                    continue;
+                }
+                double maxCost = 0;
+                for(Arc outArc : out.get(node).values()) {
+                    if(!contracted[outArc.to] && outArc.to != source) {
+                        maxCost = Math.max(maxCost, inArc.weight + outArc.weight);
+                    }
+                }
+                witnessSearch(source, node, maxCost);
+                for(Arc outArc : out.get(node).values()) {
+                    int target = outArc.to;
+                    if(contracted[target] || target == source) {
+                        continue;
+                    }
+                    double viaCost = inArc.weight + outArc.weight;
+                    if(witnessCost[target] > viaCost) {
+                        shortcuts.add(new Arc(source, target, viaCost, node));
+                    }
+                }
+                resetWitness();
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Runs a limited Dijkstra's search from {@code source} over uncontracted nodes other than {@code
+         * excluded}, recording costs in {@code witnessCost}.
+         */
+        private void witnessSearch(int source, int excluded, double maxCost) {
+            IndexedPriorityQueue active = witnessQueue;
+            witnessCost[source] = 0;
+            touched.add(source);
+            active.offer(source, 0);
+            int settled = 0;
+            while(!active.isEmpty() && settled < WITNESS_SETTLE_LIMIT) {
+                if(active.peekKey() > maxCost) {
+                    break;
+                }
+                int node = active.poll();
+                double nodeCost = active.keyOf(node);
+                settled++;
+                for(Arc arc : out.get(node).values()) {
+                    int child = arc.to;
+                    if(contracted[child] || child == excluded) {
+                        continue;
+                    }
+                    double cost = nodeCost + arc.weight;
+                    if(cost < witnessCost[child]) {
+                        if(Double.isInfinite(witnessCost[child])) {
+                            touched.add(child);
+                        }
+                        witnessCost[child] = cost;
+                        active.offer(child, cost);
+                    }
+                }
+            }
+            active.clear();
+        }
+
+        private void resetWitness() {
+            for(int node : touched) {
+                witnessCost[node] = Double.POSITIVE_INFINITY;
+            }
+            touched.clear();
+        }
+
+        /**
+         * Adds an edge, or lowers the cost of the existing edge between the same nodes if the new one is cheaper.
+         */
+        private void addArc(int from, int to, double weight, int middle) {
+            Arc existing = out.get(from).get(to);
+            if(existing == null) {
+                Arc arc = new Arc(from, to, weight, middle);
+                out.get(from).put(to, arc);
+                in.get(to).put(from, arc);
+                if(middle != NO_MIDDLE) {
+                    shortcutCount++;
+                }
+            } else if(weight < existing.weight) {
+                if(existing.middle == NO_MIDDLE && middle != NO_MIDDLE) {
+                    shortcutCount++;
+                }
+                existing.weight = weight;
+                existing.middle = middle;
+            }
+        }
+    }
+}
@@ -0,0 +1,2 @@
+/** Contraction hierarchies used to answer Pathfinder route queries quickly */
+package pathfinder.hierarchy;
@@ -0,0 +1,130 @@
+package pathfinder.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This represents a distribution of non-negative whole numbers, such as latencies in nanoseconds or the number of
+ * nodes settled by searches, that many threads can record values in at once without locking. Values are counted in
+ * buckets whose width grows with the value: each power of two is split into {@value #SUB_BUCKETS} buckets, so any
+ * quantile read back is within about 6% of a value that was recorded, however large. Values of
+ * {@value #MAX_VALUE} or more are counted as {@value #MAX_VALUE}.
+ * <p>
+ * Recording a value increments one bucket and two striped counters, so it never waits for another thread. Reading
+ * quantiles while values are recorded sees each bucket at some moment during the read.
+ */
+public class Histogram {
+
+    // AF(this) =
+    //      a distribution in which counts.get(i) values lie in [lowerBound(i), lowerBound(i + 1)), with total count
+    //      count.sum() and total sum.sum()
+    //
+    // Rep Invariant:
+    //      counts != null && counts.length() == BUCKETS && count, sum != null &&
+    //      every count >= 0
+
+    /**
+     * The largest value that is counted as itself.
+     */
+    public static final long MAX_VALUE = (1L << 40) - 1;
+
+    // Values below SUB_BUCKETS each have their own bucket, and each power of two above is split into SUB_BUCKETS
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+
+    /**
+     * Creates a new empty histogram.
+     */
+    public Histogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new LongAdder();
+        sum = new LongAdder();
+        checkRep();
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param value The value to record.
+     * @spec.requires value &ge; 0
+     * @spec.modifies this
+     * @spec.effects adds value to the distribution
+     */
+    public void record(long value) {
+        long clamped = Math.min(value, MAX_VALUE);
+        counts.getAndIncrement(bucketOf(clamped));
+        count.increment();
+        sum.add(clamped);
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return The sum of the values recorded.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * Estimates a quantile of the values recorded, such as the median (0.5) or the 99th percentile (0.99).
+     *
+     * @param quantile The fraction of values to be no more than the result.
+     * @return The middle of the bucket holding the value of that rank, or 0 if no value was recorded.
+     * @spec.requires 0 &le; quantile &le; 1
+     */
+    public double quantile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) return (lowerBound(i) + lowerBound(i + 1) - 1) / 2.0;
+        }
+        return MAX_VALUE;
+    }
+
+    /**
+     * @return The index of the bucket counting the given value.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return The least value counted in the bucket with the given index.
+     */
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert counts != null && counts.length() == BUCKETS && count != null && sum != null;
+    }
+}
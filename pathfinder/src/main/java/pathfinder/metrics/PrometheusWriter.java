@@ -0,0 +1,155 @@
+package pathfinder.metrics;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * PrometheusWriter builds a page of metrics in the Prometheus text exposition format, one sample per line. Each
+ * metric family is introduced by its help text and type the first time a sample of it is written, so samples of one
+ * family must be written one after another.
+ */
+public class PrometheusWriter {
+
+    // AF(this) =
+    //      the page text, on which the families named in described have been introduced
+    //
+    // Rep Invariant:
+    //      text != null && described != null
+
+    /**
+     * The content type of a page in this format.
+     */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // The quantiles written for every summary
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final StringBuilder text;
+    private final Set<String> described;
+
+    /**
+     * Creates a new, empty page.
+     */
+    public PrometheusWriter() {
+        text = new StringBuilder();
+        described = new HashSet<>();
+        checkRep();
+    }
+
+    /**
+     * Writes one sample of a counter, which only ever increases.
+     *
+     * @param name   The name of the metric, such as {@code campuspaths_requests_total}.
+     * @param help   What the metric counts.
+     * @param value  The value of the counter.
+     * @param labels Alternating label names and values, identifying this sample among the family's samples.
+     * @return this writer
+     * @spec.requires name, help, labels != null && labels.length is even
+     */
+    public PrometheusWriter counter(String name, String help, double value, String... labels) {
+        describe(name, "counter", help);
+        return sample(name, labels, null, value);
+    }
+
+    /**
+     * Writes one sample of a gauge, which may go up and down.
+     *
+     * @param name   The name of the metric.
+     * @param help   What the metric measures.
+     * @param value  The value of the gauge.
+     * @param labels Alternating label names and values, identifying this sample among the family's samples.
+     * @return this writer
+     * @spec.requires name, help, labels != null && labels.length is even
+     */
+    public PrometheusWriter gauge(String name, String help, double value, String... labels) {
+        describe(name, "gauge", help);
+        return sample(name, labels, null, value);
+    }
+
+    /**
+     * Writes a histogram as a summary: its median, 90th, 99th and 99.9th percentiles, its sum and its count.
+     *
+     * @param name      The name of the metric.
+     * @param help      What the metric measures.
+     * @param histogram The histogram to write.
+     * @param scale     The factor each recorded value is multiplied by, such as 1e-9 to write nanoseconds in
+     *                  seconds.
+     * @param labels    Alternating label names and values, identifying this summary among the family's.
+     * @return this writer
+     * @spec.requires name, help, histogram, labels != null && labels.length is even
+     */
+    public PrometheusWriter summary(String name, String help, Histogram histogram, double scale, String... labels) {
+        describe(name, "summary", help);
+        for (double quantile : QUANTILES) {
+            sample(name, labels, Double.toString(quantile), histogram.quantile(quantile) * scale);
+        }
+        sample(name + "_sum", labels, null, histogram.sum() * scale);
+        return sample(name + "_count", labels, null, histogram.count());
+    }
+
+    /**
+     * Writes the help text and type of a family, unless they have been written already.
+     */
+    private void describe(String name, String type, String help) {
+        if (described.add(name)) {
+            text.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n"))
+                .append('\n');
+            text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+    }
+
+    /**
+     * Writes one sample line, with the given labels and, if it is not null, a quantile label.
+     */
+    private PrometheusWriter sample(String name, String[] labels, String quantile, double value) {
+        text.append(name);
+        if (labels.length > 0 || quantile != null) {
+            text.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) text.append(',');
+                text.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            if (quantile != null) {
+                if (labels.length > 0) text.append(',');
+                text.append("quantile=\"").append(quantile).append('"');
+            }
+            text.append('}');
+        }
+        text.append(' ');
+        if (Double.isNaN(value)) {
+            text.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            text.append(value > 0 ? "+Inf" : "-Inf");
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+        return this;
+    }
+
+    /**
+     * @return The given label value with backslashes, quotes and line breaks escaped.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * @return The page written so far.
+     */
+    @Override
+    public String toString() {
+        checkRep();
+        return text.toString();
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert text != null && described != null;
+    }
+}
@@ -0,0 +1,97 @@
+package pathfinder.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This represents a count of events per second over the last minute, such as requests served, that many threads can
+ * mark events in at once without locking. Events are counted in one slot per second of a ring covering a minute
+ * and the second in progress; each slot holds the second it counts for beside the count, so a slot left over from an
+ * earlier lap of the ring is reset by the first event to reach it.
+ */
+public class RateMeter {
+
+    // AF(this) =
+    //      the events marked in second s since the epoch, for each of the last SLOTS seconds s => the low 32 bits
+    //          of slots.get(s % SLOTS), if the high 32 bits are the low 32 bits of s, or else none
+    //
+    // Rep Invariant:
+    //      slots != null && slots.length() == SLOTS
+
+    /**
+     * The number of seconds events are averaged over.
+     */
+    public static final int SECONDS = 60;
+
+    // One slot for each second averaged over and one for the second in progress, so marking now never resets a
+    // second still being averaged
+    private static final int SLOTS = SECONDS + 1;
+
+    private final AtomicLongArray slots;
+
+    /**
+     * Creates a new meter with no events marked.
+     */
+    public RateMeter() {
+        slots = new AtomicLongArray(SLOTS);
+        checkRep();
+    }
+
+    /**
+     * Marks one event as happening now, by the system clock.
+     *
+     * @spec.modifies this
+     * @spec.effects adds one event to the current second
+     */
+    public void mark() {
+        mark(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+    }
+
+    /**
+     * Marks one event as happening in the given second.
+     *
+     * @param second The second the event happened in.
+     * @spec.requires second &ge; 0
+     * @spec.modifies this
+     * @spec.effects adds one event to the given second
+     */
+    public void mark(long second) {
+        int slot = (int) (second % SLOTS);
+        long stamp = (second & 0xFFFFFFFFL) << 32;
+        while (true) {
+            long current = slots.get(slot);
+            long next = (current & 0xFFFFFFFF00000000L) == stamp ? current + 1 : stamp | 1;
+            if (slots.compareAndSet(slot, current, next)) return;
+        }
+    }
+
+    /**
+     * @return The average number of events per second over the last {@value #SECONDS} whole seconds, leaving out
+     * the second still in progress.
+     */
+    public double perSecond() {
+        return perSecond(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+    }
+
+    /**
+     * @param now The current second.
+     * @return The average number of events per second over the {@value #SECONDS} whole seconds before {@code now}.
+     */
+    public double perSecond(long now) {
+        long total = 0;
+        for (long second = now - SECONDS; second < now; second++) {
+            if (second < 0) continue;
+            long current = slots.get((int) (second % SLOTS));
+            if ((current & 0xFFFFFFFF00000000L) == (second & 0xFFFFFFFFL) << 32) total += current & 0xFFFFFFFFL;
+        }
+        return total / (double) SECONDS;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert slots != null && slots.length() == SLOTS;
+    }
+}
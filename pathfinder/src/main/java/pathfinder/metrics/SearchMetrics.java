@@ -0,0 +1,141 @@
+package pathfinder.metrics;
+
+import pathfinder.SearchEngine;
+
+/**
+ * SearchMetrics is a static class holding, for each {@link SearchEngine}, the distributions of the work done by each
+ * search: the number of nodes it settled and the number of entries it pushed onto its priority queue. Searches
+ * count these in local variables as they run and record them once when they finish, so recording costs a few
+ * increments per search rather than per node.
+ * <p>
+ * Searches only record into the {@link Recorder} they are given, so that the searches run to answer queries are
+ * told apart from the same searches run by tools and tests, and a query answered by another search than its map's
+ * engine, because closures apply, is recorded under {@link #closureFallback()} rather than that engine.
+ */
+public final class SearchMetrics {
+
+    private static final Recorder[] ENGINES = new Recorder[SearchEngine.values().length];
+    private static final Recorder CLOSURE_FALLBACK = new Recorder("CLOSURE_FALLBACK");
+
+    static {
+        for (SearchEngine engine : SearchEngine.values()) {
+            ENGINES[engine.ordinal()] = new Recorder(engine.name());
+        }
+    }
+
+    private SearchMetrics() {
+    }
+
+    /**
+     * @param engine A search engine.
+     * @return The recorder for the queries answered by that engine.
+     * @spec.requires engine != null
+     */
+    public static Recorder recorder(SearchEngine engine) {
+        return ENGINES[engine.ordinal()];
+    }
+
+    /**
+     * @return The recorder for the queries answered by a search that skips closed edges, whatever the engine of the
+     * map they were asked of.
+     */
+    public static Recorder closureFallback() {
+        return CLOSURE_FALLBACK;
+    }
+
+    /**
+     * @param engine A search engine.
+     * @return The distribution of the number of nodes settled by each search run by that engine.
+     * @spec.requires engine != null
+     */
+    public static Histogram settled(SearchEngine engine) {
+        return recorder(engine).settled;
+    }
+
+    /**
+     * @param engine A search engine.
+     * @return The distribution of the number of priority queue entries pushed by each search run by that engine.
+     * @spec.requires engine != null
+     */
+    public static Histogram pushes(SearchEngine engine) {
+        return recorder(engine).pushes;
+    }
+
+    /**
+     * Writes the distributions of every recorder that has recorded a search.
+     *
+     * @param out The page to write to.
+     * @spec.requires out != null
+     * @spec.modifies out
+     */
+    public static void write(PrometheusWriter out) {
+        for (Recorder recorder : all()) {
+            if (recorder.settled.count() == 0) continue;
+            out.summary("pathfinder_search_settled_nodes", "Nodes settled per search", recorder.settled, 1,
+                        "engine", recorder.label);
+        }
+        for (Recorder recorder : all()) {
+            if (recorder.pushes.count() == 0) continue;
+            out.summary("pathfinder_search_heap_pushes", "Priority queue pushes per search", recorder.pushes, 1,
+                        "engine", recorder.label);
+        }
+    }
+
+    /**
+     * @return Every recorder, the engines' in order and then the closure fallback's.
+     */
+    private static Recorder[] all() {
+        Recorder[] all = new Recorder[ENGINES.length + 1];
+        System.arraycopy(ENGINES, 0, all, 0, ENGINES.length);
+        all[ENGINES.length] = CLOSURE_FALLBACK;
+        return all;
+    }
+
+    /**
+     * The distributions of the work done by the searches of one kind, written under one engine label. Many threads
+     * can record into a Recorder at once.
+     */
+    public static final class Recorder {
+        private final String label;
+        private final Histogram settled = new Histogram();
+        private final Histogram pushes = new Histogram();
+
+        private Recorder(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Records the work done by one search.
+         *
+         * @param settled The number of nodes whose least cost the search finalized.
+         * @param pushes  The number of entries the search offered to its priority queue.
+         * @spec.requires settled, pushes &ge; 0
+         * @spec.effects records settled and pushes in this recorder's distributions
+         */
+        public void record(int settled, int pushes) {
+            this.settled.record(settled);
+            this.pushes.record(pushes);
+        }
+
+        /**
+         * @return The label the distributions are written under.
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @return The distribution of the number of nodes settled by each search recorded.
+         */
+        public Histogram settled() {
+            return settled;
+        }
+
+        /**
+         * @return The distribution of the number of priority queue entries pushed by each search recorded.
+         */
+        public Histogram pushes() {
+            return pushes;
+        }
+    }
+}
@@ -0,0 +1,2 @@
+/** Low-overhead metrics recorded by Pathfinder searches and servers, and written in Prometheus text format */
+package pathfinder.metrics;
@@ -2,11 +2,18 @@
 package pathfinder.parser;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
 /**
  * A utility class capable of parsing data in campus buildings and
@@ -24,8 +31,33 @@ public class CampusPathsParser {
      * @throws ParserException if the file cannot be found or parsed as expected
      */
     public static List<CampusBuilding> parseCampusBuildings(String file) {
+        return parseCampusBuildings(readLines(file));
+    }
+
+    /**
+     * Parses a campus buildings file anywhere on the file system, in the same format as the files
+     * in src/main/resources/data/, and returns a list of objects containing all the data in that file.
+     *
+     * @param file The location of a campus buildings file to parse.
+     * @return A {@link List} of {@link CampusBuilding} objects, one for each
+     * line in the parsed file, containing the data contained within that line.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static List<CampusBuilding> parseCampusBuildings(Path file) {
+        try {
+            return parseCampusBuildings(Files.readAllLines(file));
+        } catch (IOException e) {
+            throw new ParserException("Cannot read file: " + file, e);
+        }
+    }
+
+    /**
+     * @param lines The lines of a campus buildings file.
+     * @return A {@link CampusBuilding} for each line.
+     * @throws ParserException if a line cannot be parsed as expected
+     */
+    private static List<CampusBuilding> parseCampusBuildings(List<String> lines) {
         List<CampusBuilding> buildings = new ArrayList<>();
-        List<String> lines = readLines(file);
         //
         for (String line : lines) {
             String[] fields = line.split(",");
@@ -59,28 +91,129 @@ public class CampusPathsParser {
      */
     public static List<CampusPath> parseCampusPaths(String file) {
         List<CampusPath> paths = new ArrayList<>();
-        List<String> lines = readLines(file);
+        parseCampusPaths(file, (x1, y1, x2, y2, distance) -> paths.add(new CampusPath(x1, y1, x2, y2, distance)));
+        return paths;
+    }
+
+    /**
+     * Parses the campus paths file (in src/main/resources/data/) one line at a time, passing the
+     * data in each line to the given handler as soon as it is read. Only one line of the file is
+     * held in memory at a time, and reading a line creates no objects, so files of any length can
+     * be parsed. Lines before a line that cannot be parsed have already been handled when the
+     * exception is thrown.
+     *
+     * @param file    The simple filename of a campus paths file to parse.
+     * @param handler The handler to pass the data in each line to, in the order of the lines.
+     * @return The number of lines parsed.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static int parseCampusPaths(String file, PathHandler handler) {
+        return parseCampusPaths(PathShard.of(file), handler);
+    }
+
+    /**
+     * Parses the lines of a campus paths file that begin within the given shard one line at a time,
+     * passing the data in each line to the given handler as soon as it is read, as
+     * {@link #parseCampusPaths(String, PathHandler)} does for a whole file. Parsing every shard
+     * returned by {@link PathShard#split(int)} handles every line of the file exactly once.
+     *
+     * @param shard   The part of a campus paths file to parse.
+     * @param handler The handler to pass the data in each line to, in the order of the lines.
+     * @return The number of lines parsed.
+     * @throws ParserException if the file cannot be found or parsed as expected
+     */
+    public static int parseCampusPaths(PathShard shard, PathHandler handler) {
+        int count = 0;
+        try (InputStream stream = shard.open()) {
+            // Start one byte early and skip to the end of that line, so a line is only parsed by the shard it begins in
+            long first = Math.max(shard.start - 1, 0);
+            skipFully(stream, first);
+            CsvScanner scanner = new CsvScanner(stream, first);
+            if (shard.start > 0 && !scanner.nextLine()) {
+                return 0;
+            }
+            while (scanner.nextLine() && scanner.lineOffset() < shard.end) {
+                if (scanner.fieldCount() != 5) {
+                    throw new ParserException("Wrong number of fields in line");
+                }
+                double x1, x2, y1, y2, distance;
+                try {
+                    x1 = scanner.parseDouble(0);
+                    y1 = scanner.parseDouble(1);
+                    x2 = scanner.parseDouble(2);
+                    y2 = scanner.parseDouble(3);
+                    distance = scanner.parseDouble(4);
+                } catch (NumberFormatException e) {
+                    throw new ParserException("Cannot parse x/y coordinates as numbers", e);
+                }
+                //
+                handler.path(x1, y1, x2, y2, distance);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new ParserException("Cannot read file: " + shard, e);
+        }
         //
-        for (String line : lines) {
-            String[] fields = line.split(",");
-            if (fields.length != 5) {
-                throw new ParserException("Wrong number of fields in line");
+        return count;
+    }
+
+    /**
+     * Computes a checksum of the raw contents of the provided data files, in order, without
+     * parsing them. Any change to any of the files changes the checksum, with high probability.
+     *
+     * @param files The simple filenames of the data files.
+     * @return The CRC-32 checksum of the files' contents, one after the other.
+     * @throws ParserException if any file doesn't exist or can't be read
+     */
+    public static long checksum(String... files) {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        for (String file : files) {
+            try (InputStream stream = openData(file)) {
+                int read;
+                while ((read = stream.read(buffer)) > 0) {
+                    crc.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                throw new ParserException("Cannot read file: " + file, e);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Computes a fingerprint of the provided data files, in order, from their lengths and last modified times,
+     * without reading their contents. Any change to the files that changes either of them changes the fingerprint,
+     * with high probability, so an unchanged fingerprint is cheap evidence that the files are unchanged.
+     *
+     * @param files The simple filenames of the data files.
+     * @return The fingerprint of the files, or 0 if the length or last modified time of any of them is unknown.
+     * @throws ParserException if any file doesn't exist or can't be read
+     */
+    public static long fingerprint(String... files) {
+        long fingerprint = 17;
+        for (String file : files) {
+            URL url = CampusPathsParser.class.getResource("/data/" + file);
+            if (url == null) {
+                throw new ParserException("No such file: " + file);
             }
-            double x1, x2, y1, y2, distance;
             try {
-                x1 = Double.parseDouble(fields[0]);
-                y1 = Double.parseDouble(fields[1]);
-                x2 = Double.parseDouble(fields[2]);
-                y2 = Double.parseDouble(fields[3]);
-                distance = Double.parseDouble(fields[4]);
-            } catch (NumberFormatException e) {
-                throw new ParserException("Cannot parse x/y coordinates as numbers", e);
+                URLConnection connection = url.openConnection();
+                // Asking for the length opens the file, so close it again without reading anything
+                try (InputStream ignored = connection.getInputStream()) {
+                    long length = connection.getContentLengthLong();
+                    long modified = connection.getLastModified();
+                    if (length < 0 || modified == 0) {
+                        return 0;
+                    }
+                    fingerprint = 31 * (31 * fingerprint + length) + modified;
+                }
+            } catch (IOException e) {
+                throw new ParserException("Cannot read file: " + file, e);
             }
-            //
-            paths.add(new CampusPath(x1, y1, x2, y2, distance));
         }
-        //
-        return paths;
+        // 0 is kept to mean unknown
+        return fingerprint == 0 ? 1 : fingerprint;
     }
 
     /**
@@ -92,12 +225,207 @@ public class CampusPathsParser {
      * @return A new {@link List<String>} containing all lines in the file.
      */
     private static List<String> readLines(String filename) {
+        return new BufferedReader(new InputStreamReader(openData(filename))).lines().collect(Collectors.toList());
+    }
+
+    /**
+     * Opens the provided data file, which is located relative to the data/ folder in this
+     * parser's classpath.
+     *
+     * @param filename The file to open.
+     * @throws ParserException if the file doesn't exist or has an invalid name
+     * @return A stream of the file's contents.
+     */
+    private static InputStream openData(String filename) {
         // See MarvelParser.java (from hw-marvel) for an explanation of this code
         InputStream stream = CampusPathsParser.class.getResourceAsStream("/data/" + filename);
         if (stream == null) {
             throw new ParserException("No such file: " + filename);
         }
-        return new BufferedReader(new InputStreamReader(stream)).lines().collect(Collectors.toList());
+        return stream;
+    }
+
+    /**
+     * Skips the given number of bytes of a stream.
+     *
+     * @throws IOException if the stream cannot be read or ends first
+     */
+    private static void skipFully(InputStream stream, long count) throws IOException {
+        while (count > 0) {
+            long skipped = stream.skip(count);
+            if (skipped <= 0) {
+                if (stream.read() < 0) {
+                    throw new IOException("Stream ended " + count + " bytes early");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    /**
+     * A range of bytes of a campus paths file, either a data file (in src/main/resources/data/) or
+     * a file anywhere else. A shard holds the lines that begin within its range, so a file can be
+     * split into shards without knowing where its lines end, and the shards parsed independently.
+     */
+    public static final class PathShard {
+
+        // AF(this) =
+        //      the data file with the simple filename file, if path == null, or else the file at path,
+        //      from byte start up to byte end - 1
+        //
+        // Rep Invariant:
+        //      (file == null) != (path == null) && 0 <= start <= end
+
+        private final String file;
+        private final Path path;
+        private final long start;
+        private final long end;
+
+        private PathShard(String file, Path path, long start, long end) {
+            this.file = file;
+            this.path = path;
+            this.start = start;
+            this.end = end;
+            checkRep();
+        }
+
+        /**
+         * @param file The simple filename of a campus paths file (in src/main/resources/data/).
+         * @return A shard holding the whole file.
+         * @spec.requires file != null
+         */
+        public static PathShard of(String file) {
+            return new PathShard(file, null, 0, Long.MAX_VALUE);
+        }
+
+        /**
+         * @param path The location of a campus paths file.
+         * @return A shard holding the whole file.
+         * @spec.requires path != null
+         */
+        public static PathShard of(Path path) {
+            return new PathShard(null, path, 0, Long.MAX_VALUE);
+        }
+
+        /**
+         * Splits this shard into consecutive shards of about the same number of bytes.
+         *
+         * @param count The number of shards to split into.
+         * @return Between 1 and {@code count} shards, in order, together holding the same lines as this one.
+         * @throws ParserException if the file cannot be found or read
+         * @spec.requires count &ge; 1
+         */
+        public List<PathShard> split(int count) {
+            long last = Math.min(end, length());
+            long size = last - start;
+            List<PathShard> shards = new ArrayList<>();
+            long shardStart = start;
+            for (int i = 1; i <= count; i++) {
+                long shardEnd = i == count ? end : start + size * i / count;
+                if (shardEnd > shardStart || i == count) {
+                    shards.add(new PathShard(file, path, shardStart, shardEnd));
+                    shardStart = shardEnd;
+                }
+            }
+            return shards;
+        }
+
+        /**
+         * @return The length of the file in bytes.
+         * @throws ParserException if the file cannot be found or read
+         */
+        private long length() {
+            try {
+                if (path != null) {
+                    return Files.size(path);
+                }
+                URL url = CampusPathsParser.class.getResource("/data/" + file);
+                if (url == null) {
+                    throw new ParserException("No such file: " + file);
+                }
+                long length = url.openConnection().getContentLengthLong();
+                if (length >= 0) {
+                    return length;
+                }
+                // The length is unknown, so count the bytes
+                try (InputStream stream = open()) {
+                    byte[] buffer = new byte[8192];
+                    length = 0;
+                    int read;
+                    while ((read = stream.read(buffer)) > 0) {
+                        length += read;
+                    }
+                    return length;
+                }
+            } catch (IOException e) {
+                throw new ParserException("Cannot read file: " + this, e);
+            }
+        }
+
+        /**
+         * @return A stream of the whole file.
+         * @throws ParserException if the file doesn't exist
+         */
+        private InputStream open() {
+            if (path == null) {
+                return openData(file);
+            }
+            try {
+                return Files.newInputStream(path);
+            } catch (IOException e) {
+                throw new ParserException("No such file: " + path, e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PathShard)) {
+                return false;
+            }
+            PathShard other = (PathShard) obj;
+            return Objects.equals(file, other.file) && Objects.equals(path, other.path)
+                   && start == other.start && end == other.end;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, path, start, end);
+        }
+
+        @Override
+        public String toString() {
+            String name = file != null ? file : path.toString();
+            return end == Long.MAX_VALUE && start == 0 ? name : name + " [" + start + ", " + end + ")";
+        }
+
+        /**
+         * Ensures that the representation invariant has not been violated. Returns normally if
+         * there is no violation.
+         */
+        private void checkRep() {
+            assert (file == null) != (path == null);
+            assert 0 <= start && start <= end;
+        }
+
+    }
+
+    /**
+     * Receives the data in the lines of a campus paths file as they are parsed.
+     */
+    public interface PathHandler {
+
+        /**
+         * Handles one line of a campus paths file.
+         *
+         * @param x1       The x coordinate of the start of the path.
+         * @param y1       The y coordinate of the start of the path.
+         * @param x2       The x coordinate of the end of the path.
+         * @param y2       The y coordinate of the end of the path.
+         * @param distance The length of the path.
+         */
+        void path(double x1, double y1, double x2, double y2, double distance);
+
     }
 
     /**
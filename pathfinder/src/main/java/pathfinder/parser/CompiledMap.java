@@ -0,0 +1,452 @@
+package pathfinder.parser;
+
+import pathfinder.EdgeNormalizer;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser.ParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * This represents an immutable campus map read from a precompiled binary file, which holds the same data as the
+ * campus paths and campus buildings files in a form that can be used without parsing any text. The file is
+ * memory-mapped, and the points, paths and buildings are read straight from the mapped buffers, which
+ * {@link #graph()} serves searches from without copying them.
+ * <p>
+ * Each point on a path is given an ID between 0 and {@code pointCount() - 1}, and each path an ID between 0 and
+ * {@code pathCount() - 1}. The paths leaving each point have consecutive IDs, in compressed sparse row form. The
+ * paths are normalized when the file is compiled, as they are when the data files are loaded: only the shortest path
+ * from each point to each other point is kept, and {@link #edgeStats()} counts those left out. The file is written in
+ * little-endian byte order, the native order of common hardware, so the mapped buffers are read without swapping
+ * bytes.
+ * <p>
+ * The file records a checksum of the data files it was compiled from, a fingerprint of their lengths and last
+ * modified times, and a checksum of its own contents. A file compiled from older data files, written by another
+ * version of this class, or damaged in any way is refused, so that callers can fall back to parsing the data files.
+ * The data files are only read in full to check their checksum when their fingerprint has changed, or when asked
+ * to.
+ */
+public class CompiledMap {
+
+    // AF(this) =
+    //      the coordinates of the point with ID i => (xs.get(i), ys.get(i))
+    //      the paths leaving the point with ID i => the paths with IDs offsets.get(i) up to offsets.get(i + 1) - 1
+    //      the path with ID e => a path to the point with ID targets.get(e) of length distances.get(e)
+    //      the ID of each point => found in table, as IndexedGraph.pointTable lays it out
+    //      the buildings => buildings
+    //      the counts of the paths in the paths file and of those left out => stats
+    //      the fingerprint of the paths kept => pathsFingerprint
+
+    // Rep Invariant:
+    //      xs, ys, offsets, targets, distances, table, buildings, stats != null &&
+    //      xs.limit() == ys.limit() == offsets.limit() - 1 &&
+    //      targets.limit() == distances.limit() == offsets.get(offsets.limit() - 1) == stats.getKept() &&
+    //      table.limit() is a power of two > xs.limit()
+
+    /**
+     * The first four bytes of every compiled map, "CMAP".
+     */
+    private static final int MAGIC = 0x434D4150;
+
+    /**
+     * The version of the file layout, changed whenever the layout changes so that old files are refused.
+     */
+    public static final int VERSION = 3;
+
+    /**
+     * Bytes before the checksummed contents: the magic number, version, source fingerprint, source checksum and
+     * contents checksum.
+     */
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+
+    private final DoubleBuffer xs;
+    private final DoubleBuffer ys;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final DoubleBuffer distances;
+    private final IntBuffer table;
+    private final List<CampusBuilding> buildings;
+    private final EdgeNormalizer.Stats stats;
+    private final long pathsFingerprint;
+
+    private CompiledMap(DoubleBuffer xs, DoubleBuffer ys, IntBuffer offsets, IntBuffer targets,
+                        DoubleBuffer distances, IntBuffer table, List<CampusBuilding> buildings,
+                        EdgeNormalizer.Stats stats, long pathsFingerprint) {
+        this.xs = xs;
+        this.ys = ys;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.distances = distances;
+        this.table = table;
+        this.buildings = buildings;
+        this.stats = stats;
+        this.pathsFingerprint = pathsFingerprint;
+        checkRep();
+    }
+
+    /**
+     * Parses the campus paths and buildings files (in src/main/resources/data/) and writes them to a compiled map
+     * file, replacing any file already there.
+     *
+     * @param pathsFile     The simple filename of a campus paths file.
+     * @param buildingsFile The simple filename of a campus buildings file.
+     * @param out           The compiled map file to write.
+     * @throws IOException     if the compiled map file cannot be written
+     * @throws ParserException if the data files cannot be found or parsed as expected
+     */
+    public static void compile(String pathsFile, String buildingsFile, Path out) throws IOException {
+        long sourceFingerprint = CampusPathsParser.fingerprint(pathsFile, buildingsFile);
+        long sourceChecksum = CampusPathsParser.checksum(pathsFile, buildingsFile);
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths(pathsFile);
+        List<CampusBuilding> buildingList = CampusPathsParser.parseCampusBuildings(buildingsFile);
+        // Number the points in the order they first appear, then group the paths by the point they leave
+        Map<List<Double>, Integer> ids = new HashMap<>();
+        List<Double> xList = new ArrayList<>();
+        List<Double> yList = new ArrayList<>();
+        int[] from = new int[paths.size()];
+        int[] to = new int[paths.size()];
+        for (int e = 0; e < paths.size(); e++) {
+            CampusPath path = paths.get(e);
+            from[e] = idOf(path.getX1(), path.getY1(), ids, xList, yList);
+            to[e] = idOf(path.getX2(), path.getY2(), ids, xList, yList);
+        }
+        int pointCount = xList.size();
+        int[] offsets = new int[pointCount + 1];
+        for (int e = 0; e < paths.size(); e++) offsets[from[e] + 1]++;
+        for (int i = 0; i < pointCount; i++) offsets[i + 1] += offsets[i];
+        int[] targets = new int[paths.size()];
+        double[] distances = new double[paths.size()];
+        int[] filled = new int[pointCount];
+        for (int e = 0; e < paths.size(); e++) {
+            int position = offsets[from[e]] + filled[from[e]]++;
+            targets[position] = to[e];
+            distances[position] = paths.get(e).getDistance();
+        }
+        // Collapse parallel paths here rather than on every load, then pack the paths kept in each row together
+        int[] kept = new int[pointCount];
+        EdgeNormalizer.Stats stats = EdgeNormalizer.normalizeRows(offsets, targets, distances, 0, pointCount, kept);
+        int pathCount = 0;
+        for (int i = 0; i < pointCount; i++) {
+            System.arraycopy(targets, offsets[i], targets, pathCount, kept[i]);
+            System.arraycopy(distances, offsets[i], distances, pathCount, kept[i]);
+            offsets[i] = pathCount;
+            pathCount += kept[i];
+        }
+        offsets[pointCount] = pathCount;
+        double[] xs = new double[pointCount];
+        double[] ys = new double[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            xs[i] = xList.get(i);
+            ys[i] = yList.get(i);
+        }
+        int[] table = IndexedGraph.pointTable(xs, ys);
+        long pathsFingerprint = IndexedGraph.mapped(DoubleBuffer.wrap(xs), DoubleBuffer.wrap(ys),
+                                                    IntBuffer.wrap(offsets), IntBuffer.wrap(targets, 0, pathCount),
+                                                    DoubleBuffer.wrap(distances, 0, pathCount),
+                                                    IntBuffer.wrap(table)).fingerprint();
+        List<byte[]> names = new ArrayList<>();
+        int nameBytes = 0;
+        for (CampusBuilding building : buildingList) {
+            for (String name : new String[]{building.getShortName(), building.getLongName()}) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                names.add(bytes);
+                nameBytes += 4 + bytes.length;
+            }
+        }
+        // The counts and fingerprint take 24 bytes, so every double after them is 8-byte aligned in the mapped file
+        int size = HEADER_BYTES + 4 * 4 + 8 + 16 * pointCount + 12 * pathCount + 16 * buildingList.size()
+                   + 4 * (pointCount + 1) + 4 * table.length + 3 * 4 + nameBytes;
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(HEADER_BYTES);
+        buffer.putInt(pointCount).putInt(pathCount).putInt(buildingList.size()).putInt(table.length);
+        buffer.putLong(pathsFingerprint);
+        for (double x : xs) buffer.putDouble(x);
+        for (double y : ys) buffer.putDouble(y);
+        for (int e = 0; e < pathCount; e++) buffer.putDouble(distances[e]);
+        for (CampusBuilding building : buildingList) buffer.putDouble(building.getX()).putDouble(building.getY());
+        for (int offset : offsets) buffer.putInt(offset);
+        for (int e = 0; e < pathCount; e++) buffer.putInt(targets[e]);
+        for (int slot : table) buffer.putInt(slot);
+        buffer.putInt(stats.getEdges()).putInt(stats.getDuplicates()).putInt(stats.getSelfLoops());
+        for (byte[] name : names) buffer.putInt(name.length).put(name);
+        buffer.position(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, sourceFingerprint).putLong(16, sourceChecksum)
+              .putLong(24, crc.getValue());
+        buffer.rewind();
+        // Write to a temporary file first, so a reader never maps a half-written file
+        Path absolute = out.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        }
+        Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return The ID of the point at (x, y), giving it the next ID if it has none yet.
+     */
+    private static int idOf(double x, double y, Map<List<Double>, Integer> ids, List<Double> xs, List<Double> ys) {
+        List<Double> key = Arrays.asList(x, y);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = xs.size();
+            ids.put(key, id);
+            xs.add(x);
+            ys.add(y);
+        }
+        return id;
+    }
+
+    /**
+     * Memory-maps a compiled map file, checking that it was compiled from the current contents of the given data
+     * files and is undamaged. The contents of the data files are only checked if their lengths or last modified times
+     * have changed since the file was compiled.
+     *
+     * @param file          The compiled map file to read.
+     * @param pathsFile     The simple filename of the campus paths file it should have been compiled from.
+     * @param buildingsFile The simple filename of the campus buildings file it should have been compiled from.
+     * @return The compiled map in the file.
+     * @throws ParserException if the file does not exist or cannot be read, was written by another version of this
+     *                         class, was compiled from data files other than the given ones, or is damaged
+     */
+    public static CompiledMap load(Path file, String pathsFile, String buildingsFile) {
+        return load(file, pathsFile, buildingsFile, false);
+    }
+
+    /**
+     * Memory-maps a compiled map file, checking that it was compiled from the current contents of the given data
+     * files and is undamaged.
+     *
+     * @param file          The compiled map file to read.
+     * @param pathsFile     The simple filename of the campus paths file it should have been compiled from.
+     * @param buildingsFile The simple filename of the campus buildings file it should have been compiled from.
+     * @param verify        Whether to check the contents of the data files even if their lengths and last modified
+     *                      times are unchanged, which catches a change that kept both.
+     * @return The compiled map in the file.
+     * @throws ParserException if the file does not exist or cannot be read, was written by another version of this
+     *                         class, was compiled from data files other than the given ones, or is damaged
+     */
+    public static CompiledMap load(Path file, String pathsFile, String buildingsFile, boolean verify) {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ParserException("Cannot read compiled map: " + file, e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES + 4 * 4 + 8 || buffer.getInt(0) != MAGIC) {
+            throw new ParserException("Not a compiled map: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new ParserException("Compiled map has version " + buffer.getInt(4) + ", expected " + VERSION);
+        }
+        long fingerprint = buffer.getLong(8);
+        if (verify || fingerprint == 0 || fingerprint != CampusPathsParser.fingerprint(pathsFile, buildingsFile)) {
+            if (buffer.getLong(16) != CampusPathsParser.checksum(pathsFile, buildingsFile)) {
+                throw new ParserException("Compiled map is stale: the data files have changed since it was compiled");
+            }
+        }
+        ByteBuffer contents = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        contents.position(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(contents);
+        if (buffer.getLong(24) != crc.getValue()) {
+            throw new ParserException("Compiled map is damaged: " + file);
+        }
+        try {
+            contents.position(HEADER_BYTES);
+            int pointCount = contents.getInt();
+            int pathCount = contents.getInt();
+            int buildingCount = contents.getInt();
+            int tableLength = contents.getInt();
+            if (Integer.bitCount(tableLength) != 1 || tableLength <= pointCount) {
+                throw new IllegalArgumentException("Point table of " + tableLength + " slots");
+            }
+            long pathsFingerprint = contents.getLong();
+            DoubleBuffer xs = doubles(contents, pointCount);
+            DoubleBuffer ys = doubles(contents, pointCount);
+            DoubleBuffer distances = doubles(contents, pathCount);
+            double[] locations = new double[2 * buildingCount];
+            doubles(contents, 2 * buildingCount).get(locations);
+            IntBuffer offsets = ints(contents, pointCount + 1);
+            IntBuffer targets = ints(contents, pathCount);
+            IntBuffer table = ints(contents, tableLength);
+            EdgeNormalizer.Stats stats = new EdgeNormalizer.Stats(contents.getInt(), contents.getInt(),
+                                                                  contents.getInt());
+            List<CampusBuilding> buildings = new ArrayList<>(buildingCount);
+            for (int i = 0; i < buildingCount; i++) {
+                String shortName = readString(contents);
+                String longName = readString(contents);
+                buildings.add(new CampusBuilding(shortName, longName, locations[2 * i], locations[2 * i + 1]));
+            }
+            return new CompiledMap(xs, ys, offsets, targets, distances, table, buildings, stats, pathsFingerprint);
+        } catch (RuntimeException e) {
+            throw new ParserException("Compiled map is damaged: " + file, e);
+        }
+    }
+
+    /**
+     * @return A view of the given number of doubles at the buffer's position, leaving the position after them.
+     */
+    private static DoubleBuffer doubles(ByteBuffer buffer, int count) {
+        DoubleBuffer view = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        view.limit(count);
+        buffer.position(buffer.position() + 8 * count);
+        return view;
+    }
+
+    /**
+     * @return A view of the given number of ints at the buffer's position, leaving the position after them.
+     */
+    private static IntBuffer ints(ByteBuffer buffer, int count) {
+        IntBuffer view = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        view.limit(count);
+        buffer.position(buffer.position() + 4 * count);
+        return view;
+    }
+
+    /**
+     * @return The string stored at the buffer's position as its length in bytes followed by its UTF-8 bytes,
+     * leaving the position after it.
+     */
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The number of distinct points on paths.
+     */
+    public int pointCount() {
+        return xs.limit();
+    }
+
+    /**
+     * @return The number of paths kept, one per ordered pair of distinct points joined by a line of the paths file.
+     */
+    public int pathCount() {
+        return targets.limit();
+    }
+
+    /**
+     * @param point The ID of a point.
+     * @return The pixel-x coordinate of the point.
+     */
+    public double x(int point) {
+        return xs.get(point);
+    }
+
+    /**
+     * @param point The ID of a point.
+     * @return The pixel-y coordinate of the point.
+     */
+    public double y(int point) {
+        return ys.get(point);
+    }
+
+    /**
+     * @param point The ID of a point, or {@code pointCount()}.
+     * @return The ID of the first path leaving the point, or {@code pathCount()} if {@code point} is
+     * {@code pointCount()}. The paths leaving a point have IDs from its first path up to, but not including, the
+     * first path of the point with the next ID.
+     */
+    public int firstPath(int point) {
+        return offsets.get(point);
+    }
+
+    /**
+     * @param path The ID of a path.
+     * @return The ID of the point the path leads to.
+     */
+    public int target(int path) {
+        return targets.get(path);
+    }
+
+    /**
+     * @param path The ID of a path.
+     * @return The length of the path as described in the dataset.
+     */
+    public double distance(int path) {
+        return distances.get(path);
+    }
+
+    /**
+     * @return The buildings, in the order of the buildings file.
+     */
+    public List<CampusBuilding> buildings() {
+        return new ArrayList<>(buildings);
+    }
+
+    /**
+     * @return Counts of the lines of the paths file, and of those left out as parallel to a path no longer or as
+     * leading from a point to itself.
+     */
+    public EdgeNormalizer.Stats edgeStats() {
+        return stats;
+    }
+
+    /**
+     * @return The fingerprint of the paths kept, as {@link IndexedGraph#fingerprint()} computes it, stored when the
+     * file was compiled.
+     */
+    public long pathsFingerprint() {
+        return pathsFingerprint;
+    }
+
+    /**
+     * @return A graph of the points and paths that is a view over the mapped buffers: nothing is copied, and a
+     * {@link Point} is only created when a search asks for one.
+     */
+    public IndexedGraph<Point> graph() {
+        return IndexedGraph.mapped(xs, ys, offsets, targets, distances, table);
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert xs != null && ys != null && offsets != null && targets != null && distances != null && table != null;
+        assert buildings != null && stats != null;
+        assert xs.limit() == ys.limit() && offsets.limit() == xs.limit() + 1;
+        assert targets.limit() == distances.limit() && offsets.get(offsets.limit() - 1) == targets.limit();
+        assert targets.limit() == stats.getKept();
+        assert Integer.bitCount(table.limit()) == 1 && table.limit() > xs.limit();
+    }
+
+    /**
+     * Compiles the campus data files into a compiled map.
+     *
+     * @param args The compiled map file to write, which is "campus_map.bin" if not given.
+     * @throws IOException if the compiled map file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path out = Paths.get(args.length > 0 ? args[0] : "campus_map.bin");
+        long startTime = System.nanoTime();
+        compile("campus_paths.csv", "campus_buildings.csv", out);
+        System.out.printf("Compiled %s (%d bytes) in %.1f ms%n", out, Files.size(out),
+                          (System.nanoTime() - startTime) / 1e6);
+    }
+}
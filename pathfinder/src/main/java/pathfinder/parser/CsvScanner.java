@@ -0,0 +1,248 @@
+package pathfinder.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads comma-separated lines one at a time from a stream of bytes, through a buffer that is reused from one line to
+ * the next. Numeric fields are parsed straight from the buffer, so scanning a line of numbers creates no objects.
+ * <p>
+ * Lines end with "\n" or "\r\n", and the last line may have no ending. Fields are not quoted. Empty fields at the end
+ * of a line are dropped, as {@link String#split(String)} drops them, so a line of nothing but commas has no fields
+ * while an empty line has one empty field.
+ */
+class CsvScanner {
+
+    // AF(this) =
+    //      the current line, without its ending => the bytes buffer[lineStart] up to buffer[lineEnd - 1]
+    //      the i-th field of the current line => the bytes buffer[starts[i]] up to buffer[ends[i] - 1], for
+    //          i < fieldCount
+    //      the bytes read from the stream but not yet scanned => buffer[next] up to buffer[limit - 1]
+    //      the offset in the stream of buffer[0] => offset
+
+    // Rep Invariant:
+    //      stream, buffer, starts, ends != null && starts.length == ends.length &&
+    //      0 <= lineStart <= lineEnd <= next <= limit <= buffer.length && 0 <= fieldCount <= starts.length &&
+    //      forall i < fieldCount, lineStart <= starts[i] <= ends[i] <= lineEnd
+
+    /**
+     * Exact powers of ten: every one up to 10^22 is a double, so multiplying or dividing by one rounds only once.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * The largest integer below which every integer is a double.
+     */
+    private static final long EXACT_LIMIT = 1L << 53;
+
+    private final InputStream stream;
+    private byte[] buffer;
+    private int limit;
+    private int lineStart;
+    private int lineEnd;
+    private int next;
+    private int[] starts;
+    private int[] ends;
+    private int fieldCount;
+    private boolean endOfStream;
+    private long offset;
+
+    /**
+     * Creates a scanner over the given stream, positioned before its first line.
+     *
+     * @param stream The stream to read. It is read as needed, and not closed.
+     * @spec.requires stream != null
+     */
+    CsvScanner(InputStream stream) {
+        this(stream, 0);
+    }
+
+    /**
+     * Creates a scanner over the given stream, positioned before its first line, that counts offsets from the given
+     * offset of the first byte of the stream.
+     *
+     * @param stream The stream to read. It is read as needed, and not closed.
+     * @param offset The offset of the first byte of the stream in the file it was opened from.
+     * @spec.requires stream != null && offset &ge; 0
+     */
+    CsvScanner(InputStream stream, long offset) {
+        this.stream = stream;
+        this.offset = offset;
+        this.buffer = new byte[1 << 16];
+        this.starts = new int[8];
+        this.ends = new int[8];
+        checkRep();
+    }
+
+    /**
+     * Moves to the next line, splitting it into fields as {@link String#split(String)} splits it at commas.
+     *
+     * @return Whether there was a next line; if not, there is no current line.
+     * @throws IOException if the stream cannot be read
+     * @spec.modifies this
+     */
+    boolean nextLine() throws IOException {
+        int position = next;
+        lineStart = position;
+        fieldCount = 0;
+        int fieldStart = position;
+        while (true) {
+            if (position == limit) {
+                if (endOfStream) break;
+                // Move the part of the line read so far to the front of the buffer, and read more after it
+                int shift = lineStart;
+                fill();
+                position -= shift;
+                fieldStart -= shift;
+                for (int i = 0; i < fieldCount; i++) {
+                    starts[i] -= shift;
+                    ends[i] -= shift;
+                }
+                continue;
+            }
+            byte b = buffer[position];
+            if (b == '\n') break;
+            if (b == ',') {
+                addField(fieldStart, position);
+                fieldStart = position + 1;
+            }
+            position++;
+        }
+        if (position == lineStart && endOfStream) {
+            lineEnd = position;
+            next = position;
+            return false;
+        }
+        next = position < limit ? position + 1 : position;
+        lineEnd = position > lineStart && buffer[position - 1] == '\r' ? position - 1 : position;
+        addField(Math.min(fieldStart, lineEnd), lineEnd);
+        if (lineEnd > lineStart) {
+            while (fieldCount > 0 && starts[fieldCount - 1] == ends[fieldCount - 1]) fieldCount--;
+        }
+        checkRep();
+        return true;
+    }
+
+    /**
+     * @return The offset of the first byte of the current line, counting from the offset of the first byte of the
+     * stream given when this scanner was created.
+     */
+    long lineOffset() {
+        return offset + lineStart;
+    }
+
+    /**
+     * @return The number of fields on the current line.
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @param index The position of a field on the current line, between 0 and {@code fieldCount() - 1}.
+     * @return The field, as a string.
+     */
+    String field(int index) {
+        return new String(buffer, starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field on the current line as a decimal number, giving exactly the same result as
+     * {@link Double#parseDouble(String)}. Plain decimals whose digits, without the point, form an integer below
+     * 2<sup>53</sup> are parsed without creating any objects; anything else is handed to
+     * {@link Double#parseDouble(String)}.
+     *
+     * @param index The position of a field on the current line, between 0 and {@code fieldCount() - 1}.
+     * @return The number in the field.
+     * @throws NumberFormatException if the field is not a number
+     */
+    double parseDouble(int index) {
+        int position = starts[index];
+        int end = ends[index];
+        boolean negative = false;
+        if (position < end && (buffer[position] == '-' || buffer[position] == '+')) {
+            negative = buffer[position] == '-';
+            position++;
+        }
+        long digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean seenDigit = false;
+        for (; position < end; position++) {
+            byte b = buffer[position];
+            if (b >= '0' && b <= '9') {
+                if (digits >= EXACT_LIMIT / 10) return Double.parseDouble(field(index));
+                digits = digits * 10 + (b - '0');
+                if (seenPoint) fractionDigits++;
+                seenDigit = true;
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                // Exponents, surrounding spaces and malformed numbers
+                return Double.parseDouble(field(index));
+            }
+        }
+        if (!seenDigit || fractionDigits >= POWERS_OF_TEN.length) return Double.parseDouble(field(index));
+        // Both are exact doubles, so the quotient is rounded once, as Double.parseDouble rounds
+        double value = digits / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Moves the bytes from the start of the current line to the front of the buffer, growing it if the line fills
+     * it, and reads as much of the stream as fits after them.
+     */
+    private void fill() throws IOException {
+        int kept = limit - lineStart;
+        if (kept == buffer.length) {
+            byte[] larger = new byte[2 * buffer.length];
+            System.arraycopy(buffer, lineStart, larger, 0, kept);
+            buffer = larger;
+        } else {
+            System.arraycopy(buffer, lineStart, buffer, 0, kept);
+        }
+        offset += lineStart;
+        lineStart = 0;
+        lineEnd = 0;
+        next = 0;
+        limit = kept;
+        int read = stream.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfStream = true;
+        } else {
+            limit += read;
+        }
+    }
+
+    /**
+     * Records a field of the current line, growing the field tables if they are full.
+     */
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            int[] largerStarts = new int[2 * starts.length];
+            int[] largerEnds = new int[2 * ends.length];
+            System.arraycopy(starts, 0, largerStarts, 0, fieldCount);
+            System.arraycopy(ends, 0, largerEnds, 0, fieldCount);
+            starts = largerStarts;
+            ends = largerEnds;
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    /**
+     * Ensures that the representation invariant has not been violated. Returns normally if
+     * there is no violation.
+     */
+    private void checkRep() {
+        assert stream != null && buffer != null && starts != null && ends != null;
+        assert starts.length == ends.length;
+        assert 0 <= lineStart && lineStart <= lineEnd && lineEnd <= next && next <= limit && limit <= buffer.length;
+        assert 0 <= fieldCount && fieldCount <= starts.length;
+    }
+}
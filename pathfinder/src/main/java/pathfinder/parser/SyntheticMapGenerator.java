@@ -0,0 +1,295 @@
+package pathfinder.parser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A utility class that writes synthetic campus paths and campus buildings files, in the same format as the files in
+ * src/main/resources/data/, for maps far larger than the campus. Points lie roughly on a square grid of cells, each
+ * path is listed in both directions with the same length, and each length is the straight-line distance between its
+ * ends scaled about as on campus, lengthened by a random detour of up to a quarter. The same arguments always write
+ * the same files.
+ */
+public class SyntheticMapGenerator {
+
+    /**
+     * The fewest paths a generated map may have.
+     */
+    public static final int MIN_PATHS = 10_000;
+
+    /**
+     * The most paths a generated map may have.
+     */
+    public static final int MAX_PATHS = 10_000_000;
+
+    /**
+     * The number of buildings on a generated map unless another number is given, about as many as on campus.
+     */
+    public static final int DEFAULT_BUILDINGS = 50;
+
+    // Width of a grid cell in coordinate units, about the length of a path on campus
+    private static final double CELL = 25.0;
+    // Length of a path per coordinate unit it spans, and the most it may be lengthened by as a fraction
+    private static final double DISTANCE_PER_UNIT = 2.0;
+    private static final double MAX_DETOUR = 0.25;
+    // Number of campuses on a clustered map, and the gap between neighbouring campuses in campus widths
+    private static final int CAMPUSES = 5;
+    private static final double CAMPUS_GAP = 0.5;
+
+    /**
+     * The shape of a generated map.
+     */
+    public enum Topology {
+
+        /**
+         * Points on a square grid, each joined to its neighbours above, below, left and right.
+         */
+        GRID,
+
+        /**
+         * Points scattered one to a cell of a square grid, joined by the edges of their Delaunay triangulation, so
+         * that no two paths cross and every point has about six neighbours.
+         */
+        DELAUNAY,
+
+        /**
+         * Several campuses, each triangulated as {@link #DELAUNAY} is, spread over a larger area with gaps between
+         * them, and joined to each other in a ring by single long paths.
+         */
+        CLUSTERED
+
+    }
+
+    /**
+     * Writes a synthetic campus paths file with about the given number of paths, and a campus buildings file with
+     * buildings at points chosen at random among the ends of those paths.
+     *
+     * @param topology      The shape of the map.
+     * @param paths         The number of paths to aim for. The file may have a few percent more or fewer.
+     * @param buildings     The number of buildings.
+     * @param seed          The seed of the random choices made, so the same seed writes the same files.
+     * @param pathsFile     The campus paths file to write, replacing any file already there.
+     * @param buildingsFile The campus buildings file to write, replacing any file already there.
+     * @return The number of paths written.
+     * @throws IllegalArgumentException if {@code paths} is not between {@link #MIN_PATHS} and {@link #MAX_PATHS}, or
+     *                                  {@code buildings} is negative or more than the number of points on the map
+     * @throws IOException              if a file cannot be written
+     * @spec.requires topology, pathsFile, buildingsFile != null
+     */
+    public static int generate(Topology topology, int paths, int buildings, long seed, Path pathsFile,
+                               Path buildingsFile) throws IOException {
+        if (paths < MIN_PATHS || paths > MAX_PATHS) {
+            throw new IllegalArgumentException("Number of paths must be between " + MIN_PATHS + " and " + MAX_PATHS);
+        }
+        Random random = new Random(seed);
+        double[] xs;
+        double[] ys;
+        int[] edges;
+        switch (topology) {
+            case GRID: {
+                // A grid of side s has about 2s^2 links, each written both ways
+                int side = (int) Math.round(Math.sqrt(paths / 4.0));
+                xs = new double[side * side];
+                ys = new double[side * side];
+                scatter(side, 0, 0, 0, xs, ys, random);
+                edges = new int[4 * side * (side - 1)];
+                int count = 0;
+                for (int row = 0; row < side; row++) {
+                    for (int column = 0; column < side; column++) {
+                        int id = cellOf(side, row, column);
+                        if (column + 1 < side) {
+                            edges[count++] = id;
+                            edges[count++] = cellOf(side, row, column + 1);
+                        }
+                        if (row + 1 < side) {
+                            edges[count++] = id;
+                            edges[count++] = cellOf(side, row + 1, column);
+                        }
+                    }
+                }
+                break;
+            }
+            case DELAUNAY: {
+                // A triangulation of n points has about 3n links, each written both ways
+                int side = (int) Math.round(Math.sqrt(paths / 6.0));
+                xs = new double[side * side];
+                ys = new double[side * side];
+                scatter(side, 0, 0, 0, xs, ys, random);
+                edges = new Triangulation(xs, ys).edges();
+                break;
+            }
+            case CLUSTERED: {
+                int side = (int) Math.round(Math.sqrt(paths / 6.0 / CAMPUSES));
+                int perCampus = side * side;
+                xs = new double[CAMPUSES * perCampus];
+                ys = new double[CAMPUSES * perCampus];
+                int[][] campusEdges = new int[CAMPUSES][];
+                int total = 0;
+                // Campuses are laid out in rows of three, each shifted at random within its share of the area
+                double spacing = side * CELL * (1 + CAMPUS_GAP);
+                for (int campus = 0; campus < CAMPUSES; campus++) {
+                    double originX = (campus % 3) * spacing + random.nextDouble() * CAMPUS_GAP * side * CELL / 2;
+                    double originY = (campus / 3) * spacing + random.nextDouble() * CAMPUS_GAP * side * CELL / 2;
+                    scatter(side, campus * perCampus, originX, originY, xs, ys, random);
+                    double[] campusXs = Arrays.copyOfRange(xs, campus * perCampus, (campus + 1) * perCampus);
+                    double[] campusYs = Arrays.copyOfRange(ys, campus * perCampus, (campus + 1) * perCampus);
+                    campusEdges[campus] = new Triangulation(campusXs, campusYs).edges();
+                    total += campusEdges[campus].length;
+                }
+                edges = new int[total + 2 * CAMPUSES];
+                int count = 0;
+                for (int campus = 0; campus < CAMPUSES; campus++) {
+                    for (int id : campusEdges[campus]) edges[count++] = campus * perCampus + id;
+                }
+                // Join each campus to the next by a path between the points of each nearest the other's center
+                for (int campus = 0; campus < CAMPUSES; campus++) {
+                    int next = (campus + 1) % CAMPUSES;
+                    edges[count++] = nearest(xs, ys, campus * perCampus, perCampus, center(xs, next * perCampus,
+                            perCampus), center(ys, next * perCampus, perCampus));
+                    edges[count++] = nearest(xs, ys, next * perCampus, perCampus, center(xs, campus * perCampus,
+                            perCampus), center(ys, campus * perCampus, perCampus));
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown topology: " + topology);
+        }
+        if (buildings < 0 || buildings > xs.length) {
+            throw new IllegalArgumentException("Number of buildings must be between 0 and " + xs.length);
+        }
+        writePaths(xs, ys, edges, random, pathsFile);
+        writeBuildings(xs, ys, buildings, random, buildingsFile);
+        return edges.length;
+    }
+
+    /**
+     * Places one point at random in each cell of a square grid, away from the cell's sides, row by row. Rows
+     * alternate direction, so that consecutive points are always close together.
+     *
+     * @param side    The number of cells on each side of the grid.
+     * @param first   The index of the first point to place.
+     * @param originX The x coordinate of the grid's corner.
+     * @param originY The y coordinate of the grid's corner.
+     */
+    private static void scatter(int side, int first, double originX, double originY, double[] xs, double[] ys,
+                                Random random) {
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int id = first + cellOf(side, row, column);
+                xs[id] = round(originX + (column + 0.15 + 0.7 * random.nextDouble()) * CELL);
+                ys[id] = round(originY + (row + 0.15 + 0.7 * random.nextDouble()) * CELL);
+            }
+        }
+    }
+
+    /**
+     * @return The index of the point in the given cell of a grid scattered by {@link #scatter}.
+     */
+    private static int cellOf(int side, int row, int column) {
+        return row * side + (row % 2 == 0 ? column : side - 1 - column);
+    }
+
+    /**
+     * @return The given coordinate rounded to four decimal places, as on campus.
+     */
+    private static double round(double coordinate) {
+        return Math.round(coordinate * 1e4) / 1e4;
+    }
+
+    /**
+     * @return The mean of {@code count} coordinates starting at index {@code first}.
+     */
+    private static double center(double[] coordinates, int first, int count) {
+        double sum = 0;
+        for (int i = first; i < first + count; i++) sum += coordinates[i];
+        return sum / count;
+    }
+
+    /**
+     * @return The index of the point nearest (x, y) among {@code count} points starting at index {@code first}.
+     */
+    private static int nearest(double[] xs, double[] ys, int first, int count, double x, double y) {
+        int best = first;
+        for (int i = first; i < first + count; i++) {
+            if (Math.hypot(xs[i] - x, ys[i] - y) < Math.hypot(xs[best] - x, ys[best] - y)) best = i;
+        }
+        return best;
+    }
+
+    /**
+     * Writes each link between two points as a path each way, with the same random length.
+     */
+    private static void writePaths(double[] xs, double[] ys, int[] edges, Random random, Path file)
+            throws IOException {
+        try (Writer writer = newWriter(file)) {
+            StringBuilder line = new StringBuilder();
+            for (int e = 0; e < edges.length; e += 2) {
+                int a = edges[e];
+                int b = edges[e + 1];
+                double distance = Math.hypot(xs[b] - xs[a], ys[b] - ys[a]) * DISTANCE_PER_UNIT
+                                  * (1 + MAX_DETOUR * random.nextDouble());
+                line.setLength(0);
+                line.append(xs[a]).append(',').append(ys[a]).append(',').append(xs[b]).append(',').append(ys[b])
+                    .append(',').append(distance).append('\n');
+                line.append(xs[b]).append(',').append(ys[b]).append(',').append(xs[a]).append(',').append(ys[a])
+                    .append(',').append(distance).append('\n');
+                writer.append(line);
+            }
+        }
+    }
+
+    /**
+     * Writes buildings at distinct points chosen at random, named B1, B2 and so on.
+     */
+    private static void writeBuildings(double[] xs, double[] ys, int buildings, Random random, Path file)
+            throws IOException {
+        // Choose the points by shuffling just the first few indexes into place
+        int[] ids = new int[xs.length];
+        for (int i = 0; i < ids.length; i++) ids[i] = i;
+        try (Writer writer = newWriter(file)) {
+            for (int i = 0; i < buildings; i++) {
+                int j = i + random.nextInt(ids.length - i);
+                int id = ids[j];
+                ids[j] = ids[i];
+                ids[i] = id;
+                writer.append("B").append(Integer.toString(i + 1)).append(",Synthetic Building ")
+                      .append(Integer.toString(i + 1)).append(',').append(Double.toString(xs[id])).append(',')
+                      .append(Double.toString(ys[id])).append('\n');
+            }
+        }
+    }
+
+    private static Writer newWriter(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        return new BufferedWriter(Files.newBufferedWriter(file), 1 << 16);
+    }
+
+    /**
+     * Writes a synthetic map.
+     *
+     * @param args The topology (GRID, DELAUNAY or CLUSTERED), the number of paths, the campus paths file and the
+     *             campus buildings file to write, and optionally the number of buildings and the random seed.
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Arguments: GRID|DELAUNAY|CLUSTERED paths pathsFile buildingsFile [buildings] [seed]");
+            System.exit(1);
+        }
+        Topology topology = Topology.valueOf(args[0]);
+        int paths = Integer.parseInt(args[1]);
+        int buildings = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_BUILDINGS;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 0;
+        long startTime = System.nanoTime();
+        int written = generate(topology, paths, buildings, seed, Paths.get(args[2]), Paths.get(args[3]));
+        System.out.printf("Wrote %d paths and %d buildings (%s) in %.1f ms%n", written, buildings, topology,
+                          (System.nanoTime() - startTime) / 1e6);
+    }
+}
@@ -0,0 +1,304 @@
+package pathfinder.parser;
+
+import java.util.Arrays;
+
+/**
+ * A Delaunay triangulation of distinct points in the plane, built by inserting the points one at a time and
+ * re-triangulating the cavity of triangles whose circumcircles contain each new point (the Bowyer-Watson
+ * algorithm). Each point is located by walking across triangles from the last one created, so inserting points in
+ * an order where consecutive points are close together, such as row by row, takes about constant time per point.
+ * <p>
+ * The points are enclosed in a large triangle of three extra vertices while inserting, and the edges to those are
+ * left out of {@link #edges()}, so a few edges along the convex hull of the points may be missing.
+ */
+class Triangulation {
+
+    // AF(this) =
+    //      the points (xs[i], ys[i]) for i < pointCount, and the enclosing vertices for pointCount <= i < xs.length
+    //      the triangles t < triangleLimit with vertices[3t] >= 0, with corners vertices[3t], vertices[3t + 1] and
+    //          vertices[3t + 2] in counter-clockwise order
+    //      the triangle across the edge of t opposite corner i => neighbors[3t + i], or none if it is -1
+    //
+    // Rep Invariant:
+    //      xs.length == ys.length == pointCount + 3 &&
+    //      forall live triangles t and corners i, neighbors[3t + i] == -1 or is a live triangle with t as a neighbor
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int pointCount;
+
+    private int[] vertices;
+    private int[] neighbors;
+    // Number of triangle slots used, including dead ones waiting to be reused
+    private int triangleLimit;
+    // Dead triangle slots, available for new triangles
+    private int[] free;
+    private int freeCount;
+    // The last triangle created, where the search for the next point starts
+    private int last;
+
+    // Scratch space for one insertion: the cavity's triangles, the edges around it, and the new triangles by corner
+    private int[] marks;
+    private int stamp;
+    private int[] cavity = new int[16];
+    private int[] boundary = new int[64];
+    private int[] byStart;
+    private int[] byEnd;
+
+    /**
+     * Triangulates the given points.
+     *
+     * @param xs The x coordinates of the points.
+     * @param ys The y coordinates of the points.
+     * @spec.requires xs.length == ys.length &ge; 3, the points are distinct and not all on one line
+     */
+    Triangulation(double[] xs, double[] ys) {
+        this.pointCount = xs.length;
+        this.xs = Arrays.copyOf(xs, pointCount + 3);
+        this.ys = Arrays.copyOf(ys, pointCount + 3);
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < pointCount; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        // The enclosing triangle, counter-clockwise, far enough away that it barely changes the triangulation
+        double size = Math.max(maxX - minX, maxY - minY) + 1;
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+        this.xs[pointCount] = centerX - 20 * size;
+        this.ys[pointCount] = centerY - size;
+        this.xs[pointCount + 1] = centerX + 20 * size;
+        this.ys[pointCount + 1] = centerY - size;
+        this.xs[pointCount + 2] = centerX;
+        this.ys[pointCount + 2] = centerY + 20 * size;
+        int capacity = 2 * pointCount + 16;
+        this.vertices = new int[3 * capacity];
+        this.neighbors = new int[3 * capacity];
+        this.marks = new int[capacity];
+        this.free = new int[16];
+        this.byStart = new int[pointCount + 3];
+        this.byEnd = new int[pointCount + 3];
+        last = allocate();
+        setTriangle(last, pointCount, pointCount + 1, pointCount + 2);
+        neighbors[0] = neighbors[1] = neighbors[2] = -1;
+        for(int i = 0; i < pointCount; i++) {
+            insert(i);
+        }
+    }
+
+    /**
+     * @return The edges of the triangulation between the given points, as pairs of point indexes: edge k joins
+     * points {@code edges[2k]} and {@code edges[2k + 1]}. Each edge appears once.
+     */
+    int[] edges() {
+        int[] edges = new int[2 * 3 * pointCount];
+        int count = 0;
+        for(int t = 0; t < triangleLimit; t++) {
+            if(vertices[3 * t] < 0) {
+                continue;
+            }
+            for(int i = 0; i < 3; i++) {
+                int a = vertices[3 * t + (i + 1) % 3];
+                int b = vertices[3 * t + (i + 2) % 3];
+                int neighbor = neighbors[3 * t + i];
+                // An edge between two triangles is listed by the lower-numbered one
+                if(a < pointCount && b < pointCount && (neighbor < 0 || t < neighbor)) {
+                    if(count + 2 > edges.length) {
+                        edges = Arrays.copyOf(edges, 2 * edges.length);
+                    }
+                    edges[count++] = a;
+                    edges[count++] = b;
+                }
+            }
+        }
+        return Arrays.copyOf(edges, count);
+    }
+
+    /**
+     * Adds point p to the triangulation.
+     */
+    private void insert(int p) {
+        stamp++;
+        int cavitySize = 0;
+        int start = locate(p);
+        cavity[cavitySize++] = start;
+        marks[start] = stamp;
+        // Every triangle whose circumcircle holds p is no longer Delaunay, and they form a connected cavity
+        for(int k = 0; k < cavitySize; k++) {
+            int t = cavity[k];
+            for(int i = 0; i < 3; i++) {
+                int neighbor = neighbors[3 * t + i];
+                if(neighbor >= 0 && marks[neighbor] != stamp && inCircle(neighbor, p)) {
+                    marks[neighbor] = stamp;
+                    if(cavitySize == cavity.length) {
+                        cavity = Arrays.copyOf(cavity, 2 * cavitySize);
+                    }
+                    cavity[cavitySize++] = neighbor;
+                }
+            }
+        }
+        int boundarySize;
+        while(true) {
+            boundarySize = 0;
+            boolean grown = false;
+            for(int k = 0; k < cavitySize && !grown; k++) {
+                int t = cavity[k];
+                for(int i = 0; i < 3; i++) {
+                    int neighbor = neighbors[3 * t + i];
+                    if(neighbor >= 0 && marks[neighbor] == stamp) {
+                        continue;
+                    }
+                    int a = vertices[3 * t + (i + 1) % 3];
+                    int b = vertices[3 * t + (i + 2) % 3];
+                    if(neighbor >= 0 && orient(a, b, p) <= 0) {
+                        // Rounding left p unable to see this edge, so take the triangle beyond it into the cavity
+                        // to keep every new triangle counter-clockwise
+                        marks[neighbor] = stamp;
+                        if(cavitySize == cavity.length) {
+                            cavity = Arrays.copyOf(cavity, 2 * cavitySize);
+                        }
+                        cavity[cavitySize++] = neighbor;
+                        grown = true;
+                        break;
+                    }
+                    if(4 * boundarySize + 4 > boundary.length) {
+                        boundary = Arrays.copyOf(boundary, 2 * boundary.length);
+                    }
+                    boundary[4 * boundarySize] = a;
+                    boundary[4 * boundarySize + 1] = b;
+                    boundary[4 * boundarySize + 2] = neighbor;
+                    boundary[4 * boundarySize + 3] = neighbor < 0 ? -1 : sideOf(neighbor, t);
+                    boundarySize++;
+                }
+            }
+            if(!grown) {
+                break;
+            }
+        }
+        for(int k = 0; k < cavitySize; k++) {
+            release(cavity[k]);
+        }
+        // Join p to every edge around the cavity
+        for(int k = 0; k < boundarySize; k++) {
+            int a = boundary[4 * k];
+            int b = boundary[4 * k + 1];
+            int neighbor = boundary[4 * k + 2];
+            int t = allocate();
+            setTriangle(t, a, b, p);
+            neighbors[3 * t + 2] = neighbor;
+            if(neighbor >= 0) {
+                neighbors[3 * neighbor + boundary[4 * k + 3]] = t;
+            }
+            byStart[a] = t;
+            byEnd[b] = t;
+            last = t;
+        }
+        // The new triangle (a, b, p) shares edge (b, p) with the one starting at b, and (p, a) with the one ending at a
+        for(int k = 0; k < boundarySize; k++) {
+            int t = byStart[boundary[4 * k]];
+            neighbors[3 * t] = byStart[vertices[3 * t + 1]];
+            neighbors[3 * t + 1] = byEnd[vertices[3 * t]];
+        }
+    }
+
+    /**
+     * @return A live triangle containing point p, on its edges or inside it.
+     */
+    private int locate(int p) {
+        int t = last;
+        int steps = 0;
+        int limit = 4 * triangleLimit + 16;
+        walk:
+        while(steps < limit) {
+            for(int k = 0; k < 3; k++) {
+                // Try the edges in a different order each step, so the walk cannot circle forever
+                int i = (k + steps) % 3;
+                if(orient(vertices[3 * t + (i + 1) % 3], vertices[3 * t + (i + 2) % 3], p) < 0) {
+                    t = neighbors[3 * t + i];
+                    steps++;
+                    continue walk;
+                }
+            }
+            return t;
+        }
+        // The walk went astray through rounding, so look at every triangle
+        for(t = 0; t < triangleLimit; t++) {
+            if(vertices[3 * t] >= 0 && orient(vertices[3 * t], vertices[3 * t + 1], p) >= 0
+               && orient(vertices[3 * t + 1], vertices[3 * t + 2], p) >= 0
+               && orient(vertices[3 * t + 2], vertices[3 * t], p) >= 0) {
+                return t;
+            }
+        }
+        throw new IllegalStateException("Point " + p + " is outside the triangulation");
+    }
+
+    /**
+     * @return The corner of triangle t opposite its edge shared with triangle other.
+     */
+    private int sideOf(int t, int other) {
+        for(int i = 0; i < 3; i++) {
+            if(neighbors[3 * t + i] == other) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Triangles " + t + " and " + other + " are not neighbors");
+    }
+
+    /**
+     * @return Twice the signed area of triangle (a, b, p): positive if p is to the left of the line from a to b,
+     * negative if it is to the right, and 0 if it is on the line.
+     */
+    private double orient(int a, int b, int p) {
+        return (xs[b] - xs[a]) * (ys[p] - ys[a]) - (ys[b] - ys[a]) * (xs[p] - xs[a]);
+    }
+
+    /**
+     * @return Whether point p is strictly inside the circumcircle of triangle t.
+     */
+    private boolean inCircle(int t, int p) {
+        double px = xs[p];
+        double py = ys[p];
+        double ax = xs[vertices[3 * t]] - px, ay = ys[vertices[3 * t]] - py;
+        double bx = xs[vertices[3 * t + 1]] - px, by = ys[vertices[3 * t + 1]] - py;
+        double cx = xs[vertices[3 * t + 2]] - px, cy = ys[vertices[3 * t + 2]] - py;
+        double a2 = ax * ax + ay * ay;
+        double b2 = bx * bx + by * by;
+        double c2 = cx * cx + cy * cy;
+        return ax * (by * c2 - b2 * cy) - ay * (bx * c2 - b2 * cx) + a2 * (bx * cy - by * cx) > 0;
+    }
+
+    private void setTriangle(int t, int a, int b, int c) {
+        vertices[3 * t] = a;
+        vertices[3 * t + 1] = b;
+        vertices[3 * t + 2] = c;
+    }
+
+    /**
+     * @return A free triangle slot, reusing a dead triangle's if there is one.
+     */
+    private int allocate() {
+        if(freeCount > 0) {
+            return free[--freeCount];
+        }
+        if(3 * (triangleLimit + 1) > vertices.length) {
+            vertices = Arrays.copyOf(vertices, 2 * vertices.length);
+            neighbors = Arrays.copyOf(neighbors, 2 * neighbors.length);
+            marks = Arrays.copyOf(marks, 2 * marks.length);
+        }
+        return triangleLimit++;
+    }
+
+    /**
+     * Marks triangle t dead, so its slot can be reused.
+     */
+    private void release(int t) {
+        vertices[3 * t] = -1;
+        if(freeCount == free.length) {
+            free = Arrays.copyOf(free, 2 * freeCount);
+        }
+        free[freeCount++] = t;
+    }
+}
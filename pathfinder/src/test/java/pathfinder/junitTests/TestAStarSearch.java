@@ -0,0 +1,141 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.AStarSearch;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraSearch;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser.PathShard;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link AStarSearch} class.
+ */
+public class TestAStarSearch {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static final Point A = new Point(0, 0);
+    private static final Point B = new Point(3, 4);
+    private static final Point C = new Point(6, 0);
+    private static final Point D = new Point(3, -4);
+    private static final Point E = new Point(20, 20);
+
+    // Graph to do searches on
+    private static Graph<Point, Double> graph;
+
+    /**
+     * Initialize graph to do search tests on. Edge costs are at least twice their straight-line lengths, except
+     * for A to D, which is exactly 2.5 times.
+     */
+    @BeforeClass
+    public static void createTestGraph() {
+        graph = new Graph<>();
+        graph.addEdge(A, B, 10.0);
+        graph.addEdge(B, C, 10.0);
+        graph.addEdge(A, D, 12.5);
+        graph.addEdge(D, C, 12.5);
+        graph.addEdge(A, C, 30.0);
+        graph.addEdge(E, A, 60.0);
+    }
+
+    /**
+     * Test that the computed scale is the tightest one that does not overestimate any edge.
+     */
+    @Test
+    public void testAdmissibleScale() {
+        double scale = AStarSearch.admissibleScale(graph);
+        assertEquals(2.0, scale, 1e-6);
+        assertTrue(AStarSearch.isAdmissible(graph, scale));
+        assertFalse(AStarSearch.isAdmissible(graph, 2.1));
+    }
+
+    /**
+     * Test that the edges costing less than their scaled straight-line length are found, and that the computed scale
+     * leaves none
+     */
+    @Test
+    public void testInadmissibleEdges() {
+        // A to B and B to C cost twice their length of 5, and A to D 2.5 times its length of 5
+        assertEquals(0, AStarSearch.inadmissibleEdges(graph, AStarSearch.admissibleScale(graph)).size());
+        assertEquals(0, AStarSearch.inadmissibleEdges(graph, 2).size());
+        List<Path<Point>> edges = AStarSearch.inadmissibleEdges(graph, 2.1);
+        assertEquals(2, edges.size());
+        for (Path<Point> edge : edges) {
+            assertEquals(A.equals(edge.getStart()) ? B : C, edge.getEnd());
+            assertEquals(10.0, edge.getCost(), EPSILON);
+        }
+    }
+
+    /**
+     * Test that the campus map reports its paths shorter than a straight line, and still finds least-cost paths
+     */
+    @Test
+    public void testCampusShortPaths() {
+        CampusMap aStar = new CampusMap(SearchEngine.A_STAR);
+        assertFalse(aStar.getShortPaths().isEmpty());
+        for (Path<Point> path : aStar.getShortPaths()) {
+            double length = Math.hypot(path.getEnd().getX() - path.getStart().getX(),
+                                       path.getEnd().getY() - path.getStart().getY());
+            assertTrue(path.getCost() < length);
+        }
+    }
+
+    /**
+     * Test that an A* map is refused when a path between distinct points costs nothing, since no positive scale
+     * fits it
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testZeroCostPathRefused() {
+        new CampusMap(SearchEngine.A_STAR, 0, Collections.singletonList(PathShard.of("test_paths_zero_cost.csv")),
+                      "campus_buildings.csv");
+    }
+
+    /**
+     * Test that A* finds a path with the same cost as Dijkstra's algorithm.
+     */
+    @Test
+    public void testSameCostAsDijkstra() {
+        double scale = AStarSearch.admissibleScale(graph);
+        Path<Point> expected = DijkstraSearch.findPath(graph, A, C);
+        Path<Point> actual = AStarSearch.findPath(graph, A, C, scale);
+        assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Test search correctly returns null when no path exists.
+     */
+    @Test
+    public void testNoPathNull() {
+        assertNull(AStarSearch.findPath(graph, A, E, AStarSearch.admissibleScale(graph)));
+    }
+
+    /**
+     * Test that A* agrees with Dijkstra's algorithm on routes across the real campus map.
+     */
+    @Test
+    public void testCampusRoutesMatchDijkstra() {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap aStar = new CampusMap(SearchEngine.A_STAR);
+        String[][] routes = {{"BAG", "MGH"}, {"BAG", "UBS"}, {"CSE", "IMA"}, {"PAR", "KNE"}, {"EEB", "EEB"}};
+        for (String[] route : routes) {
+            Path<Point> expected = dijkstra.findShortestPath(route[0], route[1]);
+            Path<Point> actual = aStar.findShortestPath(route[0], route[1]);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        }
+    }
+}
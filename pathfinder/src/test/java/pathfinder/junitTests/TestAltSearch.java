@@ -0,0 +1,115 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.AltSearch;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraSearch;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link AltSearch} class.
+ */
+public class TestAltSearch {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static final int SIDE = 6;
+
+    // A grid of nodes with two-way edges between neighbors, and its indexed snapshot
+    private static Graph<String, Double> graph;
+    private static IndexedGraph<String> indexedGraph;
+
+    /**
+     * Initialize a grid graph, with rows costing more to cross than columns
+     */
+    @BeforeClass
+    public static void createTestGraph() {
+        graph = new Graph<>();
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                if (col + 1 < SIDE) {
+                    graph.addEdge(row + "," + col, row + "," + (col + 1), 1.0);
+                    graph.addEdge(row + "," + (col + 1), row + "," + col, 1.0);
+                }
+                if (row + 1 < SIDE) {
+                    graph.addEdge(row + "," + col, (row + 1) + "," + col, 2.5);
+                    graph.addEdge((row + 1) + "," + col, row + "," + col, 2.5);
+                }
+            }
+        }
+        graph.addNode("island");
+        indexedGraph = new IndexedGraph<>(graph);
+    }
+
+    /**
+     * Test that the landmarks chosen are distinct and that the first two are opposite corners
+     */
+    @Test
+    public void testFarthestLandmarks() {
+        int[] landmarks = AltSearch.farthestLandmarks(indexedGraph, 4);
+        assertEquals(4, landmarks.length);
+        for (int i = 0; i < landmarks.length; i++) {
+            for (int j = i + 1; j < landmarks.length; j++) {
+                assertNotEquals(landmarks[i], landmarks[j]);
+            }
+        }
+        String first = indexedGraph.nodeOf(landmarks[0]);
+        String second = indexedGraph.nodeOf(landmarks[1]);
+        assertTrue(first.equals("0,0") || first.equals("5,5") || first.equals("0,5") || first.equals("5,0"));
+        assertEquals(SIDE - 1, Math.abs(Integer.parseInt(first.split(",")[0])
+                                        - Integer.parseInt(second.split(",")[0])));
+    }
+
+    /**
+     * Test that every route has the same cost as Dijkstra's algorithm, and that landmarks reduce the work done
+     */
+    @Test
+    public void testMatchesDijkstra() {
+        AltSearch<String> alt = new AltSearch<>(indexedGraph, AltSearch.farthestLandmarks(indexedGraph, 4));
+        AltSearch<String> plain = new AltSearch<>(indexedGraph, new int[0]);
+        assertTrue(alt.settledCount("0,0", "0,5") < plain.settledCount("0,0", "0,5"));
+        String[] nodes = {"0,0", "2,3", "5,5", "4,1", "0,5"};
+        for (String start : nodes) {
+            for (String end : nodes) {
+                Path<String> expected = DijkstraSearch.findPath(graph, start, end);
+                assertEquals(expected.getCost(), alt.findPath(start, end).getCost(), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Test search correctly returns null when no path exists
+     */
+    @Test
+    public void testNoPathNull() {
+        AltSearch<String> alt = new AltSearch<>(indexedGraph, AltSearch.farthestLandmarks(indexedGraph, 2));
+        assertNull(alt.findPath("0,0", "island"));
+    }
+
+    /**
+     * Test that ALT agrees with Dijkstra's algorithm on routes across the real campus map
+     */
+    @Test
+    public void testCampusRoutesMatchDijkstra() {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap alt = new CampusMap(SearchEngine.ALT);
+        String[][] routes = {{"BAG", "MGH"}, {"BAG", "UBS"}, {"CSE", "IMA"}, {"PAR", "KNE"}, {"EEB", "EEB"}};
+        for (String[] route : routes) {
+            Path<Point> expected = dijkstra.findShortestPath(route[0], route[1]);
+            Path<Point> actual = alt.findShortestPath(route[0], route[1]);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        }
+    }
+}
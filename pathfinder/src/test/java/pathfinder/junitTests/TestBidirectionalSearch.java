@@ -0,0 +1,101 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BidirectionalSearch;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraSearch;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link BidirectionalSearch} class.
+ */
+public class TestBidirectionalSearch {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // Graph to do searches on, and its inbound adjacency
+    private static Graph<String, Double> graph;
+    private static Graph<String, Double> reverse;
+
+    /**
+     * Initialize graph to do search tests on
+     */
+    @BeforeClass
+    public static void createTestGraph() {
+        graph = new Graph<>();
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "C", 1.0);
+        graph.addEdge("C", "D", 1.0);
+        graph.addEdge("D", "E", 1.0);
+        graph.addEdge("A", "X", 2.5);
+        graph.addEdge("X", "E", 2.5);
+        graph.addEdge("A", "E", 4.0);
+        graph.addEdge("A", "E", 3.5);
+        graph.addEdge("W", "Q", 3.0);
+        reverse = BidirectionalSearch.reverse(graph);
+    }
+
+    /**
+     * Test that the reverse graph has every edge pointing the other way
+     */
+    @Test
+    public void testReverse() {
+        assertTrue(reverse.childrenOf("B").containsKey("A"));
+        assertFalse(reverse.childrenOf("A").containsKey("B"));
+        assertEquals(2, reverse.childrenOf("E").get("A").size());
+    }
+
+    /**
+     * Test that the search finds the same least-cost path as Dijkstra's algorithm, using the cheapest parallel edge
+     */
+    @Test
+    public void testSameAsDijkstra() {
+        Path<String> expected = DijkstraSearch.findPath(graph, "A", "E");
+        Path<String> actual = BidirectionalSearch.findPath(graph, reverse, "A", "E");
+        assertEquals(3.5, actual.getCost(), EPSILON);
+        assertEquals(expected, actual);
+    }
+
+    /**
+     * Test that a path from a node to itself is empty
+     */
+    @Test
+    public void testSelfPath() {
+        assertEquals(new Path<>("C"), BidirectionalSearch.findPath(graph, reverse, "C", "C"));
+    }
+
+    /**
+     * Test search correctly returns null when no path exists
+     */
+    @Test
+    public void testNoPathNull() {
+        assertNull(BidirectionalSearch.findPath(graph, reverse, "A", "Q"));
+        assertNull(BidirectionalSearch.findPath(graph, reverse, "E", "A"));
+    }
+
+    /**
+     * Test that the search agrees with Dijkstra's algorithm on routes across the real campus map
+     */
+    @Test
+    public void testCampusRoutesMatchDijkstra() {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap bidirectional = new CampusMap(SearchEngine.BIDIRECTIONAL);
+        String[][] routes = {{"BAG", "MGH"}, {"BAG", "UBS"}, {"CSE", "IMA"}, {"PAR", "KNE"}, {"EEB", "EEB"}};
+        for (String[] route : routes) {
+            Path<Point> expected = dijkstra.findShortestPath(route[0], route[1]);
+            Path<Point> actual = bidirectional.findShortestPath(route[0], route[1]);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BoundedSearch;
+import pathfinder.CampusMap;
+import pathfinder.Isochrone;
+import pathfinder.datastructures.IndexedGraph;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link BoundedSearch} class, and of the {@link Isochrone}s built from it by {@link CampusMap}.
+ */
+public class TestBoundedSearch {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // A line of nodes A - B - C - D with two-way edges costing 1, 2 and 3
+    private static IndexedGraph<String> line;
+    private static CampusMap campusMap;
+
+    @BeforeClass
+    public static void createTestGraph() {
+        Graph<String, Double> graph = new Graph<>();
+        String[] nodes = {"A", "B", "C", "D"};
+        for (int i = 1; i < nodes.length; i++) {
+            graph.addEdge(nodes[i - 1], nodes[i], (double) i);
+            graph.addEdge(nodes[i], nodes[i - 1], (double) i);
+        }
+        line = new IndexedGraph<>(graph);
+        campusMap = new CampusMap();
+    }
+
+    /**
+     * Test that only nodes within the limit are settled, in order of cost
+     */
+    @Test
+    public void testStopsAtLimit() {
+        BoundedSearch<String> search = new BoundedSearch<>(line, line.idOf("A"));
+        search.expandTo(2.5);
+        assertEquals(2.5, search.getLimit(), EPSILON);
+        assertEquals(2, search.settledWithin(2.5));
+        assertEquals(1, search.settledWithin(0.5));
+        assertEquals("A", line.nodeOf(search.settledNode(0)));
+        assertEquals("B", line.nodeOf(search.settledNode(1)));
+        assertEquals(1, search.costTo(line.idOf("B")), EPSILON);
+        assertTrue(Double.isInfinite(search.costTo(line.idOf("C"))));
+    }
+
+    /**
+     * Test that raising the limit continues the search, and lowering it changes nothing
+     */
+    @Test
+    public void testGrowingLimit() {
+        BoundedSearch<String> search = new BoundedSearch<>(line, line.idOf("A"));
+        search.expandTo(1);
+        search.expandTo(3);
+        assertEquals(3, search.settledWithin(3));
+        assertEquals(3, search.costTo(line.idOf("C")), EPSILON);
+        search.expandTo(0);
+        assertEquals(3, search.getLimit(), EPSILON);
+        search.expandTo(Double.POSITIVE_INFINITY);
+        assertEquals(6, search.costTo(line.idOf("D")), EPSILON);
+    }
+
+    /**
+     * Test that the buildings reachable on campus are exactly those whose shortest paths fit within the limit, and
+     * that a later query with a larger limit agrees with a fresh one
+     */
+    @Test
+    public void testCampusIsochrone() {
+        Map<String, Double> distances = campusMap.routesFrom("CSE").distances();
+        for (double limit : new double[]{500, 1500, 3000}) {
+            Isochrone isochrone = campusMap.reachableWithin("CSE", limit);
+            assertEquals("CSE", isochrone.getCenter());
+            for (Map.Entry<String, Double> building : distances.entrySet()) {
+                boolean within = building.getValue() <= limit;
+                assertEquals(within, isochrone.buildings().containsKey(building.getKey()));
+                if (within) assertEquals(building.getValue(), isochrone.buildings().get(building.getKey()), EPSILON);
+            }
+            assertEquals(0, isochrone.segments().length % 4);
+            assertTrue(isochrone.segments().length > 0);
+            assertEquals(0, isochrone.outline().length % 2);
+        }
+        CampusMap fresh = new CampusMap();
+        assertEquals(fresh.reachableWithin("CSE", 3000).buildings(),
+                     campusMap.reachableWithin("CSE", 3000).buildings());
+        assertEquals(fresh.reachableWithin("CSE", 3000).segments().length,
+                     campusMap.reachableWithin("CSE", 3000).segments().length);
+    }
+
+    /**
+     * Test that a limit of 0 reaches only the building itself
+     */
+    @Test
+    public void testZeroLimit() {
+        Isochrone isochrone = campusMap.reachableWithin("MGH", 0);
+        assertTrue(isochrone.buildings().containsKey("MGH"));
+        assertEquals(0, isochrone.segments().length);
+        assertEquals(2, isochrone.outline().length);
+    }
+
+    /**
+     * Test that negative limits are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeLimit() {
+        campusMap.reachableWithin("CSE", -1);
+    }
+}
@@ -0,0 +1,73 @@
+package pathfinder.junitTests;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.BuildingRoutes;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link BuildingRoutes} class, as returned by {@link CampusMap#routesFrom} and {@link CampusMap#routesTo}.
+ */
+public class TestBuildingRoutes {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static CampusMap campusMap;
+
+    @BeforeClass
+    public static void loadCampusMap() {
+        campusMap = new CampusMap();
+    }
+
+    /**
+     * Test that distances from a building match the lengths of the individual shortest paths
+     */
+    @Test
+    public void testRoutesFrom() {
+        BuildingRoutes routes = campusMap.routesFrom("CSE");
+        assertEquals("CSE", routes.getOrigin());
+        assertFalse(routes.isReversed());
+        assertEquals(campusMap.buildingNames().size(), routes.distances().size());
+        for (String building : new String[]{"CSE", "MGH", "UBS", "PAR"}) {
+            Path<Point> expected = campusMap.findShortestPath("CSE", building);
+            assertEquals(expected.getCost(), routes.distances().get(building), EPSILON);
+            assertEquals(expected.getCost(), routes.pathFor(building).getCost(), EPSILON);
+            assertEquals(expected.getEnd(), routes.pathFor(building).getEnd());
+        }
+    }
+
+    /**
+     * Test that distances to a building match the lengths of the individual shortest paths, and that the paths run
+     * towards the building
+     */
+    @Test
+    public void testRoutesTo() {
+        BuildingRoutes routes = campusMap.routesTo("KNE");
+        assertTrue(routes.isReversed());
+        for (String building : new String[]{"KNE", "BAG", "IMA", "EEB"}) {
+            Path<Point> expected = campusMap.findShortestPath(building, "KNE");
+            Path<Point> actual = routes.pathFor(building);
+            assertEquals(expected.getCost(), routes.distances().get(building), EPSILON);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+            assertEquals(expected.getStart(), actual.getStart());
+            assertEquals(expected.getEnd(), actual.getEnd());
+        }
+    }
+
+    /**
+     * Test that unknown buildings are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBuilding() {
+        campusMap.routesFrom("XYZ");
+    }
+}
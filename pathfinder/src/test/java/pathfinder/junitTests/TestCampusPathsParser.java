@@ -0,0 +1,132 @@
+package pathfinder.junitTests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.parser.CampusPath;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.ParserException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link CampusPathsParser} class, when parsing campus paths one line at a time.
+ */
+public class TestCampusPathsParser {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test that every number in the campus paths file is parsed to exactly the double Double.parseDouble gives
+     */
+    @Test
+    public void testSameAsParseDouble() throws IOException {
+        List<double[]> expected = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                TestCampusPathsParser.class.getResourceAsStream("/data/campus_paths.csv")))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                double[] numbers = new double[fields.length];
+                for (int i = 0; i < fields.length; i++) numbers[i] = Double.parseDouble(fields[i]);
+                expected.add(numbers);
+            }
+        }
+        List<double[]> actual = new ArrayList<>();
+        int count = CampusPathsParser.parseCampusPaths("campus_paths.csv",
+                (x1, y1, x2, y2, distance) -> actual.add(new double[]{x1, y1, x2, y2, distance}));
+        assertEquals(expected.size(), count);
+        for (int i = 0; i < count; i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), 0);
+        }
+    }
+
+    /**
+     * Test lines ending with "\r\n", a last line with no ending, and numbers in every form Double.parseDouble
+     * accepts
+     */
+    @Test
+    public void testLineEndingsAndNumberForms() {
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("test_paths_crlf.csv");
+        assertEquals(3, paths.size());
+        assertPath(paths.get(0), 1.5, -2.25, 3, 4e2, 100.0);
+        assertPath(paths.get(1), 0.1, 0.30000000000000004, 12345678901234567890.0, .5, 7);
+        assertPath(paths.get(2), -0.0, 8, 9.999999999999999, 1E-3, 1e-24);
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(paths.get(2).getX1()));
+    }
+
+    /**
+     * Test that a line with the wrong number of fields is refused, after the lines before it are handled
+     */
+    @Test
+    public void testWrongNumberOfFields() {
+        List<double[]> handled = new ArrayList<>();
+        try {
+            CampusPathsParser.parseCampusPaths("test_paths_fields.csv",
+                    (x1, y1, x2, y2, distance) -> handled.add(new double[]{x1, y1, x2, y2, distance}));
+            fail("Expected a ParserException");
+        } catch (ParserException e) {
+            assertEquals(1, handled.size());
+        }
+    }
+
+    /**
+     * Test that empty fields at the end of a line are ignored, as splitting the line at commas ignores them
+     */
+    @Test
+    public void testTrailingEmptyFields() {
+        List<CampusPath> paths = CampusPathsParser.parseCampusPaths("test_paths_trailing.csv");
+        assertEquals(2, paths.size());
+        assertPath(paths.get(0), 1, 2, 3, 4, 5);
+        assertPath(paths.get(1), 6, 7, 8, 9, 10);
+    }
+
+    /**
+     * Test that a line missing its last field is refused for its number of fields, not for an unparsable number
+     */
+    @Test
+    public void testEmptyLastField() {
+        List<double[]> handled = new ArrayList<>();
+        try {
+            CampusPathsParser.parseCampusPaths("test_paths_empty_field.csv",
+                    (x1, y1, x2, y2, distance) -> handled.add(new double[]{x1, y1, x2, y2, distance}));
+            fail("Expected a ParserException");
+        } catch (ParserException e) {
+            assertEquals(1, handled.size());
+            assertNull(e.getCause());
+        }
+    }
+
+    /**
+     * Test that a field that is not a number is refused
+     */
+    @Test
+    public void testNotANumber() {
+        try {
+            CampusPathsParser.parseCampusPaths("test_paths_number.csv");
+            fail("Expected a ParserException");
+        } catch (ParserException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    /**
+     * Test that a missing file is refused
+     */
+    @Test(expected = ParserException.class)
+    public void testMissingFile() {
+        CampusPathsParser.parseCampusPaths("no_such_file.csv", (x1, y1, x2, y2, distance) -> { });
+    }
+
+    private static void assertPath(CampusPath path, double x1, double y1, double x2, double y2, double distance) {
+        assertArrayEquals(new double[]{x1, y1, x2, y2, distance},
+                          new double[]{path.getX1(), path.getY1(), path.getX2(), path.getY2(), path.getDistance()}, 0);
+    }
+}
@@ -0,0 +1,184 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.ClosureRegistry;
+import pathfinder.Closures;
+import pathfinder.DijkstraSearch;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link Closures} and {@link ClosureRegistry} classes, and of searches avoiding closed edges.
+ */
+public class TestClosures {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // A square (0, 0) - (10, 0) - (10, 10) - (0, 10) with two-way edges costing 10, and a two-way diagonal from
+    // (0, 0) to (10, 10) costing 12
+    private static final Point A = new Point(0, 0);
+    private static final Point B = new Point(10, 0);
+    private static final Point C = new Point(10, 10);
+    private static final Point D = new Point(0, 10);
+    private static Graph<Point, Double> square;
+
+    @BeforeClass
+    public static void createTestGraph() {
+        square = new Graph<>();
+        Point[] corners = {A, B, C, D, A};
+        for (int i = 1; i < corners.length; i++) {
+            square.addEdge(corners[i - 1], corners[i], 10.0);
+            square.addEdge(corners[i], corners[i - 1], 10.0);
+        }
+        square.addEdge(A, C, 12.0);
+        square.addEdge(C, A, 12.0);
+    }
+
+    /**
+     * Test that closed paths are closed in both directions, and nothing else is
+     */
+    @Test
+    public void testClosedPath() {
+        Closures closures = new Closures(Collections.singletonList(Closures.Closure.path(A, C)));
+        assertTrue(closures.isClosed(A, C));
+        assertTrue(closures.isClosed(C, A));
+        assertFalse(closures.isClosed(A, B));
+        assertEquals(20, DijkstraSearch.findPath(square, A, C, closures).getCost(), EPSILON);
+        assertEquals(12, DijkstraSearch.findPath(square, A, C).getCost(), EPSILON);
+    }
+
+    /**
+     * Test that areas close every edge passing through them, even with neither end inside
+     */
+    @Test
+    public void testClosedArea() {
+        // A small box in the middle of the square touches only the diagonal
+        Closures closures = new Closures(Collections.singletonList(Closures.Closure.area(4, 4, 6, 6)));
+        assertTrue(closures.isClosed(A, C));
+        assertFalse(closures.isClosed(A, B));
+        assertFalse(closures.isClosed(B, C));
+        // A box just touching the corner (10, 0) closes the edges meeting there
+        closures = new Closures(Collections.singletonList(Closures.Closure.area(10, -5, 12, 0)));
+        assertTrue(closures.isClosed(A, B));
+        assertTrue(closures.isClosed(B, C));
+        assertFalse(closures.isClosed(A, C));
+        assertNull(DijkstraSearch.findPath(square, A, B, closures));
+        // Closing the diagonal as well leaves only the way around through (0, 10)
+        closures = closures.with(new Closures(Collections.singletonList(Closures.Closure.path(A, C))));
+        assertEquals(20, DijkstraSearch.findPath(square, A, C, closures).getCost(), EPSILON);
+    }
+
+    /**
+     * Test that areas with a corner coordinate that is not finite are rejected
+     */
+    @Test
+    public void testNonFiniteArea() {
+        double[] bad = {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NaN};
+        for (double value : bad) {
+            for (int i = 0; i < 4; i++) {
+                double[] c = {0, 0, 10, 10};
+                c[i] = value;
+                try {
+                    Closures.Closure.area(c[0], c[1], c[2], c[3]);
+                    fail("Area accepted " + Arrays.toString(c));
+                } catch (IllegalArgumentException e) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that combining with the empty set of closures gives back the same set
+     */
+    @Test
+    public void testWithNone() {
+        Closures closures = new Closures(Collections.singletonList(Closures.Closure.path(A, B)));
+        assertSame(closures, closures.with(Closures.NONE));
+        assertSame(closures, Closures.NONE.with(closures));
+        assertTrue(Closures.NONE.isEmpty());
+    }
+
+    /**
+     * Test that closures put in and removed from the registry of a map change its paths between buildings, and
+     * that per-query closures combine with them
+     */
+    @Test
+    public void testCampusRegistry() {
+        CampusMap campusMap = new CampusMap();
+        Path<Point> open = campusMap.findShortestPath("CSE", "MGH");
+        // Close the middle edge of the shortest path
+        List<Path<Point>.Segment> segments = new ArrayList<>();
+        for (Path<Point>.Segment segment : open) segments.add(segment);
+        Path<Point>.Segment middle = segments.get(segments.size() / 2);
+        ClosureRegistry registry = campusMap.closures();
+        registry.put("works", Closures.Closure.path(middle.getStart(), middle.getEnd()));
+        Path<Point> detour = campusMap.findShortestPath("CSE", "MGH");
+        assertTrue(detour.getCost() > open.getCost() - EPSILON);
+        for (Path<Point>.Segment segment : detour) {
+            assertFalse(segment.getStart().equals(middle.getStart()) && segment.getEnd().equals(middle.getEnd()));
+        }
+        assertEquals(Collections.singleton("works"), registry.byName().keySet());
+        assertTrue(registry.remove("works"));
+        assertFalse(registry.remove("works"));
+        assertEquals(open.getCost(), campusMap.findShortestPath("CSE", "MGH").getCost(), EPSILON);
+        // The same closure given for one query only gives the same detour, and leaves the next query alone
+        Closures avoid = new Closures(Arrays.asList(Closures.Closure.path(middle.getStart(), middle.getEnd())));
+        assertEquals(detour.getCost(), campusMap.findShortestPath("CSE", "MGH", avoid).getCost(), EPSILON);
+        assertEquals(open.getCost(), campusMap.findShortestPath("CSE", "MGH").getCost(), EPSILON);
+    }
+
+    /**
+     * Test that the registry's version advances with every change, and only with a change
+     */
+    @Test
+    public void testRegistryVersion() {
+        ClosureRegistry registry = new ClosureRegistry();
+        assertEquals(0, registry.version());
+        registry.put("works", Closures.Closure.area(0, 0, 1, 1));
+        assertEquals(1, registry.version());
+        registry.put("works", Closures.Closure.area(0, 0, 2, 2));
+        assertEquals(2, registry.version());
+        assertFalse(registry.remove("other"));
+        assertEquals(2, registry.version());
+        assertTrue(registry.remove("works"));
+        assertEquals(3, registry.version());
+    }
+
+    /**
+     * Test that closing an area around a building leaves no path to it
+     */
+    @Test
+    public void testCampusAreaAroundBuilding() {
+        CampusMap campusMap = new CampusMap();
+        Point mgh = campusMap.findShortestPath("MGH", "MGH").getStart();
+        campusMap.closures().put("fence", Closures.Closure.area(mgh.getX() - 1, mgh.getY() - 1,
+                                                                mgh.getX() + 1, mgh.getY() + 1));
+        assertNull(campusMap.findShortestPath("CSE", "MGH"));
+        campusMap.closures().clear();
+        assertNotNull(campusMap.findShortestPath("CSE", "MGH"));
+    }
+
+    /**
+     * Test that areas must not be empty
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyArea() {
+        Closures.Closure.area(5, 0, 4, 1);
+    }
+}
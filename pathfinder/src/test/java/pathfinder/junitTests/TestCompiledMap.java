@@ -0,0 +1,177 @@
+package pathfinder.junitTests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser.ParserException;
+import pathfinder.parser.CompiledMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link CompiledMap} class, and of creating a {@link CampusMap} from one.
+ */
+public class TestCompiledMap {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static final String PATHS = "campus_paths.csv";
+    private static final String BUILDINGS = "campus_buildings.csv";
+
+    // Compiled map file written before each test
+    private Path file;
+
+    @Before
+    public void compileMap() throws IOException {
+        file = Files.createTempFile("campus_map", ".bin");
+        CompiledMap.compile(PATHS, BUILDINGS, file);
+    }
+
+    @After
+    public void deleteMap() throws IOException {
+        System.clearProperty(CampusMap.COMPILED_MAP_PROPERTY);
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test that a map created from the compiled map has the same buildings and paths as one parsed from the data files
+     */
+    @Test
+    public void testSameAsDataFiles() {
+        CampusMap parsed = new CampusMap();
+        assertFalse(parsed.isLoadedFromCompiledMap());
+        System.setProperty(CampusMap.COMPILED_MAP_PROPERTY, file.toString());
+        CampusMap compiled = new CampusMap();
+        assertTrue(compiled.isLoadedFromCompiledMap());
+        assertEquals(parsed.buildingNames(), compiled.buildingNames());
+        assertEquals(parsed.getMapVersion(), compiled.getMapVersion());
+        assertEquals(parsed.getEdgeStats(), compiled.getEdgeStats());
+        String[] names = {"CSE", "MGH", "KNE", "BAG", "PAR"};
+        for (String start : names) {
+            for (String end : names) {
+                assertEquals(parsed.findShortestPath(start, end).getCost(),
+                             compiled.findShortestPath(start, end).getCost(), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Test that the paths leaving each point in a compiled map are counted consistently
+     */
+    @Test
+    public void testPathsByPoint() {
+        CompiledMap map = CompiledMap.load(file, PATHS, BUILDINGS);
+        assertEquals(0, map.firstPath(0));
+        assertEquals(map.pathCount(), map.firstPath(map.pointCount()));
+        for (int point = 0; point < map.pointCount(); point++) {
+            assertTrue(map.firstPath(point) <= map.firstPath(point + 1));
+        }
+        for (int path = 0; path < map.pathCount(); path++) {
+            assertTrue(map.target(path) >= 0 && map.target(path) < map.pointCount());
+            assertTrue(map.distance(path) >= 0);
+        }
+    }
+
+    /**
+     * Test that the graph served from a compiled map's buffers holds its points and normalized paths, with no
+     * self-loop or parallel path, and has the fingerprint stored when it was compiled
+     */
+    @Test
+    public void testGraphView() {
+        CompiledMap map = CompiledMap.load(file, PATHS, BUILDINGS);
+        IndexedGraph<Point> graph = map.graph();
+        assertEquals(map.pointCount(), graph.size());
+        assertEquals(map.pathCount(), graph.edgeCount());
+        assertEquals(map.edgeStats().getKept(), map.pathCount());
+        for (int point = 0; point < map.pointCount(); point++) {
+            assertEquals(point, graph.idOf(new Point(map.x(point), map.y(point))));
+            assertEquals(map.firstPath(point + 1) - map.firstPath(point), graph.degree(point));
+            for (int i = 0; i < graph.degree(point); i++) {
+                assertNotEquals(point, graph.target(point, i));
+                assertEquals(i, graph.edgeTo(point, graph.target(point, i)));
+            }
+        }
+        assertEquals(map.pathsFingerprint(), graph.fingerprint());
+    }
+
+    /**
+     * Test that a compiled map from other data files, with another fingerprint and checksum, is refused as stale
+     */
+    @Test(expected = ParserException.class)
+    public void testStale() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[8] ^= 1;
+        bytes[16] ^= 1;
+        Files.write(file, bytes);
+        CompiledMap.load(file, PATHS, BUILDINGS);
+    }
+
+    /**
+     * Test that a compiled map whose data files only have another fingerprint, as when they are copied, is checked
+     * against their contents and used
+     */
+    @Test
+    public void testFingerprintChanged() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[8] ^= 1;
+        Files.write(file, bytes);
+        assertEquals(CompiledMap.load(file, PATHS, BUILDINGS, true).pathCount(),
+                     CompiledMap.load(file, PATHS, BUILDINGS).pathCount());
+    }
+
+    /**
+     * Test that the contents of the data files are only checked when the fingerprint is unchanged if asked to
+     */
+    @Test
+    public void testVerify() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[16] ^= 1;
+        Files.write(file, bytes);
+        assertNotNull(CompiledMap.load(file, PATHS, BUILDINGS));
+        try {
+            CompiledMap.load(file, PATHS, BUILDINGS, true);
+            fail("Expected a ParserException");
+        } catch (ParserException e) {
+            // Expected: the checksum no longer matches
+        }
+    }
+
+    /**
+     * Test that a compiled map with damaged contents is refused
+     */
+    @Test(expected = ParserException.class)
+    public void testDamaged() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        CompiledMap.load(file, PATHS, BUILDINGS);
+    }
+
+    /**
+     * Test that a map falls back to the data files when its compiled map is missing or damaged
+     */
+    @Test
+    public void testFallBack() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        System.setProperty(CampusMap.COMPILED_MAP_PROPERTY, file.toString());
+        CampusMap damaged = new CampusMap();
+        assertFalse(damaged.isLoadedFromCompiledMap());
+        assertNotNull(damaged.findShortestPath("CSE", "MGH"));
+        Files.delete(file);
+        assertFalse(new CampusMap().isLoadedFromCompiledMap());
+    }
+}
@@ -0,0 +1,96 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraSearch;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.hierarchy.ContractionHierarchy;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link ContractionHierarchy} class.
+ */
+public class TestContractionHierarchy {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static final String[] NODES = {"A", "B", "C", "D", "E", "F", "G"};
+
+    // Graph to do searches on, and the hierarchy built over it
+    private static Graph<String, Double> graph;
+    private static ContractionHierarchy<String> hierarchy;
+
+    /**
+     * Initialize a small road-like graph with a one-way street and an unreachable node
+     */
+    @BeforeClass
+    public static void createTestGraph() {
+        graph = new Graph<>();
+        String[][] twoWay = {{"A", "B"}, {"B", "C"}, {"C", "D"}, {"B", "E"}, {"E", "F"}, {"F", "D"}};
+        double[] costs = {1.0, 2.0, 1.5, 1.0, 1.0, 0.5};
+        for (int i = 0; i < twoWay.length; i++) {
+            graph.addEdge(twoWay[i][0], twoWay[i][1], costs[i]);
+            graph.addEdge(twoWay[i][1], twoWay[i][0], costs[i]);
+        }
+        graph.addEdge("A", "D", 10.0);
+        graph.addEdge("D", "A", 3.0);
+        graph.addNode("G");
+        hierarchy = new ContractionHierarchy<>(graph);
+    }
+
+    /**
+     * Test that every pair of nodes gets a path with the same cost as Dijkstra's algorithm, made of original edges
+     */
+    @Test
+    public void testAllPairsMatchDijkstra() {
+        for (String start : NODES) {
+            for (String end : NODES) {
+                Path<String> expected = DijkstraSearch.findPath(graph, start, end);
+                Path<String> actual = hierarchy.findPath(start, end);
+                if (expected == null) {
+                    assertNull(actual);
+                } else {
+                    assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+                    assertEquals(start, actual.getStart());
+                    assertEquals(end, actual.getEnd());
+                    for (Path<String>.Segment segment : actual) {
+                        assertTrue(graph.childrenOf(segment.getStart()).containsKey(segment.getEnd()));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that unknown nodes are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownNode() {
+        hierarchy.findPath("A", "Z");
+    }
+
+    /**
+     * Test that the hierarchy agrees with Dijkstra's algorithm on routes across the real campus map
+     */
+    @Test
+    public void testCampusRoutesMatchDijkstra() {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap contracted = new CampusMap(SearchEngine.CONTRACTION_HIERARCHY);
+        String[][] routes = {{"BAG", "MGH"}, {"BAG", "UBS"}, {"CSE", "IMA"}, {"PAR", "KNE"}, {"EEB", "EEB"}};
+        for (String[] route : routes) {
+            Path<Point> expected = dijkstra.findShortestPath(route[0], route[1]);
+            Path<Point> actual = contracted.findShortestPath(route[0], route[1]);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.CoordinateRouter;
+import pathfinder.DijkstraSearch;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.SegmentGrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link CoordinateRouter} class and the {@link SegmentGrid} it snaps coordinates with.
+ */
+public class TestCoordinateRouter {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // A square (0, 0) - (10, 0) - (10, 10) - (0, 10) with two-way edges costing their length, except that the edge
+    // from (0, 10) to (0, 0) is one-way and costs twice its length
+    private static IndexedGraph<Point> square;
+    private static CoordinateRouter router;
+    private static CampusMap campusMap;
+
+    @BeforeClass
+    public static void createTestGraph() {
+        Graph<Point, Double> graph = new Graph<>();
+        Point[] corners = {new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)};
+        for (int i = 1; i < corners.length; i++) {
+            graph.addEdge(corners[i - 1], corners[i], 10.0);
+            graph.addEdge(corners[i], corners[i - 1], 10.0);
+        }
+        graph.addEdge(corners[3], corners[0], 20.0);
+        square = new IndexedGraph<>(graph);
+        router = new CoordinateRouter(square);
+        campusMap = new CampusMap();
+    }
+
+    /**
+     * Test that coordinates snap to the nearest point on the nearest segment
+     */
+    @Test
+    public void testSnap() {
+        SegmentGrid.Snap snap = router.snap(new Point(4, -3));
+        assertEquals(new Point(4, 0), snap.getPoint());
+        assertEquals(3, snap.getDistance(), EPSILON);
+        snap = router.snap(new Point(20, 20));
+        assertEquals(new Point(10, 10), snap.getPoint());
+        assertEquals(4, new SegmentGrid(square).size());
+    }
+
+    /**
+     * Test that the grid finds the same nearest distance as checking every segment
+     */
+    @Test
+    public void testSnapMatchesScan() {
+        Graph<Point, Double> graph = new Graph<>();
+        Random random = new Random(331);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 200; i++) points.add(new Point(random.nextInt(1000), random.nextInt(1000)));
+        for (int i = 0; i < 300; i++) {
+            graph.addEdge(points.get(random.nextInt(points.size())), points.get(random.nextInt(points.size())), 1.0);
+        }
+        IndexedGraph<Point> indexed = new IndexedGraph<>(graph);
+        SegmentGrid grid = new SegmentGrid(indexed);
+        for (int query = 0; query < 200; query++) {
+            double x = random.nextDouble() * 1400 - 200;
+            double y = random.nextDouble() * 1400 - 200;
+            double expected = Double.POSITIVE_INFINITY;
+            for (int id = 0; id < indexed.size(); id++) {
+                for (int i = 0; i < indexed.degree(id); i++) {
+                    expected = Math.min(expected, segmentDistance(indexed.nodeOf(id),
+                                                                  indexed.nodeOf(indexed.target(id, i)), x, y));
+                }
+            }
+            SegmentGrid.Snap snap = grid.nearest(x, y);
+            assertEquals(expected, snap.getDistance(), EPSILON);
+            assertEquals(snap.getDistance(), Math.hypot(snap.getPoint().getX() - x, snap.getPoint().getY() - y),
+                         EPSILON);
+        }
+    }
+
+    private static double segmentDistance(Point a, Point b, double x, double y) {
+        double dx = b.getX() - a.getX();
+        double dy = b.getY() - a.getY();
+        double lengthSquared = dx * dx + dy * dy;
+        double t = lengthSquared == 0 ? 0 : ((x - a.getX()) * dx + (y - a.getY()) * dy) / lengthSquared;
+        t = Math.min(1, Math.max(0, t));
+        return Math.hypot(a.getX() + dx * t - x, a.getY() + dy * t - y);
+    }
+
+    /**
+     * Test routing between points partway along segments, including along a one-way segment
+     */
+    @Test
+    public void testPartialSegments() {
+        Path<Point> path = router.findPath(new Point(2, -1), new Point(11, 7));
+        assertEquals(new Point(2, 0), path.getStart());
+        assertEquals(new Point(10, 7), path.getEnd());
+        assertEquals(8 + 7, path.getCost(), EPSILON);
+        // Walking down the one-way edge costs double, but is still cheaper than going around the square
+        path = router.findPath(new Point(-1, 9), new Point(1, -1));
+        assertEquals(2 * 9 + 1, path.getCost(), EPSILON);
+        // Walking up it is not allowed, so the path goes around, walking each end of it at double cost
+        path = router.findPath(new Point(-1, 1), new Point(-1, 9));
+        assertEquals(2 * 1 + 10 + 10 + 10 + 2 * 1, path.getCost(), EPSILON);
+    }
+
+    /**
+     * Test that coordinates snapping onto an end node of a one-way segment route from and to that node along any of
+     * its edges, as routing between the nodes themselves does
+     */
+    @Test
+    public void testEndOfOneWaySegment() {
+        // A square with one-way edges around it, and one-way spokes to and from its center
+        Graph<Point, Double> graph = new Graph<>();
+        Point[] nodes = {new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10), new Point(5, 5)};
+        for (int i = 0; i < 4; i++) graph.addEdge(nodes[i], nodes[(i + 1) % 4], 10.0);
+        graph.addEdge(nodes[0], nodes[4], 8.0);
+        graph.addEdge(nodes[2], nodes[4], 8.0);
+        graph.addEdge(nodes[4], nodes[1], 8.0);
+        graph.addEdge(nodes[4], nodes[3], 8.0);
+        CoordinateRouter oneWay = new CoordinateRouter(new IndexedGraph<>(graph));
+        // (0, 0) snaps onto the start of the spoke leaving it, and (10, 0) onto the end of the edge reaching it
+        assertEquals(0, oneWay.snap(nodes[0]).getFraction(), 0);
+        assertEquals(1, oneWay.snap(nodes[1]).getFraction(), 0);
+        for (Point start : nodes) {
+            for (Point end : nodes) {
+                Path<Point> path = oneWay.findPath(start, end);
+                assertEquals(start + " to " + end, DijkstraSearch.findPath(graph, start, end).getCost(),
+                             path.getCost(), EPSILON);
+                assertEquals(start, path.getStart());
+                assertEquals(end, path.getEnd());
+            }
+        }
+    }
+
+    /**
+     * Test routing between two points on the same segment, in both directions
+     */
+    @Test
+    public void testSameSegment() {
+        Path<Point> path = router.findPath(new Point(3, 1), new Point(8, -1));
+        assertEquals(5, path.getCost(), EPSILON);
+        path = router.findPath(new Point(8, 1), new Point(3, 1));
+        assertEquals(5, path.getCost(), EPSILON);
+        path = router.findPath(new Point(3, 1), new Point(3, 1));
+        assertEquals(0, path.getCost(), EPSILON);
+    }
+
+    /**
+     * Test that routing between building entrances costs the same as routing between the buildings
+     */
+    @Test
+    public void testCampusBuildings() {
+        String[][] routes = {{"CSE", "MGH"}, {"KNE", "PAR"}, {"BAG", "SUZ"}};
+        for (String[] route : routes) {
+            Path<Point> expected = campusMap.findShortestPath(route[0], route[1]);
+            Path<Point> actual = campusMap.findShortestPath(expected.getStart(), expected.getEnd());
+            assertEquals(expected.getStart(), actual.getStart());
+            assertEquals(expected.getEnd(), actual.getEnd());
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        }
+    }
+
+    /**
+     * Test that concurrent queries each get the answer a lone query gets
+     */
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        Random random = new Random(14);
+        List<Point[]> queries = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            queries.add(new Point[]{new Point(random.nextDouble() * 4000, random.nextDouble() * 3000),
+                                    new Point(random.nextDouble() * 4000, random.nextDouble() * 3000)});
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Path<Point>>> results = new ArrayList<>();
+            for (final Point[] query : queries) {
+                results.add(pool.submit(new Callable<Path<Point>>() {
+                    @Override
+                    public Path<Point> call() {
+                        return campusMap.findShortestPath(query[0], query[1]);
+                    }
+                }));
+            }
+            for (int i = 0; i < queries.size(); i++) {
+                Path<Point> expected = campusMap.findShortestPath(queries.get(i)[0], queries.get(i)[1]);
+                Path<Point> actual = results.get(i).get();
+                assertEquals(expected == null, actual == null);
+                if (expected != null) assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test that null coordinates are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullCoordinate() {
+        campusMap.findShortestPath(null, new Point(0, 0));
+    }
+}
@@ -0,0 +1,124 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.DistanceMatrix;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link DistanceMatrix} class, as used by {@link CampusMap#distanceMatrix}.
+ */
+public class TestDistanceMatrix {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static CampusMap campusMap;
+
+    @BeforeClass
+    public static void loadCampusMap() {
+        campusMap = new CampusMap();
+    }
+
+    /**
+     * Test that every row is handled exactly once and matches the lengths of the individual shortest paths
+     */
+    @Test
+    public void testMatchesShortestPaths() {
+        List<String> starts = Arrays.asList("BAG", "CSE", "PAR", "EEB");
+        List<String> ends = Arrays.asList("MGH", "UBS", "IMA", "KNE", "EEB", "MGH");
+        double[][] rows = new double[starts.size()][];
+        campusMap.distanceMatrix(starts, ends, new DistanceMatrix.RowHandler() {
+            @Override
+            public void handleRow(int index, double[] costs) {
+                assertNull(rows[index]);
+                rows[index] = costs;
+            }
+        });
+        for (int i = 0; i < starts.size(); i++) {
+            assertNotNull(rows[i]);
+            assertEquals(ends.size(), rows[i].length);
+            for (int j = 0; j < ends.size(); j++) {
+                double expected = campusMap.findShortestPath(starts.get(i), ends.get(j)).getCost();
+                assertEquals(expected, rows[i][j], EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Test that a matrix with no starting buildings handles no rows
+     */
+    @Test
+    public void testNoStarts() {
+        campusMap.distanceMatrix(Arrays.asList(), Arrays.asList("CSE"), new DistanceMatrix.RowHandler() {
+            @Override
+            public void handleRow(int index, double[] costs) {
+                fail("No rows expected");
+            }
+        });
+    }
+
+    /**
+     * Test that unknown buildings are rejected before any row is handled
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBuilding() {
+        campusMap.distanceMatrix(Arrays.asList("CSE"), Arrays.asList("MGH", "XYZ"), new DistanceMatrix.RowHandler() {
+            @Override
+            public void handleRow(int index, double[] costs) {
+                fail("No rows expected");
+            }
+        });
+    }
+
+    /**
+     * Test that rows not yet searched are cancelled when handling a row fails, such as when the client reading the
+     * rows has gone
+     */
+    @Test
+    public void testCancelsRowsWhenHandlerFails() {
+        // A grid in which every row searches most of the graph to reach the far corner
+        Graph<Point, Double> grid = new Graph<>();
+        for (int x = 0; x < 300; x++) {
+            for (int y = 0; y < 300; y++) {
+                if (x > 0) grid.addEdge(new Point(x, y), new Point(x - 1, y), 1.0);
+                if (y > 0) grid.addEdge(new Point(x, y), new Point(x, y - 1), 1.0);
+            }
+        }
+        IndexedGraph<Point> graph = new IndexedGraph<>(grid);
+        int[] sources = new int[200];
+        for (int i = 0; i < sources.length; i++) sources[i] = graph.idOf(new Point(299 - i % 50, 299 - i / 50));
+        int[] targets = {graph.idOf(new Point(0, 0))};
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            DistanceMatrix.compute(graph, sources, targets, new DistanceMatrix.RowHandler() {
+                @Override
+                public void handleRow(int index, double[] costs) {
+                    throw new UncheckedIOException(new IOException("Client has gone"));
+                }
+            }, pool);
+            fail("Handler failure expected");
+        } catch (UncheckedIOException e) {
+            // The row being searched may finish, but no other row is started
+            assertTrue(pool.awaitQuiescence(1, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
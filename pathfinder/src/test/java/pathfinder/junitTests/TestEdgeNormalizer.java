@@ -0,0 +1,103 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraSearch;
+import pathfinder.EdgeNormalizer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link EdgeNormalizer} class.
+ */
+public class TestEdgeNormalizer {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * @return a graph with parallel edges between A and B, a self-loop on C, and an isolated node D
+     */
+    private static Graph<String, Double> createTestGraph() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addEdge("A", "B", 7.0);
+        graph.addEdge("A", "B", 3.0);
+        graph.addEdge("A", "B", 5.0);
+        graph.addEdge("B", "A", 4.0);
+        graph.addEdge("B", "C", 2.0);
+        graph.addEdge("C", "C", 1.0);
+        graph.addEdge("C", "C", 0.0);
+        graph.addEdge("C", "A", 6.0);
+        graph.addNode("D");
+        return graph;
+    }
+
+    /**
+     * Test that only the least-cost edge between each ordered pair of distinct nodes is kept
+     */
+    @Test
+    public void testKeepsLeastCostEdges() {
+        Graph<String, Double> normalized = new Graph<>();
+        EdgeNormalizer.normalize(createTestGraph(), normalized);
+        assertEquals(Collections.singletonList(3.0), normalized.childrenOf("A").get("B"));
+        assertEquals(Collections.singletonList(4.0), normalized.childrenOf("B").get("A"));
+        assertEquals(Collections.singletonList(2.0), normalized.childrenOf("B").get("C"));
+        assertEquals(Collections.singleton("A"), normalized.childrenOf("C").keySet());
+        assertTrue(normalized.containsNode("D"));
+        assertTrue(normalized.childrenOf("D").isEmpty());
+    }
+
+    /**
+     * Test that the duplicate and self-loop edges dropped are counted
+     */
+    @Test
+    public void testStats() {
+        EdgeNormalizer.Stats stats = EdgeNormalizer.normalize(createTestGraph(), new Graph<>());
+        assertEquals(8, stats.getEdges());
+        assertEquals(2, stats.getDuplicates());
+        assertEquals(2, stats.getSelfLoops());
+        assertEquals(4, stats.getKept());
+        EdgeNormalizer.Stats none = EdgeNormalizer.normalize(new Graph<String, Double>(), new Graph<>());
+        assertEquals(0, none.getEdges());
+        assertEquals(0, none.getKept());
+    }
+
+    /**
+     * Test that searches find paths of the same cost before and after normalizing, and do not reorder the edge
+     * lists of the graph they search
+     */
+    @Test
+    public void testSameCostsWithoutChangingGraph() {
+        Graph<String, Double> graph = createTestGraph();
+        Graph<String, Double> normalized = new Graph<>();
+        EdgeNormalizer.normalize(graph, normalized);
+        for (String start : new String[]{"A", "B", "C"}) {
+            for (String end : new String[]{"A", "B", "C"}) {
+                assertEquals(DijkstraSearch.findPath(graph, start, end).getCost(),
+                             DijkstraSearch.findPath(normalized, start, end).getCost(), EPSILON);
+            }
+        }
+        assertNull(DijkstraSearch.findPath(normalized, "A", "D"));
+        List<Double> edges = graph.childrenOf("A").get("B");
+        assertEquals(Arrays.asList(7.0, 3.0, 5.0), edges);
+    }
+
+    /**
+     * Test that the campus map counts every path it loads, and keeps one path between each pair of points
+     */
+    @Test
+    public void testCampusMap() {
+        EdgeNormalizer.Stats stats = new CampusMap().getEdgeStats();
+        assertTrue(stats.getKept() > 0);
+        assertEquals(stats.getEdges(), stats.getKept() + stats.getDuplicates() + stats.getSelfLoops());
+    }
+}
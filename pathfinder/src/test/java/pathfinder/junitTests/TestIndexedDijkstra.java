@@ -0,0 +1,123 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.DijkstraSearch;
+import pathfinder.IndexedDijkstra;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.QueueKind;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link IndexedDijkstra} class.
+ */
+public class TestIndexedDijkstra {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // Graph to do searches on, and a search over it
+    private static Graph<String, Double> graph;
+    private static IndexedDijkstra<String> search;
+
+    /**
+     * Initialize graph to do search tests on, with parallel edges and a node unreachable from the others
+     */
+    @BeforeClass
+    public static void createTestGraph() {
+        graph = new Graph<>();
+        graph.addEdge("A", "B", 4.0);
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "C", 2.0);
+        graph.addEdge("A", "C", 5.0);
+        graph.addEdge("C", "D", 1.0);
+        graph.addEdge("B", "D", 6.0);
+        graph.addEdge("E", "A", 1.0);
+        search = new IndexedDijkstra<>(new IndexedGraph<>(graph));
+    }
+
+    /**
+     * Test that the path found is the one Dijkstra's algorithm finds
+     */
+    @Test
+    public void testSameAsDijkstra() {
+        for (String end : new String[]{"A", "B", "C", "D"}) {
+            Path<String> expected = DijkstraSearch.findPath(graph, "A", end);
+            Path<String> actual = search.findPath("A", end);
+            assertEquals(expected, actual);
+            assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+        }
+    }
+
+    /**
+     * Test that null is returned when no path exists, and that the next query is not affected
+     */
+    @Test
+    public void testNoPathNull() {
+        assertNull(search.findPath("A", "E"));
+        assertEquals(4, search.findPath("A", "D").getCost(), EPSILON);
+    }
+
+    /**
+     * Test that indexed Dijkstra agrees with Dijkstra's algorithm on routes across the real campus map
+     */
+    @Test
+    public void testCampusRoutesMatchDijkstra() {
+        CampusMap dijkstra = new CampusMap();
+        CampusMap indexed = new CampusMap(SearchEngine.INDEXED_DIJKSTRA);
+        Map<String, String> buildings = dijkstra.buildingNames();
+        for (String start : new String[]{"BAG", "CSE", "PAR"}) {
+            for (String end : buildings.keySet()) {
+                Path<?> expected = dijkstra.findShortestPath(start, end);
+                Path<?> actual = indexed.findShortestPath(start, end);
+                assertEquals(expected.getCost(), actual.getCost(), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Test that every kind of priority queue finds paths of the same cost, both on the test graph and on the campus,
+     * where the searches for alternatives, reachable places and coordinates use the same kind of queue
+     */
+    @Test
+    public void testEveryQueueKind() {
+        CampusMap dijkstra = new CampusMap();
+        for (QueueKind queue : QueueKind.values()) {
+            IndexedDijkstra<String> queueSearch = new IndexedDijkstra<>(new IndexedGraph<>(graph), queue);
+            for (String end : new String[]{"A", "B", "C", "D"}) {
+                assertEquals(search.findPath("A", end).getCost(), queueSearch.findPath("A", end).getCost(), EPSILON);
+            }
+            assertNull(queueSearch.findPath("A", "E"));
+            CampusMap indexed = new CampusMap(SearchEngine.INDEXED_DIJKSTRA, queue);
+            for (String end : dijkstra.buildingNames().keySet()) {
+                assertEquals(dijkstra.findShortestPath("CSE", end).getCost(),
+                             indexed.findShortestPath("CSE", end).getCost(), EPSILON);
+            }
+            List<Path<Point>> alternatives = dijkstra.findShortestPaths("CSE", "MGH", 5);
+            List<Path<Point>> queueAlternatives = indexed.findShortestPaths("CSE", "MGH", 5);
+            assertEquals(alternatives.size(), queueAlternatives.size());
+            for (int i = 0; i < alternatives.size(); i++) {
+                assertEquals(alternatives.get(i).getCost(), queueAlternatives.get(i).getCost(), EPSILON);
+            }
+            assertEquals(dijkstra.reachableWithin("CSE", 3000).buildings(),
+                         indexed.reachableWithin("CSE", 3000).buildings());
+            Point from = new Point(1000, 1000);
+            Point to = new Point(2000, 1500);
+            assertEquals(dijkstra.findShortestPath(from, to).getCost(), indexed.findShortestPath(from, to).getCost(),
+                         EPSILON);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package pathfinder.junitTests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.ItinerarySolver;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link ItinerarySolver} class, and of {@link CampusMap#planItinerary} which uses it.
+ */
+public class TestItinerarySolver {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * @return A matrix of random asymmetric costs between the given number of stops
+     */
+    private static double[][] randomCosts(int size, long seed) {
+        Random random = new Random(seed);
+        double[][] costs = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) costs[i][j] = i == j ? 0 : 1 + random.nextInt(100);
+        }
+        return costs;
+    }
+
+    /**
+     * @return The least cost of any order of the stops, found by trying every permutation
+     */
+    private static double bruteForce(double[][] costs, int[] order, int position, boolean fixedStart,
+                                     boolean fixedEnd) {
+        if (position == order.length) {
+            if (fixedStart && order[0] != 0) return Double.POSITIVE_INFINITY;
+            if (fixedEnd && order[order.length - 1] != order.length - 1) return Double.POSITIVE_INFINITY;
+            return ItinerarySolver.cost(costs, order);
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (int i = position; i < order.length; i++) {
+            int swap = order[position];
+            order[position] = order[i];
+            order[i] = swap;
+            best = Math.min(best, bruteForce(costs, order, position + 1, fixedStart, fixedEnd));
+            order[i] = order[position];
+            order[position] = swap;
+        }
+        return best;
+    }
+
+    /**
+     * Asserts that an order visits every stop exactly once, with the fixed ends in place
+     */
+    private static void assertValidOrder(int[] order, int size, boolean fixedStart, boolean fixedEnd) {
+        assertEquals(size, order.length);
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < size; i++) assertEquals(i, sorted[i]);
+        if (fixedStart) assertEquals(0, order[0]);
+        if (fixedEnd) assertEquals(size - 1, order[size - 1]);
+    }
+
+    /**
+     * Test that exact orders cost the same as the best of every permutation, with and without fixed ends
+     */
+    @Test
+    public void testExactMatchesBruteForce() {
+        for (int seed = 0; seed < 4; seed++) {
+            double[][] costs = randomCosts(7, seed);
+            for (boolean fixedStart : new boolean[]{false, true}) {
+                for (boolean fixedEnd : new boolean[]{false, true}) {
+                    int[] order = ItinerarySolver.solve(costs, fixedStart, fixedEnd, 0);
+                    assertValidOrder(order, costs.length, fixedStart, fixedEnd);
+                    int[] all = {0, 1, 2, 3, 4, 5, 6};
+                    assertEquals(bruteForce(costs, all, 0, fixedStart, fixedEnd),
+                                 ItinerarySolver.cost(costs, order), EPSILON);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that heuristic orders of large sets are valid and no worse than visiting stops in numbered order
+     */
+    @Test
+    public void testHeuristicOrders() {
+        int size = ItinerarySolver.EXACT_LIMIT + 8;
+        double[][] costs = randomCosts(size, 42);
+        int[] numbered = new int[size];
+        for (int i = 0; i < size; i++) numbered[i] = i;
+        for (boolean fixedStart : new boolean[]{false, true}) {
+            for (boolean fixedEnd : new boolean[]{false, true}) {
+                int[] order = ItinerarySolver.solve(costs, fixedStart, fixedEnd, 1_000_000_000L);
+                assertValidOrder(order, size, fixedStart, fixedEnd);
+                assertTrue(ItinerarySolver.cost(costs, order) <= ItinerarySolver.cost(costs, numbered));
+            }
+        }
+    }
+
+    /**
+     * Test that a campus itinerary starts and ends at the fixed buildings and is no longer than the given order
+     */
+    @Test
+    public void testCampusItinerary() {
+        CampusMap campusMap = new CampusMap();
+        String[] stops = {"MGH", "PAR", "IMA", "EEB"};
+        Path<Point> itinerary = campusMap.planItinerary(Arrays.asList(stops), "CSE", "KNE");
+        assertNotNull(itinerary);
+        assertEquals(campusMap.findShortestPath("CSE", "CSE").getEnd(), itinerary.getStart());
+        assertEquals(campusMap.findShortestPath("KNE", "KNE").getEnd(), itinerary.getEnd());
+        double given = campusMap.findShortestPath("CSE", stops[0]).getCost()
+                       + campusMap.findShortestPath(stops[stops.length - 1], "KNE").getCost();
+        for (int i = 1; i < stops.length; i++) given += campusMap.findShortestPath(stops[i - 1], stops[i]).getCost();
+        assertTrue(itinerary.getCost() <= given + EPSILON);
+    }
+
+    /**
+     * Test that unknown buildings are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBuilding() {
+        new CampusMap().planItinerary(Arrays.asList("CSE", "XYZ"), null, null);
+    }
+}
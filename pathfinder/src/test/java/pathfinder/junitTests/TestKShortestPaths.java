@@ -0,0 +1,111 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.KShortestPaths;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link KShortestPaths} class.
+ */
+public class TestKShortestPaths {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    private static KShortestPaths<String> alternatives;
+    private static CampusMap campusMap;
+
+    /**
+     * Initialize a small graph with exactly four loopless paths from A to D, costing 2, 3, 3.5 and 5, and a cycle
+     * that loopless paths must not take
+     */
+    @BeforeClass
+    public static void createTestGraph() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "D", 1.0);
+        graph.addEdge("A", "C", 1.0);
+        graph.addEdge("C", "D", 2.0);
+        graph.addEdge("B", "C", 0.5);
+        graph.addEdge("C", "A", 0.1);
+        graph.addEdge("A", "D", 5.0);
+        graph.addNode("E");
+        alternatives = new KShortestPaths<>(new IndexedGraph<>(graph));
+        campusMap = new CampusMap();
+    }
+
+    /**
+     * Test that paths are found in order of cost and stop when no more loopless paths exist
+     */
+    @Test
+    public void testAllPaths() {
+        List<Path<String>> paths = alternatives.findPaths("A", "D", 10);
+        double[] expected = {2, 3, 3.5, 5};
+        assertEquals(expected.length, paths.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], paths.get(i).getCost(), EPSILON);
+            assertEquals("A", paths.get(i).getStart());
+            assertEquals("D", paths.get(i).getEnd());
+        }
+    }
+
+    /**
+     * Test that only the requested number of paths is returned
+     */
+    @Test
+    public void testFewerPaths() {
+        List<Path<String>> paths = alternatives.findPaths("A", "D", 2);
+        assertEquals(2, paths.size());
+        assertEquals(2, paths.get(0).getCost(), EPSILON);
+        assertEquals(3, paths.get(1).getCost(), EPSILON);
+    }
+
+    /**
+     * Test that a path from a node to itself is the only one, and an unreachable node has none
+     */
+    @Test
+    public void testTrivialPaths() {
+        assertEquals(1, alternatives.findPaths("B", "B", 3).size());
+        assertTrue(alternatives.findPaths("A", "E", 3).isEmpty());
+    }
+
+    /**
+     * Test that campus paths are distinct, loopless, ranked, and start with a shortest path
+     */
+    @Test
+    public void testCampusPaths() {
+        List<Path<Point>> paths = campusMap.findShortestPaths("CSE", "MGH", 5);
+        assertEquals(5, paths.size());
+        assertEquals(campusMap.findShortestPath("CSE", "MGH").getCost(), paths.get(0).getCost(), EPSILON);
+        for (int i = 0; i < paths.size(); i++) {
+            if (i > 0) assertTrue(paths.get(i - 1).getCost() <= paths.get(i).getCost());
+            Set<Point> visited = new HashSet<>();
+            visited.add(paths.get(i).getStart());
+            for (Path<Point>.Segment segment : paths.get(i)) assertTrue(visited.add(segment.getEnd()));
+            for (int j = 0; j < i; j++) assertNotEquals(paths.get(j), paths.get(i));
+        }
+    }
+
+    /**
+     * Test that asking for no paths is rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPathsRequested() {
+        alternatives.findPaths("A", "D", 0);
+    }
+}
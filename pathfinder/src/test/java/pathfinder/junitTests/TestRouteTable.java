@@ -0,0 +1,93 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraSearch;
+import pathfinder.RouteTable;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Path;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link RouteTable} class.
+ */
+public class TestRouteTable {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // Graph the routes run over, and the table built over it
+    private static Graph<String, Double> graph;
+    private static RouteTable<String> table;
+
+    /**
+     * Initialize a graph with three named places, one of which can only be left
+     */
+    @BeforeClass
+    public static void createTestTable() {
+        graph = new Graph<>();
+        graph.addEdge("A", "B", 2.0);
+        graph.addEdge("B", "A", 2.0);
+        graph.addEdge("B", "C", 1.0);
+        graph.addEdge("C", "B", 1.0);
+        graph.addEdge("A", "C", 5.0);
+        graph.addEdge("D", "A", 1.0);
+        Map<String, String> locations = new HashMap<>();
+        locations.put("first", "A");
+        locations.put("third", "C");
+        locations.put("source", "D");
+        table = new RouteTable<>(new IndexedGraph<>(graph), locations);
+    }
+
+    /**
+     * Test that routes in the table match Dijkstra's algorithm
+     */
+    @Test
+    public void testMatchesDijkstra() {
+        Path<String> expected = DijkstraSearch.findPath(graph, "D", "C");
+        assertEquals(expected, table.findPath("source", "third"));
+        assertEquals(expected.getCost(), table.costOf("source", "third"), EPSILON);
+        assertEquals(new Path<>("A"), table.findPath("first", "first"));
+    }
+
+    /**
+     * Test that missing routes are null with infinite cost
+     */
+    @Test
+    public void testNoRoute() {
+        assertNull(table.findPath("first", "source"));
+        assertTrue(Double.isInfinite(table.costOf("first", "source")));
+    }
+
+    /**
+     * Test that unknown names are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownName() {
+        table.findPath("first", "second");
+    }
+
+    /**
+     * Test that the export has one line per ordered pair of places, listing the nodes along each route
+     */
+    @Test
+    public void testExport() throws IOException {
+        StringWriter out = new StringWriter();
+        table.export(out, node -> node);
+        String[] lines = out.toString().split("\n");
+        assertEquals(9, lines.length);
+        assertEquals(9, table.routeCount());
+        assertTrue(out.toString().contains("source,third,4.0,D,A,B,C\n"));
+    }
+}
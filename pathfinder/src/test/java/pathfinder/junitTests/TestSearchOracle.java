@@ -0,0 +1,114 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.DijkstraSearch;
+import pathfinder.SearchOracle;
+import pathfinder.ShardedPathLoader;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.PathShard;
+import pathfinder.parser.SyntheticMapGenerator;
+import pathfinder.parser.SyntheticMapGenerator.Topology;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link SearchOracle} class, and that every search engine agrees with it on a synthetic map.
+ */
+public class TestSearchOracle {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(30); // 30 seconds max per method tested, as maps are generated
+
+    /**
+     * @return a small graph with a node that cannot be reached
+     */
+    private static Graph<Point, Double> createTestGraph() {
+        Graph<Point, Double> graph = new Graph<>();
+        graph.addEdge(new Point(0, 0), new Point(1, 0), 1.0);
+        graph.addEdge(new Point(1, 0), new Point(1, 1), 1.0);
+        graph.addEdge(new Point(0, 0), new Point(1, 1), 5.0);
+        graph.addNode(new Point(9, 9));
+        return graph;
+    }
+
+    private static List<Point[]> routes() {
+        List<Point[]> routes = new ArrayList<>();
+        routes.add(new Point[]{new Point(0, 0), new Point(1, 1)});
+        routes.add(new Point[]{new Point(0, 0), new Point(9, 9)});
+        return routes;
+    }
+
+    /**
+     * Test that the reference search itself agrees with the oracle
+     */
+    @Test
+    public void testReferenceAgrees() {
+        Graph<Point, Double> graph = createTestGraph();
+        SearchOracle oracle = new SearchOracle(graph, routes());
+        assertEquals(2, oracle.routeCount());
+        assertEquals(Collections.emptyList(), oracle.check((start, end) -> DijkstraSearch.findPath(graph, start, end)));
+    }
+
+    /**
+     * Test that paths that are too long, missing, invented, or not made of edges are caught
+     */
+    @Test
+    public void testWrongEnginesDisagree() {
+        Graph<Point, Double> graph = createTestGraph();
+        SearchOracle oracle = new SearchOracle(graph, routes());
+        Path<Point> direct = new Path<>(new Point(0, 0)).extend(new Point(1, 1), 5.0);
+        assertEquals(1, oracle.check((start, end) -> end.getX() == 1 ? direct : null).size());
+        assertEquals(1, oracle.check((start, end) -> null).size());
+        assertEquals(2, oracle.check((start, end) -> new Path<>(start).extend(end, 2.0)).size());
+        Path<Point> shortcut = new Path<>(new Point(0, 0)).extend(new Point(1, 1), 2.0);
+        assertEquals(1, oracle.check((start, end) -> end.getX() == 1 ? shortcut : null).size());
+    }
+
+    @Test(expected = AssertionError.class)
+    public void testVerifyFails() {
+        new SearchOracle(createTestGraph(), routes()).verify("nothing", (start, end) -> null);
+    }
+
+    /**
+     * Test that every search engine agrees with DijkstraSearch on random routes between buildings on a synthetic
+     * multi-campus map
+     */
+    @Test
+    public void testEveryEngineOnSyntheticMap() throws IOException {
+        java.nio.file.Path paths = Files.createTempFile("synthetic_paths", ".csv");
+        java.nio.file.Path buildingsFile = Files.createTempFile("synthetic_buildings", ".csv");
+        try {
+            SyntheticMapGenerator.generate(Topology.CLUSTERED, SyntheticMapGenerator.MIN_PATHS, 20, 5, paths,
+                                           buildingsFile);
+            Graph<Point, Double> graph = ShardedPathLoader.load(PathShard.of(paths).split(2), ForkJoinPool.commonPool())
+                                                          .getGraph().toGraph();
+            Map<String, Point> buildings = new TreeMap<>();
+            for (CampusBuilding building : CampusPathsParser.parseCampusBuildings(buildingsFile)) {
+                buildings.put(building.getShortName(), new Point(building.getX(), building.getY()));
+            }
+            SearchOracle oracle = new SearchOracle(graph, SearchOracle.randomRoutes(
+                    new ArrayList<>(buildings.values()), 30, 5));
+            for (Map.Entry<String, SearchOracle.Engine> engine : SearchOracle.engines(graph, buildings).entrySet()) {
+                oracle.verify(engine.getKey(), engine.getValue());
+            }
+        } finally {
+            Files.deleteIfExists(paths);
+            Files.deleteIfExists(buildingsFile);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package pathfinder.junitTests;
+
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.EdgeNormalizer;
+import pathfinder.SearchEngine;
+import pathfinder.ShardedPathLoader;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.PathShard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link ShardedPathLoader} class, and of splitting campus paths files into shards.
+ */
+public class TestShardedPathLoader {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    /**
+     * Test that the shards a file is split into hold every line of it exactly once, in order, however many there are
+     */
+    @Test
+    public void testSplitKeepsEveryLine() {
+        List<double[]> expected = parse(PathShard.of("campus_paths.csv"));
+        for (int count : new int[]{1, 2, 3, 7, 50, 1000}) {
+            List<PathShard> shards = PathShard.of("campus_paths.csv").split(count);
+            assertTrue(shards.size() <= count);
+            List<double[]> actual = new ArrayList<>();
+            for (PathShard shard : shards) actual.addAll(parse(shard));
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) assertArrayEquals(expected.get(i), actual.get(i), 0);
+        }
+    }
+
+    /**
+     * Test that a line ending exactly at a shard boundary, and lines ending with "\r\n", are handled once
+     */
+    @Test
+    public void testSplitAtLineBoundaries() {
+        List<double[]> expected = parse(PathShard.of("test_paths_crlf.csv"));
+        for (int count = 1; count <= 20; count++) {
+            int lines = 0;
+            for (PathShard shard : PathShard.of("test_paths_crlf.csv").split(count)) lines += parse(shard).size();
+            assertEquals(expected.size(), lines);
+        }
+    }
+
+    /**
+     * Test that loading shards in parallel gives the same graph as parsing the whole file and normalizing it, with
+     * points numbered in the order they first appear and one Point per location
+     */
+    @Test
+    public void testSameGraphAsWholeFile() {
+        for (String file : Arrays.asList("campus_paths.csv", "test_paths_duplicates.csv")) {
+            Graph<Point, Double> parsed = new Graph<>();
+            List<Point> order = new ArrayList<>();
+            CampusPathsParser.parseCampusPaths(file, (x1, y1, x2, y2, distance) -> {
+                Point from = new Point(x1, y1);
+                Point to = new Point(x2, y2);
+                if (!parsed.containsNode(from)) order.add(from);
+                if (!parsed.containsNode(to) && !to.equals(from)) order.add(to);
+                parsed.addEdge(from, to, distance);
+            });
+            Graph<Point, Double> expected = new Graph<>();
+            EdgeNormalizer.Stats expectedStats = EdgeNormalizer.normalize(parsed, expected);
+            for (int threads : new int[]{1, 3}) {
+                for (int count : new int[]{1, 2, 5, 50}) {
+                    ForkJoinPool pool = new ForkJoinPool(threads);
+                    ShardedPathLoader.LoadedPaths loaded = ShardedPathLoader.load(PathShard.of(file).split(count),
+                                                                                  pool);
+                    pool.shutdown();
+                    assertEquals(expectedStats, loaded.getStats());
+                    IndexedGraph<Point> actual = loaded.getGraph();
+                    assertEquals(order.size(), actual.size());
+                    for (int id = 0; id < actual.size(); id++) {
+                        assertEquals(order.get(id), actual.nodeOf(id));
+                        Map<Point, List<Double>> children = expected.childrenOf(actual.nodeOf(id));
+                        assertEquals(children.size(), actual.degree(id));
+                        for (int i = 0; i < actual.degree(id); i++) {
+                            Point child = actual.nodeOf(actual.target(id, i));
+                            assertEquals(children.get(child), Collections.singletonList(actual.weight(id, i)));
+                        }
+                    }
+                    // Every child is the same object as the node at that location
+                    Graph<Point, Double> graph = actual.toGraph();
+                    for (int id = 0; id < actual.size(); id++) {
+                        for (Point child : graph.childrenOf(actual.nodeOf(id)).keySet()) {
+                            assertSame(actual.nodeOf(actual.idOf(child)), child);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that parallel paths and self-loops are counted and dropped, keeping the least-cost path between each
+     * pair of points
+     */
+    @Test
+    public void testDropsDuplicatesAndSelfLoops() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        List<PathShard> shards = PathShard.of("test_paths_duplicates.csv").split(3);
+        ShardedPathLoader.LoadedPaths loaded = ShardedPathLoader.load(shards, pool);
+        pool.shutdown();
+        assertEquals(8, loaded.getStats().getEdges());
+        assertEquals(2, loaded.getStats().getDuplicates());
+        assertEquals(2, loaded.getStats().getSelfLoops());
+        IndexedGraph<Point> graph = loaded.getGraph();
+        assertEquals(3, graph.size());
+        assertEquals(4, graph.edgeCount());
+        int a = graph.idOf(new Point(0, 0));
+        int b = graph.idOf(new Point(10, 0));
+        int c = graph.idOf(new Point(20, 0));
+        assertEquals(3.0, graph.weight(a, graph.edgeTo(a, b)), EPSILON);
+        assertEquals(4.0, graph.weight(b, graph.edgeTo(b, a)), EPSILON);
+        assertEquals(2.0, graph.weight(b, graph.edgeTo(b, c)), EPSILON);
+        assertEquals(-1, graph.edgeTo(c, c));
+        assertEquals(6.0, graph.weight(c, graph.edgeTo(c, a)), EPSILON);
+    }
+
+    /**
+     * Test that a map loaded from shards finds the same paths as the default map
+     */
+    @Test
+    public void testCampusMapFromShards() {
+        CampusMap campusMap = new CampusMap();
+        List<PathShard> shards = PathShard.of("campus_paths.csv").split(4);
+        CampusMap sharded = new CampusMap(SearchEngine.DIJKSTRA, 0, shards, "campus_buildings.csv");
+        assertEquals(campusMap.buildingNames(), sharded.buildingNames());
+        assertEquals(campusMap.getMapVersion(), sharded.getMapVersion());
+        for (String start : Arrays.asList("CSE", "MGH", "KNE")) {
+            for (String end : Arrays.asList("BAG", "PAR", "CSE")) {
+                assertEquals(campusMap.findShortestPath(start, end).getCost(),
+                             sharded.findShortestPath(start, end).getCost(), EPSILON);
+            }
+        }
+    }
+
+    /**
+     * Test that a map missing some of the paths has another version
+     */
+    @Test
+    public void testMapVersionChangesWithPaths() {
+        List<PathShard> shards = PathShard.of("campus_paths.csv").split(4);
+        CampusMap partial = new CampusMap(SearchEngine.DIJKSTRA, 0, shards.subList(0, 3), "campus_buildings.csv");
+        assertNotEquals(new CampusMap().getMapVersion(), partial.getMapVersion());
+    }
+
+    /**
+     * Test that a shard that cannot be parsed fails the whole load
+     */
+    @Test(expected = CampusPathsParser.ParserException.class)
+    public void testBadShard() {
+        List<PathShard> shards = Arrays.asList(PathShard.of("campus_paths.csv"), PathShard.of("test_paths_number.csv"));
+        ShardedPathLoader.load(shards, ForkJoinPool.commonPool());
+    }
+
+    private static List<double[]> parse(PathShard shard) {
+        List<double[]> lines = new ArrayList<>();
+        CampusPathsParser.parseCampusPaths(shard, (x1, y1, x2, y2, distance) ->
+                lines.add(new double[]{x1, y1, x2, y2, distance}));
+        return lines;
+    }
+}
@@ -0,0 +1,132 @@
+package pathfinder.junitTests;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.parser.CampusBuilding;
+import pathfinder.parser.CampusPathsParser;
+import pathfinder.parser.CampusPathsParser.PathShard;
+import pathfinder.parser.SyntheticMapGenerator;
+import pathfinder.parser.SyntheticMapGenerator.Topology;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link SyntheticMapGenerator} class.
+ */
+public class TestSyntheticMapGenerator {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    // Files written by each test
+    private Path paths;
+    private Path buildings;
+
+    @Before
+    public void createFiles() throws IOException {
+        paths = Files.createTempFile("synthetic_paths", ".csv");
+        buildings = Files.createTempFile("synthetic_buildings", ".csv");
+    }
+
+    @After
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(paths);
+        Files.deleteIfExists(buildings);
+    }
+
+    /**
+     * Test that every topology writes about the number of paths asked for, each of which parses and is listed both
+     * ways with the same length, and that every point can reach every other
+     */
+    @Test
+    public void testPathsParseAndConnect() throws IOException {
+        for (Topology topology : Topology.values()) {
+            int written = SyntheticMapGenerator.generate(topology, SyntheticMapGenerator.MIN_PATHS, 10, 1, paths,
+                                                         buildings);
+            assertEquals(topology.toString(), SyntheticMapGenerator.MIN_PATHS, written, 500);
+            Map<List<Double>, Double> lengths = new HashMap<>();
+            Map<List<Double>, List<List<Double>>> children = new HashMap<>();
+            int parsed = CampusPathsParser.parseCampusPaths(PathShard.of(paths), (x1, y1, x2, y2, distance) -> {
+                assertTrue(distance > 0);
+                assertNull(lengths.put(Arrays.asList(x1, y1, x2, y2), distance));
+                children.computeIfAbsent(Arrays.asList(x1, y1), point -> new ArrayList<>()).add(Arrays.asList(x2, y2));
+            });
+            assertEquals(written, parsed);
+            for (Map.Entry<List<Double>, Double> path : lengths.entrySet()) {
+                List<Double> ends = path.getKey();
+                assertEquals(path.getValue(), lengths.get(Arrays.asList(ends.get(2), ends.get(3), ends.get(0),
+                                                                         ends.get(1))));
+            }
+            Set<List<Double>> reached = new HashSet<>();
+            List<List<Double>> frontier = new ArrayList<>();
+            frontier.add(children.keySet().iterator().next());
+            reached.add(frontier.get(0));
+            while (!frontier.isEmpty()) {
+                for (List<Double> child : children.get(frontier.remove(frontier.size() - 1))) {
+                    if (reached.add(child)) frontier.add(child);
+                }
+            }
+            assertEquals(topology.toString(), children.size(), reached.size());
+        }
+    }
+
+    /**
+     * Test that the buildings parse, are at distinct ends of paths, and have distinct names
+     */
+    @Test
+    public void testBuildings() throws IOException {
+        SyntheticMapGenerator.generate(Topology.CLUSTERED, SyntheticMapGenerator.MIN_PATHS, 40, 2, paths, buildings);
+        Set<List<Double>> points = new HashSet<>();
+        CampusPathsParser.parseCampusPaths(PathShard.of(paths), (x1, y1, x2, y2, distance) ->
+                points.add(Arrays.asList(x1, y1)));
+        List<CampusBuilding> buildingList = CampusPathsParser.parseCampusBuildings(buildings);
+        assertEquals(40, buildingList.size());
+        Set<String> names = new HashSet<>();
+        Set<List<Double>> locations = new HashSet<>();
+        for (CampusBuilding building : buildingList) {
+            assertTrue(names.add(building.getShortName()));
+            assertTrue(locations.add(Arrays.asList(building.getX(), building.getY())));
+            assertTrue(points.contains(Arrays.asList(building.getX(), building.getY())));
+        }
+    }
+
+    /**
+     * Test that the same arguments write the same files, and a different seed different ones
+     */
+    @Test
+    public void testSameSeedSameFiles() throws IOException {
+        SyntheticMapGenerator.generate(Topology.DELAUNAY, SyntheticMapGenerator.MIN_PATHS, 5, 3, paths, buildings);
+        byte[] first = Files.readAllBytes(paths);
+        byte[] firstBuildings = Files.readAllBytes(buildings);
+        SyntheticMapGenerator.generate(Topology.DELAUNAY, SyntheticMapGenerator.MIN_PATHS, 5, 3, paths, buildings);
+        assertArrayEquals(first, Files.readAllBytes(paths));
+        assertArrayEquals(firstBuildings, Files.readAllBytes(buildings));
+        SyntheticMapGenerator.generate(Topology.DELAUNAY, SyntheticMapGenerator.MIN_PATHS, 5, 4, paths, buildings);
+        assertFalse(Arrays.equals(first, Files.readAllBytes(paths)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewPaths() throws IOException {
+        SyntheticMapGenerator.generate(Topology.GRID, SyntheticMapGenerator.MIN_PATHS - 1, 5, 0, paths, buildings);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyBuildings() throws IOException {
+        SyntheticMapGenerator.generate(Topology.GRID, SyntheticMapGenerator.MIN_PATHS, 1_000_000, 0, paths,
+                                       buildings);
+    }
+}
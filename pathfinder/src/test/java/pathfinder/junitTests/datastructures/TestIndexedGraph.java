@@ -0,0 +1,126 @@
+package pathfinder.junitTests.datastructures;
+
+import graph.Graph;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.datastructures.IndexedGraph;
+import pathfinder.datastructures.Point;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedGraph {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    private static final Point A = new Point(0, 0);
+    private static final Point B = new Point(3, 4);
+    private static final Point C = new Point(6, 0);
+
+    // A -> B twice, A -> C, B -> C and C -> A
+    private static IndexedGraph<Point> graph;
+
+    @BeforeClass
+    public static void buildGraph() {
+        Graph<Point, Double> edges = new Graph<>();
+        edges.addEdge(A, B, 7.0);
+        edges.addEdge(A, B, 5.0);
+        edges.addEdge(A, C, 6.0);
+        edges.addEdge(B, C, 5.0);
+        edges.addEdge(C, A, 6.0);
+        graph = new IndexedGraph<>(edges);
+    }
+
+    @Test
+    public void testKeepsCheapestParallelEdge() {
+        assertEquals(4, graph.edgeCount());
+        int a = graph.idOf(A);
+        assertEquals(2, graph.degree(a));
+        assertEquals(5.0, graph.weight(a, graph.edgeTo(a, graph.idOf(B))), EPSILON);
+        assertEquals(-1, graph.edgeTo(graph.idOf(B), a));
+    }
+
+    @Test
+    public void testEdgeIdsAreDense() {
+        Set<Integer> edgeIds = new HashSet<>();
+        for(int id = 0; id < graph.size(); id++) {
+            for(int i = 0; i < graph.degree(id); i++) {
+                edgeIds.add(graph.edgeId(id, i));
+            }
+        }
+        assertEquals(graph.edgeCount(), edgeIds.size());
+        for(int e = 0; e < graph.edgeCount(); e++) {
+            assertTrue(edgeIds.contains(e));
+        }
+    }
+
+    @Test
+    public void testCoordinates() {
+        assertTrue(graph.hasCoordinates());
+        for(int id = 0; id < graph.size(); id++) {
+            assertEquals(graph.nodeOf(id).getX(), graph.x(id), EPSILON);
+            assertEquals(graph.nodeOf(id).getY(), graph.y(id), EPSILON);
+        }
+        Graph<String, Double> named = new Graph<>();
+        named.addEdge("A", "B", 1.0);
+        assertFalse(new IndexedGraph<>(named).hasCoordinates());
+    }
+
+    @Test
+    public void testReverse() {
+        IndexedGraph<Point> reverse = graph.reverse();
+        assertEquals(graph.edgeCount(), reverse.edgeCount());
+        for(int id = 0; id < graph.size(); id++) {
+            for(int i = 0; i < graph.degree(id); i++) {
+                int target = graph.target(id, i);
+                int back = reverse.edgeTo(target, id);
+                assertTrue(back >= 0);
+                assertEquals(graph.weight(id, i), reverse.weight(target, back), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testMapped() {
+        double[] xs = new double[graph.size()];
+        double[] ys = new double[graph.size()];
+        int[] offsets = new int[graph.size() + 1];
+        int[] targets = new int[graph.edgeCount()];
+        double[] weights = new double[graph.edgeCount()];
+        for(int id = 0; id < graph.size(); id++) {
+            xs[id] = graph.x(id);
+            ys[id] = graph.y(id);
+            offsets[id + 1] = offsets[id] + graph.degree(id);
+            for(int i = 0; i < graph.degree(id); i++) {
+                targets[graph.edgeId(id, i)] = graph.target(id, i);
+                weights[graph.edgeId(id, i)] = graph.weight(id, i);
+            }
+        }
+        IndexedGraph<Point> mapped = IndexedGraph.mapped(DoubleBuffer.wrap(xs), DoubleBuffer.wrap(ys),
+                                                         IntBuffer.wrap(offsets), IntBuffer.wrap(targets),
+                                                         DoubleBuffer.wrap(weights),
+                                                         IntBuffer.wrap(IndexedGraph.pointTable(xs, ys)));
+        assertEquals(graph.size(), mapped.size());
+        assertEquals(graph.edgeCount(), mapped.edgeCount());
+        for(int id = 0; id < graph.size(); id++) {
+            assertEquals(graph.nodeOf(id), mapped.nodeOf(id));
+            assertEquals(id, mapped.idOf(graph.nodeOf(id)));
+        }
+        assertEquals(-1, mapped.idOf(new Point(1, 1)));
+        assertEquals(graph.fingerprint(), mapped.fingerprint());
+        assertEquals(graph.toGraph().childrenOf(A), mapped.toGraph().childrenOf(A));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoCoordinates() {
+        Graph<String, Double> named = new Graph<>();
+        named.addEdge("A", "B", 1.0);
+        new IndexedGraph<>(named).x(0);
+    }
+}
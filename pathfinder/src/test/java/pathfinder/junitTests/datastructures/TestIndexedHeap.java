@@ -0,0 +1,68 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedHeap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedHeap {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    @Test
+    public void testPollsInKeyOrder() {
+        Random random = new Random(331);
+        IndexedHeap heap = new IndexedHeap(200);
+        double[] keys = new double[200];
+        for(int id = 0; id < keys.length; id++) {
+            keys[id] = random.nextDouble();
+            heap.offer(id, keys[id]);
+        }
+        Arrays.sort(keys);
+        for(double key : keys) {
+            assertEquals(key, heap.peekKey(), EPSILON);
+            int id = heap.poll();
+            assertEquals(key, heap.keyOf(id), EPSILON);
+            assertFalse(heap.contains(id));
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testOfferLowersKeyOnly() {
+        IndexedHeap heap = new IndexedHeap(3);
+        heap.offer(0, 5);
+        heap.offer(1, 3);
+        heap.offer(2, 4);
+        assertTrue(heap.offer(0, 1));
+        assertFalse(heap.offer(1, 10));
+        assertEquals(3, heap.size());
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testClearAllowsReuse() {
+        IndexedHeap heap = new IndexedHeap(4);
+        heap.offer(2, 1);
+        heap.offer(3, 2);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(2));
+        heap.offer(3, 7);
+        assertEquals(1, heap.size());
+        assertEquals(3, heap.poll());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPollEmpty() {
+        new IndexedHeap(1).poll();
+    }
+}
@@ -0,0 +1,145 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.IndexedPriorityQueue;
+import pathfinder.datastructures.QueueKind;
+import pathfinder.datastructures.RadixQueue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIndexedPriorityQueue {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    @Test
+    public void testPollsInKeyOrder() {
+        for(QueueKind kind : QueueKind.values()) {
+            Random random = new Random(331);
+            IndexedPriorityQueue queue = kind.create(500);
+            double[] keys = new double[500];
+            for(int id = 0; id < keys.length; id++) {
+                keys[id] = random.nextInt(50) + random.nextDouble();
+                assertTrue(queue.offer(id, keys[id]));
+            }
+            assertEquals(kind.toString(), 500, queue.size());
+            double[] sorted = keys.clone();
+            Arrays.sort(sorted);
+            for(double key : sorted) {
+                assertEquals(kind.toString(), key, queue.peekKey(), EPSILON);
+                int id = queue.poll();
+                assertEquals(kind.toString(), key, keys[id], EPSILON);
+                assertEquals(key, queue.keyOf(id), EPSILON);
+                assertFalse(queue.contains(id));
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void testLowerKeys() {
+        for(QueueKind kind : QueueKind.values()) {
+            IndexedPriorityQueue queue = kind.create(10);
+            for(int id = 0; id < 10; id++) {
+                queue.offer(id, 100 + id);
+            }
+            assertFalse(queue.offer(3, 200));
+            assertTrue(queue.offer(7, 50));
+            assertTrue(queue.offer(5, 50.5));
+            assertEquals(kind.toString(), 7, queue.poll());
+            assertEquals(kind.toString(), 5, queue.poll());
+            assertEquals(kind.toString(), 0, queue.poll());
+            assertTrue(queue.offer(9, 100.5));
+            assertEquals(kind.toString(), 9, queue.poll());
+            assertEquals(kind.toString(), 1, queue.poll());
+        }
+    }
+
+    @Test
+    public void testDijkstraLikeWorkload() {
+        // Keys only grow past the last one removed, as in a search, with many keys lowered along the way
+        for(QueueKind kind : QueueKind.values()) {
+            Random random = new Random(17);
+            IndexedPriorityQueue queue = kind.create(2000);
+            double[] best = new double[2000];
+            Arrays.fill(best, Double.POSITIVE_INFINITY);
+            boolean[] done = new boolean[2000];
+            queue.offer(0, 0);
+            best[0] = 0;
+            double last = 0;
+            while(!queue.isEmpty()) {
+                int id = queue.poll();
+                double key = queue.keyOf(id);
+                assertTrue(kind.toString(), key >= last);
+                assertEquals(kind.toString(), best[id], key, 0);
+                last = key;
+                done[id] = true;
+                for(int i = 0; i < 5; i++) {
+                    int other = random.nextInt(2000);
+                    double otherKey = key + random.nextInt(20) + random.nextDouble();
+                    if(!done[other] && otherKey < best[other]) {
+                        best[other] = otherKey;
+                        assertTrue(queue.offer(other, otherKey));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        for(QueueKind kind : QueueKind.values()) {
+            IndexedPriorityQueue queue = kind.create(5);
+            queue.offer(1, 2);
+            queue.offer(3, 1);
+            queue.offer(4, 3);
+            queue.poll();
+            queue.clear();
+            assertTrue(queue.isEmpty());
+            assertFalse(queue.contains(1));
+            assertFalse(queue.contains(4));
+            queue.offer(4, 0.5);
+            assertEquals(kind.toString(), 4, queue.poll());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        for(QueueKind kind : QueueKind.values()) {
+            IndexedPriorityQueue queue = kind.create(3);
+            try {
+                queue.poll();
+                throw new AssertionError(kind + " polled an empty queue");
+            } catch(NoSuchElementException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testRadixCoarseScaleKeepsOrder() {
+        // Every key falls in the same fixed-point unit, so the order depends only on the exact keys
+        RadixQueue queue = new RadixQueue(4, 0.001);
+        queue.offer(0, 3.25);
+        queue.offer(1, 3.0);
+        queue.offer(2, 3.5);
+        queue.offer(3, 3.125);
+        assertEquals(1, queue.poll());
+        assertEquals(3, queue.poll());
+        assertEquals(0, queue.poll());
+        assertEquals(2, queue.poll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRadixRejectsKeyBelowLast() {
+        RadixQueue queue = new RadixQueue(3);
+        queue.offer(0, 5);
+        queue.poll();
+        queue.offer(1, 4);
+    }
+}
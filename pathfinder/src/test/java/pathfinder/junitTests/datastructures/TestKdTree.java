@@ -0,0 +1,105 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import pathfinder.datastructures.KdTree;
+import pathfinder.datastructures.Point;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestKdTree {
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D); // Accuracy required to 1 PPB
+
+    // Random points, with some repeated and some sharing a coordinate, and a tree over them
+    private static List<Point> points;
+    private static KdTree<Point> tree;
+
+    @BeforeClass
+    public static void buildTree() {
+        Random random = new Random(331);
+        points = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            points.add(new Point(random.nextInt(200), random.nextInt(200)));
+        }
+        points.add(points.get(0));
+        points.add(new Point(points.get(1).getX(), 500));
+        tree = new KdTree<>(points, point -> point);
+    }
+
+    private static double distance(Point point, double x, double y) {
+        return Math.hypot(point.getX() - x, point.getY() - y);
+    }
+
+    @Test
+    public void testSize() {
+        assertEquals(points.size(), tree.size());
+        assertEquals(0, new KdTree<Point>(new ArrayList<>(), point -> point).nearest(0, 0, 3).size());
+    }
+
+    @Test
+    public void testNearestMatchesScan() {
+        Random random = new Random(14);
+        for(int query = 0; query < 100; query++) {
+            double x = random.nextDouble() * 250 - 25;
+            double y = random.nextDouble() * 250 - 25;
+            List<Point> nearest = tree.nearest(x, y, 5);
+            assertEquals(5, nearest.size());
+            List<Double> distances = new ArrayList<>();
+            for(Point point : points) {
+                distances.add(distance(point, x, y));
+            }
+            distances.sort(null);
+            for(int i = 0; i < nearest.size(); i++) {
+                assertEquals(distances.get(i), distance(nearest.get(i), x, y), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void testNearestMoreThanSize() {
+        assertEquals(points.size(), tree.nearest(10, 10, points.size() + 10).size());
+    }
+
+    @Test
+    public void testWithinRadiusMatchesScan() {
+        for(double radius : new double[]{0, 5, 30, 1000}) {
+            List<Point> found = tree.withinRadius(100, 100, radius);
+            int expected = 0;
+            for(Point point : points) {
+                if(distance(point, 100, 100) <= radius) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, found.size());
+            for(Point point : found) {
+                assertTrue(distance(point, 100, 100) <= radius);
+            }
+        }
+    }
+
+    @Test
+    public void testWithinBoxMatchesScan() {
+        List<Point> found = tree.withinBox(20, 50, 120, 90);
+        int expected = 0;
+        for(Point point : points) {
+            if(point.getX() >= 20 && point.getX() <= 120 && point.getY() >= 50 && point.getY() <= 90) {
+                expected++;
+            }
+        }
+        assertEquals(expected, found.size());
+        assertEquals(0, tree.withinBox(10, 10, 5, 5).size());
+        assertEquals(new HashSet<>(points), new HashSet<>(tree.withinBox(0, 0, 500, 500)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() {
+        tree.nearest(0, 0, -1);
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.Test;
 import pathfinder.datastructures.Path;
 import pathfinder.datastructures.Point;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 
 import static org.junit.Assert.assertEquals;
@@ -53,6 +55,24 @@ public class TestPath {
         assertEquals(2.0D, path.getCost(), 1.0D / (1000.0D * 1000.0D * 1000.0D));
     }
 
+    @Test
+    public void testPathFromNodesEqualsExtended() {
+        Path<Point> extended = new Path<>(new Point(1.0, 2.0));
+        extended = extended.extend(new Point(3.0, 2.0), 2.0D);
+        extended = extended.extend(new Point(3.0, 5.0), 3.0D);
+        Path<Point> built = new Path<>(Arrays.asList(new Point(1.0, 2.0), new Point(3.0, 2.0), new Point(3.0, 5.0)),
+                                       new double[]{2.0D, 3.0D});
+        assertEquals(extended, built);
+        assertEquals(extended.getCost(), built.getCost(), EPSILON);
+        assertEquals(new Path<>(new Point(1.0, 2.0)),
+                     new Path<>(Collections.singletonList(new Point(1.0, 2.0)), new double[0]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPathFromNodesMissingCost() {
+        new Path<>(Arrays.asList(new Point(1.0, 2.0), new Point(3.0, 2.0)), new double[0]);
+    }
+
     @Test
     public void testNonemptyPathEquality() {
         Path<Point> path1 = new Path<>(new Point(1.0, 2.0));
@@ -0,0 +1,64 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.PointInterner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class TestPointInterner {
+
+    @Test
+    public void testDenseIdsInOrderAdded() {
+        PointInterner interner = new PointInterner();
+        assertEquals(0, interner.intern(3.5, 4.5));
+        assertEquals(1, interner.intern(4.5, 3.5));
+        assertEquals(0, interner.intern(3.5, 4.5));
+        assertEquals(2, interner.size());
+        assertEquals(1, interner.idOf(4.5, 3.5));
+        assertEquals(-1, interner.idOf(5, 5));
+        assertEquals(new Point(3.5, 4.5), interner.pointOf(0));
+    }
+
+    @Test
+    public void testSameObjectForEqualPoints() {
+        PointInterner interner = new PointInterner();
+        Point point = new Point(1, 2);
+        int id = interner.intern(point);
+        assertSame(point, interner.pointOf(id));
+        assertEquals(id, interner.intern(new Point(1, 2)));
+        assertSame(point, interner.pointOf(interner.intern(1, 2)));
+    }
+
+    @Test
+    public void testZeroSignsDiffer() {
+        // Point.equals tells 0.0 from -0.0, and so must the table
+        PointInterner interner = new PointInterner();
+        assertNotEquals(interner.intern(0.0, 1), interner.intern(-0.0, 1));
+        assertNotEquals(new Point(0.0, 1), new Point(-0.0, 1));
+    }
+
+    @Test
+    public void testGrows() {
+        PointInterner interner = new PointInterner(1);
+        for(int i = 0; i < 100000; i++) {
+            assertEquals(i, interner.intern(i % 317 * 10.5, i / 317 * 10.5));
+        }
+        for(int i = 0; i < 100000; i++) {
+            assertEquals(i, interner.idOf(i % 317 * 10.5, i / 317 * 10.5));
+            assertEquals(new Point(i % 317 * 10.5, i / 317 * 10.5), interner.pointOf(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotFinite() {
+        new PointInterner().intern(Double.NaN, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNoSuchId() {
+        new PointInterner().pointOf(0);
+    }
+}
@@ -0,0 +1,56 @@
+package pathfinder.junitTests.datastructures;
+
+import org.junit.Test;
+import pathfinder.datastructures.Point;
+import pathfinder.datastructures.StripedPointTable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TestStripedPointTable {
+
+    @Test
+    public void testSameCoordinatesSameId() {
+        StripedPointTable table = new StripedPointTable(3);
+        int a = table.idOf(1.5, 2.5);
+        int b = table.idOf(2.5, 1.5);
+        assertNotEquals(a, b);
+        assertEquals(a, table.idOf(1.5, 2.5));
+        assertEquals(new Point(1.5, 2.5), table.pointOf(a));
+        assertSame(table.pointOf(a), table.pointOf(table.idOf(1.5, 2.5)));
+        assertEquals(2, table.size());
+        assertTrue(a < table.idLimit() && b < table.idLimit());
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        StripedPointTable table = new StripedPointTable(4);
+        // Every thread adds the same points, so each must still be added once
+        Thread[] threads = new Thread[4];
+        for(int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for(int i = 0; i < 5000; i++) {
+                    table.idOf(i % 100, i / 100);
+                }
+            });
+            threads[t].start();
+        }
+        for(Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(5000, table.size());
+        Set<Integer> ids = new HashSet<>();
+        for(int i = 0; i < 5000; i++) {
+            int id = table.idOf(i % 100, i / 100);
+            assertEquals(new Point(i % 100, i / 100), table.pointOf(id));
+            ids.add(id);
+        }
+        assertEquals(5000, ids.size());
+        assertEquals(5000, table.size());
+    }
+}
@@ -0,0 +1,110 @@
+package pathfinder.junitTests.metrics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.metrics.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link Histogram} class.
+ */
+public class TestHistogram {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    // Largest relative error of a quantile read back from a histogram
+    private static final double ERROR = 1.0 / 16;
+
+    /**
+     * Test that an empty histogram has no values and reads back 0 for every quantile
+     */
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.sum());
+        assertEquals(0, histogram.quantile(0.5), 0);
+        assertEquals(0, histogram.quantile(1), 0);
+    }
+
+    /**
+     * Test that small values are counted exactly, and that the count and sum are exact
+     */
+    @Test
+    public void testSmallValuesExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 0; value < 5; value++) histogram.record(value);
+        assertEquals(5, histogram.count());
+        assertEquals(10, histogram.sum());
+        assertEquals(0, histogram.quantile(0), 0);
+        assertEquals(2, histogram.quantile(0.5), 0);
+        assertEquals(4, histogram.quantile(1), 0);
+    }
+
+    /**
+     * Test that quantiles of values spread over many powers of two are within the histogram's error
+     */
+    @Test
+    public void testQuantilesWithinError() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) histogram.record(value * 1000);
+        double[] quantiles = {0.01, 0.25, 0.5, 0.9, 0.99, 0.999, 1};
+        for (double quantile : quantiles) {
+            double exact = Math.ceil(quantile * 100_000) * 1000;
+            assertEquals("quantile " + quantile, exact, histogram.quantile(quantile), exact * ERROR);
+        }
+        assertEquals(1000L * 100_000 * 100_001 / 2, histogram.sum());
+    }
+
+    /**
+     * Test that a single large value is read back within the histogram's error at every quantile
+     */
+    @Test
+    public void testSingleLargeValue() {
+        Histogram histogram = new Histogram();
+        histogram.record(123_456_789_012L);
+        assertEquals(123_456_789_012L, histogram.quantile(0.5), 123_456_789_012L * ERROR);
+        assertEquals(histogram.quantile(0.001), histogram.quantile(1), 0);
+    }
+
+    /**
+     * Test that values beyond the largest counted value are counted as it
+     */
+    @Test
+    public void testClampsLargeValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1, histogram.count());
+        assertEquals(Histogram.MAX_VALUE, histogram.sum());
+        assertEquals(Histogram.MAX_VALUE, histogram.quantile(1), Histogram.MAX_VALUE * ERROR);
+    }
+
+    /**
+     * Test that no value is lost when many threads record at once
+     */
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 100_000; i++) histogram.record(i % 8);
+                }
+            });
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(400_000, histogram.count());
+        assertEquals(4 * 12_500 * 28, histogram.sum());
+        assertEquals(3, histogram.quantile(0.5), 0);
+        assertEquals(7, histogram.quantile(1), 0);
+    }
+}
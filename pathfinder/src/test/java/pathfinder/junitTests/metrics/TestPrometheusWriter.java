@@ -0,0 +1,148 @@
+package pathfinder.junitTests.metrics;
+
+import graph.Graph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.CampusMap;
+import pathfinder.Closures;
+import pathfinder.DijkstraSearch;
+import pathfinder.SearchEngine;
+import pathfinder.datastructures.Path;
+import pathfinder.datastructures.Point;
+import pathfinder.metrics.Histogram;
+import pathfinder.metrics.PrometheusWriter;
+import pathfinder.metrics.SearchMetrics;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link PrometheusWriter} class, and of the metrics written with it by {@link SearchMetrics} and
+ * {@link CampusMap}.
+ */
+public class TestPrometheusWriter {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    /**
+     * Test that each family is introduced once, before its first sample
+     */
+    @Test
+    public void testDescribesFamilyOnce() {
+        String page = new PrometheusWriter().counter("requests_total", "Requests", 3, "path", "/a")
+                                            .counter("requests_total", "Requests", 4, "path", "/b")
+                                            .gauge("up", "Whether the server is up", 1)
+                                            .toString();
+        assertEquals("# HELP requests_total Requests\n"
+                     + "# TYPE requests_total counter\n"
+                     + "requests_total{path=\"/a\"} 3\n"
+                     + "requests_total{path=\"/b\"} 4\n"
+                     + "# HELP up Whether the server is up\n"
+                     + "# TYPE up gauge\n"
+                     + "up 1\n", page);
+    }
+
+    /**
+     * Test that quotes, backslashes and line breaks in label values are escaped
+     */
+    @Test
+    public void testEscapesLabelValues() {
+        String page = new PrometheusWriter().gauge("g", "G", 0.5, "name", "a\"b\\c\nd").toString();
+        assertTrue(page.endsWith("g{name=\"a\\\"b\\\\c\\nd\"} 0.5\n"));
+    }
+
+    /**
+     * Test that a summary writes its quantiles, sum and count, scaled
+     */
+    @Test
+    public void testSummary() {
+        Histogram histogram = new Histogram();
+        histogram.record(2);
+        histogram.record(4);
+        String page = new PrometheusWriter().summary("latency_seconds", "Latency", histogram, 0.5, "path", "/a")
+                                            .toString();
+        assertTrue(page.contains("# TYPE latency_seconds summary\n"));
+        assertTrue(page.contains("latency_seconds{path=\"/a\",quantile=\"0.5\"} 1\n"));
+        assertTrue(page.contains("latency_seconds{path=\"/a\",quantile=\"0.999\"} 2\n"));
+        assertTrue(page.contains("latency_seconds_sum{path=\"/a\"} 3\n"));
+        assertTrue(page.contains("latency_seconds_count{path=\"/a\"} 2\n"));
+    }
+
+    /**
+     * Test that a search records the nodes it settled and the entries it pushed
+     */
+    @Test
+    public void testSearchMetrics() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addEdge("A", "B", 1.0);
+        graph.addEdge("B", "C", 1.0);
+        graph.addEdge("A", "C", 3.0);
+        long searches = SearchMetrics.settled(SearchEngine.DIJKSTRA).count();
+        long settled = SearchMetrics.settled(SearchEngine.DIJKSTRA).sum();
+        assertEquals(2.0, DijkstraSearch.findPath(graph, "A", "C", null, SearchMetrics.recorder(SearchEngine.DIJKSTRA))
+                                        .getCost(), 0);
+        assertEquals(searches + 1, SearchMetrics.settled(SearchEngine.DIJKSTRA).count());
+        assertTrue(SearchMetrics.settled(SearchEngine.DIJKSTRA).sum() > settled);
+        assertEquals(searches + 1, SearchMetrics.pushes(SearchEngine.DIJKSTRA).count());
+        PrometheusWriter out = new PrometheusWriter();
+        SearchMetrics.write(out);
+        assertTrue(out.toString().contains("pathfinder_search_settled_nodes_count{engine=\"DIJKSTRA\"}"));
+    }
+
+    /**
+     * Test that searches not run by a campus map are not recorded
+     */
+    @Test
+    public void testUnrecordedSearch() {
+        Graph<String, Double> graph = new Graph<>();
+        graph.addEdge("A", "B", 1.0);
+        long searches = SearchMetrics.settled(SearchEngine.DIJKSTRA).count();
+        assertEquals(1.0, DijkstraSearch.findPath(graph, "A", "B").getCost(), 0);
+        assertEquals(searches, SearchMetrics.settled(SearchEngine.DIJKSTRA).count());
+    }
+
+    /**
+     * Test that the campus map records each query under the engine that answered it, and queries skipping closed
+     * edges apart from its engine's
+     */
+    @Test
+    public void testCampusMapRecordsEngine() {
+        for (SearchEngine engine : new SearchEngine[]{SearchEngine.BIDIRECTIONAL, SearchEngine.CONTRACTION_HIERARCHY,
+                                                      SearchEngine.ROUTE_TABLE}) {
+            CampusMap campusMap = new CampusMap(engine);
+            long searches = SearchMetrics.settled(engine).count();
+            long fallbacks = SearchMetrics.closureFallback().settled().count();
+            Path<Point> path = campusMap.findShortestPath("CSE", "MGH");
+            assertEquals(searches + 1, SearchMetrics.settled(engine).count());
+            assertEquals(searches + 1, SearchMetrics.pushes(engine).count());
+            Closures closed = new Closures(Collections.singletonList(Closures.Closure.path(path.getStart(),
+                                                                                           path.getEnd())));
+            campusMap.findShortestPath("CSE", "MGH", closed);
+            assertEquals(searches + 1, SearchMetrics.settled(engine).count());
+            assertEquals(fallbacks + 1, SearchMetrics.closureFallback().settled().count());
+            PrometheusWriter out = new PrometheusWriter();
+            SearchMetrics.write(out);
+            assertTrue(out.toString().contains("pathfinder_search_settled_nodes_count{engine=\"" + engine + "\"}"));
+            assertTrue(out.toString().contains("pathfinder_search_heap_pushes_count{engine=\"CLOSURE_FALLBACK\"}"));
+        }
+    }
+
+    /**
+     * Test that the campus map counts reachability lookups answered from its cache
+     */
+    @Test
+    public void testCampusMapCacheCounts() {
+        CampusMap campusMap = new CampusMap();
+        campusMap.reachableWithin("CSE", 500);
+        campusMap.reachableWithin("CSE", 500);
+        PrometheusWriter out = new PrometheusWriter();
+        campusMap.writeMetrics(out);
+        String page = out.toString();
+        assertTrue(page.contains("pathfinder_cache_requests_total{cache=\"reachability\",result=\"hit\"} 1\n"));
+        assertTrue(page.contains("pathfinder_cache_requests_total{cache=\"reachability\",result=\"miss\"} 1\n"));
+        assertTrue(page.contains("pathfinder_map_edges 5546\n"));
+    }
+}
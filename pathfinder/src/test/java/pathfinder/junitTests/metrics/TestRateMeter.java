@@ -0,0 +1,76 @@
+package pathfinder.junitTests.metrics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import pathfinder.metrics.RateMeter;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class contains test cases used for testing the implementation of the specifications
+ * of the {@link RateMeter} class.
+ */
+public class TestRateMeter {
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(10); // 10 seconds max per method tested
+
+    private static final double EPSILON = Math.pow(10.0D, -9.0D);
+
+    // A second well after the epoch, as the system clock would give
+    private static final long NOW = 1_700_000_000L;
+
+    /**
+     * Test that a meter with no events marked reads 0
+     */
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new RateMeter().perSecond(NOW), EPSILON);
+    }
+
+    /**
+     * Test that events in the last minute are averaged over the minute, leaving out the current second
+     */
+    @Test
+    public void testAveragesOverLastMinute() {
+        RateMeter meter = new RateMeter();
+        for (int second = 1; second <= RateMeter.SECONDS; second++) {
+            for (int i = 0; i < 3; i++) meter.mark(NOW - second);
+        }
+        meter.mark(NOW);
+        assertEquals(3, meter.perSecond(NOW), EPSILON);
+    }
+
+    /**
+     * Test that events more than a minute old are no longer counted, even in slots reused by newer events
+     */
+    @Test
+    public void testForgetsOldEvents() {
+        RateMeter meter = new RateMeter();
+        for (int i = 0; i < 60; i++) meter.mark(NOW - 1);
+        assertEquals(1, meter.perSecond(NOW), EPSILON);
+        assertEquals(0, meter.perSecond(NOW + RateMeter.SECONDS), EPSILON);
+        meter.mark(NOW - 1 + RateMeter.SECONDS);
+        assertEquals(1.0 / RateMeter.SECONDS, meter.perSecond(NOW + RateMeter.SECONDS), EPSILON);
+    }
+
+    /**
+     * Test that no event is lost when many threads mark the same second at once
+     */
+    @Test
+    public void testConcurrentMarks() throws InterruptedException {
+        RateMeter meter = new RateMeter();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 15_000; i++) meter.mark(NOW - 1);
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertEquals(60_000.0 / RateMeter.SECONDS, meter.perSecond(NOW), EPSILON);
+    }
+}